@@ -0,0 +1,61 @@
+package Fourier;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * 回転因子テーブルやFFTのプランを、データ長などのキーごとに共有する上限付きのキャッシュ。
+ * 取得はロックを取らずに行うため、並列に処理する行・列の変換から呼び出しても待たされません。
+ * 保持する数が上限を超えた場合は、先に追加されたものから破棄します。
+ * 破棄されたものを使用中のスレッドはそのまま使い続けられ、次に取得したときに作り直されます。
+ * @param <K> キーの型
+ * @param <V> 値の型
+ */
+final class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final Function<? super K, ? extends V> factory;
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+    private final Queue<K> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * キャッシュを作成します。
+     * @param maxSize 保持する数の上限
+     * @param factory キャッシュに無い場合に値を作成する関数
+     */
+    BoundedCache(int maxSize, Function<? super K, ? extends V> factory) {
+        this.maxSize = maxSize;
+        this.factory = factory;
+    }
+
+    /**
+     * キーに対応する値をキャッシュから取得します（無ければ作成してキャッシュします）。
+     * 大きなテーブルの作成中に他のスレッドを待たせないよう、値はロックの外で作成します。
+     * 同時に作成された場合は、先にキャッシュされた値を返します。
+     * @param key キー
+     * @return 共有の値
+     */
+    V get(K key) {
+        V value = entries.get(key);
+        if (value != null) {
+            return value;
+        }
+        V created = factory.apply(key);
+        value = entries.putIfAbsent(key, created);
+        if (value != null) {
+            return value;
+        }
+        insertionOrder.add(key);
+        while (entries.size() > maxSize) {
+            K eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            entries.remove(eldest);
+        }
+        return created;
+    }
+}
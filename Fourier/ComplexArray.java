@@ -0,0 +1,210 @@
+package Fourier;
+
+import java.util.Arrays;
+
+/**
+ * 複素数の配列を実部・虚部それぞれのdouble配列(Structure of Arrays)で表現するクラス。
+ * 要素ごとにComplexオブジェクトを生成しないため、ヒープ使用量とGC負荷を大きく削減でき、
+ * 連続したメモリ配置によりJITによるベクトル化も期待できます。
+ * 2次元データは行優先(row-major)で1本の配列に格納して扱います。
+ */
+public class ComplexArray implements ComplexBuffer {
+    private final double[] re; // 実部
+    private final double[] im; // 虚部
+
+    /**
+     * 全要素が0の複素数配列を作成します。
+     * @param length 要素数
+     */
+    public ComplexArray(int length) {
+        this.re = new double[length];
+        this.im = new double[length];
+    }
+
+    /**
+     * 実部・虚部の配列をそのまま保持する複素数配列を作成します（コピーしません）。
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @throws IllegalArgumentException 実部と虚部の長さが異なる場合
+     */
+    public ComplexArray(double[] re, double[] im) {
+        if (re.length != im.length) {
+            throw new IllegalArgumentException("Real and imaginary parts must have the same length.");
+        }
+        this.re = re;
+        this.im = im;
+    }
+
+    /**
+     * 実数配列から虚部0の複素数配列を作成します。
+     * @param data 実数配列
+     * @return 変換された複素数配列
+     */
+    public static ComplexArray fromReal(double[] data) {
+        return new ComplexArray(data.clone(), new double[data.length]);
+    }
+
+    /**
+     * 2次元実数配列から虚部0の複素数配列を行優先で作成します。
+     * @param data 2次元実数配列([rows][cols])
+     * @return 変換された複素数配列(長さrows*cols)
+     */
+    public static ComplexArray fromReal(double[][] data) {
+        int rows = data.length;
+        int cols = data[0].length;
+        ComplexArray array = new ComplexArray(rows * cols);
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(data[i], 0, array.re, i * cols, cols);
+        }
+        return array;
+    }
+
+    /**
+     * Complex配列から複素数配列を作成します。
+     * @param data Complex配列
+     * @return 変換された複素数配列
+     */
+    public static ComplexArray fromComplex(Complex[] data) {
+        ComplexArray array = new ComplexArray(data.length);
+        for (int i = 0; i < data.length; i++) {
+            array.re[i] = data[i].getReal();
+            array.im[i] = data[i].getImaginary();
+        }
+        return array;
+    }
+
+    /**
+     * 要素数を取得します。
+     * @return 要素数
+     */
+    @Override
+    public int length() {
+        return re.length;
+    }
+
+    /**
+     * 実部の配列を取得します（コピーではなく内部配列そのもの）。
+     * @return 実部の配列
+     */
+    public double[] getRealArray() {
+        return re;
+    }
+
+    /**
+     * 虚部の配列を取得します（コピーではなく内部配列そのもの）。
+     * @return 虚部の配列
+     */
+    public double[] getImaginaryArray() {
+        return im;
+    }
+
+    /**
+     * 指定位置の実部を取得します。
+     * @param index インデックス
+     * @return 実部
+     */
+    @Override
+    public double getReal(int index) {
+        return re[index];
+    }
+
+    /**
+     * 指定位置の虚部を取得します。
+     * @param index インデックス
+     * @return 虚部
+     */
+    @Override
+    public double getImaginary(int index) {
+        return im[index];
+    }
+
+    /**
+     * 指定位置の値を設定します。
+     * @param index インデックス
+     * @param real 実部
+     * @param imag 虚部
+     */
+    @Override
+    public void set(int index, double real, double imag) {
+        re[index] = real;
+        im[index] = imag;
+    }
+
+    /**
+     * 他の複素数配列の指定位置の値を、自身の同じ位置にコピーします。
+     * @param index インデックス
+     * @param src コピー元の複素数配列
+     */
+    public void set(int index, ComplexArray src) {
+        re[index] = src.re[index];
+        im[index] = src.im[index];
+    }
+
+    /**
+     * 指定位置の値をComplexオブジェクトとして取得します（新しいオブジェクトを返す）。
+     * @param index インデックス
+     * @return 複素数
+     */
+    public Complex get(int index) {
+        return new Complex(re[index], im[index]);
+    }
+
+    /**
+     * 指定位置の絶対値の2乗（パワー）を計算します。
+     * @param index インデックス
+     * @return 絶対値の2乗
+     */
+    @Override
+    public double magnitudeSquared(int index) {
+        return re[index] * re[index] + im[index] * im[index];
+    }
+
+    /**
+     * 他の複素数配列の内容を全て自身にコピーします。
+     * @param src コピー元の複素数配列（同じ長さ）
+     */
+    public void copyFrom(ComplexArray src) {
+        System.arraycopy(src.re, 0, re, 0, re.length);
+        System.arraycopy(src.im, 0, im, 0, im.length);
+    }
+
+    /**
+     * 全要素を0にします。
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(re, 0.0);
+        Arrays.fill(im, 0.0);
+    }
+
+    /**
+     * 全要素をスカラー倍します。
+     * @param alpha 倍率
+     */
+    public void scaleInPlace(double alpha) {
+        for (int i = 0; i < re.length; i++) {
+            re[i] *= alpha;
+            im[i] *= alpha;
+        }
+    }
+
+    /**
+     * 複素数配列のディープコピーを作成します。
+     * @return コピーされた複素数配列
+     */
+    public ComplexArray copy() {
+        return new ComplexArray(re.clone(), im.clone());
+    }
+
+    /**
+     * Complex配列に変換します。
+     * @return 変換されたComplex配列
+     */
+    public Complex[] toComplex() {
+        Complex[] data = new Complex[re.length];
+        for (int i = 0; i < re.length; i++) {
+            data[i] = new Complex(re[i], im[i]);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,42 @@
+package Fourier;
+
+/**
+ * 倍精度(ComplexArray)・単精度(ComplexFloatArray)の複素数配列に共通する要素操作のインターフェース。
+ * スペクトルの編集やパワースペクトルの計算のように、精度に依存しない処理を1つのコードで書くために使います。
+ * FFTの計算そのものは、それぞれの具象クラスを受け取るFFTUtilのメソッドで行います。
+ * 読み出しの操作はComplexViewから引き継ぎます。
+ */
+public interface ComplexBuffer extends ComplexView {
+
+    /**
+     * 指定位置の値を設定します（単精度の配列では最も近いfloat値に丸めます）。
+     * @param index インデックス
+     * @param real 実部
+     * @param imag 虚部
+     */
+    void set(int index, double real, double imag);
+
+    /**
+     * 全要素を0にします。
+     */
+    void clear();
+
+    /**
+     * 他の複素数配列の指定位置の値を、自身の同じ位置にコピーします（精度が異なっていても構いません）。
+     * @param index インデックス
+     * @param src コピー元の複素数配列
+     */
+    default void set(int index, ComplexView src) {
+        set(index, src.getReal(index), src.getImaginary(index));
+    }
+
+    /**
+     * 他の複素数配列の内容を全て自身にコピーします（精度が異なっていても構いません）。
+     * @param src コピー元の複素数配列（同じ長さ）
+     */
+    default void copyFrom(ComplexView src) {
+        for (int i = 0; i < length(); i++) {
+            set(i, src.getReal(i), src.getImaginary(i));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package Fourier;
+
+/**
+ * 複素数配列の要素を読み出すだけの、読み取り専用のインターフェース。
+ * 書き込みを伴う操作はComplexBufferが追加します。
+ * 値を保持せずに別の配列から計算する配列（編集状態のビットから求めるスペクトルなど）は、このインターフェースだけを実装します。
+ */
+public interface ComplexView {
+
+    /**
+     * 要素数を取得します。
+     * @return 要素数
+     */
+    int length();
+
+    /**
+     * 指定位置の実部を取得します。
+     * @param index インデックス
+     * @return 実部
+     */
+    double getReal(int index);
+
+    /**
+     * 指定位置の虚部を取得します。
+     * @param index インデックス
+     * @return 虚部
+     */
+    double getImaginary(int index);
+
+    /**
+     * 指定位置の絶対値の2乗（パワー）を計算します。
+     * @param index インデックス
+     * @return 絶対値の2乗
+     */
+    double magnitudeSquared(int index);
+}
@@ -0,0 +1,1168 @@
+package Fourier;
+
+// このファイルは tools/FFTCodeletGenerator.java によって生成されています。直接編集しないでください。
+// 再生成: make codelets
+
+/**
+ * 小さいサイズ(2〜32点)のFFTを完全に展開したコードレット集。
+ * 回転因子は定数として埋め込まれており、ループも再帰もありません。
+ * FFTUtilの各カーネルが、再帰や段の反復の末端(葉)で使用します。
+ * 回転因子は w = cos(2πk/N) + i*sign*sin(2πk/N) で、sign = -1 が順変換、sign = 1 が逆変換です。
+ */
+final class FFTCodelets {
+
+    /** コードレットが用意されている最大のサイズ */
+    static final int MAX_SIZE = 32;
+
+    private FFTCodelets() {
+    }
+
+    /**
+     * 長さnの範囲に対して対応するコードレットを実行します。自然順の入力を変換し、ビット反転順で出力します（周波数間引き再帰の葉に相当）。
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     * @param n 範囲の要素数(MAX_SIZE以下の2の冪乗)
+     * @param sign 順変換なら-1、逆変換なら1
+     */
+    static void dif(double[] re, double[] im, int off, int n, double sign) {
+        switch (n) {
+            case 1:
+                break;
+            case 2:
+                dif2(re, im, off);
+                break;
+            case 4:
+                dif4(re, im, off, sign);
+                break;
+            case 8:
+                dif8(re, im, off, sign);
+                break;
+            case 16:
+                dif16(re, im, off, sign);
+                break;
+            case 32:
+                dif32(re, im, off, sign);
+                break;
+            default:
+                throw new IllegalArgumentException("No codelet for size " + n);
+        }
+    }
+
+    /**
+     * 長さnの範囲に対して対応するコードレットを実行します。ビット反転順の入力を変換し、自然順で出力します（時間間引きの最初の段群に相当）。
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     * @param n 範囲の要素数(MAX_SIZE以下の2の冪乗)
+     * @param sign 順変換なら-1、逆変換なら1
+     */
+    static void dit(double[] re, double[] im, int off, int n, double sign) {
+        switch (n) {
+            case 1:
+                break;
+            case 2:
+                dit2(re, im, off);
+                break;
+            case 4:
+                dit4(re, im, off, sign);
+                break;
+            case 8:
+                dit8(re, im, off, sign);
+                break;
+            case 16:
+                dit16(re, im, off, sign);
+                break;
+            case 32:
+                dit32(re, im, off, sign);
+                break;
+            default:
+                throw new IllegalArgumentException("No codelet for size " + n);
+        }
+    }
+
+    /**
+     * 2点FFTのコードレット（自然順入力・ビット反転順出力）
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     */
+    static void dif2(double[] re, double[] im, int off) {
+        double r0 = re[off + 0], i0 = im[off + 0];
+        double r1 = re[off + 1], i1 = im[off + 1];
+        double tr, ti;
+        tr = r1; ti = i1;
+        r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+        re[off + 0] = r0;
+        im[off + 0] = i0;
+        re[off + 1] = r1;
+        im[off + 1] = i1;
+    }
+
+    /**
+     * 2点FFTのコードレット（ビット反転順入力・自然順出力）
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     */
+    static void dit2(double[] re, double[] im, int off) {
+        double r0 = re[off + 0], i0 = im[off + 0];
+        double r1 = re[off + 1], i1 = im[off + 1];
+        double tr, ti;
+        tr = r1; ti = i1;
+        r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+        re[off + 0] = r0;
+        im[off + 0] = i0;
+        re[off + 1] = r1;
+        im[off + 1] = i1;
+    }
+
+    /**
+     * 4点FFTのコードレット（自然順入力・ビット反転順出力）
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     * @param sign 順変換なら-1、逆変換なら1
+     */
+    static void dif4(double[] re, double[] im, int off, double sign) {
+        double r0 = re[off + 0], i0 = im[off + 0];
+        double r1 = re[off + 2], i1 = im[off + 2];
+        double r2 = re[off + 1], i2 = im[off + 1];
+        double r3 = re[off + 3], i3 = im[off + 3];
+        double tr, ti;
+        tr = r1; ti = i1;
+        r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r3; ti = i3;
+        r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r2; ti = i2;
+        r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+        tr = -sign * i3; ti = sign * r3;
+        r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+        re[off + 0] = r0;
+        im[off + 0] = i0;
+        re[off + 2] = r1;
+        im[off + 2] = i1;
+        re[off + 1] = r2;
+        im[off + 1] = i2;
+        re[off + 3] = r3;
+        im[off + 3] = i3;
+    }
+
+    /**
+     * 4点FFTのコードレット（ビット反転順入力・自然順出力）
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     * @param sign 順変換なら-1、逆変換なら1
+     */
+    static void dit4(double[] re, double[] im, int off, double sign) {
+        double r0 = re[off + 0], i0 = im[off + 0];
+        double r1 = re[off + 1], i1 = im[off + 1];
+        double r2 = re[off + 2], i2 = im[off + 2];
+        double r3 = re[off + 3], i3 = im[off + 3];
+        double tr, ti;
+        tr = r1; ti = i1;
+        r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r3; ti = i3;
+        r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r2; ti = i2;
+        r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+        tr = -sign * i3; ti = sign * r3;
+        r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+        re[off + 0] = r0;
+        im[off + 0] = i0;
+        re[off + 1] = r1;
+        im[off + 1] = i1;
+        re[off + 2] = r2;
+        im[off + 2] = i2;
+        re[off + 3] = r3;
+        im[off + 3] = i3;
+    }
+
+    /**
+     * 8点FFTのコードレット（自然順入力・ビット反転順出力）
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     * @param sign 順変換なら-1、逆変換なら1
+     */
+    static void dif8(double[] re, double[] im, int off, double sign) {
+        final double w0c = 0.7071067811865476;
+        final double w0s = sign * 0.7071067811865475;
+        final double w1c = -0.7071067811865475;
+        final double w1s = sign * 0.7071067811865476;
+        double r0 = re[off + 0], i0 = im[off + 0];
+        double r1 = re[off + 4], i1 = im[off + 4];
+        double r2 = re[off + 2], i2 = im[off + 2];
+        double r3 = re[off + 6], i3 = im[off + 6];
+        double r4 = re[off + 1], i4 = im[off + 1];
+        double r5 = re[off + 5], i5 = im[off + 5];
+        double r6 = re[off + 3], i6 = im[off + 3];
+        double r7 = re[off + 7], i7 = im[off + 7];
+        double tr, ti;
+        tr = r1; ti = i1;
+        r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r3; ti = i3;
+        r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r5; ti = i5;
+        r5 = r4 - tr; i5 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r7; ti = i7;
+        r7 = r6 - tr; i7 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r2; ti = i2;
+        r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+        tr = -sign * i3; ti = sign * r3;
+        r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r6; ti = i6;
+        r6 = r4 - tr; i6 = i4 - ti; r4 += tr; i4 += ti;
+        tr = -sign * i7; ti = sign * r7;
+        r7 = r5 - tr; i7 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r4; ti = i4;
+        r4 = r0 - tr; i4 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r5 * w0c - i5 * w0s; ti = i5 * w0c + r5 * w0s;
+        r5 = r1 - tr; i5 = i1 - ti; r1 += tr; i1 += ti;
+        tr = -sign * i6; ti = sign * r6;
+        r6 = r2 - tr; i6 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r7 * w1c - i7 * w1s; ti = i7 * w1c + r7 * w1s;
+        r7 = r3 - tr; i7 = i3 - ti; r3 += tr; i3 += ti;
+        re[off + 0] = r0;
+        im[off + 0] = i0;
+        re[off + 4] = r1;
+        im[off + 4] = i1;
+        re[off + 2] = r2;
+        im[off + 2] = i2;
+        re[off + 6] = r3;
+        im[off + 6] = i3;
+        re[off + 1] = r4;
+        im[off + 1] = i4;
+        re[off + 5] = r5;
+        im[off + 5] = i5;
+        re[off + 3] = r6;
+        im[off + 3] = i6;
+        re[off + 7] = r7;
+        im[off + 7] = i7;
+    }
+
+    /**
+     * 8点FFTのコードレット（ビット反転順入力・自然順出力）
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     * @param sign 順変換なら-1、逆変換なら1
+     */
+    static void dit8(double[] re, double[] im, int off, double sign) {
+        final double w0c = 0.7071067811865476;
+        final double w0s = sign * 0.7071067811865475;
+        final double w1c = -0.7071067811865475;
+        final double w1s = sign * 0.7071067811865476;
+        double r0 = re[off + 0], i0 = im[off + 0];
+        double r1 = re[off + 1], i1 = im[off + 1];
+        double r2 = re[off + 2], i2 = im[off + 2];
+        double r3 = re[off + 3], i3 = im[off + 3];
+        double r4 = re[off + 4], i4 = im[off + 4];
+        double r5 = re[off + 5], i5 = im[off + 5];
+        double r6 = re[off + 6], i6 = im[off + 6];
+        double r7 = re[off + 7], i7 = im[off + 7];
+        double tr, ti;
+        tr = r1; ti = i1;
+        r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r3; ti = i3;
+        r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r5; ti = i5;
+        r5 = r4 - tr; i5 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r7; ti = i7;
+        r7 = r6 - tr; i7 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r2; ti = i2;
+        r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+        tr = -sign * i3; ti = sign * r3;
+        r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r6; ti = i6;
+        r6 = r4 - tr; i6 = i4 - ti; r4 += tr; i4 += ti;
+        tr = -sign * i7; ti = sign * r7;
+        r7 = r5 - tr; i7 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r4; ti = i4;
+        r4 = r0 - tr; i4 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r5 * w0c - i5 * w0s; ti = i5 * w0c + r5 * w0s;
+        r5 = r1 - tr; i5 = i1 - ti; r1 += tr; i1 += ti;
+        tr = -sign * i6; ti = sign * r6;
+        r6 = r2 - tr; i6 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r7 * w1c - i7 * w1s; ti = i7 * w1c + r7 * w1s;
+        r7 = r3 - tr; i7 = i3 - ti; r3 += tr; i3 += ti;
+        re[off + 0] = r0;
+        im[off + 0] = i0;
+        re[off + 1] = r1;
+        im[off + 1] = i1;
+        re[off + 2] = r2;
+        im[off + 2] = i2;
+        re[off + 3] = r3;
+        im[off + 3] = i3;
+        re[off + 4] = r4;
+        im[off + 4] = i4;
+        re[off + 5] = r5;
+        im[off + 5] = i5;
+        re[off + 6] = r6;
+        im[off + 6] = i6;
+        re[off + 7] = r7;
+        im[off + 7] = i7;
+    }
+
+    /**
+     * 16点FFTのコードレット（自然順入力・ビット反転順出力）
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     * @param sign 順変換なら-1、逆変換なら1
+     */
+    static void dif16(double[] re, double[] im, int off, double sign) {
+        final double w0c = 0.7071067811865476;
+        final double w0s = sign * 0.7071067811865475;
+        final double w1c = -0.7071067811865475;
+        final double w1s = sign * 0.7071067811865476;
+        final double w2c = 0.9238795325112867;
+        final double w2s = sign * 0.3826834323650898;
+        final double w3c = 0.38268343236508984;
+        final double w3s = sign * 0.9238795325112867;
+        final double w4c = -0.3826834323650897;
+        final double w4s = sign * 0.9238795325112867;
+        final double w5c = -0.9238795325112867;
+        final double w5s = sign * 0.3826834323650899;
+        double r0 = re[off + 0], i0 = im[off + 0];
+        double r1 = re[off + 8], i1 = im[off + 8];
+        double r2 = re[off + 4], i2 = im[off + 4];
+        double r3 = re[off + 12], i3 = im[off + 12];
+        double r4 = re[off + 2], i4 = im[off + 2];
+        double r5 = re[off + 10], i5 = im[off + 10];
+        double r6 = re[off + 6], i6 = im[off + 6];
+        double r7 = re[off + 14], i7 = im[off + 14];
+        double r8 = re[off + 1], i8 = im[off + 1];
+        double r9 = re[off + 9], i9 = im[off + 9];
+        double r10 = re[off + 5], i10 = im[off + 5];
+        double r11 = re[off + 13], i11 = im[off + 13];
+        double r12 = re[off + 3], i12 = im[off + 3];
+        double r13 = re[off + 11], i13 = im[off + 11];
+        double r14 = re[off + 7], i14 = im[off + 7];
+        double r15 = re[off + 15], i15 = im[off + 15];
+        double tr, ti;
+        tr = r1; ti = i1;
+        r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r3; ti = i3;
+        r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r5; ti = i5;
+        r5 = r4 - tr; i5 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r7; ti = i7;
+        r7 = r6 - tr; i7 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r9; ti = i9;
+        r9 = r8 - tr; i9 = i8 - ti; r8 += tr; i8 += ti;
+        tr = r11; ti = i11;
+        r11 = r10 - tr; i11 = i10 - ti; r10 += tr; i10 += ti;
+        tr = r13; ti = i13;
+        r13 = r12 - tr; i13 = i12 - ti; r12 += tr; i12 += ti;
+        tr = r15; ti = i15;
+        r15 = r14 - tr; i15 = i14 - ti; r14 += tr; i14 += ti;
+        tr = r2; ti = i2;
+        r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+        tr = -sign * i3; ti = sign * r3;
+        r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r6; ti = i6;
+        r6 = r4 - tr; i6 = i4 - ti; r4 += tr; i4 += ti;
+        tr = -sign * i7; ti = sign * r7;
+        r7 = r5 - tr; i7 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r10; ti = i10;
+        r10 = r8 - tr; i10 = i8 - ti; r8 += tr; i8 += ti;
+        tr = -sign * i11; ti = sign * r11;
+        r11 = r9 - tr; i11 = i9 - ti; r9 += tr; i9 += ti;
+        tr = r14; ti = i14;
+        r14 = r12 - tr; i14 = i12 - ti; r12 += tr; i12 += ti;
+        tr = -sign * i15; ti = sign * r15;
+        r15 = r13 - tr; i15 = i13 - ti; r13 += tr; i13 += ti;
+        tr = r4; ti = i4;
+        r4 = r0 - tr; i4 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r5 * w0c - i5 * w0s; ti = i5 * w0c + r5 * w0s;
+        r5 = r1 - tr; i5 = i1 - ti; r1 += tr; i1 += ti;
+        tr = -sign * i6; ti = sign * r6;
+        r6 = r2 - tr; i6 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r7 * w1c - i7 * w1s; ti = i7 * w1c + r7 * w1s;
+        r7 = r3 - tr; i7 = i3 - ti; r3 += tr; i3 += ti;
+        tr = r12; ti = i12;
+        r12 = r8 - tr; i12 = i8 - ti; r8 += tr; i8 += ti;
+        tr = r13 * w0c - i13 * w0s; ti = i13 * w0c + r13 * w0s;
+        r13 = r9 - tr; i13 = i9 - ti; r9 += tr; i9 += ti;
+        tr = -sign * i14; ti = sign * r14;
+        r14 = r10 - tr; i14 = i10 - ti; r10 += tr; i10 += ti;
+        tr = r15 * w1c - i15 * w1s; ti = i15 * w1c + r15 * w1s;
+        r15 = r11 - tr; i15 = i11 - ti; r11 += tr; i11 += ti;
+        tr = r8; ti = i8;
+        r8 = r0 - tr; i8 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r9 * w2c - i9 * w2s; ti = i9 * w2c + r9 * w2s;
+        r9 = r1 - tr; i9 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r10 * w0c - i10 * w0s; ti = i10 * w0c + r10 * w0s;
+        r10 = r2 - tr; i10 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r11 * w3c - i11 * w3s; ti = i11 * w3c + r11 * w3s;
+        r11 = r3 - tr; i11 = i3 - ti; r3 += tr; i3 += ti;
+        tr = -sign * i12; ti = sign * r12;
+        r12 = r4 - tr; i12 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r13 * w4c - i13 * w4s; ti = i13 * w4c + r13 * w4s;
+        r13 = r5 - tr; i13 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r14 * w1c - i14 * w1s; ti = i14 * w1c + r14 * w1s;
+        r14 = r6 - tr; i14 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r15 * w5c - i15 * w5s; ti = i15 * w5c + r15 * w5s;
+        r15 = r7 - tr; i15 = i7 - ti; r7 += tr; i7 += ti;
+        re[off + 0] = r0;
+        im[off + 0] = i0;
+        re[off + 8] = r1;
+        im[off + 8] = i1;
+        re[off + 4] = r2;
+        im[off + 4] = i2;
+        re[off + 12] = r3;
+        im[off + 12] = i3;
+        re[off + 2] = r4;
+        im[off + 2] = i4;
+        re[off + 10] = r5;
+        im[off + 10] = i5;
+        re[off + 6] = r6;
+        im[off + 6] = i6;
+        re[off + 14] = r7;
+        im[off + 14] = i7;
+        re[off + 1] = r8;
+        im[off + 1] = i8;
+        re[off + 9] = r9;
+        im[off + 9] = i9;
+        re[off + 5] = r10;
+        im[off + 5] = i10;
+        re[off + 13] = r11;
+        im[off + 13] = i11;
+        re[off + 3] = r12;
+        im[off + 3] = i12;
+        re[off + 11] = r13;
+        im[off + 11] = i13;
+        re[off + 7] = r14;
+        im[off + 7] = i14;
+        re[off + 15] = r15;
+        im[off + 15] = i15;
+    }
+
+    /**
+     * 16点FFTのコードレット（ビット反転順入力・自然順出力）
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     * @param sign 順変換なら-1、逆変換なら1
+     */
+    static void dit16(double[] re, double[] im, int off, double sign) {
+        final double w0c = 0.7071067811865476;
+        final double w0s = sign * 0.7071067811865475;
+        final double w1c = -0.7071067811865475;
+        final double w1s = sign * 0.7071067811865476;
+        final double w2c = 0.9238795325112867;
+        final double w2s = sign * 0.3826834323650898;
+        final double w3c = 0.38268343236508984;
+        final double w3s = sign * 0.9238795325112867;
+        final double w4c = -0.3826834323650897;
+        final double w4s = sign * 0.9238795325112867;
+        final double w5c = -0.9238795325112867;
+        final double w5s = sign * 0.3826834323650899;
+        double r0 = re[off + 0], i0 = im[off + 0];
+        double r1 = re[off + 1], i1 = im[off + 1];
+        double r2 = re[off + 2], i2 = im[off + 2];
+        double r3 = re[off + 3], i3 = im[off + 3];
+        double r4 = re[off + 4], i4 = im[off + 4];
+        double r5 = re[off + 5], i5 = im[off + 5];
+        double r6 = re[off + 6], i6 = im[off + 6];
+        double r7 = re[off + 7], i7 = im[off + 7];
+        double r8 = re[off + 8], i8 = im[off + 8];
+        double r9 = re[off + 9], i9 = im[off + 9];
+        double r10 = re[off + 10], i10 = im[off + 10];
+        double r11 = re[off + 11], i11 = im[off + 11];
+        double r12 = re[off + 12], i12 = im[off + 12];
+        double r13 = re[off + 13], i13 = im[off + 13];
+        double r14 = re[off + 14], i14 = im[off + 14];
+        double r15 = re[off + 15], i15 = im[off + 15];
+        double tr, ti;
+        tr = r1; ti = i1;
+        r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r3; ti = i3;
+        r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r5; ti = i5;
+        r5 = r4 - tr; i5 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r7; ti = i7;
+        r7 = r6 - tr; i7 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r9; ti = i9;
+        r9 = r8 - tr; i9 = i8 - ti; r8 += tr; i8 += ti;
+        tr = r11; ti = i11;
+        r11 = r10 - tr; i11 = i10 - ti; r10 += tr; i10 += ti;
+        tr = r13; ti = i13;
+        r13 = r12 - tr; i13 = i12 - ti; r12 += tr; i12 += ti;
+        tr = r15; ti = i15;
+        r15 = r14 - tr; i15 = i14 - ti; r14 += tr; i14 += ti;
+        tr = r2; ti = i2;
+        r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+        tr = -sign * i3; ti = sign * r3;
+        r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r6; ti = i6;
+        r6 = r4 - tr; i6 = i4 - ti; r4 += tr; i4 += ti;
+        tr = -sign * i7; ti = sign * r7;
+        r7 = r5 - tr; i7 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r10; ti = i10;
+        r10 = r8 - tr; i10 = i8 - ti; r8 += tr; i8 += ti;
+        tr = -sign * i11; ti = sign * r11;
+        r11 = r9 - tr; i11 = i9 - ti; r9 += tr; i9 += ti;
+        tr = r14; ti = i14;
+        r14 = r12 - tr; i14 = i12 - ti; r12 += tr; i12 += ti;
+        tr = -sign * i15; ti = sign * r15;
+        r15 = r13 - tr; i15 = i13 - ti; r13 += tr; i13 += ti;
+        tr = r4; ti = i4;
+        r4 = r0 - tr; i4 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r5 * w0c - i5 * w0s; ti = i5 * w0c + r5 * w0s;
+        r5 = r1 - tr; i5 = i1 - ti; r1 += tr; i1 += ti;
+        tr = -sign * i6; ti = sign * r6;
+        r6 = r2 - tr; i6 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r7 * w1c - i7 * w1s; ti = i7 * w1c + r7 * w1s;
+        r7 = r3 - tr; i7 = i3 - ti; r3 += tr; i3 += ti;
+        tr = r12; ti = i12;
+        r12 = r8 - tr; i12 = i8 - ti; r8 += tr; i8 += ti;
+        tr = r13 * w0c - i13 * w0s; ti = i13 * w0c + r13 * w0s;
+        r13 = r9 - tr; i13 = i9 - ti; r9 += tr; i9 += ti;
+        tr = -sign * i14; ti = sign * r14;
+        r14 = r10 - tr; i14 = i10 - ti; r10 += tr; i10 += ti;
+        tr = r15 * w1c - i15 * w1s; ti = i15 * w1c + r15 * w1s;
+        r15 = r11 - tr; i15 = i11 - ti; r11 += tr; i11 += ti;
+        tr = r8; ti = i8;
+        r8 = r0 - tr; i8 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r9 * w2c - i9 * w2s; ti = i9 * w2c + r9 * w2s;
+        r9 = r1 - tr; i9 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r10 * w0c - i10 * w0s; ti = i10 * w0c + r10 * w0s;
+        r10 = r2 - tr; i10 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r11 * w3c - i11 * w3s; ti = i11 * w3c + r11 * w3s;
+        r11 = r3 - tr; i11 = i3 - ti; r3 += tr; i3 += ti;
+        tr = -sign * i12; ti = sign * r12;
+        r12 = r4 - tr; i12 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r13 * w4c - i13 * w4s; ti = i13 * w4c + r13 * w4s;
+        r13 = r5 - tr; i13 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r14 * w1c - i14 * w1s; ti = i14 * w1c + r14 * w1s;
+        r14 = r6 - tr; i14 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r15 * w5c - i15 * w5s; ti = i15 * w5c + r15 * w5s;
+        r15 = r7 - tr; i15 = i7 - ti; r7 += tr; i7 += ti;
+        re[off + 0] = r0;
+        im[off + 0] = i0;
+        re[off + 1] = r1;
+        im[off + 1] = i1;
+        re[off + 2] = r2;
+        im[off + 2] = i2;
+        re[off + 3] = r3;
+        im[off + 3] = i3;
+        re[off + 4] = r4;
+        im[off + 4] = i4;
+        re[off + 5] = r5;
+        im[off + 5] = i5;
+        re[off + 6] = r6;
+        im[off + 6] = i6;
+        re[off + 7] = r7;
+        im[off + 7] = i7;
+        re[off + 8] = r8;
+        im[off + 8] = i8;
+        re[off + 9] = r9;
+        im[off + 9] = i9;
+        re[off + 10] = r10;
+        im[off + 10] = i10;
+        re[off + 11] = r11;
+        im[off + 11] = i11;
+        re[off + 12] = r12;
+        im[off + 12] = i12;
+        re[off + 13] = r13;
+        im[off + 13] = i13;
+        re[off + 14] = r14;
+        im[off + 14] = i14;
+        re[off + 15] = r15;
+        im[off + 15] = i15;
+    }
+
+    /**
+     * 32点FFTのコードレット（自然順入力・ビット反転順出力）
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     * @param sign 順変換なら-1、逆変換なら1
+     */
+    static void dif32(double[] re, double[] im, int off, double sign) {
+        final double w0c = 0.7071067811865476;
+        final double w0s = sign * 0.7071067811865475;
+        final double w1c = -0.7071067811865475;
+        final double w1s = sign * 0.7071067811865476;
+        final double w2c = 0.9238795325112867;
+        final double w2s = sign * 0.3826834323650898;
+        final double w3c = 0.38268343236508984;
+        final double w3s = sign * 0.9238795325112867;
+        final double w4c = -0.3826834323650897;
+        final double w4s = sign * 0.9238795325112867;
+        final double w5c = -0.9238795325112867;
+        final double w5s = sign * 0.3826834323650899;
+        final double w6c = 0.9807852804032304;
+        final double w6s = sign * 0.19509032201612825;
+        final double w7c = 0.8314696123025452;
+        final double w7s = sign * 0.5555702330196022;
+        final double w8c = 0.5555702330196023;
+        final double w8s = sign * 0.8314696123025452;
+        final double w9c = 0.19509032201612833;
+        final double w9s = sign * 0.9807852804032304;
+        final double w10c = -0.1950903220161282;
+        final double w10s = sign * 0.9807852804032304;
+        final double w11c = -0.555570233019602;
+        final double w11s = sign * 0.8314696123025455;
+        final double w12c = -0.8314696123025453;
+        final double w12s = sign * 0.5555702330196022;
+        final double w13c = -0.9807852804032304;
+        final double w13s = sign * 0.1950903220161286;
+        double r0 = re[off + 0], i0 = im[off + 0];
+        double r1 = re[off + 16], i1 = im[off + 16];
+        double r2 = re[off + 8], i2 = im[off + 8];
+        double r3 = re[off + 24], i3 = im[off + 24];
+        double r4 = re[off + 4], i4 = im[off + 4];
+        double r5 = re[off + 20], i5 = im[off + 20];
+        double r6 = re[off + 12], i6 = im[off + 12];
+        double r7 = re[off + 28], i7 = im[off + 28];
+        double r8 = re[off + 2], i8 = im[off + 2];
+        double r9 = re[off + 18], i9 = im[off + 18];
+        double r10 = re[off + 10], i10 = im[off + 10];
+        double r11 = re[off + 26], i11 = im[off + 26];
+        double r12 = re[off + 6], i12 = im[off + 6];
+        double r13 = re[off + 22], i13 = im[off + 22];
+        double r14 = re[off + 14], i14 = im[off + 14];
+        double r15 = re[off + 30], i15 = im[off + 30];
+        double r16 = re[off + 1], i16 = im[off + 1];
+        double r17 = re[off + 17], i17 = im[off + 17];
+        double r18 = re[off + 9], i18 = im[off + 9];
+        double r19 = re[off + 25], i19 = im[off + 25];
+        double r20 = re[off + 5], i20 = im[off + 5];
+        double r21 = re[off + 21], i21 = im[off + 21];
+        double r22 = re[off + 13], i22 = im[off + 13];
+        double r23 = re[off + 29], i23 = im[off + 29];
+        double r24 = re[off + 3], i24 = im[off + 3];
+        double r25 = re[off + 19], i25 = im[off + 19];
+        double r26 = re[off + 11], i26 = im[off + 11];
+        double r27 = re[off + 27], i27 = im[off + 27];
+        double r28 = re[off + 7], i28 = im[off + 7];
+        double r29 = re[off + 23], i29 = im[off + 23];
+        double r30 = re[off + 15], i30 = im[off + 15];
+        double r31 = re[off + 31], i31 = im[off + 31];
+        double tr, ti;
+        tr = r1; ti = i1;
+        r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r3; ti = i3;
+        r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r5; ti = i5;
+        r5 = r4 - tr; i5 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r7; ti = i7;
+        r7 = r6 - tr; i7 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r9; ti = i9;
+        r9 = r8 - tr; i9 = i8 - ti; r8 += tr; i8 += ti;
+        tr = r11; ti = i11;
+        r11 = r10 - tr; i11 = i10 - ti; r10 += tr; i10 += ti;
+        tr = r13; ti = i13;
+        r13 = r12 - tr; i13 = i12 - ti; r12 += tr; i12 += ti;
+        tr = r15; ti = i15;
+        r15 = r14 - tr; i15 = i14 - ti; r14 += tr; i14 += ti;
+        tr = r17; ti = i17;
+        r17 = r16 - tr; i17 = i16 - ti; r16 += tr; i16 += ti;
+        tr = r19; ti = i19;
+        r19 = r18 - tr; i19 = i18 - ti; r18 += tr; i18 += ti;
+        tr = r21; ti = i21;
+        r21 = r20 - tr; i21 = i20 - ti; r20 += tr; i20 += ti;
+        tr = r23; ti = i23;
+        r23 = r22 - tr; i23 = i22 - ti; r22 += tr; i22 += ti;
+        tr = r25; ti = i25;
+        r25 = r24 - tr; i25 = i24 - ti; r24 += tr; i24 += ti;
+        tr = r27; ti = i27;
+        r27 = r26 - tr; i27 = i26 - ti; r26 += tr; i26 += ti;
+        tr = r29; ti = i29;
+        r29 = r28 - tr; i29 = i28 - ti; r28 += tr; i28 += ti;
+        tr = r31; ti = i31;
+        r31 = r30 - tr; i31 = i30 - ti; r30 += tr; i30 += ti;
+        tr = r2; ti = i2;
+        r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+        tr = -sign * i3; ti = sign * r3;
+        r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r6; ti = i6;
+        r6 = r4 - tr; i6 = i4 - ti; r4 += tr; i4 += ti;
+        tr = -sign * i7; ti = sign * r7;
+        r7 = r5 - tr; i7 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r10; ti = i10;
+        r10 = r8 - tr; i10 = i8 - ti; r8 += tr; i8 += ti;
+        tr = -sign * i11; ti = sign * r11;
+        r11 = r9 - tr; i11 = i9 - ti; r9 += tr; i9 += ti;
+        tr = r14; ti = i14;
+        r14 = r12 - tr; i14 = i12 - ti; r12 += tr; i12 += ti;
+        tr = -sign * i15; ti = sign * r15;
+        r15 = r13 - tr; i15 = i13 - ti; r13 += tr; i13 += ti;
+        tr = r18; ti = i18;
+        r18 = r16 - tr; i18 = i16 - ti; r16 += tr; i16 += ti;
+        tr = -sign * i19; ti = sign * r19;
+        r19 = r17 - tr; i19 = i17 - ti; r17 += tr; i17 += ti;
+        tr = r22; ti = i22;
+        r22 = r20 - tr; i22 = i20 - ti; r20 += tr; i20 += ti;
+        tr = -sign * i23; ti = sign * r23;
+        r23 = r21 - tr; i23 = i21 - ti; r21 += tr; i21 += ti;
+        tr = r26; ti = i26;
+        r26 = r24 - tr; i26 = i24 - ti; r24 += tr; i24 += ti;
+        tr = -sign * i27; ti = sign * r27;
+        r27 = r25 - tr; i27 = i25 - ti; r25 += tr; i25 += ti;
+        tr = r30; ti = i30;
+        r30 = r28 - tr; i30 = i28 - ti; r28 += tr; i28 += ti;
+        tr = -sign * i31; ti = sign * r31;
+        r31 = r29 - tr; i31 = i29 - ti; r29 += tr; i29 += ti;
+        tr = r4; ti = i4;
+        r4 = r0 - tr; i4 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r5 * w0c - i5 * w0s; ti = i5 * w0c + r5 * w0s;
+        r5 = r1 - tr; i5 = i1 - ti; r1 += tr; i1 += ti;
+        tr = -sign * i6; ti = sign * r6;
+        r6 = r2 - tr; i6 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r7 * w1c - i7 * w1s; ti = i7 * w1c + r7 * w1s;
+        r7 = r3 - tr; i7 = i3 - ti; r3 += tr; i3 += ti;
+        tr = r12; ti = i12;
+        r12 = r8 - tr; i12 = i8 - ti; r8 += tr; i8 += ti;
+        tr = r13 * w0c - i13 * w0s; ti = i13 * w0c + r13 * w0s;
+        r13 = r9 - tr; i13 = i9 - ti; r9 += tr; i9 += ti;
+        tr = -sign * i14; ti = sign * r14;
+        r14 = r10 - tr; i14 = i10 - ti; r10 += tr; i10 += ti;
+        tr = r15 * w1c - i15 * w1s; ti = i15 * w1c + r15 * w1s;
+        r15 = r11 - tr; i15 = i11 - ti; r11 += tr; i11 += ti;
+        tr = r20; ti = i20;
+        r20 = r16 - tr; i20 = i16 - ti; r16 += tr; i16 += ti;
+        tr = r21 * w0c - i21 * w0s; ti = i21 * w0c + r21 * w0s;
+        r21 = r17 - tr; i21 = i17 - ti; r17 += tr; i17 += ti;
+        tr = -sign * i22; ti = sign * r22;
+        r22 = r18 - tr; i22 = i18 - ti; r18 += tr; i18 += ti;
+        tr = r23 * w1c - i23 * w1s; ti = i23 * w1c + r23 * w1s;
+        r23 = r19 - tr; i23 = i19 - ti; r19 += tr; i19 += ti;
+        tr = r28; ti = i28;
+        r28 = r24 - tr; i28 = i24 - ti; r24 += tr; i24 += ti;
+        tr = r29 * w0c - i29 * w0s; ti = i29 * w0c + r29 * w0s;
+        r29 = r25 - tr; i29 = i25 - ti; r25 += tr; i25 += ti;
+        tr = -sign * i30; ti = sign * r30;
+        r30 = r26 - tr; i30 = i26 - ti; r26 += tr; i26 += ti;
+        tr = r31 * w1c - i31 * w1s; ti = i31 * w1c + r31 * w1s;
+        r31 = r27 - tr; i31 = i27 - ti; r27 += tr; i27 += ti;
+        tr = r8; ti = i8;
+        r8 = r0 - tr; i8 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r9 * w2c - i9 * w2s; ti = i9 * w2c + r9 * w2s;
+        r9 = r1 - tr; i9 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r10 * w0c - i10 * w0s; ti = i10 * w0c + r10 * w0s;
+        r10 = r2 - tr; i10 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r11 * w3c - i11 * w3s; ti = i11 * w3c + r11 * w3s;
+        r11 = r3 - tr; i11 = i3 - ti; r3 += tr; i3 += ti;
+        tr = -sign * i12; ti = sign * r12;
+        r12 = r4 - tr; i12 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r13 * w4c - i13 * w4s; ti = i13 * w4c + r13 * w4s;
+        r13 = r5 - tr; i13 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r14 * w1c - i14 * w1s; ti = i14 * w1c + r14 * w1s;
+        r14 = r6 - tr; i14 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r15 * w5c - i15 * w5s; ti = i15 * w5c + r15 * w5s;
+        r15 = r7 - tr; i15 = i7 - ti; r7 += tr; i7 += ti;
+        tr = r24; ti = i24;
+        r24 = r16 - tr; i24 = i16 - ti; r16 += tr; i16 += ti;
+        tr = r25 * w2c - i25 * w2s; ti = i25 * w2c + r25 * w2s;
+        r25 = r17 - tr; i25 = i17 - ti; r17 += tr; i17 += ti;
+        tr = r26 * w0c - i26 * w0s; ti = i26 * w0c + r26 * w0s;
+        r26 = r18 - tr; i26 = i18 - ti; r18 += tr; i18 += ti;
+        tr = r27 * w3c - i27 * w3s; ti = i27 * w3c + r27 * w3s;
+        r27 = r19 - tr; i27 = i19 - ti; r19 += tr; i19 += ti;
+        tr = -sign * i28; ti = sign * r28;
+        r28 = r20 - tr; i28 = i20 - ti; r20 += tr; i20 += ti;
+        tr = r29 * w4c - i29 * w4s; ti = i29 * w4c + r29 * w4s;
+        r29 = r21 - tr; i29 = i21 - ti; r21 += tr; i21 += ti;
+        tr = r30 * w1c - i30 * w1s; ti = i30 * w1c + r30 * w1s;
+        r30 = r22 - tr; i30 = i22 - ti; r22 += tr; i22 += ti;
+        tr = r31 * w5c - i31 * w5s; ti = i31 * w5c + r31 * w5s;
+        r31 = r23 - tr; i31 = i23 - ti; r23 += tr; i23 += ti;
+        tr = r16; ti = i16;
+        r16 = r0 - tr; i16 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r17 * w6c - i17 * w6s; ti = i17 * w6c + r17 * w6s;
+        r17 = r1 - tr; i17 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r18 * w2c - i18 * w2s; ti = i18 * w2c + r18 * w2s;
+        r18 = r2 - tr; i18 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r19 * w7c - i19 * w7s; ti = i19 * w7c + r19 * w7s;
+        r19 = r3 - tr; i19 = i3 - ti; r3 += tr; i3 += ti;
+        tr = r20 * w0c - i20 * w0s; ti = i20 * w0c + r20 * w0s;
+        r20 = r4 - tr; i20 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r21 * w8c - i21 * w8s; ti = i21 * w8c + r21 * w8s;
+        r21 = r5 - tr; i21 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r22 * w3c - i22 * w3s; ti = i22 * w3c + r22 * w3s;
+        r22 = r6 - tr; i22 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r23 * w9c - i23 * w9s; ti = i23 * w9c + r23 * w9s;
+        r23 = r7 - tr; i23 = i7 - ti; r7 += tr; i7 += ti;
+        tr = -sign * i24; ti = sign * r24;
+        r24 = r8 - tr; i24 = i8 - ti; r8 += tr; i8 += ti;
+        tr = r25 * w10c - i25 * w10s; ti = i25 * w10c + r25 * w10s;
+        r25 = r9 - tr; i25 = i9 - ti; r9 += tr; i9 += ti;
+        tr = r26 * w4c - i26 * w4s; ti = i26 * w4c + r26 * w4s;
+        r26 = r10 - tr; i26 = i10 - ti; r10 += tr; i10 += ti;
+        tr = r27 * w11c - i27 * w11s; ti = i27 * w11c + r27 * w11s;
+        r27 = r11 - tr; i27 = i11 - ti; r11 += tr; i11 += ti;
+        tr = r28 * w1c - i28 * w1s; ti = i28 * w1c + r28 * w1s;
+        r28 = r12 - tr; i28 = i12 - ti; r12 += tr; i12 += ti;
+        tr = r29 * w12c - i29 * w12s; ti = i29 * w12c + r29 * w12s;
+        r29 = r13 - tr; i29 = i13 - ti; r13 += tr; i13 += ti;
+        tr = r30 * w5c - i30 * w5s; ti = i30 * w5c + r30 * w5s;
+        r30 = r14 - tr; i30 = i14 - ti; r14 += tr; i14 += ti;
+        tr = r31 * w13c - i31 * w13s; ti = i31 * w13c + r31 * w13s;
+        r31 = r15 - tr; i31 = i15 - ti; r15 += tr; i15 += ti;
+        re[off + 0] = r0;
+        im[off + 0] = i0;
+        re[off + 16] = r1;
+        im[off + 16] = i1;
+        re[off + 8] = r2;
+        im[off + 8] = i2;
+        re[off + 24] = r3;
+        im[off + 24] = i3;
+        re[off + 4] = r4;
+        im[off + 4] = i4;
+        re[off + 20] = r5;
+        im[off + 20] = i5;
+        re[off + 12] = r6;
+        im[off + 12] = i6;
+        re[off + 28] = r7;
+        im[off + 28] = i7;
+        re[off + 2] = r8;
+        im[off + 2] = i8;
+        re[off + 18] = r9;
+        im[off + 18] = i9;
+        re[off + 10] = r10;
+        im[off + 10] = i10;
+        re[off + 26] = r11;
+        im[off + 26] = i11;
+        re[off + 6] = r12;
+        im[off + 6] = i12;
+        re[off + 22] = r13;
+        im[off + 22] = i13;
+        re[off + 14] = r14;
+        im[off + 14] = i14;
+        re[off + 30] = r15;
+        im[off + 30] = i15;
+        re[off + 1] = r16;
+        im[off + 1] = i16;
+        re[off + 17] = r17;
+        im[off + 17] = i17;
+        re[off + 9] = r18;
+        im[off + 9] = i18;
+        re[off + 25] = r19;
+        im[off + 25] = i19;
+        re[off + 5] = r20;
+        im[off + 5] = i20;
+        re[off + 21] = r21;
+        im[off + 21] = i21;
+        re[off + 13] = r22;
+        im[off + 13] = i22;
+        re[off + 29] = r23;
+        im[off + 29] = i23;
+        re[off + 3] = r24;
+        im[off + 3] = i24;
+        re[off + 19] = r25;
+        im[off + 19] = i25;
+        re[off + 11] = r26;
+        im[off + 11] = i26;
+        re[off + 27] = r27;
+        im[off + 27] = i27;
+        re[off + 7] = r28;
+        im[off + 7] = i28;
+        re[off + 23] = r29;
+        im[off + 23] = i29;
+        re[off + 15] = r30;
+        im[off + 15] = i30;
+        re[off + 31] = r31;
+        im[off + 31] = i31;
+    }
+
+    /**
+     * 32点FFTのコードレット（ビット反転順入力・自然順出力）
+     * @param re 実部の配列
+     * @param im 虚部の配列
+     * @param off 範囲の開始インデックス
+     * @param sign 順変換なら-1、逆変換なら1
+     */
+    static void dit32(double[] re, double[] im, int off, double sign) {
+        final double w0c = 0.7071067811865476;
+        final double w0s = sign * 0.7071067811865475;
+        final double w1c = -0.7071067811865475;
+        final double w1s = sign * 0.7071067811865476;
+        final double w2c = 0.9238795325112867;
+        final double w2s = sign * 0.3826834323650898;
+        final double w3c = 0.38268343236508984;
+        final double w3s = sign * 0.9238795325112867;
+        final double w4c = -0.3826834323650897;
+        final double w4s = sign * 0.9238795325112867;
+        final double w5c = -0.9238795325112867;
+        final double w5s = sign * 0.3826834323650899;
+        final double w6c = 0.9807852804032304;
+        final double w6s = sign * 0.19509032201612825;
+        final double w7c = 0.8314696123025452;
+        final double w7s = sign * 0.5555702330196022;
+        final double w8c = 0.5555702330196023;
+        final double w8s = sign * 0.8314696123025452;
+        final double w9c = 0.19509032201612833;
+        final double w9s = sign * 0.9807852804032304;
+        final double w10c = -0.1950903220161282;
+        final double w10s = sign * 0.9807852804032304;
+        final double w11c = -0.555570233019602;
+        final double w11s = sign * 0.8314696123025455;
+        final double w12c = -0.8314696123025453;
+        final double w12s = sign * 0.5555702330196022;
+        final double w13c = -0.9807852804032304;
+        final double w13s = sign * 0.1950903220161286;
+        double r0 = re[off + 0], i0 = im[off + 0];
+        double r1 = re[off + 1], i1 = im[off + 1];
+        double r2 = re[off + 2], i2 = im[off + 2];
+        double r3 = re[off + 3], i3 = im[off + 3];
+        double r4 = re[off + 4], i4 = im[off + 4];
+        double r5 = re[off + 5], i5 = im[off + 5];
+        double r6 = re[off + 6], i6 = im[off + 6];
+        double r7 = re[off + 7], i7 = im[off + 7];
+        double r8 = re[off + 8], i8 = im[off + 8];
+        double r9 = re[off + 9], i9 = im[off + 9];
+        double r10 = re[off + 10], i10 = im[off + 10];
+        double r11 = re[off + 11], i11 = im[off + 11];
+        double r12 = re[off + 12], i12 = im[off + 12];
+        double r13 = re[off + 13], i13 = im[off + 13];
+        double r14 = re[off + 14], i14 = im[off + 14];
+        double r15 = re[off + 15], i15 = im[off + 15];
+        double r16 = re[off + 16], i16 = im[off + 16];
+        double r17 = re[off + 17], i17 = im[off + 17];
+        double r18 = re[off + 18], i18 = im[off + 18];
+        double r19 = re[off + 19], i19 = im[off + 19];
+        double r20 = re[off + 20], i20 = im[off + 20];
+        double r21 = re[off + 21], i21 = im[off + 21];
+        double r22 = re[off + 22], i22 = im[off + 22];
+        double r23 = re[off + 23], i23 = im[off + 23];
+        double r24 = re[off + 24], i24 = im[off + 24];
+        double r25 = re[off + 25], i25 = im[off + 25];
+        double r26 = re[off + 26], i26 = im[off + 26];
+        double r27 = re[off + 27], i27 = im[off + 27];
+        double r28 = re[off + 28], i28 = im[off + 28];
+        double r29 = re[off + 29], i29 = im[off + 29];
+        double r30 = re[off + 30], i30 = im[off + 30];
+        double r31 = re[off + 31], i31 = im[off + 31];
+        double tr, ti;
+        tr = r1; ti = i1;
+        r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r3; ti = i3;
+        r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r5; ti = i5;
+        r5 = r4 - tr; i5 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r7; ti = i7;
+        r7 = r6 - tr; i7 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r9; ti = i9;
+        r9 = r8 - tr; i9 = i8 - ti; r8 += tr; i8 += ti;
+        tr = r11; ti = i11;
+        r11 = r10 - tr; i11 = i10 - ti; r10 += tr; i10 += ti;
+        tr = r13; ti = i13;
+        r13 = r12 - tr; i13 = i12 - ti; r12 += tr; i12 += ti;
+        tr = r15; ti = i15;
+        r15 = r14 - tr; i15 = i14 - ti; r14 += tr; i14 += ti;
+        tr = r17; ti = i17;
+        r17 = r16 - tr; i17 = i16 - ti; r16 += tr; i16 += ti;
+        tr = r19; ti = i19;
+        r19 = r18 - tr; i19 = i18 - ti; r18 += tr; i18 += ti;
+        tr = r21; ti = i21;
+        r21 = r20 - tr; i21 = i20 - ti; r20 += tr; i20 += ti;
+        tr = r23; ti = i23;
+        r23 = r22 - tr; i23 = i22 - ti; r22 += tr; i22 += ti;
+        tr = r25; ti = i25;
+        r25 = r24 - tr; i25 = i24 - ti; r24 += tr; i24 += ti;
+        tr = r27; ti = i27;
+        r27 = r26 - tr; i27 = i26 - ti; r26 += tr; i26 += ti;
+        tr = r29; ti = i29;
+        r29 = r28 - tr; i29 = i28 - ti; r28 += tr; i28 += ti;
+        tr = r31; ti = i31;
+        r31 = r30 - tr; i31 = i30 - ti; r30 += tr; i30 += ti;
+        tr = r2; ti = i2;
+        r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+        tr = -sign * i3; ti = sign * r3;
+        r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r6; ti = i6;
+        r6 = r4 - tr; i6 = i4 - ti; r4 += tr; i4 += ti;
+        tr = -sign * i7; ti = sign * r7;
+        r7 = r5 - tr; i7 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r10; ti = i10;
+        r10 = r8 - tr; i10 = i8 - ti; r8 += tr; i8 += ti;
+        tr = -sign * i11; ti = sign * r11;
+        r11 = r9 - tr; i11 = i9 - ti; r9 += tr; i9 += ti;
+        tr = r14; ti = i14;
+        r14 = r12 - tr; i14 = i12 - ti; r12 += tr; i12 += ti;
+        tr = -sign * i15; ti = sign * r15;
+        r15 = r13 - tr; i15 = i13 - ti; r13 += tr; i13 += ti;
+        tr = r18; ti = i18;
+        r18 = r16 - tr; i18 = i16 - ti; r16 += tr; i16 += ti;
+        tr = -sign * i19; ti = sign * r19;
+        r19 = r17 - tr; i19 = i17 - ti; r17 += tr; i17 += ti;
+        tr = r22; ti = i22;
+        r22 = r20 - tr; i22 = i20 - ti; r20 += tr; i20 += ti;
+        tr = -sign * i23; ti = sign * r23;
+        r23 = r21 - tr; i23 = i21 - ti; r21 += tr; i21 += ti;
+        tr = r26; ti = i26;
+        r26 = r24 - tr; i26 = i24 - ti; r24 += tr; i24 += ti;
+        tr = -sign * i27; ti = sign * r27;
+        r27 = r25 - tr; i27 = i25 - ti; r25 += tr; i25 += ti;
+        tr = r30; ti = i30;
+        r30 = r28 - tr; i30 = i28 - ti; r28 += tr; i28 += ti;
+        tr = -sign * i31; ti = sign * r31;
+        r31 = r29 - tr; i31 = i29 - ti; r29 += tr; i29 += ti;
+        tr = r4; ti = i4;
+        r4 = r0 - tr; i4 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r5 * w0c - i5 * w0s; ti = i5 * w0c + r5 * w0s;
+        r5 = r1 - tr; i5 = i1 - ti; r1 += tr; i1 += ti;
+        tr = -sign * i6; ti = sign * r6;
+        r6 = r2 - tr; i6 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r7 * w1c - i7 * w1s; ti = i7 * w1c + r7 * w1s;
+        r7 = r3 - tr; i7 = i3 - ti; r3 += tr; i3 += ti;
+        tr = r12; ti = i12;
+        r12 = r8 - tr; i12 = i8 - ti; r8 += tr; i8 += ti;
+        tr = r13 * w0c - i13 * w0s; ti = i13 * w0c + r13 * w0s;
+        r13 = r9 - tr; i13 = i9 - ti; r9 += tr; i9 += ti;
+        tr = -sign * i14; ti = sign * r14;
+        r14 = r10 - tr; i14 = i10 - ti; r10 += tr; i10 += ti;
+        tr = r15 * w1c - i15 * w1s; ti = i15 * w1c + r15 * w1s;
+        r15 = r11 - tr; i15 = i11 - ti; r11 += tr; i11 += ti;
+        tr = r20; ti = i20;
+        r20 = r16 - tr; i20 = i16 - ti; r16 += tr; i16 += ti;
+        tr = r21 * w0c - i21 * w0s; ti = i21 * w0c + r21 * w0s;
+        r21 = r17 - tr; i21 = i17 - ti; r17 += tr; i17 += ti;
+        tr = -sign * i22; ti = sign * r22;
+        r22 = r18 - tr; i22 = i18 - ti; r18 += tr; i18 += ti;
+        tr = r23 * w1c - i23 * w1s; ti = i23 * w1c + r23 * w1s;
+        r23 = r19 - tr; i23 = i19 - ti; r19 += tr; i19 += ti;
+        tr = r28; ti = i28;
+        r28 = r24 - tr; i28 = i24 - ti; r24 += tr; i24 += ti;
+        tr = r29 * w0c - i29 * w0s; ti = i29 * w0c + r29 * w0s;
+        r29 = r25 - tr; i29 = i25 - ti; r25 += tr; i25 += ti;
+        tr = -sign * i30; ti = sign * r30;
+        r30 = r26 - tr; i30 = i26 - ti; r26 += tr; i26 += ti;
+        tr = r31 * w1c - i31 * w1s; ti = i31 * w1c + r31 * w1s;
+        r31 = r27 - tr; i31 = i27 - ti; r27 += tr; i27 += ti;
+        tr = r8; ti = i8;
+        r8 = r0 - tr; i8 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r9 * w2c - i9 * w2s; ti = i9 * w2c + r9 * w2s;
+        r9 = r1 - tr; i9 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r10 * w0c - i10 * w0s; ti = i10 * w0c + r10 * w0s;
+        r10 = r2 - tr; i10 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r11 * w3c - i11 * w3s; ti = i11 * w3c + r11 * w3s;
+        r11 = r3 - tr; i11 = i3 - ti; r3 += tr; i3 += ti;
+        tr = -sign * i12; ti = sign * r12;
+        r12 = r4 - tr; i12 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r13 * w4c - i13 * w4s; ti = i13 * w4c + r13 * w4s;
+        r13 = r5 - tr; i13 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r14 * w1c - i14 * w1s; ti = i14 * w1c + r14 * w1s;
+        r14 = r6 - tr; i14 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r15 * w5c - i15 * w5s; ti = i15 * w5c + r15 * w5s;
+        r15 = r7 - tr; i15 = i7 - ti; r7 += tr; i7 += ti;
+        tr = r24; ti = i24;
+        r24 = r16 - tr; i24 = i16 - ti; r16 += tr; i16 += ti;
+        tr = r25 * w2c - i25 * w2s; ti = i25 * w2c + r25 * w2s;
+        r25 = r17 - tr; i25 = i17 - ti; r17 += tr; i17 += ti;
+        tr = r26 * w0c - i26 * w0s; ti = i26 * w0c + r26 * w0s;
+        r26 = r18 - tr; i26 = i18 - ti; r18 += tr; i18 += ti;
+        tr = r27 * w3c - i27 * w3s; ti = i27 * w3c + r27 * w3s;
+        r27 = r19 - tr; i27 = i19 - ti; r19 += tr; i19 += ti;
+        tr = -sign * i28; ti = sign * r28;
+        r28 = r20 - tr; i28 = i20 - ti; r20 += tr; i20 += ti;
+        tr = r29 * w4c - i29 * w4s; ti = i29 * w4c + r29 * w4s;
+        r29 = r21 - tr; i29 = i21 - ti; r21 += tr; i21 += ti;
+        tr = r30 * w1c - i30 * w1s; ti = i30 * w1c + r30 * w1s;
+        r30 = r22 - tr; i30 = i22 - ti; r22 += tr; i22 += ti;
+        tr = r31 * w5c - i31 * w5s; ti = i31 * w5c + r31 * w5s;
+        r31 = r23 - tr; i31 = i23 - ti; r23 += tr; i23 += ti;
+        tr = r16; ti = i16;
+        r16 = r0 - tr; i16 = i0 - ti; r0 += tr; i0 += ti;
+        tr = r17 * w6c - i17 * w6s; ti = i17 * w6c + r17 * w6s;
+        r17 = r1 - tr; i17 = i1 - ti; r1 += tr; i1 += ti;
+        tr = r18 * w2c - i18 * w2s; ti = i18 * w2c + r18 * w2s;
+        r18 = r2 - tr; i18 = i2 - ti; r2 += tr; i2 += ti;
+        tr = r19 * w7c - i19 * w7s; ti = i19 * w7c + r19 * w7s;
+        r19 = r3 - tr; i19 = i3 - ti; r3 += tr; i3 += ti;
+        tr = r20 * w0c - i20 * w0s; ti = i20 * w0c + r20 * w0s;
+        r20 = r4 - tr; i20 = i4 - ti; r4 += tr; i4 += ti;
+        tr = r21 * w8c - i21 * w8s; ti = i21 * w8c + r21 * w8s;
+        r21 = r5 - tr; i21 = i5 - ti; r5 += tr; i5 += ti;
+        tr = r22 * w3c - i22 * w3s; ti = i22 * w3c + r22 * w3s;
+        r22 = r6 - tr; i22 = i6 - ti; r6 += tr; i6 += ti;
+        tr = r23 * w9c - i23 * w9s; ti = i23 * w9c + r23 * w9s;
+        r23 = r7 - tr; i23 = i7 - ti; r7 += tr; i7 += ti;
+        tr = -sign * i24; ti = sign * r24;
+        r24 = r8 - tr; i24 = i8 - ti; r8 += tr; i8 += ti;
+        tr = r25 * w10c - i25 * w10s; ti = i25 * w10c + r25 * w10s;
+        r25 = r9 - tr; i25 = i9 - ti; r9 += tr; i9 += ti;
+        tr = r26 * w4c - i26 * w4s; ti = i26 * w4c + r26 * w4s;
+        r26 = r10 - tr; i26 = i10 - ti; r10 += tr; i10 += ti;
+        tr = r27 * w11c - i27 * w11s; ti = i27 * w11c + r27 * w11s;
+        r27 = r11 - tr; i27 = i11 - ti; r11 += tr; i11 += ti;
+        tr = r28 * w1c - i28 * w1s; ti = i28 * w1c + r28 * w1s;
+        r28 = r12 - tr; i28 = i12 - ti; r12 += tr; i12 += ti;
+        tr = r29 * w12c - i29 * w12s; ti = i29 * w12c + r29 * w12s;
+        r29 = r13 - tr; i29 = i13 - ti; r13 += tr; i13 += ti;
+        tr = r30 * w5c - i30 * w5s; ti = i30 * w5c + r30 * w5s;
+        r30 = r14 - tr; i30 = i14 - ti; r14 += tr; i14 += ti;
+        tr = r31 * w13c - i31 * w13s; ti = i31 * w13c + r31 * w13s;
+        r31 = r15 - tr; i31 = i15 - ti; r15 += tr; i15 += ti;
+        re[off + 0] = r0;
+        im[off + 0] = i0;
+        re[off + 1] = r1;
+        im[off + 1] = i1;
+        re[off + 2] = r2;
+        im[off + 2] = i2;
+        re[off + 3] = r3;
+        im[off + 3] = i3;
+        re[off + 4] = r4;
+        im[off + 4] = i4;
+        re[off + 5] = r5;
+        im[off + 5] = i5;
+        re[off + 6] = r6;
+        im[off + 6] = i6;
+        re[off + 7] = r7;
+        im[off + 7] = i7;
+        re[off + 8] = r8;
+        im[off + 8] = i8;
+        re[off + 9] = r9;
+        im[off + 9] = i9;
+        re[off + 10] = r10;
+        im[off + 10] = i10;
+        re[off + 11] = r11;
+        im[off + 11] = i11;
+        re[off + 12] = r12;
+        im[off + 12] = i12;
+        re[off + 13] = r13;
+        im[off + 13] = i13;
+        re[off + 14] = r14;
+        im[off + 14] = i14;
+        re[off + 15] = r15;
+        im[off + 15] = i15;
+        re[off + 16] = r16;
+        im[off + 16] = i16;
+        re[off + 17] = r17;
+        im[off + 17] = i17;
+        re[off + 18] = r18;
+        im[off + 18] = i18;
+        re[off + 19] = r19;
+        im[off + 19] = i19;
+        re[off + 20] = r20;
+        im[off + 20] = i20;
+        re[off + 21] = r21;
+        im[off + 21] = i21;
+        re[off + 22] = r22;
+        im[off + 22] = i22;
+        re[off + 23] = r23;
+        im[off + 23] = i23;
+        re[off + 24] = r24;
+        im[off + 24] = i24;
+        re[off + 25] = r25;
+        im[off + 25] = i25;
+        re[off + 26] = r26;
+        im[off + 26] = i26;
+        re[off + 27] = r27;
+        im[off + 27] = i27;
+        re[off + 28] = r28;
+        im[off + 28] = i28;
+        re[off + 29] = r29;
+        im[off + 29] = i29;
+        re[off + 30] = r30;
+        im[off + 30] = i30;
+        re[off + 31] = r31;
+        im[off + 31] = i31;
+    }
+
+}
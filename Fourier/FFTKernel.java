@@ -0,0 +1,29 @@
+package Fourier;
+
+/**
+ * FFTUtilがComplexArrayに対して使用するFFTカーネル（計算アルゴリズム）の種類。
+ * どのカーネルも同じ結果（自然順の出力、逆変換は1/Nスケーリング）を返すため、
+ * 性能比較のために自由に切り替えることができます。
+ */
+public enum FFTKernel {
+    /** 再帰的な周波数間引き(DIF)基数2 FFTの後にビット反転並べ替えを行う、従来の実装 */
+    RECURSIVE,
+    /** キャッシュされたビット反転の交換ペア表で並べ替えた後、段ごとに反復する時間間引き(DIT)基数2 FFT */
+    ITERATIVE,
+    /** 基数2の2段分を1回のパスにまとめた基数4 FFT（log2(N)が奇数の場合は最初の1段だけ基数2で処理） */
+    RADIX4,
+    /** ビット反転順の入力に対してインプレースで計算する分割基数(split-radix) FFT */
+    SPLIT_RADIX,
+    /** 作業用バッファとの間で交互に書き込むことで、ビット反転並べ替えなしに自然順の出力を得るStockham FFT */
+    STOCKHAM,
+    /**
+     * Vector API(jdk.incubator.vector)でバタフライ演算をSIMD化したStockham FFT。
+     * 実行時に--add-modules jdk.incubator.vectorが指定されていない場合はSTOCKHAMと同じスカラー版で計算します。
+     */
+    VECTOR,
+    /**
+     * データをN1×N2の行列とみなし、行ごとのFFTと回転因子の乗算を共通のForkJoinPoolで並列に計算する4ステップ(Bailey) FFT。
+     * 数百万点の長い信号で複数コアを使うためのカーネルです。
+     */
+    FOUR_STEP
+}
@@ -0,0 +1,218 @@
+package Fourier;
+
+/**
+ * データ長・変換の方向・カーネルごとに事前計算した、FFTの実行計画（プラン）。
+ * 回転因子テーブル、ビット反転の交換ペア表、必要な作業用バッファの大きさを保持します。
+ * プランはプロセス全体で共有されるスレッドセーフなキャッシュから取得するため、
+ * 同じ大きさの画像や信号を開いた複数のウィンドウが同じテーブルを共有し、
+ * 編集のたびに回転因子を作り直すこともありません。
+ * キャッシュは直近に作成したプランの分だけ保持し、破棄されたプランの回転因子テーブルはガベージコレクションで回収されます。
+ * 保持するテーブルは共有されるため、取得した配列の内容を変更しないでください。
+ */
+public final class FFTPlan {
+
+    // キャッシュに保持するプランの数の上限（超えた場合は先に作成したものから破棄する）
+    private static final int MAX_CACHED_PLANS = 64;
+
+    // (データ長, 方向, カーネル)をまとめたキーでキャッシュしたプラン
+    private static final BoundedCache<Long, FFTPlan> plans = new BoundedCache<>(MAX_CACHED_PLANS,
+        key -> new FFTPlan((int) (key >>> 8), (key & (1L << 7)) != 0, FFTKernel.values()[(int) (key & 0x7F)]));
+
+    private final int size;
+    private final boolean inverse;
+    private final FFTKernel kernel;
+    private final boolean powerOfTwo;
+    // データ長ごとのTwiddleTableから展開した回転因子（このプランが保持している間は、方向・カーネルが異なるプランの間でも共有する。
+    // 2の冪乗でない長さではnull）
+    private final ComplexArray twiddles;
+    private final int[] bitReverseSwapTable; // ビット反転並べ替えを使わないカーネル・長さではnull
+    private final int scratchSize;
+    private volatile ComplexFloatArray floatTwiddles; // 単精度の回転因子テーブル（初めて使うときに作成する）
+
+    private FFTPlan(int size, boolean inverse, FFTKernel kernel) {
+        this.size = size;
+        this.inverse = inverse;
+        this.kernel = kernel;
+        this.powerOfTwo = FFTUtil.isPowerOfTwo(size);
+        if (powerOfTwo) {
+            TwiddleTable table = TwiddleTable.get(size);
+            this.twiddles = inverse ? table.inverseTable() : table.forwardTable();
+        } else {
+            this.twiddles = null;
+        }
+        this.bitReverseSwapTable = (powerOfTwo && usesBitReversal(kernel)) ? FFTUtil.bitReverseSwapTable(size) : null;
+        this.scratchSize = (powerOfTwo && usesScratch(kernel)) ? size : 0;
+    }
+
+    /**
+     * 指定した条件のプランをキャッシュから取得します（無ければ作成してキャッシュします）。
+     * @param size データ長(1以上。2の冪乗でない場合は混合基数FFTまたはBluestein FFTで実行します)
+     * @param inverse 逆変換のプランの場合true
+     * @param kernel 2の冪乗の長さで使用するFFTカーネル
+     * @return 共有のプラン
+     * @throws IllegalArgumentException データ長が1未満の場合
+     */
+    public static FFTPlan get(int size, boolean inverse, FFTKernel kernel) {
+        if (size < 1) {
+            throw new IllegalArgumentException("FFT size must be positive: " + size);
+        }
+        long key = ((long) size << 8) | (inverse ? 1L << 7 : 0L) | kernel.ordinal();
+        return plans.get(key);
+    }
+
+    /**
+     * 既定のカーネルで順変換のプランを取得します。
+     * @param size データ長
+     * @return 共有のプラン
+     */
+    public static FFTPlan forward(int size) {
+        return get(size, false, FFTKernel.VECTOR);
+    }
+
+    /**
+     * 既定のカーネルで逆変換のプランを取得します。
+     * @param size データ長
+     * @return 共有のプラン
+     */
+    public static FFTPlan inverse(int size) {
+        return get(size, true, FFTKernel.VECTOR);
+    }
+
+    private static boolean usesBitReversal(FFTKernel kernel) {
+        switch (kernel) {
+            case RECURSIVE:
+            case ITERATIVE:
+            case RADIX4:
+            case SPLIT_RADIX:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean usesScratch(FFTKernel kernel) {
+        switch (kernel) {
+            case STOCKHAM:
+            case VECTOR:
+            case FOUR_STEP:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 複素数配列の指定位置からデータ長分の範囲に、このプランの変換を適用します。
+     * 逆変換のプランでは1/Nのスケーリングも行います。作業用バッファはスレッドごとのものを使います。
+     * @param data 変換する複素数配列
+     * @param offset 範囲の開始インデックス
+     */
+    public void execute(ComplexArray data, int offset) {
+        execute(data, offset, null);
+    }
+
+    /**
+     * 呼び出し側の作業用バッファを使って、このプランの変換を適用します。
+     * 作業用バッファはscratchSize()要素以上が必要です（作業用バッファを使わないカーネルでは無視されます）。
+     * @param data 変換する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param scratch 作業用バッファ（nullの場合はスレッドごとのものを使います）
+     */
+    public void execute(ComplexArray data, int offset, ComplexArray scratch) {
+        if (!powerOfTwo) {
+            if (inverse) {
+                FFTUtil.ifftAnyLength(data, offset, size);
+            } else {
+                FFTUtil.fftAnyLength(data, offset, size);
+            }
+            return;
+        }
+        FFTUtil.transform(data, offset, size, twiddles, kernel, inverse, scratch);
+        if (inverse) {
+            FFTUtil.scale(data, offset, size, 1.0 / size);
+        }
+    }
+
+    /**
+     * 連続して並んだcount本のデータ長分の列に、このプランの変換をまとめて適用します。
+     * 2次元FFTの行・列の処理のように同じ長さの列を多数変換する場合に、1本ずつexecuteを呼ぶ代わりに使います。
+     * 列の本数が多い場合は複数のスレッドに分配し、ビット反転並べ替えを使うカーネルでは
+     * 回転因子の読み込みを全ての列で共有します（詳細はFFTUtil.transformBatchを参照してください）。
+     * 逆変換のプランでは1/Nのスケーリングも行います。
+     * @param data 変換する複素数配列
+     * @param offset 最初の列の開始インデックス
+     * @param count 列の本数
+     */
+    public void executeBatch(ComplexArray data, int offset, int count) {
+        FFTUtil.transformBatch(data, offset, size, count, twiddles, kernel, inverse);
+        if (inverse && powerOfTwo) {
+            FFTUtil.scale(data, offset, size * count, 1.0 / size);
+        }
+    }
+
+    /**
+     * データ長を取得します。
+     * @return データ長
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 逆変換のプランかどうかを取得します。
+     * @return 逆変換のプランならtrue
+     */
+    public boolean isInverse() {
+        return inverse;
+    }
+
+    /**
+     * 2の冪乗の長さで使用するFFTカーネルを取得します。
+     * @return FFTカーネル
+     */
+    public FFTKernel getKernel() {
+        return kernel;
+    }
+
+    /**
+     * 共有の回転因子テーブルを取得します（内容を変更しないでください）。
+     * 実数FFT(FFTUtil.realFft / inverseRealFft)など、回転因子テーブルを受け取るメソッドにそのまま渡せます。
+     * @return 回転因子テーブル（2の冪乗でない長さではnull）
+     */
+    public ComplexArray getTwiddles() {
+        return twiddles;
+    }
+
+    /**
+     * 単精度のFFT(FFTUtilのComplexFloatArray版)に渡す、共有の単精度の回転因子テーブルを取得します（内容を変更しないでください）。
+     * 初めて呼び出したときに倍精度のテーブルを丸めて作成します。
+     * @return 単精度の回転因子テーブル（2の冪乗でない長さではnull）
+     */
+    public ComplexFloatArray getFloatTwiddles() {
+        if (twiddles == null) {
+            return null;
+        }
+        ComplexFloatArray table = floatTwiddles;
+        if (table == null) {
+            table = ComplexFloatArray.fromComplexArray(twiddles);
+            floatTwiddles = table;
+        }
+        return table;
+    }
+
+    /**
+     * 共有のビット反転の交換ペア表を取得します（内容を変更しないでください）。
+     * @return 交換ペア表（ビット反転並べ替えを使わないカーネル・長さではnull）
+     */
+    public int[] getBitReverseSwapTable() {
+        return bitReverseSwapTable;
+    }
+
+    /**
+     * execute(data, offset, scratch)に渡す作業用バッファに必要な要素数を取得します。
+     * @return 作業用バッファの要素数（作業用バッファを使わない場合は0）
+     */
+    public int scratchSize() {
+        return scratchSize;
+    }
+}
@@ -0,0 +1,389 @@
+package Fourier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * データ長ごとに最速のFFTカーネルを選ぶプランナー（FFTWのプランナーとwisdomに相当）。
+ * ESTIMATEモードでは実行環境から経験的にカーネルを選び、MEASUREモードでは候補のカーネルを実際の長さで計測して最速のものを選びます。
+ * 計測結果はwisdomファイル(既定では~/.fourier/fft-wisdom.properties)に保存され、次回起動時に読み込まれるため、
+ * 同じマシンでは計測のコストを一度しか払いません。
+ * イベントディスパッチスレッドのように計測の間止めたくないスレッドでは、planWithoutWaiting / kernelForWithoutWaitingを使うと
+ * 計測をバックグラウンドのスレッドで行い、終わるまではESTIMATEで推定したカーネルを使います。
+ * wisdomファイルには計測した環境(CPUアーキテクチャ、SIMDの利用可否、並列度)も記録し、環境が変わった場合は読み込みません。
+ * 使用するモードとwisdomファイルの場所は、システムプロパティfourier.fft.planner(ESTIMATE/MEASURE)と
+ * fourier.fft.wisdomで変更できます。
+ */
+public final class FFTPlanner {
+
+    /**
+     * カーネルの選び方。
+     */
+    public enum Mode {
+        /** 実行環境(SIMD・並列度)とデータ長から経験的に選び、計測は行わない */
+        ESTIMATE,
+        /** wisdomに無いデータ長では候補のカーネルを計測して最速のものを選び、wisdomに保存する */
+        MEASURE
+    }
+
+    // wisdomファイルの中で計測時の環境を記録するキー
+    private static final String ENVIRONMENT_KEY = "environment";
+    // wisdomファイルの中でデータ長ごとのカーネルを記録するキーの接頭辞
+    private static final String KERNEL_KEY_PREFIX = "fft.";
+
+    // 計測対象のカーネル(RECURSIVEは常に最も遅いため候補に含めない)
+    private static final FFTKernel[] CANDIDATES = {
+        FFTKernel.ITERATIVE, FFTKernel.RADIX4, FFTKernel.SPLIT_RADIX, FFTKernel.STOCKHAM, FFTKernel.VECTOR, FFTKernel.FOUR_STEP
+    };
+    // 1回の計測で行う演算量の目安(n log2 n の合計)
+    private static final long MEASURE_WORK = 1L << 21;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 5;
+
+    // データ長 → 最速のカーネル
+    private static final Map<Integer, FFTKernel> wisdom = new ConcurrentHashMap<>();
+    private static volatile Path wisdomFile = defaultWisdomFile();
+    private static final Mode defaultMode = defaultMode();
+    // 計測を待たない選択で依頼された計測を、1つずつ順に行うスレッド
+    private static final ExecutorService measurer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "FFTPlanner-measure");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // バックグラウンドで計測を依頼済みのデータ長
+    private static final Set<Integer> measuring = ConcurrentHashMap.newKeySet();
+
+    static {
+        loadWisdom(wisdomFile);
+    }
+
+    private FFTPlanner() {
+    }
+
+    private static Path defaultWisdomFile() {
+        String path = System.getProperty("fourier.fft.wisdom");
+        if (path != null && !path.isEmpty()) {
+            return Paths.get(path);
+        }
+        return Paths.get(System.getProperty("user.home"), ".fourier", "fft-wisdom.properties");
+    }
+
+    private static Mode defaultMode() {
+        String mode = System.getProperty("fourier.fft.planner");
+        if (mode == null || mode.isEmpty()) {
+            return Mode.MEASURE;
+        }
+        try {
+            return Mode.valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("FFTPlanner: 不明なモードです(ESTIMATEまたはMEASUREを指定してください): " + mode);
+            return Mode.MEASURE;
+        }
+    }
+
+    /**
+     * モードを指定しないplan/kernelForで使うモードを取得します。
+     * @return システムプロパティfourier.fft.plannerで指定されたモード（未指定の場合はMEASURE）
+     */
+    public static Mode getDefaultMode() {
+        return defaultMode;
+    }
+
+    /**
+     * 既定のモードで選んだカーネルのプランを取得します。
+     * @param size データ長
+     * @param inverse 逆変換のプランの場合true
+     * @return 共有のプラン
+     */
+    public static FFTPlan plan(int size, boolean inverse) {
+        return plan(size, inverse, defaultMode);
+    }
+
+    /**
+     * 指定したモードで選んだカーネルのプランを取得します。
+     * @param size データ長
+     * @param inverse 逆変換のプランの場合true
+     * @param mode カーネルの選び方
+     * @return 共有のプラン
+     */
+    public static FFTPlan plan(int size, boolean inverse, Mode mode) {
+        return FFTPlan.get(size, inverse, kernelFor(size, mode));
+    }
+
+    /**
+     * 既定のモードで選んだカーネルのプランを、計測を待たずに取得します。
+     * @param size データ長
+     * @param inverse 逆変換のプランの場合true
+     * @return 共有のプラン（計測が終わるまではESTIMATEで推定したカーネルのプラン）
+     * @see #kernelForWithoutWaiting(int)
+     */
+    public static FFTPlan planWithoutWaiting(int size, boolean inverse) {
+        return FFTPlan.get(size, inverse, kernelForWithoutWaiting(size));
+    }
+
+    /**
+     * 既定のモードでデータ長に最適なカーネルを選びます。
+     * @param size データ長
+     * @return FFTカーネル
+     */
+    public static FFTKernel kernelFor(int size) {
+        return kernelFor(size, defaultMode);
+    }
+
+    /**
+     * 既定のモードでデータ長に最適なカーネルを、計測を待たずに選びます。
+     * MEASUREモードでwisdomに記録の無い長さは、計測をバックグラウンドのスレッドに依頼し、
+     * 計測が終わるまではESTIMATEで推定したカーネルを返します（計測の結果はwisdomとwisdomファイルに記録されます）。
+     * @param size データ長
+     * @return FFTカーネル
+     */
+    public static FFTKernel kernelForWithoutWaiting(int size) {
+        FFTKernel known = wisdom.get(size);
+        if (known != null) {
+            return known;
+        }
+        if (defaultMode == Mode.MEASURE && FFTUtil.isPowerOfTwo(size) && size >= 4 && measuring.add(size)) {
+            measurer.execute(() -> {
+                try {
+                    kernelFor(size, Mode.MEASURE);
+                } finally {
+                    measuring.remove(size);
+                }
+            });
+        }
+        return estimate(size);
+    }
+
+    /**
+     * (テスト用) バックグラウンドのスレッドに依頼済みの計測が全て終わるまで待ちます。
+     * @throws InterruptedException 待機中に割り込まれた場合
+     */
+    static void awaitMeasurements() throws InterruptedException {
+        try {
+            measurer.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * データ長に最適なカーネルを選びます。
+     * wisdomに記録があればそれを使い、無ければESTIMATEでは推定、MEASUREでは計測して結果をwisdomファイルに保存します。
+     * 2の冪乗でない長さはカーネルを使わない(混合基数FFTまたはBluestein FFTで計算する)ため、計測しません。
+     * @param size データ長
+     * @param mode カーネルの選び方
+     * @return FFTカーネル
+     */
+    public static FFTKernel kernelFor(int size, Mode mode) {
+        FFTKernel known = wisdom.get(size);
+        if (known != null) {
+            return known;
+        }
+        if (mode == Mode.ESTIMATE || !FFTUtil.isPowerOfTwo(size) || size < 4) {
+            return estimate(size);
+        }
+        FFTKernel measured = measure(size);
+        if (wisdom.putIfAbsent(size, measured) == null) {
+            saveWisdom(wisdomFile);
+        }
+        return measured;
+    }
+
+    /**
+     * 計測せずにカーネルを推定します。
+     * FOUR_STEP_THRESHOLD以上の長さで複数のコアが使える場合はFOUR_STEP、
+     * それ以外はVector APIが使えればVECTOR、使えなければSTOCKHAMを選びます。
+     * @param size データ長
+     * @return 推定したFFTカーネル
+     */
+    public static FFTKernel estimate(int size) {
+        if (size >= FFTUtil.FOUR_STEP_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            return FFTKernel.FOUR_STEP;
+        }
+        return FFTUtil.isVectorAvailable() ? FFTKernel.VECTOR : FFTKernel.STOCKHAM;
+    }
+
+    /**
+     * 候補のカーネルを指定したデータ長で実際に計測し、最速のものを返します（wisdomには記録しません）。
+     * JITコンパイルの影響を除くため、全候補を数回ずつ実行してから、複数回の計測の最小値で比較します。
+     * @param size データ長(2の冪乗)
+     * @return 最速のFFTカーネル
+     * @throws IllegalArgumentException データ長が2の冪乗でない場合
+     */
+    public static FFTKernel measure(int size) {
+        if (!FFTUtil.isPowerOfTwo(size)) {
+            throw new IllegalArgumentException("Only power-of-two sizes can be measured: " + size);
+        }
+        FFTKernel[] candidates = candidates(size);
+        ComplexArray twiddles = TwiddleTable.get(size).forwardTable();
+        ComplexArray source = new ComplexArray(size);
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            source.set(i, random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+        }
+        ComplexArray data = new ComplexArray(size);
+        ComplexArray scratch = new ComplexArray(size);
+        int log2 = Integer.numberOfTrailingZeros(size);
+        int repetitions = (int) Math.max(1, MEASURE_WORK / ((long) size * Math.max(1, log2)));
+
+        long[] best = new long[candidates.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURE_ROUNDS; round++) {
+            for (int c = 0; c < candidates.length; c++) {
+                long start = System.nanoTime();
+                for (int r = 0; r < repetitions; r++) {
+                    // 正規化しない順変換を続けると値が大きくなって無限大・NaNになり計測が歪むため、毎回入力をコピーし直す
+                    // （コピーの時間は全てのカーネルで同じ）
+                    data.copyFrom(source);
+                    FFTUtil.transform(data, 0, size, twiddles, candidates[c], false, scratch);
+                }
+                long elapsed = System.nanoTime() - start;
+                if (round >= WARMUP_ROUNDS) {
+                    best[c] = Math.min(best[c], elapsed);
+                }
+            }
+        }
+        int fastest = 0;
+        for (int c = 1; c < candidates.length; c++) {
+            if (best[c] < best[fastest]) {
+                fastest = c;
+            }
+        }
+        return candidates[fastest];
+    }
+
+    // VECTORはVector APIが無いとSTOCKHAMと同じになり、FOUR_STEPは単一コアでは並列化の利点が無いため候補から外す
+    private static FFTKernel[] candidates(int size) {
+        boolean parallel = ForkJoinPool.getCommonPoolParallelism() > 1;
+        return Arrays.stream(CANDIDATES)
+            .filter(kernel -> kernel != FFTKernel.VECTOR || FFTUtil.isVectorAvailable())
+            .filter(kernel -> kernel != FFTKernel.FOUR_STEP || (parallel && size >= 1 << 12))
+            .toArray(FFTKernel[]::new);
+    }
+
+    /**
+     * wisdomに記録されたカーネルを取得します。
+     * @param size データ長
+     * @return 記録されたFFTカーネル（記録が無い場合はnull）
+     */
+    public static FFTKernel getWisdom(int size) {
+        return wisdom.get(size);
+    }
+
+    /**
+     * メモリ上のwisdomをすべて消去します（wisdomファイルは変更しません）。
+     */
+    public static void forgetWisdom() {
+        wisdom.clear();
+    }
+
+    /**
+     * MEASUREの結果を保存するwisdomファイルを取得します。
+     * @return wisdomファイルのパス
+     */
+    public static Path getWisdomFile() {
+        return wisdomFile;
+    }
+
+    /**
+     * MEASUREの結果を保存するwisdomファイルを変更し、その内容を読み込みます。
+     * @param file wisdomファイルのパス
+     */
+    public static void setWisdomFile(Path file) {
+        wisdomFile = file;
+        loadWisdom(file);
+    }
+
+    /**
+     * wisdomファイルを読み込み、メモリ上のwisdomに追加します。
+     * ファイルが無い場合や、別の環境で計測されたファイルの場合は何もしません。
+     * @param file wisdomファイルのパス
+     * @return 読み込んだ場合true
+     */
+    public static boolean loadWisdom(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            System.err.println("FFTPlanner: wisdomファイルの読み込みに失敗しました: " + file);
+            return false;
+        }
+        if (!environment().equals(properties.getProperty(ENVIRONMENT_KEY))) {
+            return false;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(KERNEL_KEY_PREFIX)) {
+                continue;
+            }
+            try {
+                int size = Integer.parseInt(key.substring(KERNEL_KEY_PREFIX.length()));
+                wisdom.put(size, FFTKernel.valueOf(properties.getProperty(key)));
+            } catch (IllegalArgumentException e) {
+                // 手で編集された不正な行や、削除されたカーネル名は無視する
+            }
+        }
+        return true;
+    }
+
+    /**
+     * メモリ上のwisdomをファイルに保存します（親ディレクトリが無ければ作成します）。
+     * 同じディレクトリの一時ファイルに書き込んでから置き換えるため、保存の途中でJVMが終了しても
+     * 既存のファイルが壊れることはありません。計測スレッドとの同時の保存は1つずつ行います。
+     * @param file wisdomファイルのパス
+     * @return 保存できた場合true
+     */
+    public static synchronized boolean saveWisdom(Path file) {
+        Properties properties = new Properties();
+        properties.setProperty(ENVIRONMENT_KEY, environment());
+        for (Map.Entry<Integer, FFTKernel> entry : new TreeMap<>(wisdom).entrySet()) {
+            properties.setProperty(KERNEL_KEY_PREFIX + entry.getKey(), entry.getValue().name());
+        }
+        Path target = file.toAbsolutePath();
+        Path temporary = null;
+        try {
+            Path parent = target.getParent();
+            Files.createDirectories(parent);
+            temporary = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                properties.store(out, "FFT wisdom (fastest kernel per size)");
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            System.err.println("FFTPlanner: wisdomファイルの保存に失敗しました: " + file);
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // 一時ファイルが残っても、次回の読み込みには影響しない
+                }
+            }
+            return false;
+        }
+    }
+
+    // 計測結果が有効な環境（CPUアーキテクチャ、SIMDの利用可否、並列度）を表す文字列
+    private static String environment() {
+        return System.getProperty("os.arch") + ",vector=" + FFTUtil.isVectorAvailable()
+            + ",parallelism=" + ForkJoinPool.getCommonPoolParallelism();
+    }
+}
@@ -1,11 +1,102 @@
 package Fourier;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
 /**
  * 高速フーリエ変換（FFT）のユーティリティクラス。
  * FFT、逆FFT、ビット反転、シフト操作などを提供します。
  */
 public class FFTUtil {
 
+    // データ長ごとにキャッシュしたビット反転の交換ペア表（{i0, j0, i1, j1, ...}, i < j）
+    private static final Map<Integer, int[]> bitReverseSwapTables = new ConcurrentHashMap<>();
+
+    // 作業用バッファを指定せずにStockhamカーネルを使う場合の、スレッドごとの作業用バッファ
+    private static final ThreadLocal<ComplexArray> stockhamScratch = new ThreadLocal<>();
+
+    // 作業用バッファを指定せずに4ステップFFTを使う場合の、スレッドごとの作業用バッファ
+    // （内側の行FFTが使うstockhamScratchとは別に確保する）
+    private static final ThreadLocal<ComplexArray> fourStepScratch = new ThreadLocal<>();
+
+    /**
+     * 作業用バッファを指定したfft/ifftで、並列の4ステップFFTに自動的に切り替えるデータ長。
+     * これより短いデータでは、スレッドへの分配や転置のコストが並列化の効果を上回ります。
+     */
+    public static final int FOUR_STEP_THRESHOLD = 1 << 18;
+
+    /**
+     * 複数の列をまとめて変換する際に、列を複数のスレッドに分配する要素数の合計。
+     * これより少ない場合は、スレッドへの分配のコストが並列化の効果を上回ります。
+     */
+    public static final int PARALLEL_BATCH_THRESHOLD = 1 << 15;
+
+    // 反復的な基数2 FFTを複数の列でまとめて実行する際に、一度に処理する要素数の目安（実部・虚部でL1キャッシュに収まる32KB）
+    private static final int BATCH_BLOCK_ELEMENTS = 1 << 11;
+
+    // キャッシュに保持するBluestein FFTの事前計算結果の数の上限（超えた場合は先に作成したものから破棄する）
+    private static final int MAX_CACHED_BLUESTEIN_PLANS = 32;
+
+    // データ長ごとにキャッシュしたBluestein FFTの事前計算結果
+    private static final BoundedCache<Integer, BluesteinPlan> bluesteinPlans = new BoundedCache<>(MAX_CACHED_BLUESTEIN_PLANS, BluesteinPlan::new);
+
+    // Bluestein FFTの畳み込みに使う、スレッドごとの作業用バッファ
+    private static final ThreadLocal<ComplexArray> bluesteinWork = new ThreadLocal<>();
+
+    // 転置をキャッシュに収まる大きさのタイルに分けて行う際のタイルの一辺
+    private static final int TRANSPOSE_TILE = 32;
+
+    // ComplexArray版のfft/ifftでカーネルを指定しなかった場合に使用するカーネル
+    private static volatile FFTKernel defaultKernel = FFTKernel.ITERATIVE;
+
+    // Vector API(jdk.incubator.vector)が有効で、SIMD化したカーネルを使用できるかどうか
+    private static final boolean VECTOR_AVAILABLE = detectVectorSupport();
+
+    /**
+     * jdk.incubator.vectorモジュールが起動時に有効化されているかを調べます。
+     * モジュールが無い状態でVectorFFTを読み込むとNoClassDefFoundErrorになるため、
+     * モジュールの存在を確認してから初めてVectorFFTに触れます。
+     * @return SIMD化したカーネルを使用できる場合true
+     */
+    private static boolean detectVectorSupport() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorFFT.isSupported();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Vector APIによるSIMD化したカーネルが使用できるかを取得します。
+     * 使用できない場合、VECTORカーネルや作業用バッファを指定したfft/ifftはスカラー版のStockham FFTで計算します。
+     * @return 実行時に--add-modules jdk.incubator.vectorが指定されていればtrue
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+
+    /**
+     * カーネルを指定しないComplexArray版fft/ifftで使用するカーネルを取得します。
+     * @return 既定のFFTカーネル
+     */
+    public static FFTKernel getDefaultKernel() {
+        return defaultKernel;
+    }
+
+    /**
+     * カーネルを指定しないComplexArray版fft/ifftで使用するカーネルを設定します。
+     * @param kernel 既定にするFFTカーネル
+     */
+    public static void setDefaultKernel(FFTKernel kernel) {
+        defaultKernel = kernel;
+    }
+
     /**
      * 指定されたビット数で整数のビット反転を行います。
      * @param x ビット反転する整数
@@ -115,12 +206,1494 @@ public class FFTUtil {
         }
     }
 
+    /**
+     * 順変換用の回転因子テーブルを生成します。
+     * w[k] = exp(-2πik/n) (k = 0 .. n/2-1) を格納します。
+     * @param n データ長
+     * @return 回転因子の配列(長さn/2)
+     */
+    public static ComplexArray createTwiddles(int n) {
+        ComplexArray twiddles = new ComplexArray(n / 2);
+        for (int k = 0; k < n / 2; k++) {
+            double angle = -2.0 * Math.PI * k / n;
+            twiddles.set(k, Math.cos(angle), Math.sin(angle));
+        }
+        return twiddles;
+    }
+
+    /**
+     * 逆変換用の回転因子テーブルを生成します。
+     * w[k] = exp(2πik/n) (k = 0 .. n/2-1) を格納します。
+     * @param n データ長
+     * @return 逆回転因子の配列(長さn/2)
+     */
+    public static ComplexArray createInverseTwiddles(int n) {
+        ComplexArray invTwiddles = new ComplexArray(n / 2);
+        for (int k = 0; k < n / 2; k++) {
+            double angle = 2.0 * Math.PI * k / n; // 符号が逆
+            invTwiddles.set(k, Math.cos(angle), Math.sin(angle));
+        }
+        return invTwiddles;
+    }
+
+    /**
+     * 指定されたデータ長のビット反転の交換ペア表を取得します。
+     * 表はデータ長ごとに一度だけ生成され、以降はキャッシュを共有します（変更しないでください）。
+     * @param n データ長(2の冪乗)
+     * @return 交換するインデックスの組を並べた配列 {i0, j0, i1, j1, ...} (i &lt; j)
+     */
+    public static int[] bitReverseSwapTable(int n) {
+        return bitReverseSwapTables.computeIfAbsent(n, FFTUtil::createBitReverseSwapTable);
+    }
+
+    /**
+     * ビット反転の交換ペア表を生成します。
+     * @param n データ長(2の冪乗)
+     * @return 交換ペア表
+     */
+    private static int[] createBitReverseSwapTable(int n) {
+        if (n <= 2) return new int[0];
+        int shift = 32 - Integer.numberOfTrailingZeros(n);
+        int pairs = 0;
+        for (int i = 0; i < n; i++) {
+            if (i < (Integer.reverse(i) >>> shift)) pairs++;
+        }
+        int[] table = new int[pairs * 2];
+        int p = 0;
+        for (int i = 0; i < n; i++) {
+            int j = Integer.reverse(i) >>> shift;
+            if (i < j) {
+                table[p++] = i;
+                table[p++] = j;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 複素数配列の指定範囲をビット反転順序に並び替えます。
+     * キャッシュされた交換ペア表を使用するため、インデックスごとのビット反転計算は行いません。
+     * @param data 並び替える複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     */
+    public static void bitReverseReorder(ComplexArray data, int offset, int n) {
+        double[] re = data.getRealArray();
+        double[] im = data.getImaginaryArray();
+        int[] table = bitReverseSwapTable(n);
+        for (int p = 0; p < table.length; p += 2) {
+            int i = offset + table[p];
+            int j = offset + table[p + 1];
+            double tr = re[i];
+            double ti = im[i];
+            re[i] = re[j];
+            im[i] = im[j];
+            re[j] = tr;
+            im[j] = ti;
+        }
+    }
+
+    /**
+     * 複素数配列(ComplexArray)に対する再帰的FFTメソッド
+     * 実部・虚部のdouble配列を直接操作するため、オブジェクト生成もポインタの追跡も発生しません。
+     * 32点以下になった部分は、展開済みのコードレットで一度に処理します。
+     * @param data FFTを適用する複素数配列
+     * @param start 開始インデックス
+     * @param n 処理するデータ数
+     * @param twiddles 事前計算された回転因子テーブル
+     */
+    public static void fftRecursive(ComplexArray data, int start, int n, ComplexArray twiddles) {
+        double[] re = data.getRealArray();
+        double[] im = data.getImaginaryArray();
+        if (n <= FFTCodelets.MAX_SIZE) {
+            FFTCodelets.dif(re, im, start, n, twiddleSign(twiddles));
+            return;
+        }
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        int half = n / 2;
+        int stride = twiddles.length() * 2 / n; // 再帰の深さに応じたストライドを計算
+
+        for (int k = 0; k < half; k++) {
+            int i = start + k;
+            int j = i + half;
+            int w = k * stride;
+
+            // バタフライ演算:
+            // data[i] = u + t
+            // data[j] = w * (u - t)
+            double diffReal = re[i] - re[j];
+            double diffImag = im[i] - im[j];
+            re[i] += re[j];
+            im[i] += im[j];
+            re[j] = wr[w] * diffReal - wi[w] * diffImag;
+            im[j] = wr[w] * diffImag + wi[w] * diffReal;
+        }
+        fftRecursive(data, start, half, twiddles);
+        fftRecursive(data, start + half, half, twiddles);
+    }
+
+    /**
+     * 回転因子テーブルが順変換用か逆変換用かを判定します。
+     * 順変換用では w[1] = exp(-2πi/N) の虚部が負、逆変換用では正になります。
+     * @param twiddles 回転因子テーブル
+     * @return 順変換用なら-1、逆変換用なら1（テーブルが1要素以下の場合は-1）
+     */
+    private static double twiddleSign(ComplexArray twiddles) {
+        return (twiddles.length() > 1 && twiddles.getImaginary(1) > 0) ? 1.0 : -1.0;
+    }
+
+    /**
+     * 反復的(非再帰)な時間間引き(DIT)基数2 FFTをインプレースで実行します。
+     * 入力をキャッシュ済みの交換ペア表でビット反転順に並べ替えた後、最初の段群(32点まで)を
+     * 展開済みのコードレットで処理し、残りの段のバタフライ演算を幅優先で行うため、
+     * 出力は自然順になり、再帰呼び出しも発生しません。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 回転因子テーブル（順変換なら順回転因子、逆変換なら逆回転因子）
+     */
+    public static void fftIterative(ComplexArray data, int offset, int n, ComplexArray twiddles) {
+        if (n <= 1) return;
+        bitReverseReorder(data, offset, n);
+
+        double[] re = data.getRealArray();
+        double[] im = data.getImaginaryArray();
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        int end = offset + n;
+
+        // 長さleafまでの段は、各ブロックをコードレットでまとめて処理する
+        int leaf = Math.min(n, FFTCodelets.MAX_SIZE);
+        double sign = twiddleSign(twiddles);
+        for (int start = offset; start < end; start += leaf) {
+            FFTCodelets.dit(re, im, start, leaf, sign);
+        }
+
+        for (int len = leaf * 2; len <= n; len <<= 1) {
+            int half = len >> 1;
+            int stride = twiddles.length() * 2 / len;
+            for (int start = offset; start < end; start += len) {
+                for (int k = 0; k < half; k++) {
+                    int i = start + k;
+                    int j = i + half;
+                    int w = k * stride;
+
+                    // バタフライ演算:
+                    // t = w * data[j]
+                    // data[i] = u + t, data[j] = u - t
+                    double tr = wr[w] * re[j] - wi[w] * im[j];
+                    double ti = wr[w] * im[j] + wi[w] * re[j];
+                    re[j] = re[i] - tr;
+                    im[j] = im[i] - ti;
+                    re[i] += tr;
+                    im[i] += ti;
+                }
+            }
+        }
+    }
+
+    /**
+     * 基数4 FFTをインプレースで実行します。
+     * ビット反転順に並べ替えた入力に対し、基数2の2段分を1回のバタフライ(回転因子の乗算は3回)で処理するため、
+     * 基数2に比べて配列全体を走査する回数と実数乗算の回数が減ります。
+     * 最初の段群は16点または32点のコードレットで処理し、残りの段数が偶数になるようにします
+     * （log2(n)が奇数の場合の基数2の1段分は、32点のコードレットが受け持ちます）。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 回転因子テーブル
+     * @param inverse 逆回転因子テーブルを渡した場合true（±iの向きが変わる）
+     */
+    public static void fftRadix4(ComplexArray data, int offset, int n, ComplexArray twiddles, boolean inverse) {
+        if (n <= 1) return;
+        bitReverseReorder(data, offset, n);
+
+        double[] re = data.getRealArray();
+        double[] im = data.getImaginaryArray();
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        int tableSize = twiddles.length();
+        int end = offset + n;
+        // 順変換では X[j+m] に -i を、逆変換では +i を掛ける
+        double sign = inverse ? 1.0 : -1.0;
+
+        int m;
+        if (n <= FFTCodelets.MAX_SIZE) {
+            m = n;
+        } else {
+            // 残りの段数が偶数になるよう、log2(n)が偶数なら16点、奇数なら32点のコードレットから始める
+            m = (Integer.numberOfTrailingZeros(n) % 2 == 0) ? 16 : 32;
+        }
+        for (int start = offset; start < end; start += m) {
+            FFTCodelets.dit(re, im, start, m, sign);
+        }
+
+        for (; m * 4 <= n; m *= 4) {
+            int stride = tableSize * 2 / (m * 4);
+            for (int start = offset; start < end; start += m * 4) {
+                for (int j = 0; j < m; j++) {
+                    int i0 = start + j;
+                    int i1 = i0 + m;
+                    int i2 = i1 + m;
+                    int i3 = i2 + m;
+
+                    // ビット反転順のため、2番目のブロックが偶数番目(W^2j)、3番目のブロックが奇数番目(W^j)に対応する
+                    int w1 = j * stride;
+                    int w2 = 2 * w1;
+                    int w3 = 3 * w1;
+                    double w1r = wr[w1], w1i = wi[w1];
+                    double w2r = wr[w2], w2i = wi[w2];
+                    double w3r, w3i;
+                    if (w3 < tableSize) {
+                        w3r = wr[w3];
+                        w3i = wi[w3];
+                    } else {
+                        // W^(k+N/2) = -W^k
+                        w3r = -wr[w3 - tableSize];
+                        w3i = -wi[w3 - tableSize];
+                    }
+
+                    double b0r = re[i0], b0i = im[i0];
+                    double b1r = w1r * re[i2] - w1i * im[i2];
+                    double b1i = w1r * im[i2] + w1i * re[i2];
+                    double b2r = w2r * re[i1] - w2i * im[i1];
+                    double b2i = w2r * im[i1] + w2i * re[i1];
+                    double b3r = w3r * re[i3] - w3i * im[i3];
+                    double b3i = w3r * im[i3] + w3i * re[i3];
+
+                    double t0r = b0r + b2r, t0i = b0i + b2i;
+                    double t1r = b0r - b2r, t1i = b0i - b2i;
+                    double t2r = b1r + b3r, t2i = b1i + b3i;
+                    double t3r = b1r - b3r, t3i = b1i - b3i;
+
+                    re[i0] = t0r + t2r;
+                    im[i0] = t0i + t2i;
+                    re[i2] = t0r - t2r;
+                    im[i2] = t0i - t2i;
+                    // X[j+m] = t1 + sign*i*t3, X[j+3m] = t1 - sign*i*t3
+                    re[i1] = t1r - sign * t3i;
+                    im[i1] = t1i + sign * t3r;
+                    re[i3] = t1r + sign * t3i;
+                    im[i3] = t1i - sign * t3r;
+                }
+            }
+        }
+    }
+
+    /**
+     * 分割基数(split-radix) FFTをインプレースで実行します。
+     * 長さnのDFTを、偶数番目の長さn/2のDFTと、4k+1番目・4k+3番目の長さn/4のDFTに分割します。
+     * ビット反転順に並べた入力では、それぞれが前半・第3四半分・第4四半分に連続して並ぶため、
+     * 追加の作業領域なしに再帰できます。実数乗算の回数は基数2・基数4より少なくなります。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 回転因子テーブル
+     * @param inverse 逆回転因子テーブルを渡した場合true（±iの向きが変わる）
+     */
+    public static void fftSplitRadix(ComplexArray data, int offset, int n, ComplexArray twiddles, boolean inverse) {
+        if (n <= 1) return;
+        bitReverseReorder(data, offset, n);
+        splitRadix(data, offset, n, twiddles, inverse ? 1.0 : -1.0);
+    }
+
+    /**
+     * ビット反転順に並んだ範囲に対する分割基数FFTの再帰部分
+     * @param data 変換する複素数配列
+     * @param start 開始インデックス
+     * @param n 処理するデータ数
+     * @param twiddles 回転因子テーブル
+     * @param sign 順変換なら-1、逆変換なら1
+     */
+    private static void splitRadix(ComplexArray data, int start, int n, ComplexArray twiddles, double sign) {
+        double[] re = data.getRealArray();
+        double[] im = data.getImaginaryArray();
+        if (n <= FFTCodelets.MAX_SIZE) {
+            // ビット反転順の入力から自然順の出力を得るコードレットが葉になる
+            FFTCodelets.dit(re, im, start, n, sign);
+            return;
+        }
+        int half = n / 2;
+        int quarter = n / 4;
+        splitRadix(data, start, half, twiddles, sign);
+        splitRadix(data, start + half, quarter, twiddles, sign);
+        splitRadix(data, start + half + quarter, quarter, twiddles, sign);
+
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        int tableSize = twiddles.length();
+        int stride = tableSize * 2 / n;
+        for (int k = 0; k < quarter; k++) {
+            int i0 = start + k;
+            int i1 = i0 + quarter;
+            int i2 = i1 + quarter;
+            int i3 = i2 + quarter;
+
+            int w1 = k * stride;
+            int w3 = 3 * w1;
+            double w1r = wr[w1], w1i = wi[w1];
+            double w3r, w3i;
+            if (w3 < tableSize) {
+                w3r = wr[w3];
+                w3i = wi[w3];
+            } else {
+                // W^(k+N/2) = -W^k
+                w3r = -wr[w3 - tableSize];
+                w3i = -wi[w3 - tableSize];
+            }
+
+            // Z = W^k * x[4m+1]のDFT, Z' = W^3k * x[4m+3]のDFT
+            double zr = w1r * re[i2] - w1i * im[i2];
+            double zi = w1r * im[i2] + w1i * re[i2];
+            double zzr = w3r * re[i3] - w3i * im[i3];
+            double zzi = w3r * im[i3] + w3i * re[i3];
+            double sr = zr + zzr, si = zi + zzi;
+            double dr = zr - zzr, di = zi - zzi;
+
+            double u0r = re[i0], u0i = im[i0];
+            double u1r = re[i1], u1i = im[i1];
+            re[i0] = u0r + sr;
+            im[i0] = u0i + si;
+            re[i2] = u0r - sr;
+            im[i2] = u0i - si;
+            // X[k+n/4] = U1 + sign*i*D, X[k+3n/4] = U1 - sign*i*D
+            re[i1] = u1r - sign * di;
+            im[i1] = u1i + sign * dr;
+            re[i3] = u1r + sign * di;
+            im[i3] = u1i - sign * dr;
+        }
+    }
+
+    /**
+     * Stockham自動ソートFFTを実行します。
+     * 各段でデータと作業用バッファの間を交互に書き込み(ピンポン)、出力を自然順のまま得るため、
+     * キャッシュ効率の悪いビット反転並べ替えのパスが不要です。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 回転因子テーブル
+     * @param scratch 呼び出し側が用意する作業用バッファ（先頭n要素を使用し、内容は破壊されます）
+     * @throws IllegalArgumentException 作業用バッファがn要素より短い場合
+     */
+    public static void fftStockham(ComplexArray data, int offset, int n, ComplexArray twiddles, ComplexArray scratch) {
+        if (n <= 1) return;
+        if (scratch.length() < n) {
+            throw new IllegalArgumentException("Scratch buffer is shorter than the transform size: " + scratch.length() + " < " + n);
+        }
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        int tableSize = twiddles.length();
+
+        // x: 読み出し側, y: 書き込み側（各段の終わりに入れ替える）
+        double[] xr = data.getRealArray(), xi = data.getImaginaryArray();
+        double[] yr = scratch.getRealArray(), yi = scratch.getImaginaryArray();
+        int xo = offset;
+        int yo = 0;
+
+        for (int len = n, s = 1; len > 1; len >>= 1, s <<= 1) {
+            int m = len >> 1;
+            int stride = tableSize * 2 / len;
+            for (int p = 0; p < m; p++) {
+                double wpr = wr[p * stride];
+                double wpi = wi[p * stride];
+                int a = xo + s * p;
+                int b = a + s * m;
+                int c = yo + s * 2 * p;
+                int d = c + s;
+                for (int q = 0; q < s; q++) {
+                    double ar = xr[a + q], ai = xi[a + q];
+                    double br = xr[b + q], bi = xi[b + q];
+                    double dr = ar - br, di = ai - bi;
+                    yr[c + q] = ar + br;
+                    yi[c + q] = ai + bi;
+                    yr[d + q] = dr * wpr - di * wpi;
+                    yi[d + q] = dr * wpi + di * wpr;
+                }
+            }
+            double[] tr = xr; xr = yr; yr = tr;
+            double[] ti = xi; xi = yi; yi = ti;
+            int to = xo; xo = yo; yo = to;
+        }
+
+        // 段数が奇数の場合、結果は作業用バッファ側にあるので書き戻す
+        if (xr != data.getRealArray()) {
+            System.arraycopy(xr, xo, data.getRealArray(), offset, n);
+            System.arraycopy(xi, xo, data.getImaginaryArray(), offset, n);
+        }
+    }
+
+    /**
+     * Vector APIが使用できればSIMD化したStockham FFTを、使用できなければスカラー版を実行します。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 回転因子テーブル
+     * @param scratch 作業用バッファ（n要素以上）
+     */
+    private static void fftStockhamBest(ComplexArray data, int offset, int n, ComplexArray twiddles, ComplexArray scratch) {
+        if (VECTOR_AVAILABLE && n > 1) {
+            if (scratch.length() < n) {
+                throw new IllegalArgumentException("Scratch buffer is shorter than the transform size: " + scratch.length() + " < " + n);
+            }
+            VectorFFT.fftStockham(data, offset, n, twiddles, scratch);
+        } else {
+            fftStockham(data, offset, n, twiddles, scratch);
+        }
+    }
+
+    /**
+     * 並列の4ステップ(Bailey) FFTを実行します。
+     * 長さN = N1 * N2のデータをN2行N1列の行列とみなし、
+     * 転置 → 長さN2の行FFT(N1本)と回転因子W_N^(n1*k2)の乗算 → 転置 → 長さN1の行FFT(N2本) → 転置
+     * の順に計算します。行ごとのFFTと回転因子の乗算、転置のタイルは互いに独立しているため、
+     * 共通のForkJoinPoolに分配して全コアで計算します。
+     * 行FFTには長さNの回転因子テーブルをストライドを変えてそのまま使うため、追加のテーブルは不要です。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 回転因子テーブル
+     * @param scratch 呼び出し側が用意する作業用バッファ（先頭n要素を使用し、内容は破壊されます）
+     * @throws IllegalArgumentException 作業用バッファがn要素より短い場合
+     */
+    public static void fftFourStep(ComplexArray data, int offset, int n, ComplexArray twiddles, ComplexArray scratch) {
+        if (n <= 1) return;
+        if (scratch.length() < n) {
+            throw new IllegalArgumentException("Scratch buffer is shorter than the transform size: " + scratch.length() + " < " + n);
+        }
+        if (n < 4) {
+            fftStockhamBest(data, offset, n, twiddles, scratch);
+            return;
+        }
+        int log2n = Integer.numberOfTrailingZeros(n);
+        int n1 = 1 << (log2n / 2);
+        int n2 = n / n1;
+
+        // 1. x[n1 + N1*n2]をN1行N2列に並べ替える
+        transposeParallel(data, offset, n2, n1, scratch, 0);
+
+        // 2-3. 長さN2の行FFTの後、各要素に回転因子W_N^(n1*k2)を掛ける
+        double[] re = scratch.getRealArray();
+        double[] im = scratch.getImaginaryArray();
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        int tableSize = twiddles.length();
+        int unit = tableSize * 2 / n;
+        IntStream.range(0, n1).parallel().forEach(row -> {
+            int start = row * n2;
+            fftStockhamBest(scratch, start, n2, twiddles, threadLocalScratch(n2));
+            for (int k = 1; k < n2; k++) {
+                int w = row * k * unit; // row * k < N なので、テーブルの2倍の範囲に収まる
+                double twr, twi;
+                if (w < tableSize) {
+                    twr = wr[w];
+                    twi = wi[w];
+                } else {
+                    // W^(k+N/2) = -W^k
+                    twr = -wr[w - tableSize];
+                    twi = -wi[w - tableSize];
+                }
+                double xr = re[start + k];
+                double xi = im[start + k];
+                re[start + k] = xr * twr - xi * twi;
+                im[start + k] = xr * twi + xi * twr;
+            }
+        });
+
+        // 4-5. N2行N1列に転置し、長さN1の行FFTを行う
+        transposeParallel(scratch, 0, n1, n2, data, offset);
+        IntStream.range(0, n2).parallel().forEach(row ->
+            fftStockhamBest(data, offset + row * n1, n1, twiddles, threadLocalScratch(n1)));
+
+        // 6. X[N2*k1 + k2]の順になるよう転置して書き戻す
+        transposeParallel(data, offset, n2, n1, scratch, 0);
+        System.arraycopy(re, 0, data.getRealArray(), offset, n);
+        System.arraycopy(im, 0, data.getImaginaryArray(), offset, n);
+    }
+
+    /**
+     * rows行cols列の行列(行優先)を転置してcols行rows列の行列として書き込みます。
+     * キャッシュ効率のためタイル単位で処理し、タイルの行ごとに共通のForkJoinPoolへ分配します。
+     * @param src 転置元の複素数配列
+     * @param srcOffset 転置元の開始インデックス
+     * @param rows 転置元の行数
+     * @param cols 転置元の列数
+     * @param dst 転置先の複素数配列（srcとは別の配列）
+     * @param dstOffset 転置先の開始インデックス
+     */
+    private static void transposeParallel(ComplexArray src, int srcOffset, int rows, int cols, ComplexArray dst, int dstOffset) {
+        int tileRows = (rows + TRANSPOSE_TILE - 1) / TRANSPOSE_TILE;
+        IntStream.range(0, tileRows).parallel().forEach(tile ->
+            transposeTileRow(src, srcOffset, rows, cols, dst, dstOffset, tile));
+    }
+
+    /**
+     * rows行cols列の行列(行優先)を転置して、cols行rows列の行列として別の配列に書き込みます。
+     * TRANSPOSE_TILE四方のタイル単位で読み書きするため、転置先への列方向のストライドの書き込みがキャッシュに収まり、
+     * 要素ごとに転置する場合のようなキャッシュミスの連続を避けられます。
+     * 要素数がPARALLEL_BATCH_THRESHOLD以上で複数のスレッドが使える場合は、タイルの行ごとに共通のForkJoinPoolへ分配します。
+     * @param src 転置元の複素数配列
+     * @param srcOffset 転置元の開始インデックス
+     * @param rows 転置元の行数
+     * @param cols 転置元の列数
+     * @param dst 転置先の複素数配列（srcとは別の配列）
+     * @param dstOffset 転置先の開始インデックス
+     */
+    public static void transpose(ComplexArray src, int srcOffset, int rows, int cols, ComplexArray dst, int dstOffset) {
+        if ((long) rows * cols >= PARALLEL_BATCH_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            transposeParallel(src, srcOffset, rows, cols, dst, dstOffset);
+            return;
+        }
+        for (int tile = 0; tile * TRANSPOSE_TILE < rows; tile++) {
+            transposeTileRow(src, srcOffset, rows, cols, dst, dstOffset, tile);
+        }
+    }
+
+    // 転置元のtile番目のタイルの行（TRANSPOSE_TILE行分）を転置先に書き込む
+    private static void transposeTileRow(ComplexArray src, int srcOffset, int rows, int cols, ComplexArray dst, int dstOffset, int tile) {
+        double[] sr = src.getRealArray(), si = src.getImaginaryArray();
+        double[] dr = dst.getRealArray(), di = dst.getImaginaryArray();
+        int i0 = tile * TRANSPOSE_TILE;
+        int i1 = Math.min(i0 + TRANSPOSE_TILE, rows);
+        for (int j0 = 0; j0 < cols; j0 += TRANSPOSE_TILE) {
+            int j1 = Math.min(j0 + TRANSPOSE_TILE, cols);
+            for (int i = i0; i < i1; i++) {
+                int from = srcOffset + i * cols;
+                for (int j = j0; j < j1; j++) {
+                    int to = dstOffset + j * rows + i;
+                    dr[to] = sr[from + j];
+                    di[to] = si[from + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * n行n列の正方行列(行優先)をその場で転置します（作業用の配列を使いません）。
+     * 対角より上のタイルと、それに対応する対角より下のタイルの要素をタイル単位で交換します。
+     * @param data 転置する複素数配列
+     * @param offset 行列の開始インデックス
+     * @param n 行列の行数(=列数)
+     */
+    public static void transposeInPlace(ComplexArray data, int offset, int n) {
+        double[] re = data.getRealArray();
+        double[] im = data.getImaginaryArray();
+        for (int i0 = 0; i0 < n; i0 += TRANSPOSE_TILE) {
+            int i1 = Math.min(i0 + TRANSPOSE_TILE, n);
+            for (int j0 = i0; j0 < n; j0 += TRANSPOSE_TILE) {
+                int j1 = Math.min(j0 + TRANSPOSE_TILE, n);
+                for (int i = i0; i < i1; i++) {
+                    for (int j = Math.max(j0, i + 1); j < j1; j++) {
+                        int a = offset + i * n + j;
+                        int b = offset + j * n + i;
+                        double tr = re[a], ti = im[a];
+                        re[a] = re[b];
+                        im[a] = im[b];
+                        re[b] = tr;
+                        im[b] = ti;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * データ長が十分に長く、複数のスレッドが使える場合は並列の4ステップFFTを、
+     * それ以外の場合は(Vector APIが使用できればSIMD化した)Stockham FFTを実行します。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 回転因子テーブル
+     * @param scratch 作業用バッファ（n要素以上）
+     */
+    private static void fftWithScratch(ComplexArray data, int offset, int n, ComplexArray twiddles, ComplexArray scratch) {
+        if (n >= FOUR_STEP_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            fftFourStep(data, offset, n, twiddles, scratch);
+        } else {
+            fftStockhamBest(data, offset, n, twiddles, scratch);
+        }
+    }
+
+    /**
+     * Stockhamカーネル用に、現在のスレッドの作業用バッファ(n要素以上)を取得します。
+     * @param n 必要な要素数
+     * @return 作業用バッファ
+     */
+    private static ComplexArray threadLocalScratch(int n) {
+        ComplexArray scratch = stockhamScratch.get();
+        if (scratch == null || scratch.length() < n) {
+            scratch = new ComplexArray(n);
+            stockhamScratch.set(scratch);
+        }
+        return scratch;
+    }
+
+    /**
+     * 呼び出し側の作業用バッファを使い、指定されたカーネルでFFTの本体（スケーリングを除く）を実行します。
+     * 作業用バッファを使うカーネル(STOCKHAM, VECTOR, FOUR_STEP)ではscratchを使い、
+     * それ以外のカーネルやscratchがnullの場合はスレッドごとの作業用バッファを使います。
+     * VECTORカーネルでは、作業用バッファを指定したfft/ifftと同様にFOUR_STEP_THRESHOLD以上で並列の4ステップFFTになります。
+     * @param data 変換する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 回転因子テーブル
+     * @param kernel 使用するFFTカーネル
+     * @param inverse 逆変換の場合true
+     * @param scratch 作業用バッファ（n要素以上、またはnull）
+     */
+    static void transform(ComplexArray data, int offset, int n, ComplexArray twiddles, FFTKernel kernel, boolean inverse, ComplexArray scratch) {
+        if (scratch == null) {
+            transform(data, offset, n, twiddles, kernel, inverse);
+            return;
+        }
+        switch (kernel) {
+            case STOCKHAM:
+                fftStockham(data, offset, n, twiddles, scratch);
+                break;
+            case VECTOR:
+                fftWithScratch(data, offset, n, twiddles, scratch);
+                break;
+            case FOUR_STEP:
+                fftFourStep(data, offset, n, twiddles, scratch);
+                break;
+            default:
+                transform(data, offset, n, twiddles, kernel, inverse);
+                break;
+        }
+    }
+
+    /**
+     * 指定されたカーネルでFFTの本体（スケーリングを除く）を実行し、自然順の結果を得ます。
+     * @param data 変換する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 回転因子テーブル
+     * @param kernel 使用するFFTカーネル
+     * @param inverse 逆変換の場合true
+     */
+    private static void transform(ComplexArray data, int offset, int n, ComplexArray twiddles, FFTKernel kernel, boolean inverse) {
+        switch (kernel) {
+            case RECURSIVE:
+                fftRecursive(data, offset, n, twiddles);
+                bitReverseReorder(data, offset, n);
+                break;
+            case ITERATIVE:
+                fftIterative(data, offset, n, twiddles);
+                break;
+            case RADIX4:
+                fftRadix4(data, offset, n, twiddles, inverse);
+                break;
+            case SPLIT_RADIX:
+                fftSplitRadix(data, offset, n, twiddles, inverse);
+                break;
+            case STOCKHAM:
+                fftStockham(data, offset, n, twiddles, threadLocalScratch(n));
+                break;
+            case VECTOR:
+                fftStockhamBest(data, offset, n, twiddles, threadLocalScratch(n));
+                break;
+            case FOUR_STEP: {
+                ComplexArray scratch = fourStepScratch.get();
+                if (scratch == null || scratch.length() < n) {
+                    scratch = new ComplexArray(n);
+                    fourStepScratch.set(scratch);
+                }
+                fftFourStep(data, offset, n, twiddles, scratch);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported FFT kernel: " + kernel);
+        }
+    }
+
+    /**
+     * 連続して並んだcount本の長さnの列に、指定されたカーネルでFFTの本体（スケーリングを除く）を実行します。
+     * 要素数の合計がPARALLEL_BATCH_THRESHOLD以上で複数のスレッドが使える場合は、列を共通のForkJoinPoolに分配します。
+     * ITERATIVEカーネルでは、L1キャッシュに収まる本数ずつ列をまとめ、
+     * 回転因子を1回読み込むたびにまとめた全ての列のバタフライ演算を行います（fftIterativeBatch）。
+     * それ以外のカーネルでは、分配した範囲ごとにスレッドの作業用バッファを使い回して1本ずつ変換します
+     * （基数4・分割基数・SIMD化したカーネルは1本ずつの方が速いため）。
+     * 2の冪乗でない長さでは、1本ずつ混合基数FFTまたはBluestein FFTで変換します（この場合はスケーリングも含みます）。
+     * @param data 変換する複素数配列
+     * @param offset 最初の列の開始インデックス
+     * @param n 各列の要素数
+     * @param count 列の本数
+     * @param twiddles 回転因子テーブル（2の冪乗でない長さではnull）
+     * @param kernel 使用するFFTカーネル
+     * @param inverse 逆変換の場合true
+     */
+    static void transformBatch(ComplexArray data, int offset, int n, int count, ComplexArray twiddles, FFTKernel kernel, boolean inverse) {
+        if (count <= 0) return;
+        if ((long) n * count >= PARALLEL_BATCH_THRESHOLD && count > 1 && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            // 各スレッドに数回分の仕事が行き渡る程度に分割する
+            int chunks = Math.min(count, ForkJoinPool.getCommonPoolParallelism() * 4);
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int first = (int) ((long) count * chunk / chunks);
+                int last = (int) ((long) count * (chunk + 1) / chunks);
+                transformBatchSequential(data, offset + first * n, n, last - first, twiddles, kernel, inverse);
+            });
+        } else {
+            transformBatchSequential(data, offset, n, count, twiddles, kernel, inverse);
+        }
+    }
+
+    private static void transformBatchSequential(ComplexArray data, int offset, int n, int count, ComplexArray twiddles, FFTKernel kernel, boolean inverse) {
+        if (!isPowerOfTwo(n)) {
+            for (int i = 0; i < count; i++) {
+                if (inverse) {
+                    ifftAnyLength(data, offset + i * n, n);
+                } else {
+                    fftAnyLength(data, offset + i * n, n);
+                }
+            }
+            return;
+        }
+        switch (kernel) {
+            case ITERATIVE: {
+                int block = Math.max(1, BATCH_BLOCK_ELEMENTS / n);
+                for (int first = 0; first < count; first += block) {
+                    fftIterativeBatch(data, offset + first * n, n, Math.min(block, count - first), twiddles);
+                }
+                break;
+            }
+            default:
+                // 4ステップFFTは内部の行FFTでstockhamScratchを使うため、スレッドごとの作業用バッファの選択はtransformに任せる
+                for (int i = 0; i < count; i++) {
+                    transform(data, offset + i * n, n, twiddles, kernel, inverse);
+                }
+                break;
+        }
+    }
+
+    /**
+     * 連続して並んだcount本の長さnの列に、反復的な基数2 FFTをまとめて実行します（インプレース）。
+     * 各列をビット反転順に並べ替えてコードレットで最初の段群を処理した後、残りの段では
+     * 回転因子を1回読み込むごとに全ての列の同じ位置のバタフライ演算を行うため、
+     * 1本ずつ変換する場合に比べて回転因子テーブルの読み込みと段ごとのループのオーバーヘッドが列の本数分の1になります。
+     * @param data FFTを適用する複素数配列
+     * @param offset 最初の列の開始インデックス
+     * @param n 各列の要素数(2の冪乗)
+     * @param count 列の本数
+     * @param twiddles 回転因子テーブル（順変換なら順回転因子、逆変換なら逆回転因子）
+     */
+    static void fftIterativeBatch(ComplexArray data, int offset, int n, int count, ComplexArray twiddles) {
+        if (n <= 1) return;
+        double[] re = data.getRealArray();
+        double[] im = data.getImaginaryArray();
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        int end = offset + n * count;
+
+        int leaf = Math.min(n, FFTCodelets.MAX_SIZE);
+        double sign = twiddleSign(twiddles);
+        for (int row = offset; row < end; row += n) {
+            bitReverseReorder(data, row, n);
+            for (int start = row; start < row + n; start += leaf) {
+                FFTCodelets.dit(re, im, start, leaf, sign);
+            }
+        }
+
+        for (int len = leaf * 2; len <= n; len <<= 1) {
+            int half = len >> 1;
+            int stride = twiddles.length() * 2 / len;
+            for (int k = 0; k < half; k++) {
+                double twr = wr[k * stride];
+                double twi = wi[k * stride];
+                // 長さlenのブロックは全ての列を通して等間隔に並ぶため、列の境界を意識せずに走査できる
+                for (int i = offset + k; i < end; i += len) {
+                    int j = i + half;
+                    double tr = twr * re[j] - twi * im[j];
+                    double ti = twr * im[j] + twi * re[j];
+                    re[j] = re[i] - tr;
+                    im[j] = im[i] - ti;
+                    re[i] += tr;
+                    im[i] += ti;
+                }
+            }
+        }
+    }
+
+    /**
+     * 複素数配列全体に順変換FFTを適用します。
+     * @param data FFTを適用する複素数配列
+     * @param twiddles 事前計算された回転因子テーブル
+     */
+    public static void fft(ComplexArray data, ComplexArray twiddles) {
+        fft(data, 0, data.length(), twiddles);
+    }
+
+    /**
+     * 複素数配列の指定範囲に順変換FFTを適用します。
+     * 2次元データの各行を、行ごとの配列を作らずに変換する場合に使用します。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 事前計算された回転因子テーブル
+     */
+    public static void fft(ComplexArray data, int offset, int n, ComplexArray twiddles) {
+        fft(data, offset, n, twiddles, defaultKernel);
+    }
+
+    /**
+     * 指定したカーネルで、複素数配列の指定範囲に順変換FFTを適用します。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 事前計算された回転因子テーブル
+     * @param kernel 使用するFFTカーネル
+     */
+    public static void fft(ComplexArray data, int offset, int n, ComplexArray twiddles, FFTKernel kernel) {
+        transform(data, offset, n, twiddles, kernel, false);
+    }
+
+    /**
+     * 呼び出し側の作業用バッファを使い、Stockham FFTで複素数配列の指定範囲に順変換FFTを適用します。
+     * Vector APIが使用できる場合はSIMD化したカーネルで計算し、
+     * データ長がFOUR_STEP_THRESHOLD以上の場合は並列の4ステップFFTで計算します。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 事前計算された回転因子テーブル
+     * @param scratch 作業用バッファ（n要素以上）
+     */
+    public static void fft(ComplexArray data, int offset, int n, ComplexArray twiddles, ComplexArray scratch) {
+        fftWithScratch(data, offset, n, twiddles, scratch);
+    }
+
+    /**
+     * 複素数配列全体に逆FFT（IFFT）を適用します。
+     * @param data IFFTを適用する複素数配列
+     * @param invTwiddles 逆変換用の回転因子テーブル
+     */
+    public static void ifft(ComplexArray data, ComplexArray invTwiddles) {
+        ifft(data, 0, data.length(), invTwiddles);
+    }
+
+    /**
+     * 複素数配列の指定範囲に逆FFT（IFFT）を適用し、最後に要素数でスケーリングします。
+     * @param data IFFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param invTwiddles 逆変換用の回転因子テーブル
+     */
+    public static void ifft(ComplexArray data, int offset, int n, ComplexArray invTwiddles) {
+        ifft(data, offset, n, invTwiddles, defaultKernel);
+    }
+
+    /**
+     * 指定したカーネルで、複素数配列の指定範囲に逆FFT（IFFT）を適用し、最後に要素数でスケーリングします。
+     * @param data IFFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param invTwiddles 逆変換用の回転因子テーブル
+     * @param kernel 使用するFFTカーネル
+     */
+    public static void ifft(ComplexArray data, int offset, int n, ComplexArray invTwiddles, FFTKernel kernel) {
+        transform(data, offset, n, invTwiddles, kernel, true);
+        scale(data, offset, n, 1.0 / n);
+    }
+
+    /**
+     * 呼び出し側の作業用バッファを使い、Stockham FFTで複素数配列の指定範囲に逆FFT（IFFT）を適用します。
+     * Vector APIが使用できる場合は、バタフライ演算と最後のスケーリングをSIMD化したカーネルで計算し、
+     * データ長がFOUR_STEP_THRESHOLD以上の場合は並列の4ステップFFTで計算します。
+     * @param data IFFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param invTwiddles 逆変換用の回転因子テーブル
+     * @param scratch 作業用バッファ（n要素以上）
+     */
+    public static void ifft(ComplexArray data, int offset, int n, ComplexArray invTwiddles, ComplexArray scratch) {
+        fftWithScratch(data, offset, n, invTwiddles, scratch);
+        scale(data, offset, n, 1.0 / n);
+    }
+
+    /**
+     * データ長が2の冪乗かを判定します。
+     * @param n データ長
+     * @return 1以上の2の冪乗ならtrue
+     */
+    public static boolean isPowerOfTwo(int n) {
+        return n > 0 && (n & (n - 1)) == 0;
+    }
+
+    /**
+     * Bluestein FFTで使う、データ長ごとの事前計算結果。
+     * chirp[k] = exp(-πik²/N) と、畳み込みの相手 conj(chirp) を長さMでFFTし1/Mを掛けたスペクトルを保持します。
+     */
+    private static final class BluesteinPlan {
+        final int m; // 畳み込みに使う2の冪乗の長さ(2N-1以上)
+        final ComplexArray chirp;
+        final ComplexArray kernelSpectrum;
+        final ComplexArray twiddles, invTwiddles;
+
+        BluesteinPlan(int n) {
+            this.m = Integer.highestOneBit(2 * n - 1) << 1;
+            // 同じ長さの2の冪乗のFFTPlanと回転因子テーブルを共有する
+            TwiddleTable table = TwiddleTable.get(m);
+            this.twiddles = table.forwardTable();
+            this.invTwiddles = table.inverseTable();
+            this.chirp = new ComplexArray(n);
+            for (int k = 0; k < n; k++) {
+                // k²が大きくなっても精度が落ちないよう、周期2Nで剰余をとってから角度にする
+                long r = ((long) k * k) % (2L * n);
+                double angle = -Math.PI * r / n;
+                chirp.set(k, Math.cos(angle), Math.sin(angle));
+            }
+            this.kernelSpectrum = new ComplexArray(m);
+            kernelSpectrum.set(0, chirp.getReal(0), -chirp.getImaginary(0));
+            for (int k = 1; k < n; k++) {
+                kernelSpectrum.set(k, chirp.getReal(k), -chirp.getImaginary(k));
+                kernelSpectrum.set(m - k, chirp.getReal(k), -chirp.getImaginary(k));
+            }
+            transform(kernelSpectrum, 0, m, twiddles, FFTKernel.VECTOR, false);
+            kernelSpectrum.scaleInPlace(1.0 / m);
+        }
+    }
+
+    /**
+     * Bluestein(chirp-z) FFTで、任意の長さの範囲に順変換FFTを適用します。
+     * nk = (n² + k² - (k-n)²) / 2 を使ってDFTをchirp信号との畳み込みに書き換え、
+     * 畳み込みを2N-1以上の2の冪乗の長さのFFTで計算するため、2の冪乗でない長さでもO(N log N)で計算できます。
+     * chirp信号と畳み込みの相手のスペクトルはデータ長ごとにキャッシュされます。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(任意の正の整数)
+     */
+    public static void fftBluestein(ComplexArray data, int offset, int n) {
+        if (n <= 1) return;
+        BluesteinPlan plan = bluesteinPlans.get(n);
+        int m = plan.m;
+        ComplexArray work = bluesteinWork.get();
+        if (work == null || work.length() < m) {
+            work = new ComplexArray(m);
+            bluesteinWork.set(work);
+        }
+        double[] re = data.getRealArray(), im = data.getImaginaryArray();
+        double[] wr = work.getRealArray(), wi = work.getImaginaryArray();
+        double[] cr = plan.chirp.getRealArray(), ci = plan.chirp.getImaginaryArray();
+
+        // a[j] = x[j] * chirp[j]（長さMまで0で埋める）
+        for (int j = 0; j < n; j++) {
+            double xr = re[offset + j], xi = im[offset + j];
+            wr[j] = xr * cr[j] - xi * ci[j];
+            wi[j] = xr * ci[j] + xi * cr[j];
+        }
+        Arrays.fill(wr, n, m, 0.0);
+        Arrays.fill(wi, n, m, 0.0);
+
+        // 畳み込み: IFFT(FFT(a) * FFT(conj(chirp)))（1/Mはキャッシュ側で掛けてある）
+        transform(work, 0, m, plan.twiddles, FFTKernel.VECTOR, false);
+        double[] kr = plan.kernelSpectrum.getRealArray(), ki = plan.kernelSpectrum.getImaginaryArray();
+        for (int j = 0; j < m; j++) {
+            double ar = wr[j], ai = wi[j];
+            wr[j] = ar * kr[j] - ai * ki[j];
+            wi[j] = ar * ki[j] + ai * kr[j];
+        }
+        transform(work, 0, m, plan.invTwiddles, FFTKernel.VECTOR, true);
+
+        // X[k] = chirp[k] * (a * conj(chirp))[k]
+        for (int k = 0; k < n; k++) {
+            re[offset + k] = wr[k] * cr[k] - wi[k] * ci[k];
+            im[offset + k] = wr[k] * ci[k] + wi[k] * cr[k];
+        }
+    }
+
+    /**
+     * Bluestein(chirp-z) FFTで、任意の長さの範囲に逆FFT（IFFT）を適用し、最後に要素数でスケーリングします。
+     * IFFT(x) = conj(FFT(conj(x))) / N の関係を使い、順変換と同じキャッシュを共有します。
+     * @param data IFFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(任意の正の整数)
+     */
+    public static void ifftBluestein(ComplexArray data, int offset, int n) {
+        double[] im = data.getImaginaryArray();
+        for (int i = offset; i < offset + n; i++) {
+            im[i] = -im[i];
+        }
+        fftBluestein(data, offset, n);
+        scale(data, offset, n, 1.0 / n);
+        for (int i = offset; i < offset + n; i++) {
+            im[i] = -im[i];
+        }
+    }
+
+    /**
+     * 任意の長さの範囲に順変換FFTを適用します。
+     * 素因数が2・3・5・7だけの長さは混合基数FFTで、それ以外(大きな素因数を持つ長さ)はBluestein FFTで計算します。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(任意の正の整数)
+     */
+    public static void fftAnyLength(ComplexArray data, int offset, int n) {
+        if (MixedRadixFFT.isSupported(n)) {
+            MixedRadixFFT.fft(data, offset, n);
+        } else {
+            fftBluestein(data, offset, n);
+        }
+    }
+
+    /**
+     * 任意の長さの範囲に逆FFT（IFFT）を適用し、最後に要素数でスケーリングします。
+     * 素因数が2・3・5・7だけの長さは混合基数FFTで、それ以外はBluestein FFTで計算します。
+     * @param data IFFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(任意の正の整数)
+     */
+    public static void ifftAnyLength(ComplexArray data, int offset, int n) {
+        if (MixedRadixFFT.isSupported(n)) {
+            MixedRadixFFT.ifft(data, offset, n);
+        } else {
+            ifftBluestein(data, offset, n);
+        }
+    }
+
+    /**
+     * 実数列の順変換FFT(R2C)を行います。
+     * 長さNの実数列を偶数番目を実部・奇数番目を虚部とする長さN/2の複素数列に詰めてFFTし、
+     * エルミート対称性 X[N-k] = conj(X[k]) を使って後処理するため、
+     * 虚部0の複素数列に対するFFTに比べて計算量とメモリがほぼ半分になります。
+     * 出力は非負の周波数 k = 0..N/2 のN/2+1個の係数です（残りはconj(X[N-k])で求まります）。
+     * @param input 実数列
+     * @param inOffset 実数列の開始インデックス
+     * @param n 実数列の要素数(2の冪乗)
+     * @param spectrum 結果を書き込む複素数配列（outOffsetからN/2+1要素を使用）
+     * @param outOffset 結果の開始インデックス
+     * @param twiddles 長さN用の(順変換の)回転因子テーブル
+     * @param scratch 作業用バッファ（N/2要素以上）
+     */
+    public static void realFft(double[] input, int inOffset, int n, ComplexArray spectrum, int outOffset, ComplexArray twiddles, ComplexArray scratch) {
+        realFft(input, inOffset, n, spectrum, outOffset, twiddles, FFTKernel.VECTOR, scratch);
+    }
+
+    /**
+     * 内部の長さN/2の複素FFTに使うカーネルを指定して、実数列の順変換FFT(R2C)を行います。
+     * FFTPlannerが長さN/2に選んだカーネルを渡すことを想定しています。
+     * @param input 実数列
+     * @param inOffset 実数列の開始インデックス
+     * @param n 実数列の要素数(2の冪乗)
+     * @param spectrum 結果を書き込む複素数配列（outOffsetからN/2+1要素を使用）
+     * @param outOffset 結果の開始インデックス
+     * @param twiddles 長さN用の(順変換の)回転因子テーブル
+     * @param kernel 内部の複素FFTに使うカーネル
+     * @param scratch 作業用バッファ（N/2要素以上）
+     */
+    public static void realFft(double[] input, int inOffset, int n, ComplexArray spectrum, int outOffset, ComplexArray twiddles, FFTKernel kernel, ComplexArray scratch) {
+        double[] re = spectrum.getRealArray();
+        double[] im = spectrum.getImaginaryArray();
+        if (n == 1) {
+            spectrum.set(outOffset, input[inOffset], 0.0);
+            return;
+        }
+        int half = n / 2;
+        // z[m] = x[2m] + i*x[2m+1]
+        for (int m = 0; m < half; m++) {
+            re[outOffset + m] = input[inOffset + 2 * m];
+            im[outOffset + m] = input[inOffset + 2 * m + 1];
+        }
+        transform(spectrum, outOffset, half, twiddles, kernel, false, scratch);
+
+        // E[k] = (Z[k] + conj(Z[N/2-k])) / 2 : 偶数番目のDFT
+        // O[k] = (Z[k] - conj(Z[N/2-k])) / 2i : 奇数番目のDFT
+        // X[k] = E[k] + W^k O[k], X[N/2-k] = conj(E[k] - W^k O[k])
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        int unit = twiddles.length() * 2 / n;
+        double z0r = re[outOffset], z0i = im[outOffset];
+        spectrum.set(outOffset, z0r + z0i, 0.0);
+        spectrum.set(outOffset + half, z0r - z0i, 0.0);
+        for (int k = 1; k <= half / 2; k++) {
+            int a = outOffset + k;
+            int b = outOffset + half - k;
+            double zkr = re[a], zki = im[a];
+            double zjr = re[b], zji = im[b];
+            double er = (zkr + zjr) * 0.5, ei = (zki - zji) * 0.5;
+            double or = (zki + zji) * 0.5, oi = (zjr - zkr) * 0.5;
+            double twr = wr[k * unit], twi = wi[k * unit];
+            double tr = twr * or - twi * oi;
+            double ti = twr * oi + twi * or;
+            re[a] = er + tr;
+            im[a] = ei + ti;
+            re[b] = er - tr;
+            im[b] = ti - ei;
+        }
+    }
+
+    /**
+     * エルミート対称なスペクトルの逆FFT(C2R)を行い、実数列を求めます。
+     * realFftの逆の手順で、非負の周波数 k = 0..N/2 の係数から長さN/2の複素数列を組み立てて逆FFTし、
+     * 実部・虚部をそれぞれ偶数番目・奇数番目の実数として取り出します（1/Nのスケーリングを含みます）。
+     * @param spectrum 非負の周波数のN/2+1個の係数（inOffsetから先頭N/2要素は作業領域として破壊されます）
+     * @param inOffset 係数の開始インデックス
+     * @param n 結果の実数列の要素数(2の冪乗)
+     * @param output 結果を書き込む実数配列
+     * @param outOffset 結果の開始インデックス
+     * @param invTwiddles 長さN用の逆変換の回転因子テーブル
+     * @param scratch 作業用バッファ（N/2要素以上）
+     */
+    public static void inverseRealFft(ComplexArray spectrum, int inOffset, int n, double[] output, int outOffset, ComplexArray invTwiddles, ComplexArray scratch) {
+        inverseRealFft(spectrum, inOffset, n, output, outOffset, invTwiddles, FFTKernel.VECTOR, scratch);
+    }
+
+    /**
+     * 内部の長さN/2の複素FFTに使うカーネルを指定して、エルミート対称なスペクトルの逆FFT(C2R)を行います。
+     * @param spectrum 非負の周波数のN/2+1個の係数（inOffsetから先頭N/2要素は作業領域として破壊されます）
+     * @param inOffset 係数の開始インデックス
+     * @param n 結果の実数列の要素数(2の冪乗)
+     * @param output 結果を書き込む実数配列
+     * @param outOffset 結果の開始インデックス
+     * @param invTwiddles 長さN用の逆変換の回転因子テーブル
+     * @param kernel 内部の複素FFTに使うカーネル
+     * @param scratch 作業用バッファ（N/2要素以上）
+     */
+    public static void inverseRealFft(ComplexArray spectrum, int inOffset, int n, double[] output, int outOffset, ComplexArray invTwiddles, FFTKernel kernel, ComplexArray scratch) {
+        double[] re = spectrum.getRealArray();
+        double[] im = spectrum.getImaginaryArray();
+        if (n == 1) {
+            output[outOffset] = re[inOffset];
+            return;
+        }
+        int half = n / 2;
+
+        // E[k] = (X[k] + conj(X[N/2-k])) / 2, O[k] = (X[k] - conj(X[N/2-k])) / 2 * W^-k
+        // Z[k] = E[k] + i O[k], Z[N/2-k] = conj(E[k]) + i conj(O[k])
+        double[] wr = invTwiddles.getRealArray();
+        double[] wi = invTwiddles.getImaginaryArray();
+        int unit = invTwiddles.length() * 2 / n;
+        double x0r = re[inOffset], x0i = im[inOffset];
+        double xhr = re[inOffset + half], xhi = im[inOffset + half];
+        double e0r = (x0r + xhr) * 0.5, e0i = (x0i - xhi) * 0.5;
+        double o0r = (x0r - xhr) * 0.5, o0i = (x0i + xhi) * 0.5;
+        spectrum.set(inOffset, e0r - o0i, e0i + o0r);
+        for (int k = 1; k <= half / 2; k++) {
+            int a = inOffset + k;
+            int b = inOffset + half - k;
+            double xkr = re[a], xki = im[a];
+            double xjr = re[b], xji = im[b];
+            double er = (xkr + xjr) * 0.5, ei = (xki - xji) * 0.5;
+            double dr = (xkr - xjr) * 0.5, di = (xki + xji) * 0.5;
+            double twr = wr[k * unit], twi = wi[k * unit];
+            double or = dr * twr - di * twi;
+            double oi = dr * twi + di * twr;
+            re[a] = er - oi;
+            im[a] = ei + or;
+            re[b] = er + oi;
+            im[b] = or - ei;
+        }
+
+        transform(spectrum, inOffset, half, invTwiddles, kernel, true, scratch);
+        double scale = 1.0 / half;
+        for (int m = 0; m < half; m++) {
+            output[outOffset + 2 * m] = re[inOffset + m] * scale;
+            output[outOffset + 2 * m + 1] = im[inOffset + m] * scale;
+        }
+    }
+
+    /**
+     * 任意の(エルミート対称とは限らない)スペクトルから、エルミート対称な成分
+     * H[k] = (Y[k] + conj(Y[N-k])) / 2 の非負の周波数 k = 0..N/2 の係数を取り出します。
+     * 逆FFTの結果の実部はHの逆FFTと一致するため、編集されたスペクトルの逆変換にinverseRealFftを使えます。
+     * @param full 長さNのスペクトル（シフトなし。読み出すだけのため、値を保持しない読み取り専用の配列でも構いません）
+     * @param offset スペクトルの開始インデックス
+     * @param n スペクトルの要素数
+     * @param half 結果を書き込む複素数配列（halfOffsetからN/2+1要素を使用）
+     * @param halfOffset 結果の開始インデックス
+     */
+    public static void hermitianHalf(ComplexView full, int offset, int n, ComplexArray half, int halfOffset) {
+        for (int k = 0; k <= n / 2; k++) {
+            int index = offset + k;
+            int mirror = offset + (n - k) % n;
+            half.set(halfOffset + k, (full.getReal(index) + full.getReal(mirror)) * 0.5,
+                (full.getImaginary(index) - full.getImaginary(mirror)) * 0.5);
+        }
+    }
+
+    /**
+     * 非負の周波数 k = 0..N/2 の係数から、エルミート対称性 X[N-k] = conj(X[k]) を使って長さNのスペクトルを復元します。
+     * @param half 非負の周波数のN/2+1個の係数
+     * @param halfOffset 係数の開始インデックス
+     * @param n 復元するスペクトルの要素数
+     * @param full 結果を書き込む複素数配列（offsetからN要素を使用）
+     * @param offset 結果の開始インデックス
+     */
+    public static void expandHermitian(ComplexArray half, int halfOffset, int n, ComplexArray full, int offset) {
+        for (int k = 0; k <= n / 2; k++) {
+            full.set(offset + k, half.getReal(halfOffset + k), half.getImaginary(halfOffset + k));
+        }
+        for (int k = n / 2 + 1; k < n; k++) {
+            full.set(offset + k, half.getReal(halfOffset + n - k), -half.getImaginary(halfOffset + n - k));
+        }
+    }
+
+    /**
+     * 複素数配列の指定範囲をスカラー倍します（Vector APIが使用できる場合はSIMD化して計算します）。
+     * @param data 対象の複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数
+     * @param alpha 倍率
+     */
+    static void scale(ComplexArray data, int offset, int n, double alpha) {
+        if (VECTOR_AVAILABLE) {
+            VectorFFT.scale(data, offset, n, alpha);
+            return;
+        }
+        double[] re = data.getRealArray();
+        double[] im = data.getImaginaryArray();
+        for (int i = offset; i < offset + n; i++) {
+            re[i] *= alpha;
+            im[i] *= alpha;
+        }
+    }
+
+    // --- 単精度(float)のFFT ---
+    // 8ビットの画像のように入力の精度が低いデータ向けに、ComplexFloatArrayに対するStockham FFTと実数列のFFTを提供します。
+    // 単精度の丸め誤差 ε = 2^-24 (約6e-8) に対して、Stockham FFTの誤差はスペクトルのL2ノルムに対する相対誤差で
+    // おおむね ε·log2(N) 以下(二乗平均では ε·√log2(N) 程度)に収まります。例えば4096×4096の画像の2次元FFTでは
+    // 相対誤差が約1e-6で、0〜255の画素値を逆変換で再構成したときの誤差は1e-3階調程度です。
+    // 回転因子は倍精度で計算してから単精度に丸めるため、テーブル自体の誤差はε/2以下です。
+
+    /**
+     * 単精度の順変換の回転因子テーブルを作成します（倍精度で計算した値を丸めます）。
+     * @param n FFTの長さ(2の冪乗)
+     * @return 回転因子テーブル
+     */
+    public static ComplexFloatArray createTwiddlesFloat(int n) {
+        return ComplexFloatArray.fromComplexArray(createTwiddles(n));
+    }
+
+    /**
+     * 単精度の逆変換の回転因子テーブルを作成します（倍精度で計算した値を丸めます）。
+     * @param n FFTの長さ(2の冪乗)
+     * @return 回転因子テーブル
+     */
+    public static ComplexFloatArray createInverseTwiddlesFloat(int n) {
+        return ComplexFloatArray.fromComplexArray(createInverseTwiddles(n));
+    }
+
+    /**
+     * 単精度の複素数配列の指定範囲に順変換FFTを適用します（Vector APIが使用できる場合はSIMD化して計算します）。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 単精度の回転因子テーブル
+     * @param scratch 作業用バッファ（n要素以上）
+     * @throws IllegalArgumentException nが2の冪乗でない場合、または作業用バッファがn要素より短い場合
+     */
+    public static void fft(ComplexFloatArray data, int offset, int n, ComplexFloatArray twiddles, ComplexFloatArray scratch) {
+        fftStockhamFloat(data, offset, n, twiddles, scratch);
+    }
+
+    /**
+     * 単精度の複素数配列の指定範囲に逆変換FFTを適用します（1/Nのスケーリングを含みます）。
+     * @param data IFFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param invTwiddles 単精度の逆変換の回転因子テーブル
+     * @param scratch 作業用バッファ（n要素以上）
+     * @throws IllegalArgumentException nが2の冪乗でない場合、または作業用バッファがn要素より短い場合
+     */
+    public static void ifft(ComplexFloatArray data, int offset, int n, ComplexFloatArray invTwiddles, ComplexFloatArray scratch) {
+        fftStockhamFloat(data, offset, n, invTwiddles, scratch);
+        float alpha = 1.0f / n;
+        float[] re = data.getRealArray();
+        float[] im = data.getImaginaryArray();
+        for (int i = offset; i < offset + n; i++) {
+            re[i] *= alpha;
+            im[i] *= alpha;
+        }
+    }
+
+    // 単精度のStockham FFT（Vector APIが使用できればSIMD化したものを使う）
+    private static void fftStockhamFloat(ComplexFloatArray data, int offset, int n, ComplexFloatArray twiddles, ComplexFloatArray scratch) {
+        if (!isPowerOfTwo(n)) {
+            throw new IllegalArgumentException("Single-precision FFT supports only power-of-two sizes: " + n);
+        }
+        if (n <= 1) return;
+        if (scratch.length() < n) {
+            throw new IllegalArgumentException("Scratch buffer is shorter than the transform size: " + scratch.length() + " < " + n);
+        }
+        if (VECTOR_AVAILABLE) {
+            VectorFFT.fftStockham(data, offset, n, twiddles, scratch);
+            return;
+        }
+        float[] wr = twiddles.getRealArray();
+        float[] wi = twiddles.getImaginaryArray();
+        int tableSize = twiddles.length();
+
+        // x: 読み出し側, y: 書き込み側（各段の終わりに入れ替える）
+        float[] xr = data.getRealArray(), xi = data.getImaginaryArray();
+        float[] yr = scratch.getRealArray(), yi = scratch.getImaginaryArray();
+        int xo = offset;
+        int yo = 0;
+
+        for (int len = n, s = 1; len > 1; len >>= 1, s <<= 1) {
+            int m = len >> 1;
+            int stride = tableSize * 2 / len;
+            for (int p = 0; p < m; p++) {
+                float wpr = wr[p * stride];
+                float wpi = wi[p * stride];
+                int a = xo + s * p;
+                int b = a + s * m;
+                int c = yo + s * 2 * p;
+                int d = c + s;
+                for (int q = 0; q < s; q++) {
+                    float ar = xr[a + q], ai = xi[a + q];
+                    float br = xr[b + q], bi = xi[b + q];
+                    float dr = ar - br, di = ai - bi;
+                    yr[c + q] = ar + br;
+                    yi[c + q] = ai + bi;
+                    yr[d + q] = dr * wpr - di * wpi;
+                    yi[d + q] = dr * wpi + di * wpr;
+                }
+            }
+            float[] tr = xr; xr = yr; yr = tr;
+            float[] ti = xi; xi = yi; yi = ti;
+            int to = xo; xo = yo; yo = to;
+        }
+
+        // 段数が奇数の場合、結果は作業用バッファ側にあるので書き戻す
+        if (xr != data.getRealArray()) {
+            System.arraycopy(xr, xo, data.getRealArray(), offset, n);
+            System.arraycopy(xi, xo, data.getImaginaryArray(), offset, n);
+        }
+    }
+
+    /**
+     * 単精度の実数列の順変換FFT(R2C)を行います。手順は倍精度のrealFftと同じで、
+     * 長さN/2の複素FFTは単精度で、前後の処理は倍精度で計算してから単精度に丸めます。
+     * @param input 実数列
+     * @param inOffset 実数列の開始インデックス
+     * @param n 実数列の要素数(2の冪乗)
+     * @param spectrum 結果を書き込む複素数配列（outOffsetからN/2+1要素を使用）
+     * @param outOffset 結果の開始インデックス
+     * @param twiddles 長さN用の単精度の(順変換の)回転因子テーブル
+     * @param scratch 作業用バッファ（N/2要素以上）
+     */
+    public static void realFft(float[] input, int inOffset, int n, ComplexFloatArray spectrum, int outOffset, ComplexFloatArray twiddles, ComplexFloatArray scratch) {
+        float[] re = spectrum.getRealArray();
+        float[] im = spectrum.getImaginaryArray();
+        if (n == 1) {
+            spectrum.set(outOffset, input[inOffset], 0.0);
+            return;
+        }
+        int half = n / 2;
+        for (int m = 0; m < half; m++) {
+            re[outOffset + m] = input[inOffset + 2 * m];
+            im[outOffset + m] = input[inOffset + 2 * m + 1];
+        }
+        fftStockhamFloat(spectrum, outOffset, half, twiddles, scratch);
+
+        float[] wr = twiddles.getRealArray();
+        float[] wi = twiddles.getImaginaryArray();
+        int unit = twiddles.length() * 2 / n;
+        double z0r = re[outOffset], z0i = im[outOffset];
+        spectrum.set(outOffset, z0r + z0i, 0.0);
+        spectrum.set(outOffset + half, z0r - z0i, 0.0);
+        for (int k = 1; k <= half / 2; k++) {
+            int a = outOffset + k;
+            int b = outOffset + half - k;
+            double zkr = re[a], zki = im[a];
+            double zjr = re[b], zji = im[b];
+            double er = (zkr + zjr) * 0.5, ei = (zki - zji) * 0.5;
+            double or = (zki + zji) * 0.5, oi = (zjr - zkr) * 0.5;
+            double twr = wr[k * unit], twi = wi[k * unit];
+            double tr = twr * or - twi * oi;
+            double ti = twr * oi + twi * or;
+            re[a] = (float) (er + tr);
+            im[a] = (float) (ei + ti);
+            re[b] = (float) (er - tr);
+            im[b] = (float) (ti - ei);
+        }
+    }
+
+    /**
+     * 単精度のエルミート対称なスペクトルの逆FFT(C2R)を行い、実数列を求めます（1/Nのスケーリングを含みます）。
+     * 手順は倍精度のinverseRealFftと同じです。
+     * @param spectrum 非負の周波数のN/2+1個の係数（inOffsetから先頭N/2要素は作業領域として破壊されます）
+     * @param inOffset 係数の開始インデックス
+     * @param n 結果の実数列の要素数(2の冪乗)
+     * @param output 結果を書き込む実数配列
+     * @param outOffset 結果の開始インデックス
+     * @param invTwiddles 長さN用の単精度の逆変換の回転因子テーブル
+     * @param scratch 作業用バッファ（N/2要素以上）
+     */
+    public static void inverseRealFft(ComplexFloatArray spectrum, int inOffset, int n, float[] output, int outOffset, ComplexFloatArray invTwiddles, ComplexFloatArray scratch) {
+        float[] re = spectrum.getRealArray();
+        float[] im = spectrum.getImaginaryArray();
+        if (n == 1) {
+            output[outOffset] = re[inOffset];
+            return;
+        }
+        int half = n / 2;
+
+        float[] wr = invTwiddles.getRealArray();
+        float[] wi = invTwiddles.getImaginaryArray();
+        int unit = invTwiddles.length() * 2 / n;
+        double x0r = re[inOffset], x0i = im[inOffset];
+        double xhr = re[inOffset + half], xhi = im[inOffset + half];
+        double e0r = (x0r + xhr) * 0.5, e0i = (x0i - xhi) * 0.5;
+        double o0r = (x0r - xhr) * 0.5, o0i = (x0i + xhi) * 0.5;
+        spectrum.set(inOffset, e0r - o0i, e0i + o0r);
+        for (int k = 1; k <= half / 2; k++) {
+            int a = inOffset + k;
+            int b = inOffset + half - k;
+            double xkr = re[a], xki = im[a];
+            double xjr = re[b], xji = im[b];
+            double er = (xkr + xjr) * 0.5, ei = (xki - xji) * 0.5;
+            double dr = (xkr - xjr) * 0.5, di = (xki + xji) * 0.5;
+            double twr = wr[k * unit], twi = wi[k * unit];
+            double or = dr * twr - di * twi;
+            double oi = dr * twi + di * twr;
+            re[a] = (float) (er - oi);
+            im[a] = (float) (ei + or);
+            re[b] = (float) (er + oi);
+            im[b] = (float) (or - ei);
+        }
+
+        fftStockhamFloat(spectrum, inOffset, half, invTwiddles, scratch);
+        float scale = 1.0f / half;
+        for (int m = 0; m < half; m++) {
+            output[outOffset + 2 * m] = re[inOffset + m] * scale;
+            output[outOffset + 2 * m + 1] = im[inOffset + m] * scale;
+        }
+    }
+
+    /**
+     * シフトなしの配列のインデックスを、シフト済み(直流成分が中央にある)配列のインデックスに変換します（unshiftIndexの逆変換）。
+     * @param index シフトなしの配列のインデックス
+     * @param n 配列の長さ
+     * @return シフト済み配列のインデックス
+     */
+    public static int shiftIndex(int index, int n) {
+        return (index + n / 2) % n;
+    }
+
+    /**
+     * シフト済み(直流成分が中央にある)配列のインデックスを、シフトなしの配列のインデックスに変換します。
+     * shiftでは直流成分が floor(N/2) に移動するため、奇数長にも対応します。
+     * @param shiftedIndex シフト済み配列のインデックス
+     * @param n 配列の長さ
+     * @return シフトなしの配列のインデックス
+     */
+    public static int unshiftIndex(int shiftedIndex, int n) {
+        int index = shiftedIndex - n / 2;
+        return (index < 0) ? index + n : index;
+    }
+
     /**
      * 1次元実数配列のシフト操作を行います。
+     * 直流成分(インデックス0)が中央(インデックス floor(N/2))に来るよう巡回シフトします（奇数長にも対応します）。
      * @param data シフトする実数配列
      */
     public static void shift(double[] data) {
         int half = data.length / 2;
+        if (data.length % 2 != 0) {
+            double[] copy = data.clone();
+            for (int i = 0; i < copy.length; i++) {
+                data[(i + half) % copy.length] = copy[i];
+            }
+            return;
+        }
         for (int i = 0; i < half; i++) {
             double temp = data[i];
             data[i] = data[i + half];
@@ -130,10 +1703,18 @@ public class FFTUtil {
     
     /**
      * 1次元複素数配列のシフト操作を行います。
+     * 直流成分(インデックス0)が中央(インデックス floor(N/2))に来るよう巡回シフトします（奇数長にも対応します）。
      * @param data シフトする複素数配列
      */
     public static void shift(Complex[] data) {
         int half = data.length / 2;
+        if (data.length % 2 != 0) {
+            Complex[] copy = data.clone();
+            for (int i = 0; i < copy.length; i++) {
+                data[(i + half) % copy.length] = copy[i];
+            }
+            return;
+        }
         for (int i = 0; i < half; i++) {
             Complex temp = data[i];
             data[i] = data[i + half];
@@ -143,6 +1724,7 @@ public class FFTUtil {
 
     /**
      * 2次元実数配列のシフト操作を行います。
+     * 直流成分が中央に来るよう、行方向・列方向それぞれに巡回シフトします（奇数長にも対応します）。
      * @param data シフトする2次元実数配列
      */
     public static void shift(double[][] data) {
@@ -150,6 +1732,18 @@ public class FFTUtil {
         int cols = data[0].length;
         int halfRows = rows / 2;
         int halfCols = cols / 2;
+        if (rows % 2 != 0 || cols % 2 != 0) {
+            double[][] copy = new double[rows][];
+            for (int r = 0; r < rows; r++) {
+                copy[r] = data[r].clone();
+            }
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    data[(r + halfRows) % rows][(c + halfCols) % cols] = copy[r][c];
+                }
+            }
+            return;
+        }
         for (int r = 0; r < halfRows; r++) {
             for (int c = 0; c < halfCols; c++) {
                 double temp = data[r][c];
@@ -164,6 +1758,7 @@ public class FFTUtil {
     
     /**
      * 2次元複素数配列のシフト操作を行います。
+     * 直流成分が中央に来るよう、行方向・列方向それぞれに巡回シフトします（奇数長にも対応します）。
      * @param data シフトする2次元複素数配列
      */
     public static void shift(Complex[][] data) {
@@ -171,6 +1766,18 @@ public class FFTUtil {
         int cols = data[0].length;
         int halfRows = rows / 2;
         int halfCols = cols / 2;
+        if (rows % 2 != 0 || cols % 2 != 0) {
+            Complex[][] copy = new Complex[rows][];
+            for (int r = 0; r < rows; r++) {
+                copy[r] = data[r].clone();
+            }
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    data[(r + halfRows) % rows][(c + halfCols) % cols] = copy[r][c];
+                }
+            }
+            return;
+        }
         for (int r = 0; r < halfRows; r++) {
             for (int c = 0; c < halfCols; c++) {
                 Complex temp = data[r][c];
@@ -182,4 +1789,61 @@ public class FFTUtil {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 単精度のrows行cols列の行列(行優先)を転置して、cols行rows列の行列として別の配列に書き込みます。
+     * 手順は倍精度のtransposeと同じで、タイル単位で読み書きします。
+     * @param src 転置元の複素数配列
+     * @param srcOffset 転置元の開始インデックス
+     * @param rows 転置元の行数
+     * @param cols 転置元の列数
+     * @param dst 転置先の複素数配列（srcとは別の配列）
+     * @param dstOffset 転置先の開始インデックス
+     */
+    public static void transpose(ComplexFloatArray src, int srcOffset, int rows, int cols, ComplexFloatArray dst, int dstOffset) {
+        float[] sr = src.getRealArray(), si = src.getImaginaryArray();
+        float[] dr = dst.getRealArray(), di = dst.getImaginaryArray();
+        for (int i0 = 0; i0 < rows; i0 += TRANSPOSE_TILE) {
+            int i1 = Math.min(i0 + TRANSPOSE_TILE, rows);
+            for (int j0 = 0; j0 < cols; j0 += TRANSPOSE_TILE) {
+                int j1 = Math.min(j0 + TRANSPOSE_TILE, cols);
+                for (int i = i0; i < i1; i++) {
+                    int from = srcOffset + i * cols;
+                    for (int j = j0; j < j1; j++) {
+                        int to = dstOffset + j * rows + i;
+                        dr[to] = sr[from + j];
+                        di[to] = si[from + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 単精度のn行n列の正方行列(行優先)をその場で転置します（作業用の配列を使いません）。
+     * @param data 転置する複素数配列
+     * @param offset 行列の開始インデックス
+     * @param n 行列の行数(=列数)
+     */
+    public static void transposeInPlace(ComplexFloatArray data, int offset, int n) {
+        float[] re = data.getRealArray();
+        float[] im = data.getImaginaryArray();
+        for (int i0 = 0; i0 < n; i0 += TRANSPOSE_TILE) {
+            int i1 = Math.min(i0 + TRANSPOSE_TILE, n);
+            for (int j0 = i0; j0 < n; j0 += TRANSPOSE_TILE) {
+                int j1 = Math.min(j0 + TRANSPOSE_TILE, n);
+                for (int i = i0; i < i1; i++) {
+                    for (int j = Math.max(j0, i + 1); j < j1; j++) {
+                        int a = offset + i * n + j;
+                        int b = offset + j * n + i;
+                        float tr = re[a], ti = im[a];
+                        re[a] = re[b];
+                        im[a] = im[b];
+                        re[b] = tr;
+                        im[b] = ti;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package Fourier;
+
+/**
+ * 混合基数(mixed-radix) Cooley-Tukey FFTのクラス。
+ * データ長Nを小さな素因数(4, 2, 3, 5, 7, ...)に分解し、各因数の基数のバタフライ演算を順に適用します。
+ * 1920, 1080, 44100, 48000のように2・3・5・7だけを素因数に持つ長さ(7-smooth数)を、
+ * 0埋めやBluestein FFTの畳み込みなしにそのままの長さで変換できます。
+ * 因数分解の結果と回転因子はデータ長ごとのプランとして、直近に作成した長さの分だけキャッシュされます。
+ */
+public final class MixedRadixFFT {
+
+    // キャッシュに保持するプランの数の上限（超えた場合は先に作成したものから破棄する）
+    private static final int MAX_CACHED_PLANS = 32;
+
+    // データ長ごとにキャッシュしたプラン
+    private static final BoundedCache<Integer, Plan> plans = new BoundedCache<>(MAX_CACHED_PLANS, Plan::new);
+
+    // 入力をコピーしておく、スレッドごとの作業用バッファ（出力は元の配列に直接書き込む）
+    private static final ThreadLocal<ComplexArray> inputBuffer = new ThreadLocal<>();
+
+    private MixedRadixFFT() {
+    }
+
+    /**
+     * データ長ごとの事前計算結果。
+     * factorsには {基数p0, 残りの長さm0, 基数p1, 残りの長さm1, ...} の順で因数分解の結果を格納します。
+     */
+    private static final class Plan {
+        final int[] factors;
+        final ComplexArray twiddles;    // exp(-2πik/N), k = 0..N-1
+        final ComplexArray invTwiddles; // exp(+2πik/N), k = 0..N-1（実部の配列はtwiddlesと共有する）
+        // 基数4, 2, 3, 5以外の奇数の基数のバタフライ演算で使う、スレッドごとの一時配列（そのような基数が無い場合はnull）
+        final ThreadLocal<OddWorkspace> oddWorkspace;
+
+        Plan(int n) {
+            this.factors = factorize(n);
+            // 共有のTwiddleTableから対称性で求めたcos・sinを並べ、逆変換では虚部の符号だけを反転する
+            TwiddleTable table = TwiddleTable.get(n);
+            double[] re = new double[n];
+            double[] im = new double[n];
+            double[] invIm = new double[n];
+            for (int k = 0; k < n; k++) {
+                re[k] = table.cos(k);
+                im[k] = -table.sin(k);
+                invIm[k] = table.sin(k);
+            }
+            this.twiddles = new ComplexArray(re, im);
+            this.invTwiddles = new ComplexArray(re, invIm);
+            int maxOddRadix = 0;
+            for (int i = 0; i < factors.length; i += 2) {
+                if (factors[i] > 5) {
+                    maxOddRadix = Math.max(maxOddRadix, factors[i]);
+                }
+            }
+            int radix = maxOddRadix;
+            this.oddWorkspace = radix > 0 ? ThreadLocal.withInitial(() -> new OddWorkspace(radix)) : null;
+        }
+    }
+
+    /**
+     * データ長を基数に分解します。
+     * 基数4をできるだけ使い、次に2、3、5、7、...の順に割り切れる因数を選びます。
+     * @param n データ長
+     * @return {基数, 残りの長さ} の組を並べた配列
+     */
+    private static int[] factorize(int n) {
+        int[] buffer = new int[64];
+        int count = 0;
+        int p = 4;
+        int remaining = n;
+        do {
+            while (remaining % p != 0) {
+                switch (p) {
+                    case 4: p = 2; break;
+                    case 2: p = 3; break;
+                    default: p += 2; break;
+                }
+                if ((long) p * p > remaining) {
+                    p = remaining; // 残りが素数の場合
+                }
+            }
+            remaining /= p;
+            buffer[count++] = p;
+            buffer[count++] = remaining;
+        } while (remaining > 1);
+        int[] factors = new int[count];
+        System.arraycopy(buffer, 0, factors, 0, count);
+        return factors;
+    }
+
+    /**
+     * データ長が混合基数FFTで効率よく扱える長さ(素因数が2・3・5・7だけ)かを判定します。
+     * それ以外の長さも計算はできますが、大きな素因数に対してはBluestein FFTの方が高速です。
+     * @param n データ長
+     * @return 7-smooth数ならtrue
+     */
+    public static boolean isSupported(int n) {
+        if (n <= 0) return false;
+        for (int p : new int[]{2, 3, 5, 7}) {
+            while (n % p == 0) {
+                n /= p;
+            }
+        }
+        return n == 1;
+    }
+
+    /**
+     * 複素数配列の指定範囲に順変換FFTを適用します。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数
+     */
+    public static void fft(ComplexArray data, int offset, int n) {
+        if (n <= 1) return;
+        Plan plan = plans.get(n);
+        transform(data, offset, n, plan, plan.twiddles, false);
+    }
+
+    /**
+     * 複素数配列の指定範囲に逆FFT（IFFT）を適用し、最後に要素数でスケーリングします。
+     * @param data IFFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数
+     */
+    public static void ifft(ComplexArray data, int offset, int n) {
+        if (n <= 1) return;
+        Plan plan = plans.get(n);
+        transform(data, offset, n, plan, plan.invTwiddles, true);
+        FFTUtil.scale(data, offset, n, 1.0 / n);
+    }
+
+    /**
+     * 基数4, 2, 3, 5以外の奇数の基数のバタフライ演算で使う一時配列。
+     * バタフライ演算は何度も呼ばれるため、プランごと・スレッドごとに一度だけ確保して、以降の変換でも使い回します。
+     */
+    private static final class OddWorkspace {
+        final double[] sr, si, ar, ai, br, bi, cosTable, sinTable;
+
+        OddWorkspace(int maxRadix) {
+            int pairs = maxRadix / 2;
+            sr = new double[maxRadix];
+            si = new double[maxRadix];
+            ar = new double[pairs];
+            ai = new double[pairs];
+            br = new double[pairs];
+            bi = new double[pairs];
+            cosTable = new double[pairs * pairs];
+            sinTable = new double[pairs * pairs];
+        }
+    }
+
+    /**
+     * 入力を作業用バッファにコピーし、出力を元の範囲に書き込む形で変換します。
+     */
+    private static void transform(ComplexArray data, int offset, int n, Plan plan, ComplexArray twiddles, boolean inverse) {
+        OddWorkspace workspace = plan.oddWorkspace != null ? plan.oddWorkspace.get() : null;
+        ComplexArray input = inputBuffer.get();
+        if (input == null || input.length() < n) {
+            input = new ComplexArray(n);
+            inputBuffer.set(input);
+        }
+        System.arraycopy(data.getRealArray(), offset, input.getRealArray(), 0, n);
+        System.arraycopy(data.getImaginaryArray(), offset, input.getImaginaryArray(), 0, n);
+        work(data.getRealArray(), data.getImaginaryArray(), offset,
+             input.getRealArray(), input.getImaginaryArray(), 0, 1, plan.factors, 0, twiddles, inverse, workspace);
+    }
+
+    /**
+     * 時間間引きの再帰部分。入力を基数pで間引いたp個の部分列をそれぞれ変換して出力のp個のブロックに並べ、
+     * 最後に基数pのバタフライ演算で結合します。
+     * @param outRe 出力の実部
+     * @param outIm 出力の虚部
+     * @param out 出力の開始インデックス
+     * @param inRe 入力の実部
+     * @param inIm 入力の虚部
+     * @param in 入力の開始インデックス
+     * @param fstride 入力の間隔（回転因子テーブルのストライドも兼ねる）
+     * @param factors 因数分解の結果
+     * @param level 処理中の因数の位置
+     * @param twiddles 回転因子テーブル(長さN)
+     * @param inverse 逆変換の場合true
+     * @param workspace 奇数の基数のバタフライ演算用の一時配列（不要な場合はnull）
+     */
+    private static void work(double[] outRe, double[] outIm, int out, double[] inRe, double[] inIm, int in,
+                             int fstride, int[] factors, int level, ComplexArray twiddles, boolean inverse, OddWorkspace workspace) {
+        int p = factors[level];
+        int m = factors[level + 1];
+        if (m == 1) {
+            for (int j = 0; j < p; j++) {
+                outRe[out + j] = inRe[in + j * fstride];
+                outIm[out + j] = inIm[in + j * fstride];
+            }
+        } else {
+            for (int j = 0; j < p; j++) {
+                work(outRe, outIm, out + j * m, inRe, inIm, in + j * fstride, fstride * p, factors, level + 2, twiddles, inverse, workspace);
+            }
+        }
+
+        switch (p) {
+            case 2:
+                butterfly2(outRe, outIm, out, fstride, twiddles, m);
+                break;
+            case 3:
+                butterfly3(outRe, outIm, out, fstride, twiddles, m);
+                break;
+            case 4:
+                butterfly4(outRe, outIm, out, fstride, twiddles, m, inverse);
+                break;
+            case 5:
+                butterfly5(outRe, outIm, out, fstride, twiddles, m);
+                break;
+            default:
+                butterflyOdd(outRe, outIm, out, fstride, twiddles, m, p, workspace);
+                break;
+        }
+    }
+
+    // 基数2のバタフライ演算
+    private static void butterfly2(double[] re, double[] im, int out, int fstride, ComplexArray twiddles, int m) {
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        for (int k = 0; k < m; k++) {
+            int a = out + k;
+            int b = a + m;
+            int w = k * fstride;
+            double tr = re[b] * wr[w] - im[b] * wi[w];
+            double ti = re[b] * wi[w] + im[b] * wr[w];
+            re[b] = re[a] - tr;
+            im[b] = im[a] - ti;
+            re[a] += tr;
+            im[a] += ti;
+        }
+    }
+
+    // 基数3のバタフライ演算（epi3 = W^(N/3) の虚部だけを使う）
+    private static void butterfly3(double[] re, double[] im, int out, int fstride, ComplexArray twiddles, int m) {
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        double epi3 = wi[fstride * m];
+        for (int k = 0; k < m; k++) {
+            int a = out + k;
+            int b = a + m;
+            int c = b + m;
+            int w1 = k * fstride;
+            int w2 = 2 * w1;
+            double s1r = re[b] * wr[w1] - im[b] * wi[w1];
+            double s1i = re[b] * wi[w1] + im[b] * wr[w1];
+            double s2r = re[c] * wr[w2] - im[c] * wi[w2];
+            double s2i = re[c] * wi[w2] + im[c] * wr[w2];
+            double s3r = s1r + s2r, s3i = s1i + s2i;
+            double s0r = (s1r - s2r) * epi3, s0i = (s1i - s2i) * epi3;
+            double hr = re[a] - 0.5 * s3r;
+            double hi = im[a] - 0.5 * s3i;
+            re[a] += s3r;
+            im[a] += s3i;
+            re[c] = hr + s0i;
+            im[c] = hi - s0r;
+            re[b] = hr - s0i;
+            im[b] = hi + s0r;
+        }
+    }
+
+    // 基数4のバタフライ演算（±iの向きは変換の方向で決まる）
+    private static void butterfly4(double[] re, double[] im, int out, int fstride, ComplexArray twiddles, int m, boolean inverse) {
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        for (int k = 0; k < m; k++) {
+            int a = out + k;
+            int b = a + m;
+            int c = b + m;
+            int d = c + m;
+            int w1 = k * fstride;
+            int w2 = 2 * w1;
+            int w3 = 3 * w1;
+            double s0r = re[b] * wr[w1] - im[b] * wi[w1];
+            double s0i = re[b] * wi[w1] + im[b] * wr[w1];
+            double s1r = re[c] * wr[w2] - im[c] * wi[w2];
+            double s1i = re[c] * wi[w2] + im[c] * wr[w2];
+            double s2r = re[d] * wr[w3] - im[d] * wi[w3];
+            double s2i = re[d] * wi[w3] + im[d] * wr[w3];
+            double s5r = re[a] - s1r, s5i = im[a] - s1i;
+            double s3r = s0r + s2r, s3i = s0i + s2i;
+            double s4r = s0r - s2r, s4i = s0i - s2i;
+            double f0r = re[a] + s1r, f0i = im[a] + s1i;
+            re[c] = f0r - s3r;
+            im[c] = f0i - s3i;
+            re[a] = f0r + s3r;
+            im[a] = f0i + s3i;
+            if (inverse) {
+                re[b] = s5r - s4i;
+                im[b] = s5i + s4r;
+                re[d] = s5r + s4i;
+                im[d] = s5i - s4r;
+            } else {
+                re[b] = s5r + s4i;
+                im[b] = s5i - s4r;
+                re[d] = s5r - s4i;
+                im[d] = s5i + s4r;
+            }
+        }
+    }
+
+    // 基数5のバタフライ演算（ya = W^(N/5), yb = W^(2N/5)）
+    private static void butterfly5(double[] re, double[] im, int out, int fstride, ComplexArray twiddles, int m) {
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        double yar = wr[fstride * m], yai = wi[fstride * m];
+        double ybr = wr[2 * fstride * m], ybi = wi[2 * fstride * m];
+        for (int u = 0; u < m; u++) {
+            int i0 = out + u;
+            int i1 = i0 + m;
+            int i2 = i1 + m;
+            int i3 = i2 + m;
+            int i4 = i3 + m;
+            int w = u * fstride;
+            double s0r = re[i0], s0i = im[i0];
+            double s1r = re[i1] * wr[w] - im[i1] * wi[w];
+            double s1i = re[i1] * wi[w] + im[i1] * wr[w];
+            double s2r = re[i2] * wr[2 * w] - im[i2] * wi[2 * w];
+            double s2i = re[i2] * wi[2 * w] + im[i2] * wr[2 * w];
+            double s3r = re[i3] * wr[3 * w] - im[i3] * wi[3 * w];
+            double s3i = re[i3] * wi[3 * w] + im[i3] * wr[3 * w];
+            double s4r = re[i4] * wr[4 * w] - im[i4] * wi[4 * w];
+            double s4i = re[i4] * wi[4 * w] + im[i4] * wr[4 * w];
+
+            double s7r = s1r + s4r, s7i = s1i + s4i;
+            double s10r = s1r - s4r, s10i = s1i - s4i;
+            double s8r = s2r + s3r, s8i = s2i + s3i;
+            double s9r = s2r - s3r, s9i = s2i - s3i;
+
+            re[i0] = s0r + s7r + s8r;
+            im[i0] = s0i + s7i + s8i;
+
+            double s5r = s0r + s7r * yar + s8r * ybr;
+            double s5i = s0i + s7i * yar + s8i * ybr;
+            double s6r = s10i * yai + s9i * ybi;
+            double s6i = -s10r * yai - s9r * ybi;
+            re[i1] = s5r - s6r;
+            im[i1] = s5i - s6i;
+            re[i4] = s5r + s6r;
+            im[i4] = s5i + s6i;
+
+            double s11r = s0r + s7r * ybr + s8r * yar;
+            double s11i = s0i + s7i * ybr + s8i * yar;
+            double s12r = -s10i * ybi + s9i * yai;
+            double s12i = s10r * ybi - s9r * yai;
+            re[i2] = s11r + s12r;
+            im[i2] = s11i + s12i;
+            re[i3] = s11r - s12r;
+            im[i3] = s11i - s12i;
+        }
+    }
+
+    /**
+     * 奇数の基数pのバタフライ演算（基数7など）。
+     * 入力の組 (s_q, s_(p-q)) の和と差を使い、y_j と y_(p-j) を同時に求めることで乗算を約半分にします:
+     * y_j = s_0 + Σ_q (s_q + s_(p-q)) Re(W^jq) + i Σ_q (s_q - s_(p-q)) Im(W^jq)
+     */
+    private static void butterflyOdd(double[] re, double[] im, int out, int fstride, ComplexArray twiddles, int m, int p, OddWorkspace workspace) {
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        int n = twiddles.length();
+        int pairs = p / 2;
+        // W^(jq) (W = exp(∓2πi/p)) の実部・虚部を事前に取り出しておく
+        double[] cosTable = workspace.cosTable;
+        double[] sinTable = workspace.sinTable;
+        for (int j = 1; j <= pairs; j++) {
+            for (int q = 1; q <= pairs; q++) {
+                int w = (int) ((long) j * q % p * fstride * m % n);
+                cosTable[(j - 1) * pairs + (q - 1)] = wr[w];
+                sinTable[(j - 1) * pairs + (q - 1)] = wi[w];
+            }
+        }
+        double[] sr = workspace.sr, si = workspace.si;
+        double[] ar = workspace.ar, ai = workspace.ai;
+        double[] br = workspace.br, bi = workspace.bi;
+
+        for (int u = 0; u < m; u++) {
+            for (int q = 0; q < p; q++) {
+                int idx = out + u + q * m;
+                int w = (int) ((long) q * u * fstride % n);
+                sr[q] = re[idx] * wr[w] - im[idx] * wi[w];
+                si[q] = re[idx] * wi[w] + im[idx] * wr[w];
+            }
+            double y0r = sr[0], y0i = si[0];
+            for (int q = 1; q <= pairs; q++) {
+                ar[q - 1] = sr[q] + sr[p - q];
+                ai[q - 1] = si[q] + si[p - q];
+                br[q - 1] = sr[q] - sr[p - q];
+                bi[q - 1] = si[q] - si[p - q];
+                y0r += ar[q - 1];
+                y0i += ai[q - 1];
+            }
+            re[out + u] = y0r;
+            im[out + u] = y0i;
+            for (int j = 1; j <= pairs; j++) {
+                double tr = sr[0], ti = si[0];
+                double ur = 0, ui = 0;
+                for (int q = 0; q < pairs; q++) {
+                    double c = cosTable[(j - 1) * pairs + q];
+                    double s = sinTable[(j - 1) * pairs + q];
+                    tr += ar[q] * c;
+                    ti += ai[q] * c;
+                    ur += br[q] * s;
+                    ui += bi[q] * s;
+                }
+                // y_j = T + iU, y_(p-j) = T - iU
+                int a = out + u + j * m;
+                int b = out + u + (p - j) * m;
+                re[a] = tr - ui;
+                im[a] = ti + ur;
+                re[b] = tr + ui;
+                im[b] = ti - ur;
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package Fourier;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * 複素数の配列を、ヒープ外のMemorySegment上の実部・虚部それぞれのdouble列(Structure of Arrays)で表現するクラス。
+ * OffHeapStorage.allocateで確保し、記憶域を閉じるとメモリが解放されます。
+ * 2次元データは行優先(row-major)で1本の配列に格納して扱います。
+ * FFTはNativeFFTで計算します。
+ */
+public final class NativeComplexArray implements ComplexBuffer {
+
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE;
+
+    private final MemorySegment re; // 実部
+    private final MemorySegment im; // 虚部
+    private final int length;
+
+    NativeComplexArray(MemorySegment re, MemorySegment im, int length) {
+        this.re = re;
+        this.im = im;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    /**
+     * 実部のメモリセグメントを取得します（コピーではなく内部のセグメントそのもの）。
+     * @return 実部のメモリセグメント
+     */
+    public MemorySegment getRealSegment() {
+        return re;
+    }
+
+    /**
+     * 虚部のメモリセグメントを取得します（コピーではなく内部のセグメントそのもの）。
+     * @return 虚部のメモリセグメント
+     */
+    public MemorySegment getImaginarySegment() {
+        return im;
+    }
+
+    @Override
+    public double getReal(int index) {
+        return re.getAtIndex(DOUBLE, index);
+    }
+
+    @Override
+    public double getImaginary(int index) {
+        return im.getAtIndex(DOUBLE, index);
+    }
+
+    @Override
+    public void set(int index, double real, double imag) {
+        re.setAtIndex(DOUBLE, index, real);
+        im.setAtIndex(DOUBLE, index, imag);
+    }
+
+    @Override
+    public double magnitudeSquared(int index) {
+        double r = re.getAtIndex(DOUBLE, index);
+        double i = im.getAtIndex(DOUBLE, index);
+        return r * r + i * i;
+    }
+
+    @Override
+    public void clear() {
+        re.fill((byte) 0);
+        im.fill((byte) 0);
+    }
+
+    /**
+     * 他の複素数配列の内容を全て自身にコピーします。
+     * @param src コピー元の複素数配列（同じ長さ）
+     */
+    public void copyFrom(NativeComplexArray src) {
+        long bytes = (long) length * Double.BYTES;
+        MemorySegment.copy(src.re, 0, re, 0, bytes);
+        MemorySegment.copy(src.im, 0, im, 0, bytes);
+    }
+
+    /**
+     * 実数列を指定位置から書き込み、その範囲の虚部を0にします。
+     * @param src 実数列
+     * @param srcOffset 実数列の開始インデックス
+     * @param offset 書き込み先の開始インデックス
+     * @param n 要素数
+     */
+    public void setReal(double[] src, int srcOffset, int offset, int n) {
+        MemorySegment.copy(src, srcOffset, re, DOUBLE, (long) offset * Double.BYTES, n);
+        im.asSlice((long) offset * Double.BYTES, (long) n * Double.BYTES).fill((byte) 0);
+    }
+
+    /**
+     * 指定位置からの実部を実数配列に読み出します。
+     * @param offset 読み出し元の開始インデックス
+     * @param dst 書き込み先の実数配列
+     * @param dstOffset 書き込み先の開始インデックス
+     * @param n 要素数
+     */
+    public void getReal(int offset, double[] dst, int dstOffset, int n) {
+        MemorySegment.copy(re, DOUBLE, (long) offset * Double.BYTES, dst, dstOffset, n);
+    }
+
+    /**
+     * offsetからstride間隔のn要素(2次元データの1列など)を、別の複素数配列の先頭に連続して読み出します。
+     * @param offset 開始インデックス
+     * @param stride 要素の間隔
+     * @param n 要素数
+     * @param dst 書き込み先の複素数配列
+     */
+    public void gather(int offset, int stride, int n, NativeComplexArray dst) {
+        for (int i = 0; i < n; i++) {
+            long index = offset + (long) i * stride;
+            dst.re.setAtIndex(DOUBLE, i, re.getAtIndex(DOUBLE, index));
+            dst.im.setAtIndex(DOUBLE, i, im.getAtIndex(DOUBLE, index));
+        }
+    }
+
+    /**
+     * gatherの逆に、別の複素数配列の先頭n要素を、offsetからstride間隔の位置に書き戻します。
+     * @param src 読み出し元の複素数配列
+     * @param offset 書き込み先の開始インデックス
+     * @param stride 要素の間隔
+     * @param n 要素数
+     */
+    public void scatter(NativeComplexArray src, int offset, int stride, int n) {
+        for (int i = 0; i < n; i++) {
+            long index = offset + (long) i * stride;
+            re.setAtIndex(DOUBLE, index, src.re.getAtIndex(DOUBLE, i));
+            im.setAtIndex(DOUBLE, index, src.im.getAtIndex(DOUBLE, i));
+        }
+    }
+
+    /**
+     * offsetからstride間隔のn要素を、ヒープ上の複素数配列の先頭に連続して読み出します。
+     * @param offset 開始インデックス
+     * @param stride 要素の間隔
+     * @param n 要素数
+     * @param dst 書き込み先の複素数配列
+     */
+    public void gather(int offset, int stride, int n, ComplexArray dst) {
+        double[] dre = dst.getRealArray();
+        double[] dim = dst.getImaginaryArray();
+        for (int i = 0; i < n; i++) {
+            long index = offset + (long) i * stride;
+            dre[i] = re.getAtIndex(DOUBLE, index);
+            dim[i] = im.getAtIndex(DOUBLE, index);
+        }
+    }
+
+    /**
+     * gatherの逆に、ヒープ上の複素数配列の先頭n要素を、offsetからstride間隔の位置に書き戻します。
+     * @param src 読み出し元の複素数配列
+     * @param offset 書き込み先の開始インデックス
+     * @param stride 要素の間隔
+     * @param n 要素数
+     */
+    public void scatter(ComplexArray src, int offset, int stride, int n) {
+        double[] sre = src.getRealArray();
+        double[] sim = src.getImaginaryArray();
+        for (int i = 0; i < n; i++) {
+            long index = offset + (long) i * stride;
+            re.setAtIndex(DOUBLE, index, sre[i]);
+            im.setAtIndex(DOUBLE, index, sim[i]);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package Fourier;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * ヒープ外の複素数配列(NativeComplexArray)に対してFFTを計算するクラス。
+ * MemorySegmentへのアクセスはJITでインライン化されるため、計算の構成はFFTUtilのStockham FFTと同じです。
+ * 回転因子テーブルは小さいため、ヒープ上の共有のテーブル(FFTPlan.getTwiddles())をそのまま使います。
+ * 2の冪乗でない長さは、1行(1列)ずつヒープ上の作業用バッファに読み出してFFTPlanで計算します。
+ */
+public final class NativeFFT {
+
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE;
+
+    private NativeFFT() {
+    }
+
+    /**
+     * ヒープ外の複素数配列の指定範囲に順変換FFTを適用します。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 回転因子テーブル
+     * @param scratch 作業用バッファ（n要素以上）
+     * @throws IllegalArgumentException nが2の冪乗でない場合、または作業用バッファがn要素より短い場合
+     */
+    public static void fft(NativeComplexArray data, int offset, int n, ComplexArray twiddles, NativeComplexArray scratch) {
+        fftStockham(data, offset, n, twiddles, scratch);
+    }
+
+    /**
+     * ヒープ外の複素数配列の指定範囲に逆変換FFTを適用します（1/Nのスケーリングを含みます）。
+     * @param data IFFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param invTwiddles 逆変換の回転因子テーブル
+     * @param scratch 作業用バッファ（n要素以上）
+     * @throws IllegalArgumentException nが2の冪乗でない場合、または作業用バッファがn要素より短い場合
+     */
+    public static void ifft(NativeComplexArray data, int offset, int n, ComplexArray invTwiddles, NativeComplexArray scratch) {
+        fftStockham(data, offset, n, invTwiddles, scratch);
+        double alpha = 1.0 / n;
+        MemorySegment re = data.getRealSegment();
+        MemorySegment im = data.getImaginarySegment();
+        for (long i = offset; i < offset + n; i++) {
+            re.setAtIndex(DOUBLE, i, re.getAtIndex(DOUBLE, i) * alpha);
+            im.setAtIndex(DOUBLE, i, im.getAtIndex(DOUBLE, i) * alpha);
+        }
+    }
+
+    /**
+     * 行優先で格納された[rows][cols]の2次元データ全体に、行方向・列方向のFFTを適用します。
+     * 2の冪乗の長さの行は配列上でそのまま、列はlineに読み出してから計算し、
+     * 2の冪乗でない長さはheapLineに読み出してFFTPlan(混合基数FFTまたはBluestein FFT)で計算します。
+     * @param data 2次元データ
+     * @param rows 行数
+     * @param cols 列数
+     * @param rowPlan 各列に適用する長さrowsのプラン
+     * @param colPlan 各行に適用する長さcolsのプラン
+     * @param line ヒープ外の作業用バッファ（max(rows, cols)要素以上）
+     * @param scratch ヒープ外の作業用バッファ（max(rows, cols)要素以上）
+     * @param heapLine ヒープ上の作業用バッファ（max(rows, cols)要素以上）
+     */
+    public static void transform2D(NativeComplexArray data, int rows, int cols, FFTPlan rowPlan, FFTPlan colPlan,
+            NativeComplexArray line, NativeComplexArray scratch, ComplexArray heapLine) {
+        for (int r = 0; r < rows; r++) {
+            transformLine(data, r * cols, 1, cols, colPlan, line, scratch, heapLine);
+        }
+        for (int c = 0; c < cols; c++) {
+            transformLine(data, c, cols, rows, rowPlan, line, scratch, heapLine);
+        }
+    }
+
+    private static void transformLine(NativeComplexArray data, int offset, int stride, int n, FFTPlan plan,
+            NativeComplexArray line, NativeComplexArray scratch, ComplexArray heapLine) {
+        if (plan.getTwiddles() == null) {
+            data.gather(offset, stride, n, heapLine);
+            plan.execute(heapLine, 0);
+            data.scatter(heapLine, offset, stride, n);
+            return;
+        }
+        NativeComplexArray target = data;
+        int start = offset;
+        if (stride != 1) {
+            data.gather(offset, stride, n, line);
+            target = line;
+            start = 0;
+        }
+        if (plan.isInverse()) {
+            ifft(target, start, n, plan.getTwiddles(), scratch);
+        } else {
+            fft(target, start, n, plan.getTwiddles(), scratch);
+        }
+        if (stride != 1) {
+            data.scatter(line, offset, stride, n);
+        }
+    }
+
+    // MemorySegment上のStockham自動ソートFFT（FFTUtil.fftStockhamと同じ手順）
+    private static void fftStockham(NativeComplexArray data, int offset, int n, ComplexArray twiddles, NativeComplexArray scratch) {
+        if (!FFTUtil.isPowerOfTwo(n)) {
+            throw new IllegalArgumentException("Off-heap FFT supports only power-of-two sizes: " + n);
+        }
+        if (n <= 1) return;
+        if (scratch.length() < n) {
+            throw new IllegalArgumentException("Scratch buffer is shorter than the transform size: " + scratch.length() + " < " + n);
+        }
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        int tableSize = twiddles.length();
+
+        // x: 読み出し側, y: 書き込み側（各段の終わりに入れ替える）
+        MemorySegment xr = data.getRealSegment(), xi = data.getImaginarySegment();
+        MemorySegment yr = scratch.getRealSegment(), yi = scratch.getImaginarySegment();
+        long xo = offset;
+        long yo = 0;
+
+        for (int len = n, s = 1; len > 1; len >>= 1, s <<= 1) {
+            int m = len >> 1;
+            int stride = tableSize * 2 / len;
+            for (int p = 0; p < m; p++) {
+                double wpr = wr[p * stride];
+                double wpi = wi[p * stride];
+                long a = xo + (long) s * p;
+                long b = a + (long) s * m;
+                long c = yo + (long) s * 2 * p;
+                long d = c + s;
+                for (int q = 0; q < s; q++) {
+                    double ar = xr.getAtIndex(DOUBLE, a + q), ai = xi.getAtIndex(DOUBLE, a + q);
+                    double br = xr.getAtIndex(DOUBLE, b + q), bi = xi.getAtIndex(DOUBLE, b + q);
+                    double dr = ar - br, di = ai - bi;
+                    yr.setAtIndex(DOUBLE, c + q, ar + br);
+                    yi.setAtIndex(DOUBLE, c + q, ai + bi);
+                    yr.setAtIndex(DOUBLE, d + q, dr * wpr - di * wpi);
+                    yi.setAtIndex(DOUBLE, d + q, dr * wpi + di * wpr);
+                }
+            }
+            MemorySegment tr = xr; xr = yr; yr = tr;
+            MemorySegment ti = xi; xi = yi; yi = ti;
+            long to = xo; xo = yo; yo = to;
+        }
+
+        // 段数が奇数の場合、結果は作業用バッファ側にあるので書き戻す
+        if (xr != data.getRealSegment()) {
+            long bytes = (long) n * Double.BYTES;
+            MemorySegment.copy(xr, xo * Double.BYTES, data.getRealSegment(), (long) offset * Double.BYTES, bytes);
+            MemorySegment.copy(xi, xo * Double.BYTES, data.getImaginarySegment(), (long) offset * Double.BYTES, bytes);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package Fourier;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Foreign Function & Memory APIのArenaを使ったOffHeapStorageの実装。
+ * 計算スレッドとイベントディスパッチスレッドの両方から使えるよう、共有(shared)のArenaで確保します。
+ * このクラスはOffHeapStorage.open()からリフレクションで読み込まれるため、
+ * java.lang.foreignを使えない環境でも他のクラスの読み込みには影響しません。
+ */
+final class NativeStorage implements OffHeapStorage {
+
+    // SIMDのロード・ストアがキャッシュラインをまたがないよう、64バイト境界に揃えて確保する
+    private static final long ALIGNMENT = 64;
+
+    private final Arena arena = Arena.ofShared();
+    private long allocatedBytes;
+
+    // transform2Dで1行(1列)ずつ計算するための、スレッドごとの作業用バッファ
+    // （チャンネルごとの変換を並列に実行できるようにする。Arenaからは個別に解放できないため、必要な大きさになるまで再利用する）
+    private final ThreadLocal<LineWorkspace> lineWorkspace = new ThreadLocal<>();
+
+    // transform2Dの作業用バッファ一式
+    private static final class LineWorkspace {
+        final NativeComplexArray line, scratch;
+        final ComplexArray heapLine;
+
+        LineWorkspace(NativeComplexArray line, NativeComplexArray scratch, ComplexArray heapLine) {
+            this.line = line;
+            this.scratch = scratch;
+            this.heapLine = heapLine;
+        }
+    }
+
+    NativeStorage() {
+    }
+
+    @Override
+    public synchronized NativeComplexArray allocate(int length) {
+        long bytes = Math.max(1, (long) length * Double.BYTES);
+        MemorySegment re = arena.allocate(bytes, ALIGNMENT);
+        MemorySegment im = arena.allocate(bytes, ALIGNMENT);
+        allocatedBytes += 2 * bytes;
+        return new NativeComplexArray(re, im, length);
+    }
+
+    @Override
+    public void copy(ComplexBuffer src, ComplexBuffer dst) {
+        ((NativeComplexArray) dst).copyFrom((NativeComplexArray) src);
+    }
+
+    @Override
+    public void loadReal(double[][] data, ComplexBuffer dst) {
+        NativeComplexArray target = (NativeComplexArray) dst;
+        for (int r = 0; r < data.length; r++) {
+            target.setReal(data[r], 0, r * data[r].length, data[r].length);
+        }
+    }
+
+    @Override
+    public void storeReal(ComplexBuffer src, double[][] data) {
+        NativeComplexArray source = (NativeComplexArray) src;
+        for (int r = 0; r < data.length; r++) {
+            source.getReal(r * data[r].length, data[r], 0, data[r].length);
+        }
+    }
+
+    @Override
+    public void transform2D(ComplexBuffer data, int rows, int cols, FFTPlan rowPlan, FFTPlan colPlan) {
+        int n = Math.max(rows, cols);
+        LineWorkspace workspace = lineWorkspace.get();
+        if (workspace == null || workspace.line.length() < n) {
+            workspace = new LineWorkspace(allocate(n), allocate(n), new ComplexArray(n));
+            lineWorkspace.set(workspace);
+        }
+        NativeFFT.transform2D((NativeComplexArray) data, rows, cols, rowPlan, colPlan,
+            workspace.line, workspace.scratch, workspace.heapLine);
+    }
+
+    @Override
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,91 @@
+package Fourier;
+
+/**
+ * スペクトルと作業用バッファをヒープ外(ネイティブメモリ)に確保し、その上でFFTを計算する記憶域。
+ * 実装はForeign Function & Memory API(java.lang.foreign)のArenaとMemorySegmentを使うNativeStorageで、
+ * 確保したメモリはGCの対象にならず、close()でまとめて即座に解放されます。
+ * そのため数GBのスペクトルでもGCの停止時間やヒープサイズの設定に左右されません。
+ * java.lang.foreignはJDK 21ではプレビューAPIのため、JDK 21以降でビルドし、
+ * 実行時に--enable-preview(JDK 22以降では不要)を指定した場合にのみ使用できます。
+ * このインターフェース自体はjava.lang.foreignに依存しないため、使用できない環境でもisAvailable()で判定できます。
+ */
+public interface OffHeapStorage extends AutoCloseable {
+
+    /**
+     * ヒープ外の記憶域を使用できるかを判定します。
+     * @return NativeStorageを読み込める場合true
+     */
+    static boolean isAvailable() {
+        try {
+            Class.forName("Fourier.NativeStorage");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 新しいヒープ外の記憶域を作成します。
+     * @return 作成した記憶域
+     * @throws UnsupportedOperationException ヒープ外の記憶域を使用できない場合
+     */
+    static OffHeapStorage open() {
+        try {
+            return (OffHeapStorage) Class.forName("Fourier.NativeStorage").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new UnsupportedOperationException("Off-heap storage requires JDK 21+ with --enable-preview (JDK 22+ without it).", e);
+        }
+    }
+
+    /**
+     * 全要素が0の複素数配列をヒープ外に確保します。
+     * @param length 要素数
+     * @return 確保した複素数配列（この記憶域を閉じると使えなくなります）
+     */
+    ComplexBuffer allocate(int length);
+
+    /**
+     * この記憶域で確保した複素数配列の内容を、同じ長さの別の配列にコピーします。
+     * @param src コピー元
+     * @param dst コピー先
+     */
+    void copy(ComplexBuffer src, ComplexBuffer dst);
+
+    /**
+     * [rows][cols]の実数データを行優先で書き込み、虚部を0にします。
+     * @param data 実数データ
+     * @param dst 書き込み先（rows*cols要素）
+     */
+    void loadReal(double[][] data, ComplexBuffer dst);
+
+    /**
+     * 行優先で格納された[rows][cols]の複素数データの実部を読み出します。
+     * @param src 読み出し元（rows*cols要素）
+     * @param data 書き込み先の実数データ
+     */
+    void storeReal(ComplexBuffer src, double[][] data);
+
+    /**
+     * 行優先で格納された[rows][cols]の2次元データ全体に、行方向・列方向のFFTを適用します。
+     * 逆変換のプランを渡すと、1/(rows*cols)のスケーリングを含む逆変換になります。
+     * 作業用バッファはスレッドごとに持つため、別々のデータであれば複数のスレッドから同時に呼び出せます。
+     * @param data 2次元データ（rows*cols要素）
+     * @param rows 行数
+     * @param cols 列数
+     * @param rowPlan 各列に適用する長さrowsのプラン
+     * @param colPlan 各行に適用する長さcolsのプラン
+     */
+    void transform2D(ComplexBuffer data, int rows, int cols, FFTPlan rowPlan, FFTPlan colPlan);
+
+    /**
+     * これまでに確保したバイト数を取得します。
+     * @return 確保したバイト数
+     */
+    long getAllocatedBytes();
+
+    /**
+     * 確保したすべての配列のメモリを解放します。以降、それらの配列にアクセスすると例外が発生します。
+     */
+    @Override
+    void close();
+}
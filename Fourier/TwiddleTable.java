@@ -0,0 +1,183 @@
+package Fourier;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * データ長Nの回転因子 exp(±2πik/N) のcos・sinを、対称性を使って少ない個数だけ保持するテーブル。
+ * Nが8の倍数の場合は 0〜π/4 の N/8+1 個の角度だけを保持し、残りは
+ * cos(π/2-θ) = sin(θ) と90度の回転 (c, s) → (-s, c) で求めるため、導いた値は対称な角度どうしで厳密に一致します。
+ * それ以外のNでは 0〜π の (N+1)/2 個を保持し、cos(2π(N-k)/N) = cos(2πk/N) の対称性で残りを求めます。
+ * FFTカーネルに渡すN/2個の配列は、初めて要求されたときに展開して作成し、それを保持するプランの間で共有します。
+ * 逆変換の配列は虚部の符号を反転するだけなので、実部の配列を順変換の配列と共有します。
+ * テーブルは直近に作成したデータ長の分だけキャッシュされ、同じ大きさの行・列やウィンドウの間で共有されます。
+ */
+public final class TwiddleTable {
+
+    // キャッシュに保持するデータ長の数の上限（超えた場合は先に作成したものから破棄する）
+    private static final int MAX_CACHED_SIZES = 32;
+
+    // データ長ごとに共有するテーブル
+    private static final BoundedCache<Integer, TwiddleTable> tables = new BoundedCache<>(MAX_CACHED_SIZES, TwiddleTable::new);
+
+    private final int size;
+    private final int eighth;  // 0〜π/4を保持する場合はN/8、それ以外は0
+    private final int quarter; // 0〜π/4を保持する場合はN/4
+    private final double[] cos; // cos(2πk/N) (k = 0 .. storedLength-1)
+    private final double[] sin; // sin(2πk/N)
+
+    // 展開した配列は、それを使うプランが保持している間だけ共有する（プランが破棄されればガベージコレクションで回収される）
+    private WeakReference<ComplexArray> forwardTable = new WeakReference<>(null);
+    private WeakReference<ComplexArray> inverseTable = new WeakReference<>(null);
+
+    private TwiddleTable(int size) {
+        this.size = size;
+        if (size % 8 == 0) {
+            this.eighth = size / 8;
+            this.quarter = size / 4;
+            this.cos = new double[eighth + 1];
+            this.sin = new double[eighth + 1];
+        } else {
+            this.eighth = 0;
+            this.quarter = 0;
+            this.cos = new double[(size + 1) / 2];
+            this.sin = new double[(size + 1) / 2];
+        }
+        for (int k = 0; k < cos.length; k++) {
+            double angle = 2.0 * Math.PI * k / size;
+            cos[k] = Math.cos(angle);
+            sin[k] = Math.sin(angle);
+        }
+        if (eighth > 0) {
+            // π/4ではcosとsinが等しくなるよう、丸め誤差の差をそろえる
+            sin[eighth] = cos[eighth];
+        }
+    }
+
+    /**
+     * 指定したデータ長のテーブルを共有のキャッシュから取得します（無ければ作成してキャッシュします）。
+     * 取得はロックを取らずに行いますが、並列に処理する行・列ごとに呼び出さず、事前に取得したものを渡してください。
+     * @param size データ長(1以上)
+     * @return 共有のテーブル
+     * @throws IllegalArgumentException データ長が1未満の場合
+     */
+    public static TwiddleTable get(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Twiddle table size must be positive: " + size);
+        }
+        return tables.get(size);
+    }
+
+    /**
+     * データ長を取得します。
+     * @return データ長
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 実際に保持しているcos・sinの値の個数を取得します。
+     * @return Nが8の倍数ならN/8+1、それ以外は(N+1)/2
+     */
+    public int storedLength() {
+        return cos.length;
+    }
+
+    /**
+     * cos(2πk/N)を取得します。
+     * @param k インデックス(0 .. N-1)
+     * @return cos(2πk/N)
+     */
+    public double cos(int k) {
+        if (eighth == 0) {
+            if (k < cos.length) {
+                return cos[k];
+            }
+            return 2 * k == size ? -1.0 : cos[size - k];
+        }
+        int r = k % quarter;
+        double c = r <= eighth ? cos[r] : sin[quarter - r];
+        double s = r <= eighth ? sin[r] : cos[quarter - r];
+        switch (k / quarter) {
+            case 0: return c;
+            case 1: return -s;
+            case 2: return -c;
+            default: return s;
+        }
+    }
+
+    /**
+     * sin(2πk/N)を取得します。
+     * @param k インデックス(0 .. N-1)
+     * @return sin(2πk/N)
+     */
+    public double sin(int k) {
+        if (eighth == 0) {
+            if (k < sin.length) {
+                return sin[k];
+            }
+            return 2 * k == size ? 0.0 : -sin[size - k];
+        }
+        int r = k % quarter;
+        double c = r <= eighth ? cos[r] : sin[quarter - r];
+        double s = r <= eighth ? sin[r] : cos[quarter - r];
+        switch (k / quarter) {
+            case 0: return s;
+            case 1: return c;
+            case 2: return -s;
+            default: return -c;
+        }
+    }
+
+    /**
+     * FFTカーネルに渡す順変換の回転因子 w[k] = exp(-2πik/N) (k = 0 .. N/2-1) を取得します（内容を変更しないでください）。
+     * 保持しているcos・sinから展開して作成し、取得したプランなどが参照している間は同じ配列を返します。
+     * 変換のたびに呼び出さず、取得した配列を保持して使ってください。
+     * @return 順変換の回転因子の配列(長さ(N+1)/2。Nが偶数ならN/2)
+     */
+    public synchronized ComplexArray forwardTable() {
+        ComplexArray table = forwardTable.get();
+        if (table == null) {
+            ComplexArray inverse = inverseTable.get();
+            table = inverse != null ? conjugate(inverse) : expand();
+            forwardTable = new WeakReference<>(table);
+        }
+        return table;
+    }
+
+    /**
+     * FFTカーネルに渡す逆変換の回転因子 w[k] = exp(2πik/N) (k = 0 .. N/2-1) を取得します（内容を変更しないでください）。
+     * 実部の配列は順変換の配列と共有し、虚部だけを符号反転して保持します。
+     * @return 逆変換の回転因子の配列(長さ(N+1)/2。Nが偶数ならN/2)
+     */
+    public synchronized ComplexArray inverseTable() {
+        ComplexArray table = inverseTable.get();
+        if (table == null) {
+            table = conjugate(forwardTable());
+            inverseTable = new WeakReference<>(table);
+        }
+        return table;
+    }
+
+    // exp(-2πik/N) (k = 0 .. (N+1)/2-1) を展開する
+    private ComplexArray expand() {
+        ComplexArray table = new ComplexArray((size + 1) / 2);
+        double[] re = table.getRealArray();
+        double[] im = table.getImaginaryArray();
+        for (int k = 0; k < re.length; k++) {
+            re[k] = cos(k);
+            im[k] = -sin(k);
+        }
+        return table;
+    }
+
+    // 実部の配列を共有し、虚部の符号を反転した配列を作成する
+    private static ComplexArray conjugate(ComplexArray table) {
+        double[] im = table.getImaginaryArray();
+        double[] negated = new double[im.length];
+        for (int k = 0; k < negated.length; k++) {
+            negated[k] = -im[k];
+        }
+        return new ComplexArray(table.getRealArray(), negated);
+    }
+}
@@ -0,0 +1,190 @@
+package Fourier;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * JDKのVector API(jdk.incubator.vector)を使ってFFTのバタフライ演算とスケーリングをSIMD化したクラス。
+ * 実部・虚部を別々の配列に持つComplexArrayのレイアウトをそのまま利用し、
+ * 連続した要素をDoubleVectorのレーン単位でまとめて処理します。
+ * このクラスはjdk.incubator.vectorモジュールが有効な場合にのみ読み込まれます
+ * （利用可否の判定とフォールバックはFFTUtil側で行います）。
+ */
+final class VectorFFT {
+
+    // 実行環境で最も効率の良いベクトル幅
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    // 単精度版で使うベクトル幅（同じビット幅に倍精度の2倍の要素が入る）
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private VectorFFT() {
+    }
+
+    /**
+     * SIMD化による高速化が見込めるかを判定します。
+     * @return 1ベクトルに2レーン以上のdoubleを格納できる場合true
+     */
+    static boolean isSupported() {
+        return SPECIES.length() >= 2;
+    }
+
+    /**
+     * Stockham自動ソートFFTをSIMD化して実行します。
+     * 各段の内側のループは連続したs要素を読み書きするため、sがベクトル幅以上の段は
+     * 回転因子をブロードキャストしてレーン単位で処理し、sがベクトル幅未満の最初の数段だけスカラーで処理します。
+     * 計算結果はFFTUtil.fftStockhamと同じです。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 回転因子テーブル
+     * @param scratch 作業用バッファ（先頭n要素を使用し、内容は破壊されます）
+     */
+    static void fftStockham(ComplexArray data, int offset, int n, ComplexArray twiddles, ComplexArray scratch) {
+        double[] wr = twiddles.getRealArray();
+        double[] wi = twiddles.getImaginaryArray();
+        int tableSize = twiddles.length();
+        int lanes = SPECIES.length();
+
+        // x: 読み出し側, y: 書き込み側（各段の終わりに入れ替える）
+        double[] xr = data.getRealArray(), xi = data.getImaginaryArray();
+        double[] yr = scratch.getRealArray(), yi = scratch.getImaginaryArray();
+        int xo = offset;
+        int yo = 0;
+
+        for (int len = n, s = 1; len > 1; len >>= 1, s <<= 1) {
+            int m = len >> 1;
+            int stride = tableSize * 2 / len;
+            for (int p = 0; p < m; p++) {
+                double wpr = wr[p * stride];
+                double wpi = wi[p * stride];
+                int a = xo + s * p;
+                int b = a + s * m;
+                int c = yo + s * 2 * p;
+                int d = c + s;
+                if (s >= lanes) {
+                    // sはベクトル幅の倍数なので端数処理は不要
+                    for (int q = 0; q < s; q += lanes) {
+                        DoubleVector ar = DoubleVector.fromArray(SPECIES, xr, a + q);
+                        DoubleVector ai = DoubleVector.fromArray(SPECIES, xi, a + q);
+                        DoubleVector br = DoubleVector.fromArray(SPECIES, xr, b + q);
+                        DoubleVector bi = DoubleVector.fromArray(SPECIES, xi, b + q);
+                        DoubleVector dr = ar.sub(br);
+                        DoubleVector di = ai.sub(bi);
+                        ar.add(br).intoArray(yr, c + q);
+                        ai.add(bi).intoArray(yi, c + q);
+                        dr.mul(wpr).sub(di.mul(wpi)).intoArray(yr, d + q);
+                        dr.mul(wpi).add(di.mul(wpr)).intoArray(yi, d + q);
+                    }
+                } else {
+                    for (int q = 0; q < s; q++) {
+                        double ar = xr[a + q], ai = xi[a + q];
+                        double br = xr[b + q], bi = xi[b + q];
+                        double dr = ar - br, di = ai - bi;
+                        yr[c + q] = ar + br;
+                        yi[c + q] = ai + bi;
+                        yr[d + q] = dr * wpr - di * wpi;
+                        yi[d + q] = dr * wpi + di * wpr;
+                    }
+                }
+            }
+            double[] tr = xr; xr = yr; yr = tr;
+            double[] ti = xi; xi = yi; yi = ti;
+            int to = xo; xo = yo; yo = to;
+        }
+
+        // 段数が奇数の場合、結果は作業用バッファ側にあるので書き戻す
+        if (xr != data.getRealArray()) {
+            System.arraycopy(xr, xo, data.getRealArray(), offset, n);
+            System.arraycopy(xi, xo, data.getImaginaryArray(), offset, n);
+        }
+    }
+
+    /**
+     * 単精度のStockham自動ソートFFTをSIMD化して実行します。
+     * 処理の構成は倍精度版と同じで、計算結果はFFTUtilのスカラー版の単精度Stockham FFTと同じです。
+     * @param data FFTを適用する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数(2の冪乗)
+     * @param twiddles 単精度の回転因子テーブル
+     * @param scratch 作業用バッファ（先頭n要素を使用し、内容は破壊されます）
+     */
+    static void fftStockham(ComplexFloatArray data, int offset, int n, ComplexFloatArray twiddles, ComplexFloatArray scratch) {
+        float[] wr = twiddles.getRealArray();
+        float[] wi = twiddles.getImaginaryArray();
+        int tableSize = twiddles.length();
+        int lanes = FLOAT_SPECIES.length();
+
+        float[] xr = data.getRealArray(), xi = data.getImaginaryArray();
+        float[] yr = scratch.getRealArray(), yi = scratch.getImaginaryArray();
+        int xo = offset;
+        int yo = 0;
+
+        for (int len = n, s = 1; len > 1; len >>= 1, s <<= 1) {
+            int m = len >> 1;
+            int stride = tableSize * 2 / len;
+            for (int p = 0; p < m; p++) {
+                float wpr = wr[p * stride];
+                float wpi = wi[p * stride];
+                int a = xo + s * p;
+                int b = a + s * m;
+                int c = yo + s * 2 * p;
+                int d = c + s;
+                if (s >= lanes) {
+                    for (int q = 0; q < s; q += lanes) {
+                        FloatVector ar = FloatVector.fromArray(FLOAT_SPECIES, xr, a + q);
+                        FloatVector ai = FloatVector.fromArray(FLOAT_SPECIES, xi, a + q);
+                        FloatVector br = FloatVector.fromArray(FLOAT_SPECIES, xr, b + q);
+                        FloatVector bi = FloatVector.fromArray(FLOAT_SPECIES, xi, b + q);
+                        FloatVector dr = ar.sub(br);
+                        FloatVector di = ai.sub(bi);
+                        ar.add(br).intoArray(yr, c + q);
+                        ai.add(bi).intoArray(yi, c + q);
+                        dr.mul(wpr).sub(di.mul(wpi)).intoArray(yr, d + q);
+                        dr.mul(wpi).add(di.mul(wpr)).intoArray(yi, d + q);
+                    }
+                } else {
+                    for (int q = 0; q < s; q++) {
+                        float ar = xr[a + q], ai = xi[a + q];
+                        float br = xr[b + q], bi = xi[b + q];
+                        float dr = ar - br, di = ai - bi;
+                        yr[c + q] = ar + br;
+                        yi[c + q] = ai + bi;
+                        yr[d + q] = dr * wpr - di * wpi;
+                        yi[d + q] = dr * wpi + di * wpr;
+                    }
+                }
+            }
+            float[] tr = xr; xr = yr; yr = tr;
+            float[] ti = xi; xi = yi; yi = ti;
+            int to = xo; xo = yo; yo = to;
+        }
+
+        if (xr != data.getRealArray()) {
+            System.arraycopy(xr, xo, data.getRealArray(), offset, n);
+            System.arraycopy(xi, xo, data.getImaginaryArray(), offset, n);
+        }
+    }
+
+    /**
+     * 複素数配列の指定範囲をSIMD化してスカラー倍します。
+     * @param data 対象の複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n 範囲の要素数
+     * @param alpha 倍率
+     */
+    static void scale(ComplexArray data, int offset, int n, double alpha) {
+        double[] re = data.getRealArray();
+        double[] im = data.getImaginaryArray();
+        int end = offset + n;
+        int i = offset;
+        for (int upper = offset + SPECIES.loopBound(n); i < upper; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, re, i).mul(alpha).intoArray(re, i);
+            DoubleVector.fromArray(SPECIES, im, i).mul(alpha).intoArray(im, i);
+        }
+        for (; i < end; i++) {
+            re[i] *= alpha;
+            im[i] *= alpha;
+        }
+    }
+}
@@ -89,7 +89,9 @@ public class Example {
         if (colorImageData == null) return;
 
         System.out.println("\n--- Starting/Restarting 2D Demo ---");
-        FourierModel2D model2D = new FourierModel2D(colorImageData);
+        // 4K程度以上の大きな画像は、スペクトルを単精度で保持してメモリ使用量を半分にする
+        FourierModel2D.Precision precision = FourierModel2D.Precision.forImageSize(colorImageData.length, colorImageData[0].length);
+        FourierModel2D model2D = new FourierModel2D(colorImageData, precision);
         FourierView2D view2D = new FourierView2D(model2D, windowCreationCount);
         windowCreationCount++;
         
@@ -125,6 +127,9 @@ public class Example {
         view.getFrame().addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosed(WindowEvent e) {
+                // モデルの計算スレッドとヒープ外に確保したメモリを解放
+                view.getModel().dispose();
+
                 // ウィンドウカウンターを減少
                 int remainingWindows = openWindowCount.decrementAndGet();
                 System.out.println("ウィンドウが閉じられました。残り: " + remainingWindows + " ウィンドウ");
@@ -0,0 +1,84 @@
+package Fourier.fft;
+
+import Fourier.ComplexArray;
+
+/**
+ * FFTの計算エンジンのサービスプロバイダインターフェース(SPI)。
+ * モデルはFFTUtilの静的メソッドを直接呼ばず、FFTEngines.getDefault()で選ばれたエンジンを通して変換するため、
+ * SIMD化・並列化・ヒープ外など別実装のエンジンをモデルのコードを変えずに差し替えて比較できます。
+ * 独自のエンジンは引数なしのpublicコンストラクタを持つクラスとして実装し、
+ * META-INF/services/Fourier.fft.FFTEngine に完全修飾名を記述するとServiceLoaderで検出されます。
+ * 実装はスレッドセーフでなければなりません（計算スレッドとイベントディスパッチスレッドから同時に呼ばれます）。
+ */
+public interface FFTEngine {
+
+    /**
+     * エンジンの名前を取得します。システムプロパティ fourier.fft.engine でこの名前を指定すると選択されます。
+     * @return エンジンの名前
+     */
+    String getName();
+
+    /**
+     * 複素数配列の指定位置からn要素に順変換FFTを適用します（インプレース）。
+     * @param data 変換する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n データ長(1以上)
+     */
+    void forward(ComplexArray data, int offset, int n);
+
+    /**
+     * 複素数配列の指定位置からn要素に逆変換FFTを適用します（インプレース、1/nのスケーリングを含みます）。
+     * @param data 変換する複素数配列
+     * @param offset 範囲の開始インデックス
+     * @param n データ長(1以上)
+     */
+    void inverse(ComplexArray data, int offset, int n);
+
+    /**
+     * 実数列の順変換FFT(R2C)を行い、非負の周波数 k = 0..n/2 のn/2+1個の係数を求めます。
+     * @param input 実数列
+     * @param inOffset 実数列の開始インデックス
+     * @param n 実数列の要素数(1以上)
+     * @param spectrum 結果を書き込む複素数配列（outOffsetからn/2+1要素を使用）
+     * @param outOffset 結果の開始インデックス
+     */
+    void realForward(double[] input, int inOffset, int n, ComplexArray spectrum, int outOffset);
+
+    /**
+     * エルミート対称なスペクトルの非負の周波数n/2+1個の係数から、逆FFT(C2R)で実数列を求めます（1/nのスケーリングを含みます）。
+     * @param spectrum 非負の周波数の係数（inOffsetからの係数は作業領域として破壊されることがあります）
+     * @param inOffset 係数の開始インデックス
+     * @param n 結果の実数列の要素数(1以上)
+     * @param output 結果を書き込む実数配列
+     * @param outOffset 結果の開始インデックス
+     */
+    void realInverse(ComplexArray spectrum, int inOffset, int n, double[] output, int outOffset);
+
+    /**
+     * 連続して並んだcount本の長さnの列に順変換FFTを適用します。
+     * デフォルト実装では1本ずつforwardを呼び出します。
+     * @param data 変換する複素数配列
+     * @param offset 最初の列の開始インデックス
+     * @param n 各列のデータ長
+     * @param count 列の本数
+     */
+    default void forwardBatch(ComplexArray data, int offset, int n, int count) {
+        for (int i = 0; i < count; i++) {
+            forward(data, offset + i * n, n);
+        }
+    }
+
+    /**
+     * 連続して並んだcount本の長さnの列に逆変換FFTを適用します（1/nのスケーリングを含みます）。
+     * デフォルト実装では1本ずつinverseを呼び出します。
+     * @param data 変換する複素数配列
+     * @param offset 最初の列の開始インデックス
+     * @param n 各列のデータ長
+     * @param count 列の本数
+     */
+    default void inverseBatch(ComplexArray data, int offset, int n, int count) {
+        for (int i = 0; i < count; i++) {
+            inverse(data, offset + i * n, n);
+        }
+    }
+}
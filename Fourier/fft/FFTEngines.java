@@ -0,0 +1,95 @@
+package Fourier.fft;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * 使用できるFFTエンジンの一覧と、モデルが使う既定のエンジンを管理するクラス。
+ * 組み込みのエンジン(planned, reference)に加えて、ServiceLoaderで検出したエンジンを名前で選択できます。
+ * 既定のエンジンはシステムプロパティ fourier.fft.engine で指定し（省略時はplanned）、
+ * 指定した名前のエンジンが見つからない場合は警告を出してplannedを使います。
+ */
+public final class FFTEngines {
+
+    /** 既定のエンジンの名前を指定するシステムプロパティ */
+    public static final String ENGINE_PROPERTY = "fourier.fft.engine";
+
+    private static volatile FFTEngine defaultEngine;
+
+    private FFTEngines() {
+        // インスタンス化を防止
+    }
+
+    /**
+     * 使用できる全てのエンジンを取得します。組み込みのエンジンの後に、ServiceLoaderで検出したエンジンが続きます。
+     * 読み込みに失敗したプロバイダは警告を出して無視します。
+     * @return エンジンの一覧（同じ名前のエンジンは最初のものだけ）
+     */
+    public static List<FFTEngine> available() {
+        List<FFTEngine> engines = new ArrayList<>();
+        engines.add(new PlannedFFTEngine());
+        engines.add(new ReferenceFFTEngine());
+        try {
+            for (FFTEngine engine : ServiceLoader.load(FFTEngine.class)) {
+                if (engines.stream().noneMatch(e -> e.getName().equals(engine.getName()))) {
+                    engines.add(engine);
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            System.err.println("FFTエンジンの読み込みに失敗しました: " + e.getMessage());
+        }
+        return engines;
+    }
+
+    /**
+     * 名前を指定してエンジンを取得します。
+     * @param name エンジンの名前
+     * @return 新しいエンジンのインスタンス
+     * @throws IllegalArgumentException 指定した名前のエンジンが見つからない場合
+     */
+    public static FFTEngine get(String name) {
+        for (FFTEngine engine : available()) {
+            if (engine.getName().equals(name)) {
+                return engine;
+            }
+        }
+        throw new IllegalArgumentException("Unknown FFT engine: " + name);
+    }
+
+    /**
+     * モデルが使う既定のエンジンを取得します。初めて呼び出したときにシステムプロパティから選択します。
+     * @return 既定のエンジン
+     */
+    public static FFTEngine getDefault() {
+        FFTEngine engine = defaultEngine;
+        if (engine == null) {
+            synchronized (FFTEngines.class) {
+                engine = defaultEngine;
+                if (engine == null) {
+                    engine = select(System.getProperty(ENGINE_PROPERTY, PlannedFFTEngine.NAME));
+                    defaultEngine = engine;
+                }
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * 以降に作成するモデルが使う既定のエンジンを設定します。
+     * @param engine 既定にするエンジン（nullの場合は次回のgetDefault()でシステムプロパティから選び直します）
+     */
+    public static void setDefault(FFTEngine engine) {
+        defaultEngine = engine;
+    }
+
+    private static FFTEngine select(String name) {
+        try {
+            return get(name);
+        } catch (IllegalArgumentException e) {
+            System.err.println("FFTエンジン " + name + " が見つからないため、" + PlannedFFTEngine.NAME + " を使用します。");
+            return new PlannedFFTEngine();
+        }
+    }
+}
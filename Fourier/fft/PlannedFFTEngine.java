@@ -0,0 +1,62 @@
+package Fourier.fft;
+
+import Fourier.ComplexArray;
+import Fourier.FFTPlan;
+import Fourier.FFTPlanner;
+import Fourier.FFTUtil;
+
+/**
+ * FFTPlannerがデータ長ごとにこのマシンで最速と判断したカーネルの共有プランで変換する、既定のFFTエンジン。
+ * 初めて使う長さでも計測は待たず、計測が終わるまではFFTPlannerが推定したカーネルで変換します。
+ * 2の冪乗の実数列は長さn/2の複素FFTに詰める実数FFTで、それ以外の長さは混合基数FFTまたはBluestein FFTで変換します。
+ */
+public final class PlannedFFTEngine implements FFTEngine {
+
+    /** このエンジンの名前 */
+    public static final String NAME = "planned";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void forward(ComplexArray data, int offset, int n) {
+        FFTPlanner.planWithoutWaiting(n, false).execute(data, offset);
+    }
+
+    @Override
+    public void inverse(ComplexArray data, int offset, int n) {
+        FFTPlanner.planWithoutWaiting(n, true).execute(data, offset);
+    }
+
+    @Override
+    public void forwardBatch(ComplexArray data, int offset, int n, int count) {
+        FFTPlanner.planWithoutWaiting(n, false).executeBatch(data, offset, count);
+    }
+
+    @Override
+    public void inverseBatch(ComplexArray data, int offset, int n, int count) {
+        FFTPlanner.planWithoutWaiting(n, true).executeBatch(data, offset, count);
+    }
+
+    @Override
+    public void realForward(double[] input, int inOffset, int n, ComplexArray spectrum, int outOffset) {
+        if (!FFTUtil.isPowerOfTwo(n)) {
+            ReferenceFFTEngine.realForwardAnyLength(this, input, inOffset, n, spectrum, outOffset);
+            return;
+        }
+        FFTUtil.realFft(input, inOffset, n, spectrum, outOffset, FFTPlan.forward(n).getTwiddles(),
+            FFTPlanner.kernelForWithoutWaiting(Math.max(1, n / 2)), null);
+    }
+
+    @Override
+    public void realInverse(ComplexArray spectrum, int inOffset, int n, double[] output, int outOffset) {
+        if (!FFTUtil.isPowerOfTwo(n)) {
+            ReferenceFFTEngine.realInverseAnyLength(this, spectrum, inOffset, n, output, outOffset);
+            return;
+        }
+        FFTUtil.inverseRealFft(spectrum, inOffset, n, output, outOffset, FFTPlan.inverse(n).getTwiddles(),
+            FFTPlanner.kernelForWithoutWaiting(Math.max(1, n / 2)), null);
+    }
+}
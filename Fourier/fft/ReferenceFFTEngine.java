@@ -0,0 +1,86 @@
+package Fourier.fft;
+
+import Fourier.ComplexArray;
+import Fourier.FFTKernel;
+import Fourier.FFTPlan;
+import Fourier.FFTUtil;
+
+/**
+ * 再帰的な基数2 FFT(FFTKernel.RECURSIVE)で変換する参照実装のFFTエンジン。
+ * 最も素直な実装のため速度は劣りますが、他のエンジンの結果を検証したり性能を比較したりする基準になります。
+ * 2の冪乗でない長さは、他のエンジンと同じく混合基数FFTまたはBluestein FFTで変換します。
+ */
+public final class ReferenceFFTEngine implements FFTEngine {
+
+    /** このエンジンの名前 */
+    public static final String NAME = "reference";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void forward(ComplexArray data, int offset, int n) {
+        FFTPlan.get(n, false, FFTKernel.RECURSIVE).execute(data, offset);
+    }
+
+    @Override
+    public void inverse(ComplexArray data, int offset, int n) {
+        FFTPlan.get(n, true, FFTKernel.RECURSIVE).execute(data, offset);
+    }
+
+    @Override
+    public void forwardBatch(ComplexArray data, int offset, int n, int count) {
+        FFTPlan.get(n, false, FFTKernel.RECURSIVE).executeBatch(data, offset, count);
+    }
+
+    @Override
+    public void inverseBatch(ComplexArray data, int offset, int n, int count) {
+        FFTPlan.get(n, true, FFTKernel.RECURSIVE).executeBatch(data, offset, count);
+    }
+
+    @Override
+    public void realForward(double[] input, int inOffset, int n, ComplexArray spectrum, int outOffset) {
+        realForwardAnyLength(this, input, inOffset, n, spectrum, outOffset);
+    }
+
+    @Override
+    public void realInverse(ComplexArray spectrum, int inOffset, int n, double[] output, int outOffset) {
+        realInverseAnyLength(this, spectrum, inOffset, n, output, outOffset);
+    }
+
+    /**
+     * 虚部0の長さnの複素数列として順変換し、非負の周波数の係数を取り出します。
+     * @param engine 複素FFTに使うエンジン
+     * @param input 実数列
+     * @param inOffset 実数列の開始インデックス
+     * @param n 実数列の要素数
+     * @param spectrum 結果を書き込む複素数配列
+     * @param outOffset 結果の開始インデックス
+     */
+    static void realForwardAnyLength(FFTEngine engine, double[] input, int inOffset, int n, ComplexArray spectrum, int outOffset) {
+        ComplexArray full = new ComplexArray(n);
+        System.arraycopy(input, inOffset, full.getRealArray(), 0, n);
+        engine.forward(full, 0, n);
+        for (int k = 0; k <= n / 2; k++) {
+            spectrum.set(outOffset + k, full.getReal(k), full.getImaginary(k));
+        }
+    }
+
+    /**
+     * 非負の周波数の係数をエルミート対称性で長さnに展開して逆変換し、実部を取り出します。
+     * @param engine 複素FFTに使うエンジン
+     * @param spectrum 非負の周波数の係数
+     * @param inOffset 係数の開始インデックス
+     * @param n 結果の実数列の要素数
+     * @param output 結果を書き込む実数配列
+     * @param outOffset 結果の開始インデックス
+     */
+    static void realInverseAnyLength(FFTEngine engine, ComplexArray spectrum, int inOffset, int n, double[] output, int outOffset) {
+        ComplexArray full = new ComplexArray(n);
+        FFTUtil.expandHermitian(spectrum, inOffset, n, full, 0);
+        engine.inverse(full, 0, n);
+        System.arraycopy(full.getRealArray(), 0, output, outOffset, n);
+    }
+}
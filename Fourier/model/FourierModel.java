@@ -63,6 +63,13 @@ public abstract class FourierModel {
         computeFromMousePoint(point, isAltDown);
     }
 
+    /**
+     * モデルが使用している計算スレッドやメモリなどの資源を解放します。
+     * ウィンドウを閉じたときに呼び出され、以降モデルは使用できません。デフォルト実装では何もしません。
+     */
+    public void dispose() {
+    }
+
     /**
      * プロパティ変更イベントを発生させます。
      * @param propertyName プロパティ名
@@ -1,8 +1,13 @@
 package Fourier.model;
 
 import java.awt.Point;
-import Fourier.Complex;
+import java.util.BitSet;
+import Fourier.ComplexArray;
+import Fourier.ComplexView;
 import Fourier.FFTUtil;
+import Fourier.TwiddleTable;
+import Fourier.fft.FFTEngine;
+import Fourier.fft.FFTEngines;
 import Fourier.view.FourierView1D;
 
 /**
@@ -11,6 +16,9 @@ import Fourier.view.FourierView1D;
  */
 public class FourierModel1D extends FourierModel {
 
+    // 差分の更新を続けた後、丸め誤差の蓄積を抑えるために全体のIFFTで再構成し直すまでの回数
+    private static final int RESYNC_INTERVAL = 64;
+
     // ブラシサイズの定数
     private int brushSize = 2; // デフォルトのブラシサイズ
 
@@ -18,10 +26,12 @@ public class FourierModel1D extends FourierModel {
     private double[] initialOriginData; 
     
     // 2. 最初にinitialOriginDataから計算されたFFTスペクトル (シフトなし)
-    private Complex[] initialComplexDataForFFT; 
+    private ComplexArray initialComplexDataForFFT; 
 
     // 3. ユーザー操作によって直接変更されるFFTスペクトルデータ (シフトなし)
-    private Complex[] userModifiedSpectrumData; 
+    // 各成分は0か初期スペクトルの値のため、値はコピーせず初期スペクトルの値を使う成分のビットだけを持つ
+    private BitSet userMask;
+    private MaskedSpectrum userModifiedSpectrumData; 
     
     // 4. 最初にinitialOriginDataから計算されたパワースペクトルデータ (シフト済み)
     private double[] initialCalculatedPowerSpectrumData;
@@ -29,9 +39,20 @@ public class FourierModel1D extends FourierModel {
     // 5. 計算結果用のデータ（パワースペクトル） - userModifiedSpectrumDataから計算 (シフト済み)
     private double[] recalculatedPowerSpectrumData; 
 
-    // 6. userModifiedSpectrumDataからIFFTで再構成された時間領域データ
+    // 6. userModifiedSpectrumDataからIFFTで再構成された時間領域データ（編集のたびに同じ配列を上書きする）
     private double[] ifftResultData; 
 
+    // FFTを計算するエンジン（システムプロパティ fourier.fft.engine で選択する）
+    private final FFTEngine engine = FFTEngines.getDefault();
+
+    // 実数列のFFT/IFFTで使う非負の周波数成分(N/2+1個)、または2の冪乗でない長さでの逆変換用の作業用バッファ
+    private ComplexArray halfSpectrum;
+
+    // ブラシで変更された周波数成分だけを時間領域の結果に足し引きして再構成するか
+    private boolean incrementalIfft = true;
+    // 前回の全体のIFFTから差分で更新した回数
+    private int incrementalUpdates;
+
     private Point lastCalculationPoint;
     private boolean isAltDown;
 
@@ -49,27 +70,29 @@ public class FourierModel1D extends FourierModel {
     public FourierModel1D(double[] initialData) {
         this.initialOriginData = initialData;
         
-        // initialOriginDataから一度目のFFT用Complex配列を生成
-        Complex[] tempInitialComplex = convertDoubleToComplex(initialData);
-        if ((tempInitialComplex.length & (tempInitialComplex.length - 1)) != 0) {
-            System.err.println("Model1D: Initial FFT input size is not a power of 2: " + tempInitialComplex.length);
-            // エラーハンドリング：サイズが2の冪乗でない場合の処理
-            return;
+        int length = initialData.length;
+        this.ifftResultData = new double[length];
+        if (FFTUtil.isPowerOfTwo(length)) {
+            // 実数列のFFT(R2C)で非負の周波数成分を求めてから全体のスペクトルに展開する
+            this.halfSpectrum = new ComplexArray(length / 2 + 1);
+            engine.realForward(initialData, 0, length, halfSpectrum, 0); // FFTを実行
+            this.initialComplexDataForFFT = new ComplexArray(length);
+            FFTUtil.expandHermitian(halfSpectrum, 0, length, initialComplexDataForFFT, 0);
+        } else {
+            // 2の冪乗でない長さは、0埋めせずに混合基数FFT(大きな素因数を含む場合はBluestein FFT)で
+            // そのままの長さのスペクトルを求める
+            this.halfSpectrum = new ComplexArray(length);
+            this.initialComplexDataForFFT = ComplexArray.fromReal(initialData);
+            engine.forward(initialComplexDataForFFT, 0, length);
         }
-        // 回転因子を生成してFFTを実行
-        Complex[] twiddles = generateTwiddles(tempInitialComplex.length);
-        FFTUtil.fft(tempInitialComplex, twiddles); // FFTを実行
-        this.initialComplexDataForFFT = tempInitialComplex;
 
         // initialOriginDataから初期のパワースペクトルを計算して保存（これは初期のFFT結果から）
         this.initialCalculatedPowerSpectrumData = calculatePowerSpectrumFromFFTResult(this.initialComplexDataForFFT);
         firePropertyChange("initialCalculatedPowerSpectrumData", null, this.initialCalculatedPowerSpectrumData); 
 
         // ユーザーが操作するスペクトルデータを全て0で初期化
-        this.userModifiedSpectrumData = new Complex[initialComplexDataForFFT.length]; // 配列のサイズは元のFFT結果と同じ
-        for (int i = 0; i < userModifiedSpectrumData.length; i++) {
-            this.userModifiedSpectrumData[i] = new Complex(0.0, 0.0); // 実部も虚部も0で初期化
-        }
+        this.userMask = new BitSet(initialComplexDataForFFT.length()); // 配列のサイズは元のFFT結果と同じ（全要素0）
+        this.userModifiedSpectrumData = new MaskedSpectrum(initialComplexDataForFFT, userMask);
         
         // 初期状態でのパワースペクトルとIFFT結果を計算
         recalculateSpectrumFromUserModifiedData();
@@ -110,9 +133,11 @@ public class FourierModel1D extends FourierModel {
 
     /**
      * ユーザーが変更したスペクトルデータを取得します。
-     * @return ユーザー変更スペクトルデータ
+     * 内部では編集状態をビットで保持しているため、値はコピーせず、初期スペクトルから読み出す読み取り専用の配列を返します。
+     * 返した配列は以降の編集に追従します。
+     * @return ユーザー変更スペクトルデータ（読み取り専用）
      */
-    public Complex[] getUserModifiedSpectrumData() {
+    public ComplexView getUserModifiedSpectrumData() {
         return userModifiedSpectrumData;
     }
 
@@ -149,114 +174,178 @@ public class FourierModel1D extends FourierModel {
     }
 
     /**
-     * double配列をComplex配列に変換します。
-     * @param data 変換するdouble配列
-     * @return 変換されたComplex配列
+     * 変更された周波数成分だけでIFFTの結果を更新するかどうかを取得します。
+     * @return 差分で更新する場合はtrue
      */
-    private Complex[] convertDoubleToComplex(double[] data) {
-        if (data == null) return null;
-        Complex[] complexArray = new Complex[data.length];
-        for (int i = 0; i < data.length; i++) {
-            complexArray[i] = new Complex(data[i], 0);
-        }
-        return complexArray;
+    public boolean isIncrementalIfft() {
+        return incrementalIfft;
+    }
+
+    /**
+     * 変更された周波数成分だけでIFFTの結果を更新するかどうかを設定します。
+     * 有効にすると、ブラシで変更した周波数成分の正弦波を時間領域の結果に足し引きし、
+     * 変更した成分がデータ長に比べて少ない場合は全体のIFFTを省略します。
+     * @param incrementalIfft 差分で更新する場合はtrue
+     */
+    public void setIncrementalIfft(boolean incrementalIfft) {
+        this.incrementalIfft = incrementalIfft;
     }
 
     /**
-     * FFT済みのComplex配列からパワースペクトルを計算するヘルパーメソッド
+     * FFT済みの複素数配列からパワースペクトルを計算するヘルパーメソッド
      * @param fftResultData FFT結果データ
      * @return パワースペクトルデータ
      */
-    private double[] calculatePowerSpectrumFromFFTResult(Complex[] fftResultData) {
-        if (fftResultData == null || fftResultData.length == 0) return new double[0];
-        double[] powerSpectrum = new double[fftResultData.length];
-        for(int i = 0; i < fftResultData.length; i++) {
-            powerSpectrum[i] = fftResultData[i].magnitude() * fftResultData[i].magnitude();
+    private double[] calculatePowerSpectrumFromFFTResult(ComplexView fftResultData) {
+        if (fftResultData == null || fftResultData.length() == 0) return new double[0];
+        double[] powerSpectrum = new double[fftResultData.length()];
+        for(int i = 0; i < fftResultData.length(); i++) {
+            powerSpectrum[i] = fftResultData.magnitudeSquared(i);
         }
         // パワースペクトルをシフトして直流成分を中央にする
         FFTUtil.shift(powerSpectrum);
         return powerSpectrum;
     }
 
-    /**
-     * 回転因子を生成するヘルパーメソッド
-     * @param n データ長
-     * @return 回転因子の配列
-     */
-    private Complex[] generateTwiddles(int n) {
-        Complex[] twiddles = new Complex[n / 2];
-        for (int k = 0; k < n / 2; k++) {
-            double angle = -2.0 * Math.PI * k / n;
-            twiddles[k] = new Complex(Math.cos(angle), Math.sin(angle));
-        }
-        return twiddles;
-    }
-
-    /**
-     * 逆回転因子を生成するヘルパーメソッド
-     * @param n データ長
-     * @return 逆回転因子の配列
-     */
-    private Complex[] generateInverseTwiddles(int n) {
-        Complex[] invTwiddles = new Complex[n / 2];
-        for (int k = 0; k < n / 2; k++) {
-            double angle = 2.0 * Math.PI * k / n; // 符号が逆
-            invTwiddles[k] = new Complex(Math.cos(angle), Math.sin(angle));
-        }
-        return invTwiddles;
-    }
-
     // --- メインロジック ---
     @Override
     public void computeFromMousePoint(Point point, Boolean isAltDown) {
         this.lastCalculationPoint = point;
         this.isAltDown = isAltDown;
         
-        if (userModifiedSpectrumData != null && userModifiedSpectrumData.length > 0 && initialComplexDataForFFT != null) {
+        if (userModifiedSpectrumData != null && userModifiedSpectrumData.length() > 0 && initialComplexDataForFFT != null) {
             // X座標をブラシの中心となるインデックスにマッピング
-            int centerIndex = (int) (point.getX() * userModifiedSpectrumData.length / FourierView1D.PANEL_WIDTH); 
+            int centerIndex = (int) (point.getX() * userModifiedSpectrumData.length() / FourierView1D.PANEL_WIDTH); 
+
+            // 変更された周波数成分(シフトなし)と、その変化量
+            int[] changedBins = new int[2 * brushSize + 1];
+            double[] deltaRe = new double[changedBins.length];
+            double[] deltaIm = new double[changedBins.length];
+            int changedCount = 0;
             
             // ブラシの範囲（中心から左右に brushSize 分）をループ処理
             for (int i = centerIndex - brushSize; i <= centerIndex + brushSize; i++) {
                 
                 // 処理対象のインデックス `i` が配列の範囲内にあるかチェック
-                if (i >= 0 && i < userModifiedSpectrumData.length) {
+                if (i >= 0 && i < userModifiedSpectrumData.length()) {
                     int index = i; // 変数名を合わせる
 
                     // 表示されているインデックス(シフト済み)を、内部データ用のインデックス(シフトなし)に変換
-                    int N = userModifiedSpectrumData.length;
-                    int halfN = N / 2;
-                    int unshiftedIndex = (index < halfN) ? (index + halfN) : (index - halfN);
-
-                    if (isAltDown) {
-                        // Altキーが押されたら、該当する周波数成分を0にリセットする
-                        userModifiedSpectrumData[unshiftedIndex] = new Complex(0, 0); 
-                    } else {
-                        // クリックされた位置に対応する「元のスペクトルデータ」を取得
-                        Complex originalSpectrumValue = initialComplexDataForFFT[unshiftedIndex];
-                        // ユーザーが操作するスペクトルデータに、元のスペクトル値をセットする
-                        userModifiedSpectrumData[unshiftedIndex] = new Complex(originalSpectrumValue.getReal(), originalSpectrumValue.getImaginary());
+                    int unshiftedIndex = FFTUtil.unshiftIndex(index, userModifiedSpectrumData.length());
+                    boolean wasSet = userMask.get(unshiftedIndex);
+
+                    // Altキーが押されたら該当する周波数成分を0にリセットし、
+                    // そうでなければクリックされた位置に対応する「元のスペクトル値」に戻す
+                    userMask.set(unshiftedIndex, !isAltDown);
+
+                    // ビットが変わった成分の変化量は、初期スペクトルの値（0に戻した場合は符号を反転した値）
+                    if (wasSet == isAltDown) {
+                        double sign = isAltDown ? -1.0 : 1.0;
+                        changedBins[changedCount] = unshiftedIndex;
+                        deltaRe[changedCount] = sign * initialComplexDataForFFT.getReal(unshiftedIndex);
+                        deltaIm[changedCount] = sign * initialComplexDataForFFT.getImaginary(unshiftedIndex);
+                        changedCount++;
                     }
                 }
             }
             
             // ループ処理が終わった後、一度だけ更新通知を行う
             firePropertyChange("userModifiedSpectrumData", null, this.userModifiedSpectrumData); 
-            recalculateSpectrumFromUserModifiedData();
-            performIfftAndNotify();
+            if (canUpdateIncrementally(changedCount)) {
+                updateIncrementally(changedBins, deltaRe, deltaIm, changedCount);
+            } else {
+                recalculateSpectrumFromUserModifiedData();
+                performIfftAndNotify();
+            }
         }
         
         firePropertyChange("calculationPoint", null, point);
         firePropertyChange("altKeyState", null, isAltDown);
     }
 
+    /**
+     * 変更された周波数成分の数から、全体のIFFTの代わりに差分で更新するかを判断します。
+     * 差分の更新は変更された成分ごとにO(N)、全体のIFFTはO(N log N)のため、
+     * 変更された成分が log2(N)/2 個以下の場合だけ差分で更新します。
+     * @param changedCount 変更された周波数成分の数
+     * @return 差分で更新する場合はtrue
+     */
+    private boolean canUpdateIncrementally(int changedCount) {
+        if (!incrementalIfft || incrementalUpdates >= RESYNC_INTERVAL) {
+            return false;
+        }
+        int log2 = 31 - Integer.numberOfLeadingZeros(userModifiedSpectrumData.length());
+        return changedCount <= log2 / 2;
+    }
+
+    /**
+     * 変更された周波数成分のパワースペクトルを更新し、
+     * 変化量 d の正弦波 Re(d·exp(2πikn/N))/N を時間領域の結果に足してViewに通知するメソッド。
+     * 回転因子は共有のTwiddleTableから角度のインデックス kn mod N で直接読み出すため、漸化式による誤差は蓄積しません。
+     * @param bins 変更された周波数成分のインデックス（シフトなし）
+     * @param deltaRe 変化量の実部
+     * @param deltaIm 変化量の虚部
+     * @param count 変更された周波数成分の数
+     */
+    private void updateIncrementally(int[] bins, double[] deltaRe, double[] deltaIm, int count) {
+        int length = userModifiedSpectrumData.length();
+        for (int j = 0; j < count; j++) {
+            int bin = bins[j];
+            recalculatedPowerSpectrumData[FFTUtil.shiftIndex(bin, length)] = userModifiedSpectrumData.magnitudeSquared(bin);
+            addBinContribution(bin, deltaRe[j] / length, deltaIm[j] / length);
+        }
+        incrementalUpdates++;
+
+        // 配列をその場で更新したため、旧値をnullとして通知する
+        firePropertyChange("recalculatedPowerSpectrumData", null, this.recalculatedPowerSpectrumData);
+        firePropertyChange("ifftResultData", null, this.ifftResultData);
+    }
+
+    // IFFTの結果に a·cos(2πkn/N) - b·sin(2πkn/N) (n = 0 .. N-1) を足す
+    private void addBinContribution(int bin, double a, double b) {
+        int length = ifftResultData.length;
+        TwiddleTable table = TwiddleTable.get(length);
+        int angle = 0;
+        if (length % 2 == 0) {
+            // 展開済みの順変換の回転因子 exp(-2πik/N) (k < N/2) と、exp(-2πi(k+N/2)/N) = -exp(-2πik/N) を使う
+            ComplexArray twiddles = table.forwardTable();
+            double[] wr = twiddles.getRealArray();
+            double[] wi = twiddles.getImaginaryArray();
+            int half = length / 2;
+            for (int n = 0; n < length; n++) {
+                double c, s;
+                if (angle < half) {
+                    c = wr[angle];
+                    s = -wi[angle];
+                } else {
+                    c = -wr[angle - half];
+                    s = wi[angle - half];
+                }
+                ifftResultData[n] += a * c - b * s;
+                angle += bin;
+                if (angle >= length) {
+                    angle -= length;
+                }
+            }
+        } else {
+            // 奇数の長さでは対称性からcos・sinを求める
+            for (int n = 0; n < length; n++) {
+                ifftResultData[n] += a * table.cos(angle) - b * table.sin(angle);
+                angle += bin;
+                if (angle >= length) {
+                    angle -= length;
+                }
+            }
+        }
+    }
+
     /**
      * ユーザーが操作したスペクトルデータからパワースペクトルを再計算し、Viewに通知するメソッド
      */
     private void recalculateSpectrumFromUserModifiedData() {
         double[] oldCalculatedData = this.recalculatedPowerSpectrumData;
         
-        if (this.userModifiedSpectrumData == null || this.userModifiedSpectrumData.length == 0) {
+        if (this.userModifiedSpectrumData == null || this.userModifiedSpectrumData.length() == 0) {
             this.recalculatedPowerSpectrumData = new double[0];
             firePropertyChange("recalculatedPowerSpectrumData", oldCalculatedData, this.recalculatedPowerSpectrumData);
             return;
@@ -270,23 +359,24 @@ public class FourierModel1D extends FourierModel {
      * IFFTを実行し、時間領域の波形を再構成してViewに通知するメソッド
      */
     private void performIfftAndNotify() {
-        if (this.userModifiedSpectrumData == null || this.userModifiedSpectrumData.length == 0) {
+        if (this.userModifiedSpectrumData == null || this.userModifiedSpectrumData.length() == 0) {
             System.err.println("Model1D: IFFT - userModifiedSpectrumData is null or empty.");
             return;
         }
         
-        Complex[] ifftInput = new Complex[userModifiedSpectrumData.length];
-        for (int i = 0; i < userModifiedSpectrumData.length; i++) {
-            ifftInput[i] = new Complex(userModifiedSpectrumData[i].getReal(), userModifiedSpectrumData[i].getImaginary());
-        }
-
-        FFTUtil.ifft(ifftInput, generateInverseTwiddles(ifftInput.length));
-        
-        double[] newIfftResultData = new double[ifftInput.length];
-        for (int i = 0; i < ifftInput.length; i++) {
-            newIfftResultData[i] = ifftInput[i].getReal();
+        // 編集のたびに呼ばれるため、作業用バッファを再利用して配列を確保しない
+        int length = userModifiedSpectrumData.length();
+        if (!FFTUtil.isPowerOfTwo(length)) {
+            // 2の冪乗でない長さは混合基数FFT(またはBluestein FFT)で逆変換し、実部を取り出す
+            userModifiedSpectrumData.copyTo(halfSpectrum);
+            engine.inverse(halfSpectrum, 0, length);
+            System.arraycopy(halfSpectrum.getRealArray(), 0, ifftResultData, 0, length);
+        } else {
+            // 逆FFTの実部はエルミート対称な成分の逆FFTと一致するため、実数列の逆FFT(C2R)で再構成する
+            FFTUtil.hermitianHalf(userModifiedSpectrumData, 0, length, halfSpectrum, 0);
+            engine.realInverse(halfSpectrum, 0, length, ifftResultData, 0);
         }
-        this.ifftResultData = newIfftResultData;
+        incrementalUpdates = 0;
 
         firePropertyChange("ifftResultData", null, this.ifftResultData);
     }
@@ -297,10 +387,7 @@ public class FourierModel1D extends FourierModel {
     public void clearUserSpectrum() {
         if (this.userModifiedSpectrumData == null) return;
 
-        Complex zero = new Complex(0.0, 0.0);
-        for (int i = 0; i < this.userModifiedSpectrumData.length; i++) {
-            this.userModifiedSpectrumData[i] = zero;
-        }
+        this.userMask.clear();
 
         // 変更をビューに反映させるために、関連する計算を実行し通知する
         recalculateSpectrumFromUserModifiedData();
@@ -312,13 +399,9 @@ public class FourierModel1D extends FourierModel {
      */
     public void fillUserSpectrum() {
         if (this.userModifiedSpectrumData == null || this.initialComplexDataForFFT == null) return;
-        if (this.userModifiedSpectrumData.length != this.initialComplexDataForFFT.length) return;
+        if (this.userModifiedSpectrumData.length() != this.initialComplexDataForFFT.length()) return;
 
-        for (int i = 0; i < this.userModifiedSpectrumData.length; i++) {
-            Complex originalSpectrumValue = this.initialComplexDataForFFT[i];
-            // 新しいComplexインスタンスを作成して代入する
-            this.userModifiedSpectrumData[i] = new Complex(originalSpectrumValue.getReal(), originalSpectrumValue.getImaginary());
-        }
+        this.userMask.set(0, this.initialComplexDataForFFT.length());
 
         // 変更をビューに反映させるために、関連する計算を実行し通知する
         recalculateSpectrumFromUserModifiedData();
@@ -1,49 +1,209 @@
 package Fourier.model;
 
 import java.awt.Point;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 import javax.swing.SwingUtilities;
 import javax.swing.Timer;
-import Fourier.Complex;
+import Fourier.ComplexArray;
+import Fourier.ComplexBuffer;
+import Fourier.ComplexFloatArray;
+import Fourier.ComplexView;
+import Fourier.FFTPlan;
+import Fourier.FFTPlanner;
 import Fourier.FFTUtil;
+import Fourier.OffHeapStorage;
+import Fourier.TwiddleTable;
+import Fourier.fft.FFTEngine;
+import Fourier.fft.FFTEngines;
 
 /**
  * 2次元フーリエ変換のモデルクラス。
  * カラー画像のFFT、パワースペクトル計算、逆FFTなどの機能を提供します。
+ * スペクトルは[height][width]の2次元データを行優先で格納した複素数配列で保持します。
+ * 精度にFLOATを指定すると、スペクトルとIFFTの作業用バッファを単精度(ComplexFloatArray)で保持し、
+ * メモリ使用量とFFTのメモリ帯域を半分にします（誤差の目安はFFTUtilの単精度FFTの説明を参照してください）。
+ * RGBの3チャンネルは共通のForkJoinPoolで並列に変換し、倍精度の大きな画像では各チャンネルの行・列の処理もスレッドに分配します。
+ * 記憶域にOFF_HEAPを指定すると、スペクトルとIFFTの作業用バッファをヒープ外(OffHeapStorage)に確保し、
+ * dispose()で即座に解放します。
  */
 public class FourierModel2D extends FourierModel {
 
+    /**
+     * スペクトルを保持する精度。
+     */
+    public enum Precision {
+        /** 倍精度(ComplexArray)で保持する */
+        DOUBLE,
+        /**
+         * 単精度(ComplexFloatArray)で保持する。
+         * 8ビットの画像では再構成の誤差が1階調よりも十分小さいため、表示される結果は倍精度と変わりません。
+         */
+        FLOAT;
+
+        // これ以上の画素数(4K程度)の画像では既定で単精度にする
+        private static final long FLOAT_PIXEL_THRESHOLD = 1L << 22;
+
+        /**
+         * 画像の大きさに応じた既定の精度を選びます。
+         * @param width 画像の幅
+         * @param height 画像の高さ
+         * @return 画素数が約400万以上ならFLOAT、それ以外はDOUBLE
+         */
+        public static Precision forImageSize(int width, int height) {
+            return (long) width * height >= FLOAT_PIXEL_THRESHOLD ? FLOAT : DOUBLE;
+        }
+    }
+
+    /**
+     * スペクトルとIFFTの作業用バッファを確保する記憶域。
+     */
+    public enum Storage {
+        /** Javaのヒープに確保する */
+        HEAP,
+        /**
+         * ヒープ外(ネイティブメモリ)に確保する。
+         * 大きな画像でもGCの停止時間やヒープサイズの上限に影響せず、ウィンドウを閉じたときにdispose()で即座に解放されます。
+         * 倍精度でのみ使用でき、実数FFTの対称性を使わずに全ての列を保持します。
+         */
+        OFF_HEAP
+    }
+
+    // 単精度のFFTに渡す作業用バッファ（チャンネルごとに1つずつ保持し、変換のたびに配列を確保しない）
+    private static final class FloatWorkspace {
+        final ComplexFloatArray scratch; // 単精度のFFTの作業用バッファ（長さmax(height, width)。2の冪乗でない場合はnull）
+        final ComplexFloatArray column; // 列方向に逆FFTし直す1列（長さheight。2の冪乗でない場合はnull）
+        final float[] line; // 実数のFFTに渡す1行（長さwidth。2の冪乗でない場合はnull）
+        final ComplexArray doubleLine; // 1行(1列)ずつ倍精度で変換するバッファ（長さmax(height, width)。2の冪乗の場合はnull）
+
+        FloatWorkspace(int height, int width, boolean powerOfTwo) {
+            int length = Math.max(height, width);
+            this.scratch = powerOfTwo ? new ComplexFloatArray(length) : null;
+            this.column = powerOfTwo ? new ComplexFloatArray(height) : null;
+            this.line = powerOfTwo ? new float[width] : null;
+            this.doubleLine = powerOfTwo ? null : new ComplexArray(length);
+        }
+    }
+
     // フィールド定義
     private double[][][] initialOriginData_Color;
-    private Complex[][] initialComplexData_R, initialComplexData_G, initialComplexData_B;
+    private ComplexBuffer initialComplexData_R, initialComplexData_G, initialComplexData_B;
     private double[][] initialPowerSpectrumData;
-    private Complex[][] userModifiedSpectrumData_R, userModifiedSpectrumData_G, userModifiedSpectrumData_B;
+    // ユーザーが編集したスペクトル（各成分は0か初期スペクトルの値のため、値はコピーせず
+    // 初期スペクトルの値を使う成分のビットだけを持つ。3チャンネルは常に同時に編集するため、ビットは共有する）
+    private final BitSet userMask;
+    private final MaskedSpectrum userModifiedSpectrumData_R, userModifiedSpectrumData_G, userModifiedSpectrumData_B;
     private double[][] recalculatedPowerSpectrumData;
     private double[][] ifftResultData_R, ifftResultData_G, ifftResultData_B;
     private Point lastCalculationPoint;
     private boolean isAltDown;
-    private Complex[] twiddlesRows, invTwiddlesRows;
-    private Complex[] twiddlesCols, invTwiddlesCols;
+    private final int rows, cols; // スペクトルの行数(height)と列数(width)
+    private final int halfCols; // 実数FFTで保持する非負の周波数の列数(width/2+1)
+    private final boolean powerOfTwo; // 幅・高さがともに2の冪乗か（そうでなければ混合基数FFTまたはBluestein FFTを使う）
+    // RとGのチャンネルを実部・虚部に詰めて1回の複素2次元FFTで変換するか
+    // （実数FFTを使わない、2の冪乗でないヒープ上のスペクトルで使う。Bのチャンネルは単独で変換する）
+    private final boolean packedChannels;
+    private final Precision precision; // スペクトルと作業用バッファの精度
+    private final Storage storage; // スペクトルと作業用バッファの記憶域
+    private final OffHeapStorage offHeap; // OFF_HEAPの場合にスペクトルと作業用バッファを確保する記憶域（HEAPの場合はnull）
+    // 列方向(長さheight)・行方向(長さwidth)の共有FFTプラン（同じ大きさの画像を開いたウィンドウ間で回転因子テーブルを共有する）
+    // 倍精度のヒープ上のスペクトルのFFTを計算するエンジン（システムプロパティ fourier.fft.engine で選択する）
+    private final FFTEngine engine = FFTEngines.getDefault();
     private final ExecutorService calculationExecutor = Executors.newSingleThreadExecutor();
     
     private final Timer periodicTimer;
     private boolean hasPendingCalculation = false;
 
-    // IFFT計算用の作業用バッファ
-    private Complex[][] ifftWorkspace_R, ifftWorkspace_G, ifftWorkspace_B;
+    // IFFT計算用の作業用バッファ（エルミート対称な成分の非負の周波数の列だけを保持する[height][width/2+1]）
+    // RとGを詰めて変換する場合は、RGの作業用バッファをRのものと共有するため、Gの作業用バッファはnull
+    private ComplexBuffer ifftWorkspace_R, ifftWorkspace_G, ifftWorkspace_B;
+    // 列方向のFFTのために転置したスペクトルを置く、チャンネルごとの作業用バッファ（転置のたびに配列を確保しない）
+    // チャンネルは並列に計算するため、チャンネル間では共有しない
+    // （2の冪乗でない正方形の画像では転置をその場で行い、単精度で2の冪乗でない場合やヒープ外の記憶域では転置しないためnull）
+    // RとGを詰めて変換する場合は、Gの作業用バッファもnull
+    private ComplexBuffer transposeBuffer_R, transposeBuffer_G, transposeBuffer_B;
+    // 単精度のFFTに渡す、チャンネルごとの作業用バッファ（IFFTのたびに配列を確保しない）
+    // チャンネルは並列に計算するため、チャンネル間では共有しない
+    // （単精度のヒープ上のスペクトル以外ではnull。RとGを詰めて変換する場合は、Gの作業用バッファもnull）
+    private FloatWorkspace floatWorkspace_R, floatWorkspace_G, floatWorkspace_B;
     
+    // 差分の更新を続けた後、丸め誤差の蓄積を抑えるために全体のIFFTで再構成し直すまでの回数
+    private static final int RESYNC_INTERVAL = 64;
+    // 行ごと・チャンネルごとの処理を並列に行うか（テストで逐次に計算した結果と比べるときだけfalseにする）
+    static volatile boolean parallel = true;
+    // ブラシで変更された周波数成分だけをIFFTの結果に足し引きして再構成するか
+    private volatile boolean incrementalIfft = true;
+    // IFFTの結果に反映済みのスペクトルのビットと、その値を表すスペクトル（計算スレッドだけが読み書きする）
+    // 編集用のビットと異なる成分が、差分で更新するときに初期スペクトルの値を足し引きする成分になる
+    private final BitSet reconstructedMask;
+    private final MaskedSpectrum reconstructedSpectrum_R, reconstructedSpectrum_G, reconstructedSpectrum_B;
+    // 編集用のスペクトル・占有数・未反映の周波数成分を、EDTと計算スレッドの間で整合させるロック
+    private final Object spectrumLock = new Object();
+    // 編集用のスペクトルで、いずれかのチャンネルが0でない周波数成分の行ごと・列ごとの個数（spectrumLockで保護する）
+    private final int[] rowOccupancy, columnOccupancy;
+    // 初期スペクトルの占有数（フィルで全成分を初期スペクトルの値に戻したときの占有数）
+    private final int[] initialRowOccupancy, initialColumnOccupancy;
+    // 全体のIFFTで逆変換する、反映済みのスペクトルの占有数（計算スレッドがコピーしたときの値）
+    // 0の行・列は逆FFTを省略し、0でない要素が少ない行・列は要素ごとに直接逆DFTを計算する
+    private int[] reconstructedRowOccupancy, reconstructedColumnOccupancy;
+    // 差分の更新で、周波数成分の列の位相 cos・sin(2πvc/width) を読み出しておく計算スレッド専用のバッファ
+    private final double[] binColumnCos, binColumnSin;
+
+    // 編集されたが、まだIFFTの結果に反映していない周波数成分のインデックス（EDTが追加し、計算スレッドが取り出す）
+    // 同じ成分は取り出されるまで一度だけ記録し、記録済みの成分のビットを立てておく
+    private int[] pendingBins = new int[64];
+    private int pendingCount;
+    private final BitSet pendingMask = new BitSet();
+    private final AtomicBoolean incrementalScheduled = new AtomicBoolean();
+    // 2の冪乗のヒープ上のスペクトルで、列方向の逆FFTを終えた中間結果([height][width/2+1])をチャンネルごとに保持する
+    // （計算スレッドだけが読み書きする。編集された列だけを列方向に逆FFTし直してから、行方向の逆FFTを行う）
+    private ComplexBuffer columnCache_R, columnCache_G, columnCache_B;
+    // 差分の更新で反映済みのスペクトルが変わり、中間結果を計算し直す必要がある列（非負の周波数の列）
+    private boolean[] staleColumns;
+    // 計算スレッドが最後に作成したIFFTの結果([R,G,B][height][width])と、その後に差分で更新した回数
+    private double[][][] lastIfftResults;
+    private int incrementalUpdates;
+
     // 表示サイズ情報
     private int displayWidth = 400;  // デフォルト値
     private int displayHeight = 400; // デフォルト値
 
     /**
-     * 初期カラー画像データを指定してモデルを作成します。
+     * 初期カラー画像データを指定して、倍精度でスペクトルを保持するモデルを作成します。
      * @param initialColorData 初期のカラー画像データ（[width][height][RGB]の3次元配列）
      * @throws IllegalArgumentException カラーチャンネルが3でない場合
      */
     public FourierModel2D(double[][][] initialColorData) {
+        this(initialColorData, Precision.DOUBLE);
+    }
+
+    /**
+     * 初期カラー画像データとスペクトルの精度を指定してモデルを作成します。
+     * @param initialColorData 初期のカラー画像データ（[width][height][RGB]の3次元配列）
+     * @param precision スペクトルと作業用バッファの精度
+     * @throws IllegalArgumentException カラーチャンネルが3でない場合
+     */
+    public FourierModel2D(double[][][] initialColorData, Precision precision) {
+        this(initialColorData, precision, Storage.HEAP);
+    }
+
+    /**
+     * 初期カラー画像データとスペクトルの精度・記憶域を指定してモデルを作成します。
+     * OFF_HEAPを指定しても実行環境でヒープ外の記憶域を使用できない場合は、HEAPで作成します。
+     * @param initialColorData 初期のカラー画像データ（[width][height][RGB]の3次元配列）
+     * @param precision スペクトルと作業用バッファの精度
+     * @param storage スペクトルと作業用バッファの記憶域
+     * @throws IllegalArgumentException カラーチャンネルが3でない場合、またはFLOATとOFF_HEAPを同時に指定した場合
+     */
+    public FourierModel2D(double[][][] initialColorData, Precision precision, Storage storage) {
         this.initialOriginData_Color = initialColorData;
+        this.precision = precision;
         int width = initialColorData.length;
         int height = initialColorData[0].length;
         int channels = initialColorData[0][0].length;
@@ -51,22 +211,22 @@ public class FourierModel2D extends FourierModel {
         if (channels != 3) {
             throw new IllegalArgumentException("Input data must have 3 color channels (R, G, B).");
         }
-
-        // FFT用の回転因子を事前計算
-        this.twiddlesCols = new Complex[width / 2];
-        this.invTwiddlesCols = new Complex[width / 2];
-        for (int k = 0; k < width / 2; k++) {
-            double angle = -2 * Math.PI * k / width;
-            this.twiddlesCols[k] = new Complex(Math.cos(angle), Math.sin(angle));
-            this.invTwiddlesCols[k] = new Complex(Math.cos(-angle), Math.sin(-angle));
+        if (storage == Storage.OFF_HEAP && precision == Precision.FLOAT) {
+            throw new IllegalArgumentException("Off-heap storage supports only double precision.");
         }
-        this.twiddlesRows = new Complex[height / 2];
-        this.invTwiddlesRows = new Complex[height / 2];
-        for (int k = 0; k < height / 2; k++) {
-            double angle = -2 * Math.PI * k / height;
-            this.twiddlesRows[k] = new Complex(Math.cos(angle), Math.sin(angle));
-            this.invTwiddlesRows[k] = new Complex(Math.cos(-angle), Math.sin(-angle));
+        if (storage == Storage.OFF_HEAP && !OffHeapStorage.isAvailable()) {
+            System.err.println("ヒープ外の記憶域を使用できないため、ヒープにスペクトルを保持します。");
+            storage = Storage.HEAP;
         }
+        this.storage = storage;
+        this.offHeap = storage == Storage.OFF_HEAP ? OffHeapStorage.open() : null;
+        this.rows = height;
+        this.cols = width;
+        this.halfCols = width / 2 + 1;
+        this.binColumnCos = new double[width];
+        this.binColumnSin = new double[width];
+        this.powerOfTwo = FFTUtil.isPowerOfTwo(width) && FFTUtil.isPowerOfTwo(height);
+        this.packedChannels = !powerOfTwo && offHeap == null;
 
         // チャンネルごとのデータ準備
         double[][] dataR = new double[height][width];
@@ -80,35 +240,71 @@ public class FourierModel2D extends FourierModel {
             }
         }
 
-        // 初期計算
-        this.initialComplexData_R = perform2DFFTOn(dataR);
-        this.initialComplexData_G = perform2DFFTOn(dataG);
-        this.initialComplexData_B = perform2DFFTOn(dataB);
-        calculateInitialPowerSpectrum();
+        if (offHeap == null && (powerOfTwo || (precision == Precision.DOUBLE && width != height))) {
+            int transposedLength = height * (powerOfTwo ? halfCols : width);
+            this.transposeBuffer_R = newSpectrum(transposedLength);
+            this.transposeBuffer_G = packedChannels ? null : newSpectrum(transposedLength);
+            this.transposeBuffer_B = newSpectrum(transposedLength);
+        }
+        if (offHeap == null && precision == Precision.FLOAT) {
+            this.floatWorkspace_R = new FloatWorkspace(height, width, powerOfTwo);
+            this.floatWorkspace_G = packedChannels ? null : new FloatWorkspace(height, width, powerOfTwo);
+            this.floatWorkspace_B = new FloatWorkspace(height, width, powerOfTwo);
+        }
 
-        // ユーザー操作用データの初期化
-        this.userModifiedSpectrumData_R = new Complex[height][width];
-        this.userModifiedSpectrumData_G = new Complex[height][width];
-        this.userModifiedSpectrumData_B = new Complex[height][width];
-        // [高速化] IFFT作業用バッファをここで一度だけ生成する
-        this.ifftWorkspace_R = new Complex[height][width];
-        this.ifftWorkspace_G = new Complex[height][width];
-        this.ifftWorkspace_B = new Complex[height][width];
+        // 初期計算（3チャンネルを並列に変換する。RとGを詰める場合はRG・Bの2つの変換を並列に行う）
+        double[][][] channelData = {dataR, dataG, dataB};
+        ComplexBuffer[] transposeBuffers = {transposeBuffer_R, transposeBuffer_G, transposeBuffer_B};
+        FloatWorkspace[] floatWorkspaces = {floatWorkspace_R, floatWorkspace_G, floatWorkspace_B};
+        ComplexBuffer[] spectra = new ComplexBuffer[3];
+        if (packedChannels) {
+            channelRange(2).forEach(t -> {
+                if (t == 0) {
+                    ComplexBuffer[] pair = perform2DFFTPacked(dataR, dataG, transposeBuffer_R, floatWorkspace_R);
+                    spectra[0] = pair[0];
+                    spectra[1] = pair[1];
+                } else {
+                    spectra[2] = perform2DFFTOn(dataB, transposeBuffer_B, floatWorkspace_B);
+                }
+            });
+        } else {
+            channelRange(3).forEach(c -> spectra[c] = perform2DFFTOn(channelData[c], transposeBuffers[c], floatWorkspaces[c]));
+        }
+        this.initialComplexData_R = spectra[0];
+        this.initialComplexData_G = spectra[1];
+        this.initialComplexData_B = spectra[2];
+        calculateInitialPowerSpectrum();
 
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                // 初期値は0で初期化（ユーザーが編集していない状態）
-                Complex zero = new Complex(0.0, 0.0);
-                this.userModifiedSpectrumData_R[i][j] = zero;
-                this.userModifiedSpectrumData_G[i][j] = new Complex(0,0);
-                this.userModifiedSpectrumData_B[i][j] = new Complex(0,0);
-                
-                // 作業用バッファも0で初期化
-                this.ifftWorkspace_R[i][j] = new Complex(0,0);
-                this.ifftWorkspace_G[i][j] = new Complex(0,0);
-                this.ifftWorkspace_B[i][j] = new Complex(0,0);
+        // ユーザー操作用データの初期化（初期値は0：ユーザーが編集していない状態）
+        this.userMask = new BitSet(height * width);
+        this.userModifiedSpectrumData_R = new MaskedSpectrum(initialComplexData_R, userMask);
+        this.userModifiedSpectrumData_G = new MaskedSpectrum(initialComplexData_G, userMask);
+        this.userModifiedSpectrumData_B = new MaskedSpectrum(initialComplexData_B, userMask);
+        this.rowOccupancy = new int[height];
+        this.columnOccupancy = new int[width];
+        this.initialRowOccupancy = new int[height];
+        this.initialColumnOccupancy = new int[width];
+        for (int index = 0; index < height * width; index++) {
+            if (isInitiallyOccupied(index)) {
+                initialRowOccupancy[index / width]++;
+                initialColumnOccupancy[index % width]++;
             }
         }
+        // [高速化] IFFT作業用バッファをここで一度だけ生成する
+        int workspaceCols = powerOfTwo && offHeap == null ? halfCols : width;
+        this.ifftWorkspace_R = newSpectrum(height * workspaceCols);
+        this.ifftWorkspace_G = packedChannels ? null : newSpectrum(height * workspaceCols);
+        this.ifftWorkspace_B = newSpectrum(height * workspaceCols);
+        this.reconstructedMask = new BitSet(height * width);
+        this.reconstructedSpectrum_R = new MaskedSpectrum(initialComplexData_R, reconstructedMask);
+        this.reconstructedSpectrum_G = new MaskedSpectrum(initialComplexData_G, reconstructedMask);
+        this.reconstructedSpectrum_B = new MaskedSpectrum(initialComplexData_B, reconstructedMask);
+        if (powerOfTwo && offHeap == null) {
+            this.columnCache_R = newSpectrum(height * halfCols);
+            this.columnCache_G = newSpectrum(height * halfCols);
+            this.columnCache_B = newSpectrum(height * halfCols);
+            this.staleColumns = new boolean[halfCols];
+        }
 
         recalculatePowerSpectrumFromUserModifiedData();
         performIfftAndNotify();
@@ -140,12 +336,12 @@ public class FourierModel2D extends FourierModel {
      */
     private Point convertMouseToImageCoordinates(Point mousePoint) {
         // 縦横比を保った描画でのマウス座標変換
-        double scaleX = (double) displayWidth / userModifiedSpectrumData_R[0].length;
-        double scaleY = (double) displayHeight / userModifiedSpectrumData_R.length;
+        double scaleX = (double) displayWidth / cols;
+        double scaleY = (double) displayHeight / rows;
         double scale = Math.min(scaleX, scaleY);
         
-        int drawWidth = (int) (userModifiedSpectrumData_R[0].length * scale);
-        int drawHeight = (int) (userModifiedSpectrumData_R.length * scale);
+        int drawWidth = (int) (cols * scale);
+        int drawHeight = (int) (rows * scale);
         
         int offsetX = (displayWidth - drawWidth) / 2;
         int offsetY = (displayHeight - drawHeight) / 2;
@@ -171,8 +367,8 @@ public class FourierModel2D extends FourierModel {
      */
     private Point convertMouseToImageCoordinates(Point mousePoint, int panelWidth, int panelHeight) {
         // 画像のサイズ
-        int imgWidth = userModifiedSpectrumData_R[0].length;
-        int imgHeight = userModifiedSpectrumData_R.length;
+        int imgWidth = cols;
+        int imgHeight = rows;
         
         // 縦横比を保った描画でのスケール計算
         double scaleX = (double) panelWidth / imgWidth;
@@ -208,15 +404,92 @@ public class FourierModel2D extends FourierModel {
     @Override
     public void computeFromMousePoint(Point point, Boolean isAltDown) {
         updateUserSpectrumAndRequestRepaint(point, isAltDown);
-        // 計算が必要であることをフラグで記録
-        hasPendingCalculation = true;
+        requestReconstruction();
     }
     
     @Override
     public void computeFromMousePoint(Point point, Boolean isAltDown, int panelWidth, int panelHeight) {
         updateUserSpectrumAndRequestRepaint(point, isAltDown, panelWidth, panelHeight);
-        // 計算が必要であることをフラグで記録
-        hasPendingCalculation = true;
+        requestReconstruction();
+    }
+
+    /**
+     * 変更された周波数成分だけでIFFTの結果を更新するかどうかを取得します。
+     * @return 差分で更新する場合はtrue
+     */
+    public boolean isIncrementalIfft() {
+        return incrementalIfft;
+    }
+
+    /**
+     * 変更された周波数成分だけでIFFTの結果を更新するかどうかを設定します。
+     * 有効にすると、ブラシで変更した周波数成分の2次元の正弦波を編集のたびにすぐIFFTの結果に足し引きし、
+     * 定期計算のタイマーを待ちません。変更した成分が多い場合は全体のIFFTで再構成します。
+     * @param incrementalIfft 差分で更新する場合はtrue
+     */
+    public void setIncrementalIfft(boolean incrementalIfft) {
+        this.incrementalIfft = incrementalIfft;
+    }
+
+    // 編集後の再構成を依頼する（差分で更新しない場合は、定期計算のタイマーで全体のIFFTを行う）
+    private void requestReconstruction() {
+        if (incrementalIfft) {
+            submitIncrementalTask();
+        } else {
+            // 計算が必要であることをフラグで記録
+            hasPendingCalculation = true;
+        }
+    }
+
+    // 1つの周波数成分を0にするか初期スペクトルの値に戻し、占有数と未反映の周波数成分を更新する。
+    // 値を書き込んでから未反映の成分として記録し、両方を同じロックの中で行うため、
+    // 計算スレッドが成分を取り出したときには必ず書き込んだ値が見える（古い値を読んで差0として捨てることがない）
+    private void editBin(int index, boolean isAltDown) {
+        synchronized (spectrumLock) {
+            boolean wasOccupied = isOccupied(index);
+            userMask.set(index, !isAltDown);
+            markEdited(index);
+            boolean occupied = isOccupied(index);
+            if (occupied != wasOccupied) {
+                int change = occupied ? 1 : -1;
+                rowOccupancy[index / cols] += change;
+                columnOccupancy[index % cols] += change;
+            }
+        }
+    }
+
+    // 編集用のスペクトルのいずれかのチャンネルが0でないか
+    private boolean isOccupied(int index) {
+        return userMask.get(index) && isInitiallyOccupied(index);
+    }
+
+    // 初期スペクトルのいずれかのチャンネルが0でないか
+    private boolean isInitiallyOccupied(int index) {
+        return initialComplexData_R.magnitudeSquared(index) != 0 || initialComplexData_G.magnitudeSquared(index) != 0
+            || initialComplexData_B.magnitudeSquared(index) != 0;
+    }
+
+    // 編集された周波数成分のインデックスを記録する（取り出される前に同じ成分が再び編集された場合は記録しない）
+    private void markEdited(int index) {
+        synchronized (spectrumLock) {
+            if (pendingMask.get(index)) {
+                return;
+            }
+            pendingMask.set(index);
+            if (pendingCount == pendingBins.length) {
+                pendingBins = Arrays.copyOf(pendingBins, pendingCount * 2);
+            }
+            pendingBins[pendingCount++] = index;
+        }
+    }
+
+    private int[] drainEditedBins() {
+        synchronized (spectrumLock) {
+            int[] bins = Arrays.copyOf(pendingBins, pendingCount);
+            pendingCount = 0;
+            pendingMask.clear();
+            return bins;
+        }
     }
 
     private void updateUserSpectrumAndRequestRepaint(Point point, Boolean isAltDown) {
@@ -226,8 +499,6 @@ public class FourierModel2D extends FourierModel {
         // マウス座標を画像座標に変換
         Point imagePoint = convertMouseToImageCoordinates(point);
 
-        int rows = userModifiedSpectrumData_R.length;
-        int cols = userModifiedSpectrumData_R[0].length;
         int centerCol = imagePoint.x;
         int centerRow = imagePoint.y;
         double radiusSquared = brushSize * brushSize;
@@ -237,19 +508,9 @@ public class FourierModel2D extends FourierModel {
                 if (r >= 0 && r < rows && c >= 0 && c < cols) {
                     double distanceSquared = Math.pow(c - centerCol, 2) + Math.pow(r - centerRow, 2);
                     if (distanceSquared <= radiusSquared) {
-                        int unshiftedRow = (r < rows / 2) ? (r + rows / 2) : (r - rows / 2);
-                        int unshiftedCol = (c < cols / 2) ? (c + cols / 2) : (c - cols / 2);
-                        if (isAltDown) {
-                            // [高速化] new Complex()の代わりにset()で値をリセット
-                            userModifiedSpectrumData_R[unshiftedRow][unshiftedCol].set(0, 0);
-                            userModifiedSpectrumData_G[unshiftedRow][unshiftedCol].set(0, 0);
-                            userModifiedSpectrumData_B[unshiftedRow][unshiftedCol].set(0, 0);
-                        } else {
-                            // [高速化] new Complex()の代わりにset()で値をコピー
-                            userModifiedSpectrumData_R[unshiftedRow][unshiftedCol].set(initialComplexData_R[unshiftedRow][unshiftedCol]);
-                            userModifiedSpectrumData_G[unshiftedRow][unshiftedCol].set(initialComplexData_G[unshiftedRow][unshiftedCol]);
-                            userModifiedSpectrumData_B[unshiftedRow][unshiftedCol].set(initialComplexData_B[unshiftedRow][unshiftedCol]);
-                        }
+                        int unshiftedRow = FFTUtil.unshiftIndex(r, rows);
+                        int unshiftedCol = FFTUtil.unshiftIndex(c, cols);
+                        editBin(unshiftedRow * cols + unshiftedCol, isAltDown);
                     }
                 }
             }
@@ -272,8 +533,6 @@ public class FourierModel2D extends FourierModel {
             return;
         }
 
-        int rows = userModifiedSpectrumData_R.length;
-        int cols = userModifiedSpectrumData_R[0].length;
         int centerCol = imagePoint.x;
         int centerRow = imagePoint.y;
         double radiusSquared = brushSize * brushSize;
@@ -283,19 +542,9 @@ public class FourierModel2D extends FourierModel {
                 if (r >= 0 && r < rows && c >= 0 && c < cols) {
                     double distanceSquared = Math.pow(c - centerCol, 2) + Math.pow(r - centerRow, 2);
                     if (distanceSquared <= radiusSquared) {
-                        int unshiftedRow = (r < rows / 2) ? (r + rows / 2) : (r - rows / 2);
-                        int unshiftedCol = (c < cols / 2) ? (c + cols / 2) : (c - cols / 2);
-                        if (isAltDown) {
-                            // [高速化] new Complex()の代わりにset()で値をリセット
-                            userModifiedSpectrumData_R[unshiftedRow][unshiftedCol].set(0, 0);
-                            userModifiedSpectrumData_G[unshiftedRow][unshiftedCol].set(0, 0);
-                            userModifiedSpectrumData_B[unshiftedRow][unshiftedCol].set(0, 0);
-                        } else {
-                            // [高速化] new Complex()の代わりにset()で値をコピー
-                            userModifiedSpectrumData_R[unshiftedRow][unshiftedCol].set(initialComplexData_R[unshiftedRow][unshiftedCol]);
-                            userModifiedSpectrumData_G[unshiftedRow][unshiftedCol].set(initialComplexData_G[unshiftedRow][unshiftedCol]);
-                            userModifiedSpectrumData_B[unshiftedRow][unshiftedCol].set(initialComplexData_B[unshiftedRow][unshiftedCol]);
-                        }
+                        int unshiftedRow = FFTUtil.unshiftIndex(r, rows);
+                        int unshiftedCol = FFTUtil.unshiftIndex(c, cols);
+                        editBin(unshiftedRow * cols + unshiftedCol, isAltDown);
                     }
                 }
             }
@@ -307,24 +556,276 @@ public class FourierModel2D extends FourierModel {
     }
     
     private void submitIfftTask() {
-        calculationExecutor.submit(() -> {
-            double[][][] ifftResult = performIfftForWorker();
-
-            SwingUtilities.invokeLater(() -> {
-                int height = ifftResult[0].length;
-                int width = ifftResult.length;
-                this.ifftResultData_R = new double[height][width];
-                this.ifftResultData_G = new double[height][width];
-                this.ifftResultData_B = new double[height][width];
-                for (int y = 0; y < height; y++) {
-                    for (int x = 0; x < width; x++) {
-                        this.ifftResultData_R[y][x] = ifftResult[x][y][0];
-                        this.ifftResultData_G[y][x] = ifftResult[x][y][1];
-                        this.ifftResultData_B[y][x] = ifftResult[x][y][2];
-                    }
+        calculationExecutor.submit(this::performFullIfft);
+    }
+
+    // 計算スレッドで、編集用のスペクトル全体を逆変換する
+    private void performFullIfft() {
+        // 編集用のビットと占有数を反映済みのものにコピーしてから逆変換し、以降の差分の基準にする
+        MaskedSpectrum[] spectra = {reconstructedSpectrum_R, reconstructedSpectrum_G, reconstructedSpectrum_B};
+        synchronized (spectrumLock) {
+            drainEditedBins();
+            reconstructedMask.clear();
+            reconstructedMask.or(userMask);
+            reconstructedRowOccupancy = rowOccupancy.clone();
+            reconstructedColumnOccupancy = columnOccupancy.clone();
+        }
+
+        // 3チャンネルを並列に逆変換し、チャンネルごとの[height][width]の結果をそのまま渡す
+        // （中間の[width][height][3]配列を作らない）
+        ComplexBuffer[] workspaces = {ifftWorkspace_R, ifftWorkspace_G, ifftWorkspace_B};
+        ComplexBuffer[] transposeBuffers = {transposeBuffer_R, transposeBuffer_G, transposeBuffer_B};
+        FloatWorkspace[] floatWorkspaces = {floatWorkspace_R, floatWorkspace_G, floatWorkspace_B};
+        ComplexBuffer[] columnCaches = {columnCache_R, columnCache_G, columnCache_B};
+        double[][][] results = new double[3][][];
+        if (isEmpty(reconstructedRowOccupancy)) {
+            // 全ての成分が0のスペクトルの逆変換は0のため、逆FFTを行わずに0の画像を返す
+            for (ComplexBuffer columnCache : columnCaches) {
+                if (columnCache != null) {
+                    columnCache.clear();
+                }
+            }
+            for (int c = 0; c < 3; c++) {
+                results[c] = new double[rows][cols];
+            }
+        } else if (packedChannels) {
+            // RとGは1回の複素IFFTの実部・虚部として、Bは単独で逆変換する
+            channelRange(2).forEach(t -> {
+                if (t == 0) {
+                    double[][][] pair = perform2DIFFTPacked(spectra[0], spectra[1], workspaces[0], transposeBuffers[0], floatWorkspaces[0]);
+                    results[0] = pair[0];
+                    results[1] = pair[1];
+                } else {
+                    results[2] = perform2DIFFTOn(spectra[2], workspaces[2], transposeBuffers[2], null, floatWorkspaces[2]);
                 }
-                firePropertyChange("ifftResultData", null, null);
             });
+        } else {
+            channelRange(3).forEach(c ->
+                results[c] = perform2DIFFTOn(spectra[c], workspaces[c], transposeBuffers[c], columnCaches[c], floatWorkspaces[c]));
+        }
+        if (staleColumns != null) {
+            Arrays.fill(staleColumns, false);
+        }
+        incrementalUpdates = 0;
+        publishIfftResults(results);
+    }
+
+    private static boolean isEmpty(int[] occupancy) {
+        for (int count : occupancy) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 編集された周波数成分の差分だけでIFFTの結果を更新するタスクを依頼する
+    // （実行待ちのタスクがあれば、そのタスクがまとめて反映するため新たに依頼しない）
+    private void submitIncrementalTask() {
+        if (incrementalScheduled.compareAndSet(false, true)) {
+            calculationExecutor.submit(this::performIncrementalIfft);
+        }
+    }
+
+    // 計算スレッドで、編集された各周波数成分 (u, v) の変化量 d の2次元の正弦波
+    // Re(d·exp(2πi(ur/height + vc/width))) / (height·width) を、前回の結果のコピーに足す。
+    // 正弦波は行の位相 exp(2πiur/height) と列の位相 exp(2πivc/width) の積(rank-1)に分解できるため、
+    // 1成分あたりO(height·width)で更新できる
+    private void performIncrementalIfft() {
+        incrementalScheduled.set(false);
+        int[] bins = drainEditedBins();
+        if (bins.length == 0) {
+            return;
+        }
+        ComplexBuffer[] initial = {initialComplexData_R, initialComplexData_G, initialComplexData_B};
+        // 編集用のビットが反映済みのビットと異なる成分だけを残し、反映後のビットとして編集用のビットを記録する
+        // （変化量は、ビットが立った成分では初期スペクトルの値、下りた成分ではその符号を反転した値）
+        int changed = 0;
+        boolean[] targets = new boolean[bins.length];
+        synchronized (spectrumLock) {
+            for (int i = 0; i < bins.length; i++) {
+                boolean target = userMask.get(bins[i]);
+                if (target != reconstructedMask.get(bins[i])) {
+                    targets[changed] = target;
+                    bins[changed++] = bins[i];
+                }
+            }
+        }
+        if (changed == 0) {
+            return;
+        }
+        double[][] deltaRe = new double[changed][3];
+        double[][] deltaIm = new double[changed][3];
+        for (int i = 0; i < changed; i++) {
+            double sign = targets[i] ? 1.0 : -1.0;
+            for (int c = 0; c < 3; c++) {
+                deltaRe[i][c] = sign * initial[c].getReal(bins[i]);
+                deltaIm[i][c] = sign * initial[c].getImaginary(bins[i]);
+            }
+        }
+        if (lastIfftResults == null) {
+            performFullIfft();
+            return;
+        }
+        // 差分の更新は変更された成分ごとにO(N)、全体のIFFTはO(N log N)のため、
+        // 変更された成分が log2(N)/2 個を超える場合と、一定回数ごとの再同期では、
+        // 編集された列だけを逆FFTし直すか、全体のIFFTを行う
+        int log2 = 31 - Integer.numberOfLeadingZeros(rows * cols);
+        if (incrementalUpdates >= RESYNC_INTERVAL || changed > log2 / 2) {
+            for (int i = 0; i < changed; i++) {
+                reconstructedMask.set(bins[i], targets[i]);
+            }
+            if (!performPartialIfft(bins, changed)) {
+                performFullIfft();
+            }
+            return;
+        }
+
+        double[][][] results = new double[3][rows][];
+        for (int c = 0; c < 3; c++) {
+            for (int r = 0; r < rows; r++) {
+                results[c][r] = lastIfftResults[c][r].clone();
+            }
+        }
+        for (int i = 0; i < changed; i++) {
+            reconstructedMask.set(bins[i], targets[i]);
+            addBinContribution(results, bins[i], deltaRe[i], deltaIm[i]);
+            if (staleColumns != null) {
+                staleColumns[halfColumnOf(bins[i])] = true;
+            }
+        }
+        incrementalUpdates++;
+        publishIfftResults(results);
+    }
+
+    // 計算スレッドで、反映済みのスペクトルのうち編集された列(と以前の差分の更新で古くなった列)だけを
+    // 列方向に逆FFTし直して中間結果を更新し、行方向の逆FFTで再構成する。
+    // 中間結果を保持していない場合や、計算し直す列が半分を超える場合は何もせずにfalseを返す
+    private boolean performPartialIfft(int[] bins, int count) {
+        if (staleColumns == null) {
+            return false;
+        }
+        boolean[] dirty = staleColumns.clone();
+        for (int i = 0; i < count; i++) {
+            dirty[halfColumnOf(bins[i])] = true;
+        }
+        int[] columns = new int[halfCols];
+        int dirtyCount = 0;
+        for (int j = 0; j < halfCols; j++) {
+            if (dirty[j]) {
+                columns[dirtyCount++] = j;
+            }
+        }
+        if (dirtyCount > halfCols / 2) {
+            return false;
+        }
+
+        int columnCount = dirtyCount;
+        MaskedSpectrum[] spectra = {reconstructedSpectrum_R, reconstructedSpectrum_G, reconstructedSpectrum_B};
+        ComplexBuffer[] workspaces = {ifftWorkspace_R, ifftWorkspace_G, ifftWorkspace_B};
+        ComplexBuffer[] columnCaches = {columnCache_R, columnCache_G, columnCache_B};
+        FloatWorkspace[] floatWorkspaces = {floatWorkspace_R, floatWorkspace_G, floatWorkspace_B};
+        double[][][] results = new double[3][][];
+        channelRange(3).forEach(c -> {
+            for (int k = 0; k < columnCount; k++) {
+                inverseColumn(spectra[c], columns[k], columnCaches[c], floatWorkspaces[c]);
+            }
+            // 行方向の実数の逆FFTは入力を書き換えるため、中間結果を作業用バッファにコピーしてから逆変換する
+            copySpectrum(columnCaches[c], workspaces[c]);
+            results[c] = precision == Precision.FLOAT
+                ? inverseRowPass((ComplexFloatArray) workspaces[c], null, floatWorkspaces[c])
+                : inverseRowPass((ComplexArray) workspaces[c], null);
+        });
+        Arrays.fill(staleColumns, false);
+        incrementalUpdates = 0;
+        publishIfftResults(results);
+        return true;
+    }
+
+    // 単精度とヒープ外の記憶域で使う、長さheight(列方向)・width(行方向)のFFTのプランを共有のキャッシュから取得する
+    // （倍精度のヒープ上のスペクトルはFFTエンジンを通して変換する）。
+    // モデルはイベントディスパッチスレッドで作成されるため計測は待たず、初めての大きさでは推定したカーネルのプランを使う。
+    // 変換のたびに取得し直すため、バックグラウンドの計測が終わった後は計測したカーネルのプランで変換する
+    private FFTPlan rowPlan(boolean inverse) {
+        return FFTPlanner.planWithoutWaiting(rows, inverse);
+    }
+
+    private FFTPlan colPlan(boolean inverse) {
+        return FFTPlanner.planWithoutWaiting(cols, inverse);
+    }
+
+    // 周波数成分のインデックスから、その成分が影響するエルミート対称な成分の非負の周波数の列を求める
+    private int halfColumnOf(int bin) {
+        int v = bin % cols;
+        return v < halfCols ? v : cols - v;
+    }
+
+    // エルミート対称な成分の非負の周波数の列jを取り出して列方向に逆FFTし、中間結果の列jに書き込む
+    private void inverseColumn(ComplexView data, int j, ComplexBuffer columnCache, FloatWorkspace floatWorkspace) {
+        int mirrorCol = (cols - j) % cols;
+        if (precision == Precision.FLOAT) {
+            ComplexFloatArray line = floatWorkspace.column;
+            for (int r = 0; r < rows; r++) {
+                int index = r * cols + j;
+                int mirror = ((rows - r) % rows) * cols + mirrorCol;
+                line.set(r, (data.getReal(index) + data.getReal(mirror)) * 0.5, (data.getImaginary(index) - data.getImaginary(mirror)) * 0.5);
+            }
+            FFTUtil.ifft(line, 0, rows, rowPlan(true).getFloatTwiddles(), floatWorkspace.scratch);
+            for (int r = 0; r < rows; r++) {
+                columnCache.set(r * halfCols + j, line.getReal(r), line.getImaginary(r));
+            }
+        } else {
+            ComplexArray line = new ComplexArray(rows);
+            for (int r = 0; r < rows; r++) {
+                int index = r * cols + j;
+                int mirror = ((rows - r) % rows) * cols + mirrorCol;
+                line.set(r, (data.getReal(index) + data.getReal(mirror)) * 0.5, (data.getImaginary(index) - data.getImaginary(mirror)) * 0.5);
+            }
+            engine.inverse(line, 0, rows);
+            for (int r = 0; r < rows; r++) {
+                columnCache.set(r * halfCols + j, line.getReal(r), line.getImaginary(r));
+            }
+        }
+    }
+
+    // 1つの周波数成分の3チャンネルの変化量による正弦波を、IFFTの結果に足す
+    private void addBinContribution(double[][][] results, int bin, double[] deltaRe, double[] deltaIm) {
+        int u = bin / cols;
+        int v = bin % cols;
+        // 列の位相 exp(2πivc/width) は全ての行で共通のため、共有の回転因子テーブルから一度だけ読み出す
+        // （テーブルは並列に処理する行ごとではなく、ここで取得しておく）
+        double[] colCos = binColumnCos;
+        double[] colSin = binColumnSin;
+        fillPhases(TwiddleTable.get(cols), v, colCos, colSin);
+        TwiddleTable rowTable = TwiddleTable.get(rows);
+        double scale = 1.0 / ((double) rows * cols);
+        lineRange(rows, cols).forEach(r -> {
+            int rowAngle = (int) ((long) u * r % rows);
+            double pc = rowTable.cos(rowAngle) * scale;
+            double ps = rowTable.sin(rowAngle) * scale;
+            for (int ch = 0; ch < 3; ch++) {
+                // 変化量と行の位相の積 a を求め、Re(a·exp(2πivc/width)) を足す
+                double ar = deltaRe[ch] * pc - deltaIm[ch] * ps;
+                double ai = deltaRe[ch] * ps + deltaIm[ch] * pc;
+                if (ar == 0 && ai == 0) {
+                    continue;
+                }
+                double[] line = results[ch][r];
+                for (int c = 0; c < cols; c++) {
+                    line[c] += ar * colCos[c] - ai * colSin[c];
+                }
+            }
+        });
+    }
+
+    // 計算スレッドで作成したIFFTの結果を、差分の基準として保持してからEDTで公開する
+    private void publishIfftResults(double[][][] results) {
+        lastIfftResults = results;
+        SwingUtilities.invokeLater(() -> {
+            this.ifftResultData_R = results[0];
+            this.ifftResultData_G = results[1];
+            this.ifftResultData_B = results[2];
+            firePropertyChange("ifftResultData", null, null);
         });
     }
 
@@ -338,6 +839,52 @@ public class FourierModel2D extends FourierModel {
     public double[][] getRecalculatedPowerSpectrumData() { return recalculatedPowerSpectrumData; }
     public Point getLastCalculationPoint() { return lastCalculationPoint; }
     public boolean getIsAltDown() { return isAltDown; }
+    public Precision getPrecision() { return precision; }
+    public Storage getStorage() { return storage; }
+
+    /**
+     * (テスト用) 定期計算のタイマーを待たずに保留中の全体のIFFTを依頼し、
+     * 依頼済みのIFFTが計算スレッドで終わって結果が通知されるまで待ちます。
+     * イベントディスパッチスレッドからは呼び出さないでください。
+     * @throws InterruptedException 待機中に割り込まれた場合
+     */
+    void awaitCalculations() throws InterruptedException {
+        try {
+            SwingUtilities.invokeAndWait(() -> {
+                if (hasPendingCalculation) {
+                    hasPendingCalculation = false;
+                    submitIfftTask();
+                }
+            });
+            calculationExecutor.submit(() -> { }).get();
+            // 計算スレッドがinvokeLaterで依頼した結果の反映と通知を待つ
+            SwingUtilities.invokeAndWait(() -> { });
+        } catch (InvocationTargetException | ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * (テスト用) 計算スレッドで指定した処理を実行するよう依頼します。
+     * 処理が終わるまで、後から依頼されたIFFTは計算スレッドで待たされます。
+     * @param task 計算スレッドで実行する処理
+     */
+    void executeOnCalculationThread(Runnable task) {
+        calculationExecutor.execute(task);
+    }
+
+    /**
+     * 定期計算のタイマーと計算スレッドを停止し、ヒープ外に確保したスペクトルを解放します。
+     * 実行中のIFFTが終わってから解放するため、計算スレッドがメモリにアクセスすることはありません。
+     */
+    @Override
+    public void dispose() {
+        periodicTimer.stop();
+        if (offHeap != null) {
+            calculationExecutor.execute(offHeap::close);
+        }
+        calculationExecutor.shutdown();
+    }
     public double[][][] getIfftResultColorData() {
         if (ifftResultData_R == null) return null;
         int height = ifftResultData_R.length;
@@ -355,54 +902,23 @@ public class FourierModel2D extends FourierModel {
     
     // --- ヘルパーメソッド群 (変更なし) ---
     private double[][] recalculatePowerSpectrumFromUserModifiedDataForWorker() {
-        int rows = userModifiedSpectrumData_R.length;
-        int cols = userModifiedSpectrumData_R[0].length;
-        double[][] newData = new double[rows][cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                double powerR = userModifiedSpectrumData_R[i][j].magnitude() * userModifiedSpectrumData_R[i][j].magnitude();
-                double powerG = userModifiedSpectrumData_G[i][j].magnitude() * userModifiedSpectrumData_G[i][j].magnitude();
-                double powerB = userModifiedSpectrumData_B[i][j].magnitude() * userModifiedSpectrumData_B[i][j].magnitude();
-                newData[i][j] = powerR + powerG + powerB;
-            }
-        }
-        FFTUtil.shift(newData);
-        return newData;
+        return calculatePowerSpectrum(userModifiedSpectrumData_R, userModifiedSpectrumData_G, userModifiedSpectrumData_B);
     }
 
-    private double[][][] performIfftForWorker() {
-        // [高速化] チャンネルごとに、対応する作業用バッファを渡してIFFTを実行
-        double[][] r = perform2DIFFTOn(userModifiedSpectrumData_R, ifftWorkspace_R);
-        double[][] g = perform2DIFFTOn(userModifiedSpectrumData_G, ifftWorkspace_G);
-        double[][] b = perform2DIFFTOn(userModifiedSpectrumData_B, ifftWorkspace_B);
-        
-        int height = r.length;
-        int width = r[0].length;
-        double[][][] resultColorData = new double[width][height][3];
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                resultColorData[x][y][0] = r[y][x];
-                resultColorData[x][y][1] = g[y][x];
-                resultColorData[x][y][2] = b[y][x];
-            }
-        }
-        return resultColorData;
+    private void calculateInitialPowerSpectrum() {
+        this.initialPowerSpectrumData = calculatePowerSpectrum(initialComplexData_R, initialComplexData_G, initialComplexData_B);
     }
 
-    private void calculateInitialPowerSpectrum() {
-        int rows = initialComplexData_R.length;
-        int cols = initialComplexData_R[0].length;
+    private double[][] calculatePowerSpectrum(ComplexView dataR, ComplexView dataG, ComplexView dataB) {
         double[][] newData = new double[rows][cols];
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                double powerR = initialComplexData_R[i][j].magnitude() * initialComplexData_R[i][j].magnitude();
-                double powerG = initialComplexData_G[i][j].magnitude() * initialComplexData_G[i][j].magnitude();
-                double powerB = initialComplexData_B[i][j].magnitude() * initialComplexData_B[i][j].magnitude();
-                newData[i][j] = powerR + powerG + powerB;
+                int index = i * cols + j;
+                newData[i][j] = dataR.magnitudeSquared(index) + dataG.magnitudeSquared(index) + dataB.magnitudeSquared(index);
             }
         }
         FFTUtil.shift(newData);
-        this.initialPowerSpectrumData = newData;
+        return newData;
     }
     
     private void recalculatePowerSpectrumFromUserModifiedData() {
@@ -414,92 +930,595 @@ public class FourierModel2D extends FourierModel {
         submitIfftTask();
     }
     
-    private Complex[][] perform2DFFTOn(double[][] data) {
-        Complex[][] complexData = convertDouble2DToComplex2D(data);
-        perform2DFFT(complexData);
-        return complexData;
+    // スペクトルの精度に応じた複素数配列を作成する
+    private ComplexBuffer newSpectrum(int length) {
+        if (offHeap != null) {
+            return offHeap.allocate(length);
+        }
+        return precision == Precision.FLOAT ? new ComplexFloatArray(length) : new ComplexArray(length);
     }
 
-    // [高速化] IFFTの実行メソッドを、作業用バッファを受け取るように変更
-    private double[][] perform2DIFFTOn(Complex[][] data, Complex[][] workspace) {
-        int rows = data.length;
-        int cols = data[0].length;
+    // スペクトルを、同じ精度・記憶域の複素数配列にコピーする
+    private void copySpectrum(ComplexBuffer src, ComplexBuffer dst) {
+        if (offHeap != null) {
+            offHeap.copy(src, dst);
+        } else if (precision == Precision.FLOAT) {
+            ((ComplexFloatArray) dst).copyFrom((ComplexFloatArray) src);
+        } else {
+            ((ComplexArray) dst).copyFrom((ComplexArray) src);
+        }
+    }
 
-        // [高速化] new Complex[][] の代わりに、作業用バッファに値をコピーする
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                workspace[i][j].set(data[i][j]);
-            }
+    // 要素数が十分に多い場合は、行ごとの処理を共通のForkJoinPoolに分配する
+    private static IntStream lineRange(int count, int length) {
+        IntStream range = IntStream.range(0, count);
+        return parallel && (long) count * length >= FFTUtil.PARALLEL_BATCH_THRESHOLD ? range.parallel() : range;
+    }
+
+    // チャンネルごと(RとGを詰める場合はRG・B)の変換を共通のForkJoinPoolに分配する
+    private static IntStream channelRange(int count) {
+        IntStream range = IntStream.range(0, count);
+        return parallel ? range.parallel() : range;
+    }
+
+    private ComplexBuffer perform2DFFTOn(double[][] data, ComplexBuffer transposeBuffer, FloatWorkspace floatWorkspace) {
+        if (offHeap != null) {
+            return perform2DFFTOffHeap(data);
+        }
+        if (precision == Precision.FLOAT) {
+            return perform2DFFTOnFloat(data, (ComplexFloatArray) transposeBuffer, floatWorkspace);
         }
+        return perform2DFFTOnDouble(data, (ComplexArray) transposeBuffer);
+    }
+
+    // columnCacheがnullでなければ、列方向の逆FFTを終えた中間結果をコピーしておく
+    private double[][] perform2DIFFTOn(MaskedSpectrum data, ComplexBuffer workspace, ComplexBuffer transposeBuffer, ComplexBuffer columnCache,
+            FloatWorkspace floatWorkspace) {
+        if (offHeap != null) {
+            return perform2DIFFTOffHeap(data, workspace);
+        }
+        if (precision == Precision.FLOAT) {
+            return perform2DIFFTOnFloat(data, (ComplexFloatArray) workspace, (ComplexFloatArray) transposeBuffer,
+                (ComplexFloatArray) columnCache, floatWorkspace);
+        }
+        return perform2DIFFTOnDouble(data, (ComplexArray) workspace, (ComplexArray) transposeBuffer, (ComplexArray) columnCache);
+    }
 
-        perform2DIFFT(workspace); // IFFTは作業用バッファに対して実行
+    // ヒープ外に確保した[height][width]の複素数配列上で、行方向・列方向のFFTを行う
+    private ComplexBuffer perform2DFFTOffHeap(double[][] data) {
+        ComplexBuffer spectrum = offHeap.allocate(rows * cols);
+        offHeap.loadReal(data, spectrum);
+        offHeap.transform2D(spectrum, rows, cols, rowPlan(false), colPlan(false));
+        return spectrum;
+    }
 
+    private double[][] perform2DIFFTOffHeap(MaskedSpectrum data, ComplexBuffer workspace) {
+        data.copyTo(workspace);
+        offHeap.transform2D(workspace, rows, cols, rowPlan(true), colPlan(true));
         double[][] result = new double[rows][cols];
+        offHeap.storeReal(workspace, result);
+        return result;
+    }
+
+    // 2つの実数の画像 a, b を z = a + ib として1回の複素2次元FFTで変換し、
+    // Z[k] = A[k] + iB[k] とA・Bのエルミート対称性から A[k] = (Z[k] + conj(Z[-k])) / 2、
+    // B[k] = (Z[k] - conj(Z[-k])) / 2i で2つのスペクトルに分離する
+    private ComplexBuffer[] perform2DFFTPacked(double[][] dataA, double[][] dataB, ComplexBuffer transposeBuffer, FloatWorkspace floatWorkspace) {
+        ComplexBuffer packed = newSpectrum(rows * cols);
+        lineRange(rows, cols).forEach(r -> {
+            for (int c = 0; c < cols; c++) {
+                packed.set(r * cols + c, dataA[r][c], dataB[r][c]);
+            }
+        });
+        if (precision == Precision.FLOAT) {
+            perform2DFFTAnyLength((ComplexFloatArray) packed, false, floatWorkspace);
+        } else {
+            perform2DFFTAnyLength((ComplexArray) packed, false, (ComplexArray) transposeBuffer);
+        }
+        ComplexBuffer second = newSpectrum(rows * cols);
+        separateSpectra(packed, second);
+        return new ComplexBuffer[] {packed, second};
+    }
+
+    // 2つの実数の画像を詰めたスペクトルを分離し、1つ目をpackedに上書きして、2つ目をsecondに書き出す
+    // （k と -k の組は添字の小さい側でまとめて処理するため、行を並列に処理しても同じ要素に触れない）
+    private void separateSpectra(ComplexBuffer packed, ComplexBuffer second) {
+        lineRange(rows, cols).forEach(r -> {
+            int mirrorRow = (rows - r) % rows;
+            for (int c = 0; c < cols; c++) {
+                int index = r * cols + c;
+                int mirror = mirrorRow * cols + (cols - c) % cols;
+                if (mirror < index) {
+                    continue;
+                }
+                double zr = packed.getReal(index), zi = packed.getImaginary(index);
+                double mr = packed.getReal(mirror), mi = packed.getImaginary(mirror);
+                packed.set(index, (zr + mr) * 0.5, (zi - mi) * 0.5);
+                second.set(index, (zi + mi) * 0.5, (mr - zr) * 0.5);
+                packed.set(mirror, (mr + zr) * 0.5, (mi - zi) * 0.5);
+                second.set(mirror, (mi + zi) * 0.5, (zr - mr) * 0.5);
+            }
+        });
+    }
+
+    // 逆FFTの実部は、エルミート対称な成分 H[k] = (Y[k] + conj(Y[-k])) / 2 の逆FFTと一致する。
+    // 2つのスペクトルのエルミート対称な成分 HA, HB を HA + iHB として1回の複素IFFTで逆変換すると、
+    // 実部が1つ目の画像、虚部が2つ目の画像になる
+    private double[][][] perform2DIFFTPacked(ComplexView dataA, ComplexView dataB, ComplexBuffer workspace, ComplexBuffer transposeBuffer,
+            FloatWorkspace floatWorkspace) {
+        lineRange(rows, cols).forEach(r -> {
+            int mirrorRow = (rows - r) % rows;
+            for (int c = 0; c < cols; c++) {
+                int index = r * cols + c;
+                int mirror = mirrorRow * cols + (cols - c) % cols;
+                double ar = (dataA.getReal(index) + dataA.getReal(mirror)) * 0.5;
+                double ai = (dataA.getImaginary(index) - dataA.getImaginary(mirror)) * 0.5;
+                double br = (dataB.getReal(index) + dataB.getReal(mirror)) * 0.5;
+                double bi = (dataB.getImaginary(index) - dataB.getImaginary(mirror)) * 0.5;
+                workspace.set(index, ar - bi, ai + br);
+            }
+        });
+        if (precision == Precision.FLOAT) {
+            perform2DFFTAnyLength((ComplexFloatArray) workspace, true, floatWorkspace);
+        } else {
+            perform2DFFTAnyLength((ComplexArray) workspace, true, (ComplexArray) transposeBuffer);
+        }
+        double[][] resultA = new double[rows][cols];
+        double[][] resultB = new double[rows][cols];
+        lineRange(rows, cols).forEach(r -> {
+            for (int c = 0; c < cols; c++) {
+                resultA[r][c] = workspace.getReal(r * cols + c);
+                resultB[r][c] = workspace.getImaginary(r * cols + c);
+            }
+        });
+        return new double[][][] {resultA, resultB};
+    }
+
+    // 各行を実数FFT(R2C)で変換し、非負の周波数の列だけを列方向にFFTしてから、
+    // エルミート対称性 X[r][c] = conj(X[-r][-c]) で残りの列を復元する
+    private ComplexArray perform2DFFTOnDouble(double[][] data, ComplexArray transposedData) {
+        if (!powerOfTwo) {
+            ComplexArray complexData = ComplexArray.fromReal(data);
+            perform2DFFTAnyLength(complexData, false, transposedData);
+            return complexData;
+        }
+        ComplexArray half = new ComplexArray(rows * halfCols);
+        lineRange(rows, cols).forEach(i -> engine.realForward(data[i], 0, cols, half, i * halfCols));
+        FFTUtil.transpose(half, 0, rows, halfCols, transposedData, 0);
+        engine.forwardBatch(transposedData, 0, rows, halfCols);
+        FFTUtil.transpose(transposedData, 0, halfCols, rows, half, 0);
+
+        ComplexArray complexData = new ComplexArray(rows * cols);
+        expandHermitian2D(half, complexData);
+        return complexData;
+    }
+
+    // 単精度版: 手順は倍精度版と同じで、各行を単精度に丸めてから単精度のFFTで計算する
+    private ComplexFloatArray perform2DFFTOnFloat(double[][] data, ComplexFloatArray transposedData, FloatWorkspace floatWorkspace) {
+        if (!powerOfTwo) {
+            ComplexFloatArray complexData = new ComplexFloatArray(rows * cols);
+            float[] re = complexData.getRealArray();
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    re[r * cols + c] = (float) data[r][c];
+                }
+            }
+            perform2DFFTAnyLength(complexData, false, floatWorkspace);
+            return complexData;
+        }
+        ComplexFloatArray half = new ComplexFloatArray(rows * halfCols);
+        ComplexFloatArray scratch = floatWorkspace.scratch;
+        float[] line = floatWorkspace.line;
+        ComplexFloatArray colTwiddles = colPlan(false).getFloatTwiddles();
         for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                result[i][j] = workspace[i][j].getReal();
+            for (int c = 0; c < cols; c++) {
+                line[c] = (float) data[i][c];
+            }
+            FFTUtil.realFft(line, 0, cols, half, i * halfCols, colTwiddles, scratch);
+        }
+        FFTUtil.transpose(half, 0, rows, halfCols, transposedData, 0);
+        ComplexFloatArray rowTwiddles = rowPlan(false).getFloatTwiddles();
+        for (int i = 0; i < halfCols; i++) {
+            FFTUtil.fft(transposedData, i * rows, rows, rowTwiddles, scratch);
+        }
+        FFTUtil.transpose(transposedData, 0, halfCols, rows, half, 0);
+
+        ComplexFloatArray complexData = new ComplexFloatArray(rows * cols);
+        expandHermitian2D(half, complexData);
+        return complexData;
+    }
+
+    // 非負の周波数の列[rows][halfCols]から、エルミート対称性で全体のスペクトル[rows][cols]を復元する
+    private void expandHermitian2D(ComplexBuffer half, ComplexBuffer full) {
+        lineRange(rows, cols).forEach(r -> {
+            int mirrorRow = (rows - r) % rows;
+            for (int c = 0; c < cols; c++) {
+                if (c < halfCols) {
+                    full.set(r * cols + c, half.getReal(r * halfCols + c), half.getImaginary(r * halfCols + c));
+                } else {
+                    int mirror = mirrorRow * halfCols + (cols - c);
+                    full.set(r * cols + c, half.getReal(mirror), -half.getImaginary(mirror));
+                }
+            }
+        });
+    }
+
+    // 任意のスペクトル[rows][cols]から、エルミート対称な成分の非負の周波数の列[rows][halfCols]を取り出す
+    private void hermitianHalf2D(ComplexView data, ComplexBuffer workspace) {
+        lineRange(rows, halfCols).forEach(r -> {
+            int mirrorRow = (rows - r) % rows;
+            for (int c = 0; c < halfCols; c++) {
+                int index = r * cols + c;
+                int mirror = mirrorRow * cols + (cols - c) % cols;
+                workspace.set(r * halfCols + c, (data.getReal(index) + data.getReal(mirror)) * 0.5,
+                    (data.getImaginary(index) - data.getImaginary(mirror)) * 0.5);
+            }
+        });
+    }
+
+    // 逆FFTの実部はエルミート対称な成分 H[r][c] = (Y[r][c] + conj(Y[-r][-c])) / 2 の逆FFTと一致するため、
+    // Hの非負の周波数の列だけを列方向に逆FFTし、各行を実数の逆FFT(C2R)で再構成する
+    private double[][] perform2DIFFTOnDouble(MaskedSpectrum data, ComplexArray workspace, ComplexArray transposedData, ComplexArray columnCache) {
+        if (!powerOfTwo) {
+            data.copyTo(workspace);
+            perform2DFFTAnyLength(workspace, true, transposedData);
+            double[] real = workspace.getRealArray();
+            double[][] result = new double[rows][cols];
+            for (int i = 0; i < rows; i++) {
+                System.arraycopy(real, i * cols, result[i], 0, cols);
             }
+            return result;
+        }
+        hermitianHalf2D(data, workspace);
+
+        // 列jの0でない要素数は、列jの占有数と0でない行の数の小さい方を超えない
+        int occupiedRows = occupiedHermitianRows();
+        int[] columnNonZero = new int[halfCols];
+        int[] columns = occupiedHalfColumns();
+        int occupiedColumns = columns.length;
+        for (int j = 0; j < halfCols; j++) {
+            columnNonZero[j] = Math.min(occupiedRows, hermitianColumnNonZero(j));
+        }
+        if (occupiedColumns * 8 <= halfCols) {
+            // 0でない列が少ない場合は転置せずに、0でない列だけを1列ずつ取り出して逆変換する
+            int limit = (31 - Integer.numberOfLeadingZeros(rows)) / 2;
+            TwiddleTable rowTable = TwiddleTable.get(rows);
+            lineRange(occupiedColumns, rows).forEach(k -> {
+                int j = columns[k];
+                ComplexArray line = new ComplexArray(rows);
+                for (int r = 0; r < rows; r++) {
+                    line.set(r, workspace.getReal(r * halfCols + j), workspace.getImaginary(r * halfCols + j));
+                }
+                if (columnNonZero[j] <= limit) {
+                    prunedInverse(line, 0, rows, rowTable);
+                } else {
+                    engine.inverse(line, 0, rows);
+                }
+                for (int r = 0; r < rows; r++) {
+                    workspace.set(r * halfCols + j, line.getReal(r), line.getImaginary(r));
+                }
+            });
+        } else {
+            // モデルが保持するチャンネルごとの作業用バッファを再利用する
+            FFTUtil.transpose(workspace, 0, rows, halfCols, transposedData, 0);
+            inverseBatchSparse(transposedData, rows, halfCols, columnNonZero);
+            FFTUtil.transpose(transposedData, 0, halfCols, rows, workspace, 0);
+        }
+        if (columnCache != null) {
+            columnCache.copyFrom(workspace);
+        }
+        return inverseRowPass(workspace, sparseRowColumns(columns));
+    }
+
+    // 列方向の逆FFTを終えた非負の周波数の列[rows][halfCols]の各行を、実数の逆FFT(C2R)で再構成する（workspaceは書き換えられる）
+    // columnsがnullでなければ、各行の0でない要素はその列だけにあるものとして、列ごとの正弦波の和を直接求める
+    private double[][] inverseRowPass(ComplexArray workspace, int[] columns) {
+        double[][] result = new double[rows][cols];
+        if (columns != null) {
+            double[][][] phases = columnPhases(columns);
+            lineRange(rows, cols).forEach(i -> prunedRealInverse(workspace, i * halfCols, columns, phases[0], phases[1], result[i]));
+            return result;
         }
+        lineRange(rows, cols).forEach(i -> engine.realInverse(workspace, i * halfCols, cols, result[i], 0));
         return result;
     }
 
-    private void perform2DFFT(Complex[][] data) {
-        int rows = data.length;
-        for (int i = 0; i < rows; i++) {
-            FFTUtil.fft(data[i], this.twiddlesCols);
+    // 反映済みのスペクトルで、エルミート対称な成分が0でない行の数
+    // （列方向の逆FFTの前の各列の0でない要素は、これらの行にしかない）
+    private int occupiedHermitianRows() {
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            count += hermitianRowNonZero(r) > 0 ? 1 : 0;
         }
-        Complex[][] transposedData = transpose(data);
-        int cols = transposedData.length;
-        for (int i = 0; i < cols; i++) {
-            FFTUtil.fft(transposedData[i], this.twiddlesRows);
+        return count;
+    }
+
+    // 反映済みのスペクトルで、エルミート対称な成分が0でない非負の周波数の列
+    // （列方向の逆FFTの後も、各行の0でない要素はこれらの列にしかない）
+    private int[] occupiedHalfColumns() {
+        int[] columns = new int[halfCols];
+        int count = 0;
+        for (int j = 0; j < halfCols; j++) {
+            if (hermitianColumnNonZero(j) > 0) {
+                columns[count++] = j;
+            }
         }
-        transposedData = transpose(transposedData);
-        for (int i = 0; i < rows; i++) {
-            System.arraycopy(transposedData[i], 0, data[i], 0, data[0].length);
+        return Arrays.copyOf(columns, count);
+    }
+
+    // 0でない列が log2(width)/2 以下なら行方向の逆変換を枝刈りする列を、それより多ければnullを返す
+    private int[] sparseRowColumns(int[] columns) {
+        int limit = (31 - Integer.numberOfLeadingZeros(cols)) / 2;
+        return columns.length <= limit ? columns : null;
+    }
+
+    // 0でない要素が非負の周波数の列columnsだけにある行を、列ごとの実数の正弦波
+    // w·Re(X[j]·exp(2πijc/width)) / width (直流とナイキスト周波数はw = 1、それ以外はw = 2) の和として直接逆DFTする
+    // （列の位相phaseCos[k]・phaseSin[k]は全ての行で共通のため、呼び出し側がcolumnPhasesで一度だけ求めておく）
+    private void prunedRealInverse(ComplexBuffer workspace, int offset, int[] columns, double[][] phaseCos, double[][] phaseSin,
+            double[] output) {
+        Arrays.fill(output, 0.0);
+        for (int k = 0; k < columns.length; k++) {
+            int j = columns[k];
+            boolean real = j == 0 || 2 * j == cols;
+            double weight = (real ? 1.0 : 2.0) / cols;
+            double xr = workspace.getReal(offset + j) * weight;
+            double xi = real ? 0.0 : workspace.getImaginary(offset + j) * weight;
+            if (xr == 0 && xi == 0) {
+                continue;
+            }
+            double[] cos = phaseCos[k];
+            double[] sin = phaseSin[k];
+            for (int c = 0; c < cols; c++) {
+                output[c] += xr * cos[c] - xi * sin[c];
+            }
         }
     }
 
-    private void perform2DIFFT(Complex[][] data) {
-        int rows = data.length;
-        for (int i = 0; i < rows; i++) {
-            FFTUtil.ifft(data[i], this.invTwiddlesCols);
+    // 行方向の直接逆DFTを並列に始める前に、各列jの位相 cos・sin(2πjc/width) を共有の回転因子テーブルから読み出す
+    // （戻り値は {cos, sin} で、それぞれ[columns.length][width]）
+    private double[][][] columnPhases(int[] columns) {
+        TwiddleTable table = TwiddleTable.get(cols);
+        double[][] cos = new double[columns.length][cols];
+        double[][] sin = new double[columns.length][cols];
+        for (int k = 0; k < columns.length; k++) {
+            fillPhases(table, columns[k], cos[k], sin[k]);
         }
-        Complex[][] transposedData = transpose(data);
-        int cols = transposedData.length;
-        for (int i = 0; i < cols; i++) {
-            FFTUtil.ifft(transposedData[i], this.invTwiddlesRows);
+        return new double[][][]{cos, sin};
+    }
+
+    // cos・sin(2π·step·c/N) (c = 0 .. N-1) を、角度のインデックス step·c mod N でテーブルから読み出す
+    private static void fillPhases(TwiddleTable table, int step, double[] cos, double[] sin) {
+        int n = table.size();
+        int angle = 0;
+        for (int c = 0; c < n; c++) {
+            cos[c] = table.cos(angle);
+            sin[c] = table.sin(angle);
+            angle += step;
+            if (angle >= n) {
+                angle -= n;
+            }
         }
-        transposedData = transpose(transposedData);
-        for (int i = 0; i < rows; i++) {
-            System.arraycopy(transposedData[i], 0, data[i], 0, data[0].length);
+    }
+
+    // 単精度版: 単精度の作業用バッファで逆FFTを計算し、各行の結果だけを倍精度の画像に書き出す
+    private double[][] perform2DIFFTOnFloat(MaskedSpectrum data, ComplexFloatArray workspace, ComplexFloatArray transposedData,
+            ComplexFloatArray columnCache, FloatWorkspace floatWorkspace) {
+        if (!powerOfTwo) {
+            double[][] result = new double[rows][cols];
+            data.copyTo(workspace);
+            perform2DFFTAnyLength(workspace, true, floatWorkspace);
+            float[] real = workspace.getRealArray();
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    result[r][c] = real[r * cols + c];
+                }
+            }
+            return result;
+        }
+        hermitianHalf2D(data, workspace);
+
+        ComplexFloatArray scratch = floatWorkspace.scratch;
+        FFTUtil.transpose(workspace, 0, rows, halfCols, transposedData, 0);
+        ComplexFloatArray rowTwiddles = rowPlan(true).getFloatTwiddles();
+        for (int i = 0; i < halfCols; i++) {
+            // 0の列の逆FFTを省略する
+            if (hermitianColumnNonZero(i) > 0) {
+                FFTUtil.ifft(transposedData, i * rows, rows, rowTwiddles, scratch);
+            }
         }
+        FFTUtil.transpose(transposedData, 0, halfCols, rows, workspace, 0);
+        if (columnCache != null) {
+            columnCache.copyFrom(workspace);
+        }
+        return inverseRowPass(workspace, sparseRowColumns(occupiedHalfColumns()), floatWorkspace);
     }
 
-    private Complex[][] convertDouble2DToComplex2D(double[][] data) {
-        if (data == null) return null;
-        int rows = data.length;
-        int cols = data[0].length;
-        Complex[][] complexArray = new Complex[rows][cols];
+    // 単精度版の行方向の逆FFT（workspaceは書き換えられる）
+    private double[][] inverseRowPass(ComplexFloatArray workspace, int[] columns, FloatWorkspace floatWorkspace) {
+        double[][] result = new double[rows][cols];
+        if (columns != null) {
+            double[][][] phases = columnPhases(columns);
+            lineRange(rows, cols).forEach(i -> prunedRealInverse(workspace, i * halfCols, columns, phases[0], phases[1], result[i]));
+            return result;
+        }
+        float[] line = floatWorkspace.line;
+        ComplexFloatArray colTwiddles = colPlan(true).getFloatTwiddles();
         for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                complexArray[i][j] = new Complex(data[i][j], 0);
+            FFTUtil.inverseRealFft(workspace, i * halfCols, cols, line, 0, colTwiddles, floatWorkspace.scratch);
+            for (int c = 0; c < cols; c++) {
+                result[i][c] = line[c];
             }
         }
-        return complexArray;
+        return result;
     }
     
+    // 幅・高さのどちらかが2の冪乗でない場合は、複素数の2次元FFTを行ごと・列ごとに計算する
+    // （2の冪乗の方向は通常のFFT、1920や1080のように素因数が2・3・5・7だけの方向は混合基数FFT、
+    // それ以外の方向はBluestein FFTを使う）
+    // 逆変換では、占有数から求めた0でない要素数の上限に応じて、行方向・列方向の逆FFTを省略または枝刈りする
+    // （0の行は逆FFTの結果も0のため、行方向の逆変換の後も0でない要素は占有された行だけにある）
+    private void perform2DFFTAnyLength(ComplexArray data, boolean inverse, ComplexArray transposeBuffer) {
+        int[] columnNonZero = null;
+        if (inverse) {
+            int[] rowNonZero = new int[rows];
+            int occupiedRows = 0;
+            for (int r = 0; r < rows; r++) {
+                rowNonZero[r] = Math.min(cols, hermitianRowNonZero(r));
+                occupiedRows += rowNonZero[r] > 0 ? 1 : 0;
+            }
+            inverseBatchSparse(data, cols, rows, rowNonZero);
+            columnNonZero = new int[cols];
+            Arrays.fill(columnNonZero, occupiedRows);
+        } else {
+            engine.forwardBatch(data, 0, cols, rows);
+        }
+        // 正方形の画像はその場で転置し、長方形の画像は作業用バッファに転置する
+        ComplexArray transposedData = rows == cols ? data : transposeBuffer;
+        if (rows == cols) {
+            FFTUtil.transposeInPlace(data, 0, rows);
+        } else {
+            FFTUtil.transpose(data, 0, rows, cols, transposedData, 0);
+        }
+        if (inverse) {
+            inverseBatchSparse(transposedData, rows, cols, columnNonZero);
+        } else {
+            engine.forwardBatch(transposedData, 0, rows, cols);
+        }
+        if (rows == cols) {
+            FFTUtil.transposeInPlace(data, 0, rows);
+        } else {
+            FFTUtil.transpose(transposedData, 0, cols, rows, data, 0);
+        }
+    }
+
+    // 単精度版: 混合基数FFTとBluestein FFTは倍精度のみのため、1行(1列)ずつ倍精度の作業用バッファに
+    // 読み込んで変換し、単精度に丸めて書き戻す（画像全体の倍精度のコピーは作らない）
+    private void perform2DFFTAnyLength(ComplexFloatArray data, boolean inverse, FloatWorkspace floatWorkspace) {
+        float[] re = data.getRealArray();
+        float[] im = data.getImaginaryArray();
+        ComplexArray line = floatWorkspace.doubleLine;
+        double[] lre = line.getRealArray();
+        double[] lim = line.getImaginaryArray();
+        FFTPlan widthPlan = colPlan(inverse);
+        FFTPlan heightPlan = rowPlan(inverse);
+        boolean anyRowOccupied = false;
+        for (int r = 0; r < rows; r++) {
+            // 逆変換では0の行の逆FFTを省略する
+            if (inverse && hermitianRowNonZero(r) == 0) {
+                continue;
+            }
+            anyRowOccupied = true;
+            for (int c = 0; c < cols; c++) {
+                lre[c] = re[r * cols + c];
+                lim[c] = im[r * cols + c];
+            }
+            widthPlan.execute(line, 0);
+            for (int c = 0; c < cols; c++) {
+                re[r * cols + c] = (float) lre[c];
+                im[r * cols + c] = (float) lim[c];
+            }
+        }
+        if (inverse && !anyRowOccupied) {
+            return;
+        }
+        for (int c = 0; c < cols; c++) {
+            for (int r = 0; r < rows; r++) {
+                lre[r] = re[r * cols + c];
+                lim[r] = im[r * cols + c];
+            }
+            heightPlan.execute(line, 0);
+            for (int r = 0; r < rows; r++) {
+                re[r * cols + c] = (float) lre[r];
+                im[r * cols + c] = (float) lim[r];
+            }
+        }
+    }
+
+    // 反映済みのスペクトルの占有数から、エルミート対称な成分の行rの0でない要素数の上限を求める（行rと行-rの占有数の和）
+    private int hermitianRowNonZero(int r) {
+        int mirror = (rows - r) % rows;
+        return reconstructedRowOccupancy[r] + (mirror != r ? reconstructedRowOccupancy[mirror] : 0);
+    }
+
+    // 反映済みのスペクトルの占有数から、エルミート対称な成分の列jの0でない要素数の上限を求める（列jと列-jの占有数の和）
+    private int hermitianColumnNonZero(int j) {
+        int mirror = (cols - j) % cols;
+        return reconstructedColumnOccupancy[j] + (mirror != j ? reconstructedColumnOccupancy[mirror] : 0);
+    }
+
+    // 連続して並んだcount本の長さnの列を逆変換する。0でない要素数の上限がnonZero[i]の列のうち、
+    // 0の列は省略し、上限が log2(n)/2 以下の列は要素ごとに直接逆DFTを計算し、残りの列は連続する範囲ごとにまとめて逆FFTする
+    private void inverseBatchSparse(ComplexArray data, int n, int count, int[] nonZero) {
+        int limit = (31 - Integer.numberOfLeadingZeros(n)) / 2;
+        TwiddleTable table = TwiddleTable.get(n);
+        lineRange(count, n).forEach(i -> {
+            if (nonZero[i] > 0 && nonZero[i] <= limit) {
+                prunedInverse(data, i * n, n, table);
+            }
+        });
+        int start = -1;
+        for (int i = 0; i <= count; i++) {
+            boolean dense = i < count && nonZero[i] > limit;
+            if (dense && start < 0) {
+                start = i;
+            } else if (!dense && start >= 0) {
+                engine.inverseBatch(data, start * n, n, i - start);
+                start = -1;
+            }
+        }
+    }
+
+    // 0でない要素が少ない長さnの列を、0でない要素ごとの正弦波 X[k]·exp(2πikt/n)/n の和として直接逆DFTする
+    // （テーブルは並列に処理する列ごとではなく、呼び出し側で一度だけ取得して渡す）
+    private static void prunedInverse(ComplexArray data, int offset, int n, TwiddleTable table) {
+        double[] re = data.getRealArray();
+        double[] im = data.getImaginaryArray();
+        int m = 0;
+        for (int k = 0; k < n; k++) {
+            if (re[offset + k] != 0 || im[offset + k] != 0) {
+                m++;
+            }
+        }
+        if (m == 0) {
+            return;
+        }
+        int[] bins = new int[m];
+        double[] valueRe = new double[m];
+        double[] valueIm = new double[m];
+        m = 0;
+        for (int k = 0; k < n; k++) {
+            if (re[offset + k] != 0 || im[offset + k] != 0) {
+                bins[m] = k;
+                valueRe[m] = re[offset + k] / n;
+                valueIm[m] = im[offset + k] / n;
+                m++;
+            }
+        }
+        int[] angles = new int[m];
+        for (int t = 0; t < n; t++) {
+            double sumRe = 0, sumIm = 0;
+            for (int j = 0; j < m; j++) {
+                int angle = angles[j];
+                double c = table.cos(angle);
+                double sn = table.sin(angle);
+                sumRe += valueRe[j] * c - valueIm[j] * sn;
+                sumIm += valueRe[j] * sn + valueIm[j] * c;
+                angle += bins[j];
+                angles[j] = angle >= n ? angle - n : angle;
+            }
+            re[offset + t] = sumRe;
+            im[offset + t] = sumIm;
+        }
+    }
+
     public void clearUserSpectrum() {
         periodicTimer.stop();
         hasPendingCalculation = false;
-        int rows = userModifiedSpectrumData_R.length;
-        int cols = userModifiedSpectrumData_R[0].length;
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                // [高速化] new Complex()の代わりにset()で値をリセット
-                this.userModifiedSpectrumData_R[i][j].set(0, 0);
-                this.userModifiedSpectrumData_G[i][j].set(0, 0);
-                this.userModifiedSpectrumData_B[i][j].set(0, 0);
-            }
+        synchronized (spectrumLock) {
+            this.userMask.clear();
+            Arrays.fill(rowOccupancy, 0);
+            Arrays.fill(columnOccupancy, 0);
         }
         recalculatePowerSpectrumFromUserModifiedData();
         performIfftAndNotify();
@@ -509,30 +1528,13 @@ public class FourierModel2D extends FourierModel {
     public void fillUserSpectrum() {
         periodicTimer.stop();
         hasPendingCalculation = false;
-        int rows = userModifiedSpectrumData_R.length;
-        int cols = userModifiedSpectrumData_R[0].length;
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                // [高速化] new Complex()の代わりにset()で値をコピー
-                this.userModifiedSpectrumData_R[i][j].set(initialComplexData_R[i][j]);
-                this.userModifiedSpectrumData_G[i][j].set(initialComplexData_G[i][j]);
-                this.userModifiedSpectrumData_B[i][j].set(initialComplexData_B[i][j]);
-            }
+        synchronized (spectrumLock) {
+            this.userMask.set(0, rows * cols);
+            System.arraycopy(initialRowOccupancy, 0, rowOccupancy, 0, rows);
+            System.arraycopy(initialColumnOccupancy, 0, columnOccupancy, 0, cols);
         }
         recalculatePowerSpectrumFromUserModifiedData();
         performIfftAndNotify();
         periodicTimer.start();
     }
-
-    private Complex[][] transpose(Complex[][] matrix) {
-        int rows = matrix.length;
-        int cols = matrix[0].length;
-        Complex[][] transposed = new Complex[cols][rows];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                transposed[j][i] = matrix[i][j];
-            }
-        }
-        return transposed;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package Fourier.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import Fourier.ComplexArray;
+import Fourier.ComplexBuffer;
+import Fourier.ComplexFloatArray;
+import Fourier.ComplexView;
+
+/**
+ * 初期スペクトルと周波数成分ごとに1ビットの編集状態から、ユーザーが編集したスペクトルを表す読み取り専用の複素数配列。
+ * 編集したスペクトルの各成分は常に0か初期スペクトルの値のどちらかなので、値をコピーせずに
+ * ビットが立っている成分だけ初期スペクトルの値を返します。
+ * 編集状態はBitSet（内部は64成分ずつ詰めたlong[]）で保持するため、フィル・クリアは1語ずつの操作で済み、
+ * 倍精度の複素数(16バイト)で保持する場合に比べてメモリは1/128になります。
+ * 書き込みの操作を持たないComplexViewだけを実装し、値はビットを変更して編集します。
+ * ビットの読み書きは呼び出し側で同期してください。
+ */
+final class MaskedSpectrum implements ComplexView {
+
+    private final ComplexBuffer initial; // 初期スペクトル
+    private final BitSet mask; // 初期スペクトルの値を使う成分のビット（共有し、コピーしない）
+
+    /**
+     * 初期スペクトルと編集状態のビットを共有する複素数配列を作成します。
+     * @param initial 初期スペクトル
+     * @param mask 初期スペクトルの値を使う成分のビット
+     */
+    MaskedSpectrum(ComplexBuffer initial, BitSet mask) {
+        this.initial = initial;
+        this.mask = mask;
+    }
+
+    @Override
+    public int length() {
+        return initial.length();
+    }
+
+    @Override
+    public double getReal(int index) {
+        return mask.get(index) ? initial.getReal(index) : 0.0;
+    }
+
+    @Override
+    public double getImaginary(int index) {
+        return mask.get(index) ? initial.getImaginary(index) : 0.0;
+    }
+
+    @Override
+    public double magnitudeSquared(int index) {
+        return mask.get(index) ? initial.magnitudeSquared(index) : 0.0;
+    }
+
+    /**
+     * 編集したスペクトルを、同じ長さの複素数配列に書き出します。
+     * 初期スペクトルと書き出し先が同じ精度のヒープ上の配列なら、ビットが連続する範囲ごとにまとめてコピー・0埋めします。
+     * @param dst 書き出し先の複素数配列
+     */
+    void copyTo(ComplexBuffer dst) {
+        int length = length();
+        if (initial instanceof ComplexArray && dst instanceof ComplexArray) {
+            double[] srcRe = ((ComplexArray) initial).getRealArray();
+            double[] srcIm = ((ComplexArray) initial).getImaginaryArray();
+            double[] dstRe = ((ComplexArray) dst).getRealArray();
+            double[] dstIm = ((ComplexArray) dst).getImaginaryArray();
+            for (int start = 0; start < length; ) {
+                int end = Math.min(length, nextRunEnd(start));
+                if (mask.get(start)) {
+                    System.arraycopy(srcRe, start, dstRe, start, end - start);
+                    System.arraycopy(srcIm, start, dstIm, start, end - start);
+                } else {
+                    Arrays.fill(dstRe, start, end, 0.0);
+                    Arrays.fill(dstIm, start, end, 0.0);
+                }
+                start = end;
+            }
+        } else if (initial instanceof ComplexFloatArray && dst instanceof ComplexFloatArray) {
+            float[] srcRe = ((ComplexFloatArray) initial).getRealArray();
+            float[] srcIm = ((ComplexFloatArray) initial).getImaginaryArray();
+            float[] dstRe = ((ComplexFloatArray) dst).getRealArray();
+            float[] dstIm = ((ComplexFloatArray) dst).getImaginaryArray();
+            for (int start = 0; start < length; ) {
+                int end = Math.min(length, nextRunEnd(start));
+                if (mask.get(start)) {
+                    System.arraycopy(srcRe, start, dstRe, start, end - start);
+                    System.arraycopy(srcIm, start, dstIm, start, end - start);
+                } else {
+                    Arrays.fill(dstRe, start, end, 0.0f);
+                    Arrays.fill(dstIm, start, end, 0.0f);
+                }
+                start = end;
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                dst.set(i, getReal(i), getImaginary(i));
+            }
+        }
+    }
+
+    // startと同じビットが続く範囲の終わり（次に値が変わるインデックス）を求める
+    private int nextRunEnd(int start) {
+        if (mask.get(start)) {
+            return mask.nextClearBit(start);
+        }
+        int next = mask.nextSetBit(start);
+        return next < 0 ? Integer.MAX_VALUE : next;
+    }
+}
@@ -0,0 +1,112 @@
+package Fourier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Nested;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ComplexArrayクラスの単体テストクラス
+ * 生成・要素アクセス・コピー・変換のテストを行う
+ *
+ * @see ComplexArray
+ */
+class ComplexArrayTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Nested
+    @DisplayName("生成のテスト")
+    class ConstructionTest {
+
+        @Test
+        @DisplayName("長さを指定すると全要素が0で生成される")
+        void testZeroFilled() {
+            ComplexArray array = new ComplexArray(4);
+            assertEquals(4, array.length());
+            for (int i = 0; i < array.length(); i++) {
+                assertEquals(0.0, array.getReal(i), DELTA);
+                assertEquals(0.0, array.getImaginary(i), DELTA);
+            }
+        }
+
+        @Test
+        @DisplayName("実部と虚部の長さが異なると例外が発生する")
+        void testMismatchedLength() {
+            assertThrows(IllegalArgumentException.class,
+                () -> new ComplexArray(new double[2], new double[3]));
+        }
+
+        @Test
+        @DisplayName("実数配列から虚部0の配列を生成し、元の配列は共有しない")
+        void testFromReal() {
+            double[] data = {1.0, 2.0, 3.0};
+            ComplexArray array = ComplexArray.fromReal(data);
+            data[0] = 100.0;
+            assertEquals(1.0, array.getReal(0), DELTA);
+            assertEquals(3.0, array.getReal(2), DELTA);
+            assertEquals(0.0, array.getImaginary(1), DELTA);
+        }
+
+        @Test
+        @DisplayName("2次元実数配列は行優先で格納される")
+        void testFromReal2D() {
+            double[][] data = {{1, 2, 3}, {4, 5, 6}};
+            ComplexArray array = ComplexArray.fromReal(data);
+            assertEquals(6, array.length());
+            assertEquals(3.0, array.getReal(2), DELTA);
+            assertEquals(4.0, array.getReal(3), DELTA);
+        }
+    }
+
+    @Nested
+    @DisplayName("要素操作のテスト")
+    class ElementAccessTest {
+
+        @Test
+        @DisplayName("set/getが正常に動作する")
+        void testSetAndGet() {
+            ComplexArray array = new ComplexArray(2);
+            array.set(1, 3.0, -4.0);
+            Complex c = array.get(1);
+            assertEquals(3.0, c.getReal(), DELTA);
+            assertEquals(-4.0, c.getImaginary(), DELTA);
+            assertEquals(25.0, array.magnitudeSquared(1), DELTA);
+        }
+
+        @Test
+        @DisplayName("他の配列の同じ位置の値をコピーできる")
+        void testSetFromOther() {
+            ComplexArray src = new ComplexArray(new double[]{1, 2}, new double[]{3, 4});
+            ComplexArray dst = new ComplexArray(2);
+            dst.set(1, src);
+            assertEquals(0.0, dst.getReal(0), DELTA);
+            assertEquals(2.0, dst.getReal(1), DELTA);
+            assertEquals(4.0, dst.getImaginary(1), DELTA);
+        }
+
+        @Test
+        @DisplayName("copyFromとclearが全要素に作用する")
+        void testCopyFromAndClear() {
+            ComplexArray src = new ComplexArray(new double[]{1, 2}, new double[]{3, 4});
+            ComplexArray dst = new ComplexArray(2);
+            dst.copyFrom(src);
+            assertArrayEquals(src.getRealArray(), dst.getRealArray(), DELTA);
+            assertArrayEquals(src.getImaginaryArray(), dst.getImaginaryArray(), DELTA);
+            dst.clear();
+            assertArrayEquals(new double[2], dst.getRealArray(), DELTA);
+            assertArrayEquals(new double[2], dst.getImaginaryArray(), DELTA);
+        }
+
+        @Test
+        @DisplayName("Complex配列との相互変換で値が保たれる")
+        void testComplexConversion() {
+            Complex[] data = {new Complex(1, -1), new Complex(2.5, 0.5)};
+            Complex[] back = ComplexArray.fromComplex(data).toComplex();
+            for (int i = 0; i < data.length; i++) {
+                assertEquals(data[i].getReal(), back[i].getReal(), DELTA);
+                assertEquals(data[i].getImaginary(), back[i].getImaginary(), DELTA);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package Fourier;
+
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Nested;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FFTPlanクラスの単体テストクラス
+ * プランのキャッシュと共有テーブル、変換の実行とバッチ実行のテストを行う
+ *
+ * @see FFTPlan
+ */
+class FFTPlanTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Nested
+    @DisplayName("キャッシュのテスト")
+    class CacheTest {
+
+        @Test
+        @DisplayName("同じ条件では同じプランとテーブルが共有される")
+        void testSameInstance() {
+            FFTPlan a = FFTPlan.forward(256);
+            FFTPlan b = FFTPlan.get(256, false, FFTKernel.VECTOR);
+            assertSame(a, b);
+            assertSame(a.getTwiddles(), b.getTwiddles());
+        }
+
+        @Test
+        @DisplayName("方向やカーネルが異なると別のプランになる")
+        void testDistinctKeys() {
+            assertNotSame(FFTPlan.forward(64), FFTPlan.inverse(64));
+            assertNotSame(FFTPlan.get(64, false, FFTKernel.ITERATIVE), FFTPlan.get(64, false, FFTKernel.STOCKHAM));
+            assertNotSame(FFTPlan.forward(64), FFTPlan.forward(128));
+        }
+
+        @Test
+        @DisplayName("カーネルに応じて交換ペア表と作業用バッファの大きさが決まる")
+        void testTables() {
+            FFTPlan iterative = FFTPlan.get(32, false, FFTKernel.ITERATIVE);
+            assertNotNull(iterative.getBitReverseSwapTable());
+            assertEquals(0, iterative.scratchSize());
+            FFTPlan stockham = FFTPlan.get(32, false, FFTKernel.STOCKHAM);
+            assertNull(stockham.getBitReverseSwapTable());
+            assertEquals(32, stockham.scratchSize());
+            FFTPlan odd = FFTPlan.forward(1080);
+            assertNull(odd.getTwiddles());
+            assertEquals(0, odd.scratchSize());
+        }
+
+        @Test
+        @DisplayName("データ長が1未満の場合は例外が発生する")
+        void testInvalidSize() {
+            assertThrows(IllegalArgumentException.class, () -> FFTPlan.forward(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("実行のテスト")
+    class ExecuteTest {
+
+        @Test
+        @DisplayName("全カーネルでFFTUtilと同じ結果になる")
+        void testMatchesFFTUtil() {
+            int n = 64;
+            for (FFTKernel kernel : FFTKernel.values()) {
+                ComplexArray expected = randomComplexArray(n + 2, 7);
+                ComplexArray actual = expected.copy();
+                FFTUtil.fft(expected, 2, n, FFTUtil.createTwiddles(n), kernel);
+                FFTPlan.get(n, false, kernel).execute(actual, 2);
+                assertArrayEquals(expected.getRealArray(), actual.getRealArray(), DELTA, kernel.name());
+                assertArrayEquals(expected.getImaginaryArray(), actual.getImaginaryArray(), DELTA, kernel.name());
+            }
+        }
+
+        @Test
+        @DisplayName("2の冪乗でない長さでも順変換・逆変換で元に戻る")
+        void testRoundTrip() {
+            int[] sizes = {16, 1080, 97};
+            for (int n : sizes) {
+                ComplexArray original = randomComplexArray(n, n);
+                ComplexArray data = original.copy();
+                ComplexArray scratch = new ComplexArray(n);
+                FFTPlan.forward(n).execute(data, 0, scratch);
+                FFTPlan.inverse(n).execute(data, 0, scratch);
+                assertArrayEquals(original.getRealArray(), data.getRealArray(), DELTA, "n=" + n);
+                assertArrayEquals(original.getImaginaryArray(), data.getImaginaryArray(), DELTA, "n=" + n);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("バッチ実行のテスト")
+    class BatchTest {
+
+        @Test
+        @DisplayName("全カーネルで1本ずつexecuteした結果と一致する")
+        void testMatchesExecute() {
+            int count = 9;
+            int[] sizes = {64, 12, 97};
+            for (int n : sizes) {
+                for (FFTKernel kernel : FFTKernel.values()) {
+                    for (boolean inverse : new boolean[] {false, true}) {
+                        FFTPlan plan = FFTPlan.get(n, inverse, kernel);
+                        ComplexArray expected = randomComplexArray(n * count + 3, n);
+                        ComplexArray actual = expected.copy();
+                        for (int i = 0; i < count; i++) {
+                            plan.execute(expected, 3 + i * n);
+                        }
+                        plan.executeBatch(actual, 3, count);
+                        String message = kernel.name() + " n=" + n + (inverse ? " inverse" : "");
+                        assertArrayEquals(expected.getRealArray(), actual.getRealArray(), DELTA, message);
+                        assertArrayEquals(expected.getImaginaryArray(), actual.getImaginaryArray(), DELTA, message);
+                    }
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("複数のスレッドに分配する大きさでも1本ずつの結果と一致する")
+        void testLargeBatch() {
+            int n = 256;
+            int count = FFTUtil.PARALLEL_BATCH_THRESHOLD / n * 2;
+            FFTPlan plan = FFTPlan.get(n, false, FFTKernel.ITERATIVE);
+            ComplexArray expected = randomComplexArray(n * count, 11);
+            ComplexArray actual = expected.copy();
+            for (int i = 0; i < count; i++) {
+                plan.execute(expected, i * n);
+            }
+            plan.executeBatch(actual, 0, count);
+            assertArrayEquals(expected.getRealArray(), actual.getRealArray(), DELTA);
+            assertArrayEquals(expected.getImaginaryArray(), actual.getImaginaryArray(), DELTA);
+        }
+    }
+
+    private static ComplexArray randomComplexArray(int n, long seed) {
+        Random random = new Random(seed);
+        ComplexArray data = new ComplexArray(n);
+        for (int i = 0; i < n; i++) {
+            data.set(i, random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+        }
+        return data;
+    }
+}
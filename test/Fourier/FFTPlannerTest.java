@@ -0,0 +1,157 @@
+package Fourier;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * FFTPlannerクラスの単体テストクラス
+ * カーネルの推定・計測と、wisdomファイルの保存・読み込みのテストを行う
+ *
+ * @see FFTPlanner
+ */
+class FFTPlannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path originalWisdomFile;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // 他のテストが依頼したバックグラウンドの計測が、このテストのwisdomに書き込まないようにする
+        FFTPlanner.awaitMeasurements();
+        originalWisdomFile = FFTPlanner.getWisdomFile();
+        FFTPlanner.forgetWisdom();
+        FFTPlanner.setWisdomFile(tempDir.resolve("wisdom.properties"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        FFTPlanner.forgetWisdom();
+        FFTPlanner.setWisdomFile(originalWisdomFile);
+    }
+
+    @Nested
+    @DisplayName("カーネル選択のテスト")
+    class SelectionTest {
+
+        @Test
+        @DisplayName("ESTIMATEでは計測せず、wisdomにも記録しない")
+        void testEstimate() {
+            FFTKernel expected = FFTUtil.isVectorAvailable() ? FFTKernel.VECTOR : FFTKernel.STOCKHAM;
+            assertEquals(expected, FFTPlanner.kernelFor(1024, FFTPlanner.Mode.ESTIMATE));
+            assertNull(FFTPlanner.getWisdom(1024));
+            assertFalse(Files.exists(FFTPlanner.getWisdomFile()));
+        }
+
+        @Test
+        @DisplayName("MEASUREでは計測したカーネルをwisdomファイルに保存する")
+        void testMeasureSavesWisdom() {
+            FFTKernel measured = FFTPlanner.kernelFor(256, FFTPlanner.Mode.MEASURE);
+            assertNotEquals(FFTKernel.RECURSIVE, measured);
+            assertEquals(measured, FFTPlanner.getWisdom(256));
+            assertTrue(Files.exists(FFTPlanner.getWisdomFile()));
+
+            // 記録があればESTIMATEでも記録されたカーネルを使う
+            assertEquals(measured, FFTPlanner.kernelFor(256, FFTPlanner.Mode.ESTIMATE));
+            assertSame(FFTPlan.get(256, true, measured), FFTPlanner.plan(256, true, FFTPlanner.Mode.ESTIMATE));
+        }
+
+        @Test
+        @DisplayName("計測を待たない選択では推定したカーネルを返し、バックグラウンドで計測した結果をwisdomファイルに保存する")
+        void testMeasureWithoutWaiting() throws InterruptedException {
+            assumeTrue(FFTPlanner.getDefaultMode() == FFTPlanner.Mode.MEASURE);
+            assertEquals(FFTPlanner.estimate(2048), FFTPlanner.kernelForWithoutWaiting(2048));
+
+            FFTPlanner.awaitMeasurements();
+            FFTKernel measured = FFTPlanner.getWisdom(2048);
+            assertNotNull(measured);
+            assertTrue(Files.exists(FFTPlanner.getWisdomFile()));
+            // 計測が終わった後は計測したカーネルを使う
+            assertEquals(measured, FFTPlanner.kernelForWithoutWaiting(2048));
+            assertSame(FFTPlan.get(2048, true, measured), FFTPlanner.planWithoutWaiting(2048, true));
+        }
+
+        @Test
+        @DisplayName("2の冪乗でない長さは計測しない")
+        void testNonPowerOfTwo() {
+            FFTPlanner.kernelFor(1080, FFTPlanner.Mode.MEASURE);
+            assertNull(FFTPlanner.getWisdom(1080));
+            assertThrows(IllegalArgumentException.class, () -> FFTPlanner.measure(1080));
+        }
+    }
+
+    @Nested
+    @DisplayName("wisdomファイルのテスト")
+    class WisdomFileTest {
+
+        @Test
+        @DisplayName("保存したwisdomを読み込むと同じカーネルが選ばれる")
+        void testSaveAndLoad() {
+            FFTKernel measured = FFTPlanner.kernelFor(64, FFTPlanner.Mode.MEASURE);
+            FFTPlanner.forgetWisdom();
+            assertNull(FFTPlanner.getWisdom(64));
+            assertTrue(FFTPlanner.loadWisdom(FFTPlanner.getWisdomFile()));
+            assertEquals(measured, FFTPlanner.getWisdom(64));
+        }
+
+        @Test
+        @DisplayName("別の環境で計測されたwisdomファイルは読み込まない")
+        void testOtherEnvironment() throws IOException {
+            Path file = tempDir.resolve("other.properties");
+            Properties properties = new Properties();
+            properties.setProperty("environment", "other-machine");
+            properties.setProperty("fft.512", "ITERATIVE");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                properties.store(out, null);
+            }
+            assertFalse(FFTPlanner.loadWisdom(file));
+            assertNull(FFTPlanner.getWisdom(512));
+        }
+
+        @Test
+        @DisplayName("複数のスレッドから同時に保存しても、読み込めるファイルだけが残る")
+        void testConcurrentSave() throws Exception {
+            FFTPlanner.kernelFor(64, FFTPlanner.Mode.MEASURE);
+            Path file = FFTPlanner.getWisdomFile();
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        assertTrue(FFTPlanner.saveWisdom(file));
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            // 一時ファイルは置き換えに使われ、ディレクトリに残らない
+            try (Stream<Path> files = Files.list(tempDir)) {
+                assertEquals(1, files.count());
+            }
+            FFTKernel measured = FFTPlanner.getWisdom(64);
+            FFTPlanner.forgetWisdom();
+            assertTrue(FFTPlanner.loadWisdom(file));
+            assertEquals(measured, FFTPlanner.getWisdom(64));
+        }
+
+        @Test
+        @DisplayName("ファイルが無い場合は何も読み込まない")
+        void testMissingFile() {
+            assertFalse(FFTPlanner.loadWisdom(tempDir.resolve("missing.properties")));
+        }
+    }
+}
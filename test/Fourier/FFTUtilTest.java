@@ -208,6 +208,524 @@ class FFTUtilTest {
         }
     }
 
+    @Nested
+    @DisplayName("ComplexArrayに対するFFTのテスト")
+    class ComplexArrayFFTTest {
+
+        @Test
+        @DisplayName("ComplexArray版FFTがComplex配列版と同じ結果になる")
+        void testMatchesComplexVersion() {
+            // Complex配列版FFTは要素をインプレースで書き換えるため、先にComplexArrayへ変換しておく
+            ComplexArray data = ComplexArray.fromComplex(testData8);
+            FFTUtil.fft(data, FFTUtil.createTwiddles(data.length()));
+
+            Complex[] reference = testData8.clone();
+            FFTUtil.fft(reference, generateTwiddles(reference.length));
+
+            for (int i = 0; i < data.length(); i++) {
+                assertEquals(reference[i].getReal(), data.getReal(i), DELTA);
+                assertEquals(reference[i].getImaginary(), data.getImaginary(i), DELTA);
+            }
+        }
+
+        @Test
+        @DisplayName("範囲指定のFFT/IFFTは指定範囲だけを変換する")
+        void testRangedTransform() {
+            // 2行4列のデータの2行目だけを変換する
+            ComplexArray data = new ComplexArray(8);
+            for (int i = 0; i < 8; i++) {
+                data.set(i, i + 1, 0);
+            }
+            FFTUtil.fft(data, 4, 4, FFTUtil.createTwiddles(4));
+
+            // 1行目は変化しない
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i + 1, data.getReal(i), DELTA);
+            }
+            // 2行目 [5, 6, 7, 8] のFFT: [26, -2+2i, -2, -2-2i]
+            assertEquals(26.0, data.getReal(4), DELTA);
+            assertEquals(-2.0, data.getReal(5), DELTA);
+            assertEquals(2.0, data.getImaginary(5), DELTA);
+            assertEquals(-2.0, data.getReal(6), DELTA);
+            assertEquals(-2.0, data.getImaginary(7), DELTA);
+
+            FFTUtil.ifft(data, 4, 4, FFTUtil.createInverseTwiddles(4));
+            for (int i = 0; i < 8; i++) {
+                assertEquals(i + 1, data.getReal(i), DELTA);
+                assertEquals(0.0, data.getImaginary(i), DELTA);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("FFTカーネルのテスト")
+    class KernelTest {
+
+        @Test
+        @DisplayName("ビット反転の交換ペア表がビット反転と一致し、キャッシュが共有される")
+        void testBitReverseSwapTable() {
+            int n = 16;
+            int[] table = FFTUtil.bitReverseSwapTable(n);
+            assertSame(table, FFTUtil.bitReverseSwapTable(n));
+            for (int p = 0; p < table.length; p += 2) {
+                assertTrue(table[p] < table[p + 1]);
+                assertEquals(FFTUtil.bitReverse(table[p], 4), table[p + 1]);
+            }
+            // 16点でビット反転により位置が変わるのは12要素(6組)
+            assertEquals(12, table.length);
+        }
+
+        @Test
+        @DisplayName("全てのカーネルが素朴なDFTと同じ結果になる")
+        void testKernelsMatchNaiveDFT() {
+            for (FFTKernel kernel : FFTKernel.values()) {
+                for (int n = 1; n <= 1024; n *= 2) {
+                    ComplexArray data = randomComplexArray(n, n);
+                    ComplexArray expected = naiveDFT(data, -1);
+                    FFTUtil.fft(data, 0, n, FFTUtil.createTwiddles(n), kernel);
+                    assertComplexArrayEquals(expected, data, 1e-9 * n, kernel + " n=" + n);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("全てのカーネルでIFFT(FFT(data)) = dataが成立する")
+        void testKernelsInverse() {
+            for (FFTKernel kernel : FFTKernel.values()) {
+                for (int n = 1; n <= 1024; n *= 2) {
+                    ComplexArray original = randomComplexArray(n, 31 * n);
+                    ComplexArray data = original.copy();
+                    FFTUtil.fft(data, 0, n, FFTUtil.createTwiddles(n), kernel);
+                    FFTUtil.ifft(data, 0, n, FFTUtil.createInverseTwiddles(n), kernel);
+                    assertComplexArrayEquals(original, data, DELTA, kernel + " n=" + n);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("大きな回転因子テーブルを間引いて小さなサイズを変換できる")
+        void testLargerTwiddleTable() {
+            for (FFTKernel kernel : FFTKernel.values()) {
+                ComplexArray data = randomComplexArray(16, 7);
+                ComplexArray expected = naiveDFT(data, -1);
+                FFTUtil.fft(data, 0, 16, FFTUtil.createTwiddles(64), kernel);
+                assertComplexArrayEquals(expected, data, 1e-9, kernel.toString());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Stockham FFTのテスト")
+    class StockhamTest {
+
+        @Test
+        @DisplayName("呼び出し側の作業用バッファを使って範囲を変換できる")
+        void testCallerSuppliedScratch() {
+            // 段数が偶数(16点)と奇数(32点)の両方で、データの後半だけを変換する
+            for (int n = 16; n <= 32; n *= 2) {
+                ComplexArray data = randomComplexArray(2 * n, n);
+                ComplexArray original = data.copy();
+                ComplexArray expected = naiveDFT(rangeOf(data, n, n), -1);
+                ComplexArray scratch = new ComplexArray(3 * n); // 長めの作業用バッファでもよい
+
+                FFTUtil.fft(data, n, n, FFTUtil.createTwiddles(n), scratch);
+
+                assertComplexArrayEquals(rangeOf(original, 0, n), rangeOf(data, 0, n), 0.0, "untouched n=" + n);
+                assertComplexArrayEquals(expected, rangeOf(data, n, n), 1e-9, "n=" + n);
+
+                FFTUtil.ifft(data, n, n, FFTUtil.createInverseTwiddles(n), scratch);
+                assertComplexArrayEquals(original, data, DELTA, "inverse n=" + n);
+            }
+        }
+
+        @Test
+        @DisplayName("作業用バッファが短い場合は例外が発生する")
+        void testShortScratch() {
+            ComplexArray data = randomComplexArray(8, 1);
+            assertThrows(IllegalArgumentException.class,
+                () -> FFTUtil.fft(data, 0, 8, FFTUtil.createTwiddles(8), new ComplexArray(4)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Vector APIカーネルのテスト")
+    class VectorKernelTest {
+
+        @Test
+        @DisplayName("VECTORカーネルはスカラー版のStockham FFTと同じ結果になる")
+        void testMatchesScalarStockham() {
+            // オフセットをベクトル幅の倍数からずらし、端数のあるスケーリングも確認する
+            for (int n = 1; n <= 4096; n *= 2) {
+                ComplexArray original = randomComplexArray(n + 3, 17 * n);
+                ComplexArray expected = original.copy();
+                ComplexArray actual = original.copy();
+                ComplexArray invTwiddles = FFTUtil.createInverseTwiddles(n);
+
+                FFTUtil.ifft(expected, 3, n, invTwiddles, FFTKernel.STOCKHAM);
+                FFTUtil.ifft(actual, 3, n, invTwiddles, FFTKernel.VECTOR);
+                assertComplexArrayEquals(expected, actual, 1e-12, "vector=" + FFTUtil.isVectorAvailable() + " n=" + n);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("4ステップFFTのテスト")
+    class FourStepTest {
+
+        @Test
+        @DisplayName("閾値以上の長さでStockham FFTと同じ結果になり、作業用バッファ付きのifftで元に戻る")
+        void testLargeTransformMatchesStockham() {
+            // log2(n)が奇数になる長さで、N1とN2が異なる場合も確認する
+            for (int n = FFTUtil.FOUR_STEP_THRESHOLD; n <= FFTUtil.FOUR_STEP_THRESHOLD * 2; n *= 2) {
+                ComplexArray original = randomComplexArray(n + 5, n);
+                ComplexArray expected = original.copy();
+                ComplexArray actual = original.copy();
+                ComplexArray twiddles = FFTUtil.createTwiddles(n);
+
+                FFTUtil.fft(expected, 5, n, twiddles, FFTKernel.STOCKHAM);
+                // 実行環境のコア数によらず4ステップFFTを確認するため、直接呼び出す
+                FFTUtil.fftFourStep(actual, 5, n, twiddles, new ComplexArray(n));
+                assertComplexArrayEquals(expected, actual, 1e-8, "n=" + n);
+
+                FFTUtil.ifft(actual, 5, n, FFTUtil.createInverseTwiddles(n), new ComplexArray(n));
+                assertComplexArrayEquals(original, actual, DELTA, "inverse n=" + n);
+            }
+        }
+
+        @Test
+        @DisplayName("作業用バッファが短い場合は例外が発生する")
+        void testShortScratch() {
+            ComplexArray data = randomComplexArray(16, 1);
+            assertThrows(IllegalArgumentException.class,
+                () -> FFTUtil.fftFourStep(data, 0, 16, FFTUtil.createTwiddles(16), new ComplexArray(8)));
+        }
+    }
+
+    @Nested
+    @DisplayName("実数FFT(R2C/C2R)のテスト")
+    class RealFFTTest {
+
+        @Test
+        @DisplayName("実数列のFFTは虚部0の複素DFTの非負の周波数成分と一致する")
+        void testRealFftMatchesDFT() {
+            for (int n = 1; n <= 1024; n *= 2) {
+                ComplexArray random = randomComplexArray(n, 11 * n);
+                double[] input = new double[n + 2];
+                System.arraycopy(random.getRealArray(), 0, input, 2, n);
+                ComplexArray expected = naiveDFT(ComplexArray.fromReal(random.getRealArray()), -1);
+
+                ComplexArray spectrum = new ComplexArray(n / 2 + 4);
+                FFTUtil.realFft(input, 2, n, spectrum, 3, FFTUtil.createTwiddles(n), new ComplexArray(n));
+                assertComplexArrayEquals(rangeOf(expected, 0, n / 2 + 1), rangeOf(spectrum, 3, n / 2 + 1), 1e-9, "n=" + n);
+
+                ComplexArray full = new ComplexArray(n);
+                FFTUtil.expandHermitian(spectrum, 3, n, full, 0);
+                assertComplexArrayEquals(expected, full, 1e-9, "expanded n=" + n);
+            }
+        }
+
+        @Test
+        @DisplayName("任意のスペクトルのエルミート成分から、複素IFFTの実部と同じ実数列が得られる")
+        void testInverseRealFftMatchesComplexIfft() {
+            for (int n = 1; n <= 1024; n *= 2) {
+                ComplexArray spectrum = randomComplexArray(n, 13 * n); // エルミート対称ではない
+                ComplexArray expected = spectrum.copy();
+                FFTUtil.ifft(expected, FFTUtil.createInverseTwiddles(n));
+
+                ComplexArray half = new ComplexArray(n / 2 + 1);
+                FFTUtil.hermitianHalf(spectrum, 0, n, half, 0);
+                double[] actual = new double[n + 1];
+                FFTUtil.inverseRealFft(half, 0, n, actual, 1, FFTUtil.createInverseTwiddles(n), new ComplexArray(n));
+                for (int i = 0; i < n; i++) {
+                    assertEquals(expected.getReal(i), actual[i + 1], DELTA, "n=" + n + " i=" + i);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("実数列のFFTと逆FFTで元の実数列に戻る")
+        void testRoundTrip() {
+            int n = 256;
+            double[] input = randomComplexArray(n, 3).getRealArray();
+            ComplexArray half = new ComplexArray(n / 2 + 1);
+            ComplexArray scratch = new ComplexArray(n / 2);
+            FFTUtil.realFft(input, 0, n, half, 0, FFTUtil.createTwiddles(n), scratch);
+            double[] output = new double[n];
+            FFTUtil.inverseRealFft(half, 0, n, output, 0, FFTUtil.createInverseTwiddles(n), scratch);
+            assertArrayEquals(input, output, DELTA);
+        }
+
+        @Test
+        @DisplayName("内部の複素FFTのカーネルを指定しても同じ結果になる")
+        void testKernelOverload() {
+            int n = 128;
+            double[] input = randomComplexArray(n, 5).getRealArray();
+            ComplexArray expected = new ComplexArray(n / 2 + 1);
+            FFTUtil.realFft(input, 0, n, expected, 0, FFTUtil.createTwiddles(n), new ComplexArray(n / 2));
+            for (FFTKernel kernel : FFTKernel.values()) {
+                ComplexArray half = new ComplexArray(n / 2 + 1);
+                ComplexArray scratch = new ComplexArray(n / 2);
+                FFTUtil.realFft(input, 0, n, half, 0, FFTUtil.createTwiddles(n), kernel, scratch);
+                assertComplexArrayEquals(expected, half, DELTA, kernel.name());
+                double[] output = new double[n];
+                FFTUtil.inverseRealFft(half, 0, n, output, 0, FFTUtil.createInverseTwiddles(n), kernel, scratch);
+                assertArrayEquals(input, output, DELTA, kernel.name());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Bluestein FFTのテスト")
+    class BluesteinTest {
+
+        @Test
+        @DisplayName("2の冪乗でない長さでも素朴なDFTと一致する")
+        void testMatchesDFT() {
+            int[] sizes = {1, 2, 3, 5, 7, 12, 100, 1000, 1920};
+            for (int n : sizes) {
+                ComplexArray data = randomComplexArray(n + 2, 19 * n);
+                ComplexArray expected = naiveDFT(rangeOf(data, 2, n), -1);
+                FFTUtil.fftBluestein(data, 2, n);
+                assertComplexArrayEquals(expected, rangeOf(data, 2, n), 1e-9 * n, "n=" + n);
+            }
+        }
+
+        @Test
+        @DisplayName("Bluesteinの逆FFTで元のデータに戻る")
+        void testRoundTrip() {
+            int[] sizes = {3, 44, 1000};
+            for (int n : sizes) {
+                ComplexArray original = randomComplexArray(n, 23 * n);
+                ComplexArray data = original.copy();
+                FFTUtil.fftBluestein(data, 0, n);
+                FFTUtil.ifftBluestein(data, 0, n);
+                assertComplexArrayEquals(original, data, 1e-9, "n=" + n);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("コードレットのテスト")
+    class CodeletTest {
+
+        @Test
+        @DisplayName("DITコードレットはビット反転順の入力から自然順のDFTを計算する")
+        void testDitCodelets() {
+            for (int n = 1; n <= FFTCodelets.MAX_SIZE; n *= 2) {
+                for (int sign = -1; sign <= 1; sign += 2) {
+                    ComplexArray input = randomComplexArray(n, 5 * n + sign);
+                    ComplexArray expected = naiveDFT(input, sign);
+                    ComplexArray data = input.copy();
+                    FFTUtil.bitReverseReorder(data, 0, n);
+                    FFTCodelets.dit(data.getRealArray(), data.getImaginaryArray(), 0, n, sign);
+                    assertComplexArrayEquals(expected, data, 1e-12 * n, "n=" + n + " sign=" + sign);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("DIFコードレットは自然順の入力からビット反転順のDFTを計算する")
+        void testDifCodelets() {
+            for (int n = 1; n <= FFTCodelets.MAX_SIZE; n *= 2) {
+                for (int sign = -1; sign <= 1; sign += 2) {
+                    ComplexArray input = randomComplexArray(n, 3 * n + sign);
+                    ComplexArray expected = naiveDFT(input, sign);
+                    // オフセット付きの範囲に対しても正しく動作することを確認する
+                    ComplexArray data = new ComplexArray(n + 3);
+                    for (int i = 0; i < n; i++) {
+                        data.set(3 + i, input.getReal(i), input.getImaginary(i));
+                    }
+                    FFTCodelets.dif(data.getRealArray(), data.getImaginaryArray(), 3, n, sign);
+                    FFTUtil.bitReverseReorder(data, 3, n);
+                    assertComplexArrayEquals(expected, rangeOf(data, 3, n), 1e-12 * n, "n=" + n + " sign=" + sign);
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("転置のテスト")
+    class TransposeTest {
+
+        @Test
+        @DisplayName("タイルの大きさをまたぐ長方形の行列を転置できる")
+        void testTranspose() {
+            int rows = 37, cols = 70;
+            ComplexArray src = new ComplexArray(rows * cols + 2);
+            for (int i = 0; i < src.length(); i++) {
+                src.set(i, i, -i);
+            }
+            ComplexArray dst = new ComplexArray(rows * cols + 1);
+            FFTUtil.transpose(src, 2, rows, cols, dst, 1);
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    assertEquals(src.getReal(2 + r * cols + c), dst.getReal(1 + c * rows + r));
+                    assertEquals(src.getImaginary(2 + r * cols + c), dst.getImaginary(1 + c * rows + r));
+                }
+            }
+
+            // 単精度版も同じ並びになる
+            ComplexFloatArray floatSrc = ComplexFloatArray.fromComplexArray(src);
+            ComplexFloatArray floatDst = new ComplexFloatArray(rows * cols + 1);
+            FFTUtil.transpose(floatSrc, 2, rows, cols, floatDst, 1);
+            assertArrayEquals(ComplexFloatArray.fromComplexArray(dst).getRealArray(), floatDst.getRealArray());
+        }
+
+        @Test
+        @DisplayName("正方行列をその場で転置でき、2回転置すると元に戻る")
+        void testTransposeInPlace() {
+            int n = 45;
+            ComplexArray data = new ComplexArray(n * n + 3);
+            for (int i = 0; i < data.length(); i++) {
+                data.set(i, i, 2 * i);
+            }
+            ComplexArray original = data.copy();
+            FFTUtil.transposeInPlace(data, 3, n);
+            for (int r = 0; r < n; r++) {
+                for (int c = 0; c < n; c++) {
+                    assertEquals(original.getReal(3 + r * n + c), data.getReal(3 + c * n + r));
+                    assertEquals(original.getImaginary(3 + r * n + c), data.getImaginary(3 + c * n + r));
+                }
+            }
+            FFTUtil.transposeInPlace(data, 3, n);
+            assertArrayEquals(original.getRealArray(), data.getRealArray());
+
+            ComplexFloatArray floatData = ComplexFloatArray.fromComplexArray(original);
+            FFTUtil.transposeInPlace(floatData, 3, n);
+            for (int r = 0; r < n; r++) {
+                assertEquals(original.getReal(3 + r * n + 1), floatData.getReal(3 + n + r));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("単精度FFTのテスト")
+    class FloatFFTTest {
+
+        // 単精度の丸め誤差の単位 2^-24
+        private static final double FLOAT_EPSILON = Math.ulp(1.0f) / 2;
+
+        @Test
+        @DisplayName("倍精度FFTとの相対誤差がε·log2(N)以内に収まる")
+        void testErrorBound() {
+            for (int n = 2; n <= 1 << 16; n *= 4) {
+                ComplexArray expected = randomComplexArray(n, 17 * n);
+                ComplexFloatArray data = ComplexFloatArray.fromComplexArray(expected);
+                FFTUtil.fft(expected, 0, n, FFTUtil.createTwiddles(n), new ComplexArray(n));
+                FFTUtil.fft(data, 0, n, FFTUtil.createTwiddlesFloat(n), new ComplexFloatArray(n));
+                double bound = FLOAT_EPSILON * Integer.numberOfTrailingZeros(n);
+                assertTrue(relativeError(expected, data) <= bound, "n=" + n + " error=" + relativeError(expected, data));
+            }
+        }
+
+        @Test
+        @DisplayName("逆変換で元のデータに戻る")
+        void testRoundTrip() {
+            int n = 1024;
+            ComplexArray original = randomComplexArray(n, 23);
+            ComplexFloatArray data = ComplexFloatArray.fromComplexArray(original);
+            ComplexFloatArray scratch = new ComplexFloatArray(n);
+            FFTUtil.fft(data, 0, n, FFTUtil.createTwiddlesFloat(n), scratch);
+            FFTUtil.ifft(data, 0, n, FFTUtil.createInverseTwiddlesFloat(n), scratch);
+            assertTrue(relativeError(original, data) <= FLOAT_EPSILON * 2 * Integer.numberOfTrailingZeros(n));
+        }
+
+        @Test
+        @DisplayName("8ビットの画素値を実数列のFFTと逆FFTで再構成した誤差は1e-3階調未満")
+        void testRealRoundTrip() {
+            int n = 4096;
+            java.util.Random random = new java.util.Random(31);
+            float[] input = new float[n];
+            for (int i = 0; i < n; i++) {
+                input[i] = random.nextInt(256);
+            }
+            ComplexFloatArray half = new ComplexFloatArray(n / 2 + 1);
+            ComplexFloatArray scratch = new ComplexFloatArray(n / 2);
+            FFTUtil.realFft(input, 0, n, half, 0, FFTUtil.createTwiddlesFloat(n), scratch);
+
+            double[] doubleInput = new double[n];
+            for (int i = 0; i < n; i++) {
+                doubleInput[i] = input[i];
+            }
+            ComplexArray expected = new ComplexArray(n / 2 + 1);
+            FFTUtil.realFft(doubleInput, 0, n, expected, 0, FFTUtil.createTwiddles(n), new ComplexArray(n / 2));
+            assertTrue(relativeError(expected, half) <= FLOAT_EPSILON * Integer.numberOfTrailingZeros(n));
+
+            float[] output = new float[n];
+            FFTUtil.inverseRealFft(half, 0, n, output, 0, FFTUtil.createInverseTwiddlesFloat(n), scratch);
+            for (int i = 0; i < n; i++) {
+                assertEquals(input[i], output[i], 1e-3, "i=" + i);
+            }
+        }
+
+        @Test
+        @DisplayName("2の冪乗でない長さは例外が発生する")
+        void testNonPowerOfTwo() {
+            assertThrows(IllegalArgumentException.class,
+                () -> FFTUtil.fft(new ComplexFloatArray(12), 0, 12, FFTUtil.createTwiddlesFloat(16), new ComplexFloatArray(12)));
+        }
+
+        // 倍精度の結果に対する単精度の結果のL2ノルムの相対誤差
+        private double relativeError(ComplexArray expected, ComplexFloatArray actual) {
+            double error = 0;
+            double norm = 0;
+            for (int i = 0; i < expected.length(); i++) {
+                double dr = expected.getReal(i) - actual.getReal(i);
+                double di = expected.getImaginary(i) - actual.getImaginary(i);
+                error += dr * dr + di * di;
+                norm += expected.magnitudeSquared(i);
+            }
+            return Math.sqrt(error / norm);
+        }
+    }
+
+    // 複素数配列の一部を取り出すヘルパーメソッド
+    private static ComplexArray rangeOf(ComplexArray data, int offset, int n) {
+        ComplexArray result = new ComplexArray(n);
+        for (int i = 0; i < n; i++) {
+            result.set(i, data.getReal(offset + i), data.getImaginary(offset + i));
+        }
+        return result;
+    }
+
+    // 乱数で複素数配列を生成するヘルパーメソッド
+    private static ComplexArray randomComplexArray(int n, long seed) {
+        java.util.Random random = new java.util.Random(seed);
+        ComplexArray data = new ComplexArray(n);
+        for (int i = 0; i < n; i++) {
+            data.set(i, random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1);
+        }
+        return data;
+    }
+
+    // 定義通りにDFTを計算するヘルパーメソッド（sign = -1 で順変換）
+    private static ComplexArray naiveDFT(ComplexArray data, int sign) {
+        int n = data.length();
+        ComplexArray result = new ComplexArray(n);
+        for (int k = 0; k < n; k++) {
+            double sumReal = 0;
+            double sumImag = 0;
+            for (int j = 0; j < n; j++) {
+                double angle = sign * 2.0 * Math.PI * ((long) j * k % n) / n;
+                double c = Math.cos(angle);
+                double s = Math.sin(angle);
+                sumReal += data.getReal(j) * c - data.getImaginary(j) * s;
+                sumImag += data.getReal(j) * s + data.getImaginary(j) * c;
+            }
+            result.set(k, sumReal, sumImag);
+        }
+        return result;
+    }
+
+    // 2つの複素数配列が許容誤差内で一致することを確認するヘルパーメソッド
+    private static void assertComplexArrayEquals(ComplexArray expected, ComplexArray actual, double delta, String message) {
+        assertEquals(expected.length(), actual.length(), message);
+        for (int i = 0; i < expected.length(); i++) {
+            assertEquals(expected.getReal(i), actual.getReal(i), delta, message + " Index " + i + " の実数部が一致しません");
+            assertEquals(expected.getImaginary(i), actual.getImaginary(i), delta, message + " Index " + i + " の虚数部が一致しません");
+        }
+    }
+
     @Nested
     @DisplayName("シフト操作のテスト")
     class ShiftTest {
@@ -284,6 +802,45 @@ class FFTUtilTest {
             }
         }
 
+        @Test
+        @DisplayName("奇数長の配列では直流成分が中央に来るよう巡回シフトされる")
+        void testShiftOddLength() {
+            double[] data = {0.0, 1.0, 2.0, -2.0, -1.0};
+            FFTUtil.shift(data);
+            assertArrayEquals(new double[]{-2.0, -1.0, 0.0, 1.0, 2.0}, data, DELTA);
+
+            double[][] data2D = {
+                {1, 2, 3},
+                {4, 5, 6}
+            };
+            FFTUtil.shift(data2D);
+            assertArrayEquals(new double[]{6, 4, 5}, data2D[0], DELTA);
+            assertArrayEquals(new double[]{3, 1, 2}, data2D[1], DELTA);
+
+            // unshiftIndexはshiftの逆の対応になる
+            for (int n = 1; n <= 6; n++) {
+                for (int i = 0; i < n; i++) {
+                    assertEquals((i + n - n / 2) % n, FFTUtil.unshiftIndex(i, n), "n=" + n + " i=" + i);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("shiftIndexはshiftで要素が移動する先のインデックスを返し、unshiftIndexの逆になる")
+        void testShiftIndex() {
+            for (int n = 1; n <= 6; n++) {
+                double[] data = new double[n];
+                for (int i = 0; i < n; i++) {
+                    data[i] = i;
+                }
+                FFTUtil.shift(data);
+                for (int i = 0; i < n; i++) {
+                    assertEquals(i, data[FFTUtil.shiftIndex(i, n)], DELTA, "n=" + n + " i=" + i);
+                    assertEquals(i, FFTUtil.shiftIndex(FFTUtil.unshiftIndex(i, n), n), "n=" + n + " i=" + i);
+                }
+            }
+        }
+
         @Test
         @DisplayName("4x4配列のシフトが正常に動作する")
         void testShift4x4Real() {
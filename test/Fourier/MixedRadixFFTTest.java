@@ -0,0 +1,130 @@
+package Fourier;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Nested;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MixedRadixFFTクラスの単体テストクラス
+ * 素因数分解、各基数のバタフライ演算、逆変換のテストを行う
+ *
+ * @see MixedRadixFFT
+ */
+class MixedRadixFFTTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Nested
+    @DisplayName("対応する長さの判定のテスト")
+    class SupportTest {
+
+        @Test
+        @DisplayName("素因数が2・3・5・7だけの長さに対応する")
+        void testSmoothSizes() {
+            assertTrue(MixedRadixFFT.isSupported(1));
+            assertTrue(MixedRadixFFT.isSupported(1920));
+            assertTrue(MixedRadixFFT.isSupported(1080));
+            assertTrue(MixedRadixFFT.isSupported(44100));
+            assertTrue(MixedRadixFFT.isSupported(48000));
+            assertFalse(MixedRadixFFT.isSupported(0));
+            assertFalse(MixedRadixFFT.isSupported(11));
+            assertFalse(MixedRadixFFT.isSupported(1000 * 13));
+        }
+    }
+
+    @Nested
+    @DisplayName("変換のテスト")
+    class TransformTest {
+
+        @Test
+        @DisplayName("各基数を含む長さで素朴なDFTと一致する")
+        void testMatchesDFT() {
+            // 2, 3, 4, 5, 7と、それ以外の素数(11, 13)を含む長さ
+            int[] sizes = {2, 3, 4, 5, 6, 7, 8, 9, 12, 14, 15, 25, 49, 60, 98, 105, 120, 143, 210, 360, 1080, 1920};
+            for (int n : sizes) {
+                ComplexArray data = randomComplexArray(n + 3, 29 * n);
+                ComplexArray expected = naiveDFT(data, 3, n, -1);
+                MixedRadixFFT.fft(data, 3, n);
+                for (int k = 0; k < n; k++) {
+                    assertEquals(expected.getReal(k), data.getReal(k + 3), 1e-9 * n, "n=" + n + " k=" + k);
+                    assertEquals(expected.getImaginary(k), data.getImaginary(k + 3), 1e-9 * n, "n=" + n + " k=" + k);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("7以上の奇数の基数を含む長さを複数のスレッドで繰り返し変換しても素朴なDFTと一致する")
+        void testOddRadixConcurrent() {
+            // 奇数の基数のバタフライ演算の一時配列はプランに保持して使い回すため、スレッド間で共有されないことを確認する
+            int n = 77; // 7 × 11
+            ComplexArray source = randomComplexArray(n, 41);
+            ComplexArray expected = naiveDFT(source, 0, n, -1);
+            IntStream.range(0, 64).parallel().forEach(i -> {
+                ComplexArray data = source.copy();
+                MixedRadixFFT.fft(data, 0, n);
+                for (int k = 0; k < n; k++) {
+                    assertEquals(expected.getReal(k), data.getReal(k), 1e-9 * n, "i=" + i + " k=" + k);
+                    assertEquals(expected.getImaginary(k), data.getImaginary(k), 1e-9 * n, "i=" + i + " k=" + k);
+                }
+            });
+        }
+
+        @Test
+        @DisplayName("逆変換で元のデータに戻る")
+        void testRoundTrip() {
+            int[] sizes = {6, 35, 1000, 44100};
+            for (int n : sizes) {
+                ComplexArray original = randomComplexArray(n, 31 * n);
+                ComplexArray data = original.copy();
+                MixedRadixFFT.fft(data, 0, n);
+                MixedRadixFFT.ifft(data, 0, n);
+                assertArrayEquals(original.getRealArray(), data.getRealArray(), DELTA, "n=" + n);
+                assertArrayEquals(original.getImaginaryArray(), data.getImaginaryArray(), DELTA, "n=" + n);
+            }
+        }
+
+        @Test
+        @DisplayName("FFTUtil.fftAnyLengthはBluestein FFTと同じ結果になる")
+        void testAnyLengthMatchesBluestein() {
+            for (int n : new int[]{1920, 1021}) {
+                ComplexArray expected = randomComplexArray(n, 37 * n);
+                ComplexArray actual = expected.copy();
+                FFTUtil.fftBluestein(expected, 0, n);
+                FFTUtil.fftAnyLength(actual, 0, n);
+                assertArrayEquals(expected.getRealArray(), actual.getRealArray(), 1e-8, "n=" + n);
+                assertArrayEquals(expected.getImaginaryArray(), actual.getImaginaryArray(), 1e-8, "n=" + n);
+            }
+        }
+    }
+
+    // 乱数で複素数配列を生成するヘルパーメソッド
+    private static ComplexArray randomComplexArray(int n, long seed) {
+        Random random = new Random(seed);
+        ComplexArray data = new ComplexArray(n);
+        for (int i = 0; i < n; i++) {
+            data.set(i, random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1);
+        }
+        return data;
+    }
+
+    // 定義どおりのO(N^2)のDFTを計算するヘルパーメソッド
+    private static ComplexArray naiveDFT(ComplexArray data, int offset, int n, int sign) {
+        ComplexArray result = new ComplexArray(n);
+        for (int k = 0; k < n; k++) {
+            double sumReal = 0;
+            double sumImag = 0;
+            for (int j = 0; j < n; j++) {
+                double angle = sign * 2.0 * Math.PI * ((long) j * k % n) / n;
+                double c = Math.cos(angle);
+                double s = Math.sin(angle);
+                sumReal += data.getReal(offset + j) * c - data.getImaginary(offset + j) * s;
+                sumImag += data.getReal(offset + j) * s + data.getImaginary(offset + j) * c;
+            }
+            result.set(k, sumReal, sumImag);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,157 @@
+package Fourier;
+
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Nested;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * OffHeapStorageの単体テストクラス
+ * ヒープ外に確保した配列の読み書きと、2次元FFTの結果をヒープ上の計算と比較する
+ * ヒープ外の記憶域を使用できない環境(JDK 17や--enable-previewなし)ではスキップする
+ *
+ * @see OffHeapStorage
+ */
+class OffHeapStorageTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Nested
+    @DisplayName("記憶域のテスト")
+    class StorageTest {
+
+        @Test
+        @DisplayName("確保した配列は0で初期化され、読み書きできる")
+        void testAllocate() {
+            assumeTrue(OffHeapStorage.isAvailable());
+            try (OffHeapStorage storage = OffHeapStorage.open()) {
+                ComplexBuffer buffer = storage.allocate(5);
+                assertEquals(5, buffer.length());
+                assertEquals(0.0, buffer.getReal(4));
+                buffer.set(4, 3.0, -4.0);
+                assertEquals(25.0, buffer.magnitudeSquared(4), DELTA);
+                ComplexBuffer copy = storage.allocate(5);
+                storage.copy(buffer, copy);
+                assertEquals(-4.0, copy.getImaginary(4));
+                assertTrue(storage.getAllocatedBytes() >= 4 * 5 * Double.BYTES);
+            }
+        }
+
+        @Test
+        @DisplayName("閉じた後の配列にはアクセスできない")
+        void testClose() {
+            assumeTrue(OffHeapStorage.isAvailable());
+            OffHeapStorage storage = OffHeapStorage.open();
+            ComplexBuffer buffer = storage.allocate(4);
+            storage.close();
+            assertThrows(IllegalStateException.class, () -> buffer.getReal(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("2次元FFTのテスト")
+    class TransformTest {
+
+        @Test
+        @DisplayName("ヒープ上のFFTと同じ結果になり、逆変換で元に戻る")
+        void testMatchesHeap() {
+            assumeTrue(OffHeapStorage.isAvailable());
+            // 2の冪乗の大きさと、混合基数FFT・Bluestein FFTを使う大きさ
+            int[][] sizes = {{16, 8}, {12, 7}};
+            for (int[] size : sizes) {
+                int rows = size[0], cols = size[1];
+                double[][] data = randomData(rows, cols, rows * cols);
+                ComplexArray expected = ComplexArray.fromReal(data);
+                ComplexArray column = new ComplexArray(rows);
+                for (int r = 0; r < rows; r++) {
+                    FFTPlan.forward(cols).execute(expected, r * cols);
+                }
+                for (int c = 0; c < cols; c++) {
+                    for (int r = 0; r < rows; r++) {
+                        column.set(r, expected.getReal(r * cols + c), expected.getImaginary(r * cols + c));
+                    }
+                    FFTPlan.forward(rows).execute(column, 0);
+                    for (int r = 0; r < rows; r++) {
+                        expected.set(r * cols + c, column.getReal(r), column.getImaginary(r));
+                    }
+                }
+
+                try (OffHeapStorage storage = OffHeapStorage.open()) {
+                    ComplexBuffer actual = storage.allocate(rows * cols);
+                    storage.loadReal(data, actual);
+                    storage.transform2D(actual, rows, cols, FFTPlan.forward(rows), FFTPlan.forward(cols));
+                    for (int i = 0; i < rows * cols; i++) {
+                        assertEquals(expected.getReal(i), actual.getReal(i), DELTA, rows + "x" + cols + " re " + i);
+                        assertEquals(expected.getImaginary(i), actual.getImaginary(i), DELTA, rows + "x" + cols + " im " + i);
+                    }
+
+                    storage.transform2D(actual, rows, cols, FFTPlan.inverse(rows), FFTPlan.inverse(cols));
+                    double[][] restored = new double[rows][cols];
+                    storage.storeReal(actual, restored);
+                    for (int r = 0; r < rows; r++) {
+                        assertArrayEquals(data[r], restored[r], DELTA, rows + "x" + cols + " row " + r);
+                    }
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("並列実行のテスト")
+    class ConcurrencyTest {
+
+        @Test
+        @DisplayName("複数のスレッドから別々のデータを同時に変換しても、1つずつ変換した結果と一致する")
+        void testConcurrentTransforms() throws InterruptedException {
+            assumeTrue(OffHeapStorage.isAvailable());
+            int rows = 64, cols = 32, count = 4;
+            try (OffHeapStorage storage = OffHeapStorage.open()) {
+                ComplexBuffer[] expected = new ComplexBuffer[count];
+                ComplexBuffer[] actual = new ComplexBuffer[count];
+                for (int t = 0; t < count; t++) {
+                    double[][] data = randomData(rows, cols, t);
+                    expected[t] = storage.allocate(rows * cols);
+                    actual[t] = storage.allocate(rows * cols);
+                    storage.loadReal(data, expected[t]);
+                    storage.loadReal(data, actual[t]);
+                    storage.transform2D(expected[t], rows, cols, FFTPlan.forward(rows), FFTPlan.forward(cols));
+                }
+                Thread[] threads = new Thread[count];
+                for (int t = 0; t < count; t++) {
+                    ComplexBuffer target = actual[t];
+                    threads[t] = new Thread(() -> {
+                        // 順変換と逆変換を繰り返してから、最後に順変換する
+                        for (int i = 0; i < 10; i++) {
+                            storage.transform2D(target, rows, cols, FFTPlan.forward(rows), FFTPlan.forward(cols));
+                            storage.transform2D(target, rows, cols, FFTPlan.inverse(rows), FFTPlan.inverse(cols));
+                        }
+                        storage.transform2D(target, rows, cols, FFTPlan.forward(rows), FFTPlan.forward(cols));
+                    });
+                    threads[t].start();
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                for (int t = 0; t < count; t++) {
+                    for (int i = 0; i < rows * cols; i++) {
+                        assertEquals(expected[t].getReal(i), actual[t].getReal(i), DELTA, "data " + t + " re " + i);
+                        assertEquals(expected[t].getImaginary(i), actual[t].getImaginary(i), DELTA, "data " + t + " im " + i);
+                    }
+                }
+            }
+        }
+    }
+
+    private static double[][] randomData(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        double[][] data = new double[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                data[r][c] = random.nextDouble() - 0.5;
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,138 @@
+package Fourier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Nested;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TwiddleTableクラスの単体テストクラス
+ * 対称性から導いた値の精度と、テーブルの共有・キャッシュのテストを行う
+ *
+ * @see TwiddleTable
+ */
+class TwiddleTableTest {
+
+    private static final double DELTA = 1e-15;
+
+    @Nested
+    @DisplayName("値のテスト")
+    class ValueTest {
+
+        @Test
+        @DisplayName("全ての角度で直接計算したcos・sinと一致する")
+        void testMatchesDirect() {
+            int[] sizes = {1, 2, 4, 8, 16, 1024, 12, 7};
+            for (int n : sizes) {
+                TwiddleTable table = TwiddleTable.get(n);
+                for (int k = 0; k < n; k++) {
+                    double angle = 2.0 * Math.PI * k / n;
+                    assertEquals(Math.cos(angle), table.cos(k), DELTA, "n=" + n + " cos " + k);
+                    assertEquals(Math.sin(angle), table.sin(k), DELTA, "n=" + n + " sin " + k);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("8の倍数の長さではN/8+1個の角度だけを保持し、FFTカーネルにはN/2個に展開して渡す")
+        void testStoredLength() {
+            TwiddleTable table = TwiddleTable.get(1024);
+            assertEquals(129, table.storedLength());
+            assertEquals(512, table.forwardTable().length());
+            assertEquals(2, TwiddleTable.get(8).storedLength());
+            // 8の倍数でない長さはN/2を切り上げた個数を保持する
+            assertEquals(6, TwiddleTable.get(12).storedLength());
+            assertEquals(4, TwiddleTable.get(7).storedLength());
+        }
+
+        @Test
+        @DisplayName("対称な角度どうしのcos・sinが厳密に一致する")
+        void testSymmetryExact() {
+            int n = 4096;
+            TwiddleTable table = TwiddleTable.get(n);
+            for (int k = 1; k <= n / 4; k++) {
+                // 0の符号の違いは区別しない
+                assertEquals(table.cos(k), table.sin(n / 4 - k), 0.0);
+                assertEquals(table.cos(k), -table.cos(n / 2 - k), 0.0);
+                assertEquals(table.sin(k), -table.sin(n - k), 0.0);
+            }
+        }
+
+        @Test
+        @DisplayName("逆変換の回転因子は順変換の共役")
+        void testInverseIsConjugate() {
+            TwiddleTable table = TwiddleTable.get(64);
+            ComplexArray forward = table.forwardTable();
+            ComplexArray inverse = table.inverseTable();
+            assertEquals(32, forward.length());
+            for (int k = 0; k < 32; k++) {
+                double angle = -2.0 * Math.PI * k / 64;
+                assertEquals(Math.cos(angle), forward.getReal(k), DELTA);
+                assertEquals(Math.sin(angle), forward.getImaginary(k), DELTA);
+                assertEquals(-forward.getImaginary(k), inverse.getImaginary(k));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("共有のテスト")
+    class SharingTest {
+
+        @Test
+        @DisplayName("順変換と逆変換で実部の配列を共有し、プランもこのテーブルを使う")
+        void testShared() {
+            // 他のテストが使わない長さで、プランとテーブルを続けて取得する
+            // （展開した配列はプランが保持している間だけ共有されるため、先にプランを取得しておく）
+            int n = 1 << 14;
+            FFTPlan forward = FFTPlan.get(n, false, FFTKernel.STOCKHAM);
+            FFTPlan inverse = FFTPlan.get(n, true, FFTKernel.ITERATIVE);
+            TwiddleTable table = TwiddleTable.get(n);
+            assertSame(table, TwiddleTable.get(n));
+            assertSame(forward.getTwiddles(), table.forwardTable());
+            assertSame(inverse.getTwiddles(), table.inverseTable());
+            assertSame(forward.getTwiddles(), FFTPlan.get(n, false, FFTKernel.VECTOR).getTwiddles());
+            assertSame(forward.getTwiddles().getRealArray(), inverse.getTwiddles().getRealArray());
+        }
+
+        @Test
+        @DisplayName("多数のデータ長を使うと、先に作成したテーブルはキャッシュから破棄される")
+        void testBoundedCache() {
+            TwiddleTable table = TwiddleTable.get(3000);
+            for (int n = 3001; n <= 3100; n++) {
+                TwiddleTable.get(n);
+            }
+            TwiddleTable recreated = TwiddleTable.get(3000);
+            assertNotSame(table, recreated);
+            assertEquals(table.cos(123), recreated.cos(123));
+        }
+
+        @Test
+        @DisplayName("多数のデータ長を使うと、先に作成したプランもキャッシュから破棄される")
+        void testBoundedPlanCache() {
+            FFTPlan plan = FFTPlan.get(5000, false, FFTKernel.ITERATIVE);
+            for (int n = 5001; n <= 5200; n++) {
+                FFTPlan.get(n, false, FFTKernel.ITERATIVE);
+            }
+            FFTPlan recreated = FFTPlan.get(5000, false, FFTKernel.ITERATIVE);
+            assertNotSame(plan, recreated);
+            assertEquals(5000, recreated.size());
+        }
+
+        @Test
+        @DisplayName("createTwiddlesで作成した配列は共有のテーブルとは別の配列")
+        void testCreateTwiddlesNotShared() {
+            ComplexArray created = FFTUtil.createTwiddles(256);
+            assertNotSame(TwiddleTable.get(256).forwardTable(), created);
+            for (int k = 0; k < 128; k++) {
+                assertEquals(TwiddleTable.get(256).forwardTable().getReal(k), created.getReal(k), DELTA);
+                assertEquals(TwiddleTable.get(256).forwardTable().getImaginary(k), created.getImaginary(k), DELTA);
+            }
+        }
+
+        @Test
+        @DisplayName("データ長が1未満の場合は例外が発生する")
+        void testInvalidSize() {
+            assertThrows(IllegalArgumentException.class, () -> TwiddleTable.get(0));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package Fourier.fft;
+
+import java.util.List;
+import java.util.Random;
+import Fourier.ComplexArray;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Nested;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FFTEnginesと組み込みのFFTエンジンの単体テストクラス
+ * エンジンの選択と、各エンジンの変換結果が参照実装と一致することのテストを行う
+ *
+ * @see FFTEngines
+ * @see FFTEngine
+ */
+class FFTEnginesTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Nested
+    @DisplayName("エンジンの選択のテスト")
+    class SelectionTest {
+
+        @Test
+        @DisplayName("組み込みのエンジンを名前で取得できる")
+        void testBuiltIn() {
+            List<FFTEngine> engines = FFTEngines.available();
+            assertEquals(PlannedFFTEngine.NAME, engines.get(0).getName());
+            assertEquals(ReferenceFFTEngine.NAME, FFTEngines.get("reference").getName());
+            assertNotNull(FFTEngines.getDefault());
+        }
+
+        @Test
+        @DisplayName("存在しない名前では例外が発生する")
+        void testUnknown() {
+            assertThrows(IllegalArgumentException.class, () -> FFTEngines.get("no-such-engine"));
+        }
+    }
+
+    @Nested
+    @DisplayName("変換のテスト")
+    class TransformTest {
+
+        @Test
+        @DisplayName("全てのエンジンで複素FFTが参照実装と一致し、逆変換で元に戻る")
+        void testComplex() {
+            FFTEngine reference = new ReferenceFFTEngine();
+            for (FFTEngine engine : FFTEngines.available()) {
+                for (int n : new int[] {1, 16, 12, 97}) {
+                    ComplexArray original = randomComplexArray(n, n);
+                    ComplexArray expected = original.copy();
+                    ComplexArray actual = original.copy();
+                    reference.forward(expected, 0, n);
+                    engine.forward(actual, 0, n);
+                    assertComplexEquals(expected, actual, engine.getName() + " n=" + n);
+                    engine.inverse(actual, 0, n);
+                    assertComplexEquals(original, actual, engine.getName() + " inverse n=" + n);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("実数FFTの非負の周波数は複素FFTと一致し、逆変換で元に戻る")
+        void testReal() {
+            for (FFTEngine engine : FFTEngines.available()) {
+                for (int n : new int[] {2, 64, 12, 15}) {
+                    Random random = new Random(n);
+                    double[] input = new double[n];
+                    for (int i = 0; i < n; i++) {
+                        input[i] = random.nextDouble() - 0.5;
+                    }
+                    ComplexArray expected = ComplexArray.fromReal(input);
+                    engine.forward(expected, 0, n);
+                    ComplexArray half = new ComplexArray(n / 2 + 1);
+                    engine.realForward(input, 0, n, half, 0);
+                    for (int k = 0; k <= n / 2; k++) {
+                        assertEquals(expected.getReal(k), half.getReal(k), DELTA, engine.getName() + " n=" + n + " re " + k);
+                        assertEquals(expected.getImaginary(k), half.getImaginary(k), DELTA, engine.getName() + " n=" + n + " im " + k);
+                    }
+                    double[] output = new double[n];
+                    engine.realInverse(half, 0, n, output, 0);
+                    assertArrayEquals(input, output, DELTA, engine.getName() + " inverse n=" + n);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("バッチ変換は1本ずつの変換と一致する")
+        void testBatch() {
+            int n = 32, count = 5;
+            for (FFTEngine engine : FFTEngines.available()) {
+                ComplexArray expected = randomComplexArray(n * count, 3);
+                ComplexArray actual = expected.copy();
+                for (int i = 0; i < count; i++) {
+                    engine.forward(expected, i * n, n);
+                }
+                engine.forwardBatch(actual, 0, n, count);
+                assertComplexEquals(expected, actual, engine.getName());
+            }
+        }
+    }
+
+    private static ComplexArray randomComplexArray(int n, long seed) {
+        Random random = new Random(seed);
+        ComplexArray data = new ComplexArray(n);
+        for (int i = 0; i < n; i++) {
+            data.set(i, random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+        }
+        return data;
+    }
+
+    private static void assertComplexEquals(ComplexArray expected, ComplexArray actual, String message) {
+        assertArrayEquals(expected.getRealArray(), actual.getRealArray(), DELTA, message);
+        assertArrayEquals(expected.getImaginaryArray(), actual.getImaginaryArray(), DELTA, message);
+    }
+}
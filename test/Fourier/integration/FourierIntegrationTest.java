@@ -68,7 +68,7 @@ class FourierIntegrationTest {
             assertNotNull(powerSpectrum);
             
             // 5. ユーザーモディファイされたスペクトルデータの確認
-            Complex[] userSpectrum = model.getUserModifiedSpectrumData();
+            ComplexView userSpectrum = model.getUserModifiedSpectrumData();
             assertNotNull(userSpectrum);
             
             // 6. IFFT結果データの確認
@@ -13,6 +13,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
 import Fourier.Complex;
+import Fourier.ComplexArray;
+import Fourier.FFTKernel;
+import Fourier.FFTPlan;
 import Fourier.FFTUtil;
 
 /**
@@ -131,6 +134,38 @@ public class FFTPerformanceTest {
     }
 
 
+    @Test
+    @Order(5)
+    @DisplayName("2D FFT (ComplexArray) Performance per Kernel")
+    void testComplexArray2DFFTPerKernel() {
+        ComplexArray source = toComplexArray(testDataR);
+        for (FFTKernel kernel : FFTKernel.values()) {
+            ComplexArray data = source.copy();
+            FFTPlan rowPlan = FFTPlan.get(WIDTH, false, kernel);
+            FFTPlan colPlan = FFTPlan.get(HEIGHT, false, kernel);
+
+            System.out.println("\n--- Starting ComplexArray 2D FFT Test (" + kernel + ") ---");
+            long startTime = System.nanoTime();
+
+            // 行FFT
+            for (int i = 0; i < HEIGHT; i++) {
+                rowPlan.execute(data, i * WIDTH);
+            }
+            // 列FFT（転置して行として変換）
+            ComplexArray transposed = transpose(data, HEIGHT, WIDTH);
+            for (int i = 0; i < WIDTH; i++) {
+                colPlan.execute(transposed, i * HEIGHT);
+            }
+
+            long endTime = System.nanoTime();
+            long duration = TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
+            System.out.println("ComplexArray 2D FFT (" + kernel + ") took: " + duration + " ms");
+
+            assertNotNull(transposed);
+        }
+    }
+
+
     // --- パフォーマンス測定用のヘルパーメソッド ---
 
     private void perform2DFFT_Recursive(Complex[][] data) {
@@ -236,6 +271,28 @@ public class FFTPerformanceTest {
         return result;
     }
 
+    private static ComplexArray toComplexArray(Complex[][] data) {
+        int rows = data.length;
+        int cols = data[0].length;
+        ComplexArray array = new ComplexArray(rows * cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                array.set(i * cols + j, data[i][j].getReal(), data[i][j].getImaginary());
+            }
+        }
+        return array;
+    }
+
+    private ComplexArray transpose(ComplexArray m, int rows, int cols) {
+        ComplexArray t = new ComplexArray(rows * cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                t.set(j * rows + i, m.getReal(i * cols + j), m.getImaginary(i * cols + j));
+            }
+        }
+        return t;
+    }
+
     private Complex[][] transpose(Complex[][] m) {
         int rows = m.length;
         int cols = m[0].length;
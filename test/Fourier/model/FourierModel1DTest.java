@@ -6,7 +6,10 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import Fourier.Complex;
+import Fourier.ComplexView;
 import Fourier.FFTUtil;
+import Fourier.view.FourierView1D;
+import java.util.Random;
 
 /**
  * FourierModel1DクラスのFFTおよびIFFTの機能をテストするクラスです。
@@ -175,4 +178,108 @@ class FourierModel1DTest {
         modelWithData.computeFromMousePoint(mousePoint, Boolean.TRUE);
         assertEquals(true, modelWithData.getIsAltDown());
     }
-}
\ No newline at end of file
+
+    /**
+     * スペクトルのフィルとクリアで、IFFT結果が元の信号とゼロに戻ることをテストします。
+     */
+    @Test
+    @DisplayName("フィルで元の信号が、クリアでゼロが再構成されるかテスト")
+    void testFillAndClearReconstruction() {
+        double[] initialData = new double[64];
+        for (int i = 0; i < initialData.length; i++) {
+            initialData[i] = Math.sin(2 * Math.PI * 3 * i / initialData.length) + 0.5 * Math.cos(2 * Math.PI * 7 * i / initialData.length);
+        }
+        FourierModel1D modelWithData = new FourierModel1D(initialData);
+
+        modelWithData.fillUserSpectrum();
+        assertArrayEquals(initialData, modelWithData.getIfftResultData(), DELTA);
+        assertArrayEquals(modelWithData.getInitialCalculatedPowerSpectrumData(), modelWithData.getRecalculatedPowerSpectrumData(), 1e-6);
+
+        modelWithData.clearUserSpectrum();
+        assertArrayEquals(new double[initialData.length], modelWithData.getIfftResultData(), DELTA);
+    }
+
+    /**
+     * ユーザー変更スペクトルデータが、コピーではなくフィル・クリアに追従する読み取り専用の配列であることをテストします。
+     */
+    @Test
+    @DisplayName("ユーザー変更スペクトルデータが編集に追従するかテスト")
+    void testUserModifiedSpectrumView() {
+        double[] initialData = new double[32];
+        for (int i = 0; i < initialData.length; i++) {
+            initialData[i] = Math.cos(2 * Math.PI * 5 * i / initialData.length) + i % 3;
+        }
+        FourierModel1D modelWithData = new FourierModel1D(initialData);
+        ComplexView spectrum = modelWithData.getUserModifiedSpectrumData();
+        assertSame(spectrum, modelWithData.getUserModifiedSpectrumData());
+
+        // フィルした後は、元の信号の離散フーリエ変換を直接計算した値と一致する
+        modelWithData.fillUserSpectrum();
+        int n = initialData.length;
+        for (int k = 0; k < n; k++) {
+            double re = 0, im = 0;
+            for (int t = 0; t < n; t++) {
+                re += initialData[t] * Math.cos(-2 * Math.PI * k * t / n);
+                im += initialData[t] * Math.sin(-2 * Math.PI * k * t / n);
+            }
+            assertEquals(re, spectrum.getReal(k), 1e-9);
+            assertEquals(im, spectrum.getImaginary(k), 1e-9);
+        }
+        modelWithData.clearUserSpectrum();
+        for (int k = 0; k < initialData.length; k++) {
+            assertEquals(0.0, spectrum.magnitudeSquared(k), DELTA);
+        }
+    }
+
+    /**
+     * 2の冪乗でない長さの信号でも、スペクトルが計算されIFFTで元の信号に戻ることをテストします。
+     */
+    @Test
+    @DisplayName("2の冪乗でない長さの信号でもFFTとIFFTが計算されるかテスト")
+    void testNonPowerOfTwoLength() {
+        double[] initialData = new double[1000];
+        for (int i = 0; i < initialData.length; i++) {
+            initialData[i] = Math.sin(2 * Math.PI * 5 * i / initialData.length) + 0.25 * i / initialData.length;
+        }
+        FourierModel1D modelWithData = new FourierModel1D(initialData);
+
+        assertNotNull(modelWithData.getInitialCalculatedPowerSpectrumData());
+        assertEquals(initialData.length, modelWithData.getInitialCalculatedPowerSpectrumData().length);
+
+        modelWithData.fillUserSpectrum();
+        assertArrayEquals(initialData, modelWithData.getIfftResultData(), 1e-9);
+    }
+
+    /**
+     * 変更された周波数成分だけでIFFTの結果を更新しても、全体のIFFTと同じ結果になることをテストします。
+     */
+    @Test
+    @DisplayName("差分で更新したIFFTの結果が全体のIFFTと一致するかテスト")
+    void testIncrementalIfft() {
+        // 8の倍数の長さ(展開済みの回転因子を使う)と奇数長(全ての角度を保持したテーブルを使う)
+        for (int length : new int[]{4096, 1001}) {
+            double[] initialData = new double[length];
+            Random random = new Random(length);
+            for (int i = 0; i < length; i++) {
+                initialData[i] = random.nextDouble() * 2 - 1;
+            }
+            FourierModel1D incremental = new FourierModel1D(initialData);
+            FourierModel1D full = new FourierModel1D(initialData);
+            full.setIncrementalIfft(false);
+            assertTrue(incremental.isIncrementalIfft());
+            incremental.setBrushSize(1);
+            full.setBrushSize(1);
+
+            // 再同期の間隔を超える回数だけ、ランダムな位置で描画と消去を繰り返す
+            for (int stroke = 0; stroke < 200; stroke++) {
+                java.awt.Point point = new java.awt.Point(random.nextInt(FourierView1D.PANEL_WIDTH), 0);
+                Boolean isAltDown = random.nextInt(4) == 0;
+                incremental.computeFromMousePoint(point, isAltDown);
+                full.computeFromMousePoint(point, isAltDown);
+            }
+            assertArrayEquals(full.getIfftResultData(), incremental.getIfftResultData(), DELTA, "length=" + length);
+            assertArrayEquals(full.getRecalculatedPowerSpectrumData(), incremental.getRecalculatedPowerSpectrumData(), DELTA,
+                "length=" + length);
+        }
+    }
+}
@@ -0,0 +1,527 @@
+package Fourier.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import Fourier.OffHeapStorage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * FourierModel2Dクラスのスペクトルの精度と記憶域に関するテストクラス
+ *
+ * @see FourierModel2D
+ */
+class FourierModel2DTest {
+
+    // 単精度で計算したパワースペクトルの、最大値に対する許容誤差
+    private static final double FLOAT_DELTA = 1e-5;
+
+    @Nested
+    @DisplayName("精度のテスト")
+    class PrecisionTest {
+
+        @Test
+        @DisplayName("既定の精度は倍精度")
+        void testDefaultPrecision() {
+            FourierModel2D model = new FourierModel2D(randomImage(8, 8, 1));
+            assertEquals(FourierModel2D.Precision.DOUBLE, model.getPrecision());
+        }
+
+        @Test
+        @DisplayName("画素数に応じて既定の精度が選ばれる")
+        void testForImageSize() {
+            assertEquals(FourierModel2D.Precision.DOUBLE, FourierModel2D.Precision.forImageSize(1920, 1080));
+            assertEquals(FourierModel2D.Precision.FLOAT, FourierModel2D.Precision.forImageSize(3840, 2160));
+        }
+    }
+
+    @Nested
+    @DisplayName("記憶域のテスト")
+    class StorageTest {
+
+        @Test
+        @DisplayName("既定の記憶域はヒープ")
+        void testDefaultStorage() {
+            FourierModel2D model = new FourierModel2D(randomImage(8, 8, 1));
+            assertEquals(FourierModel2D.Storage.HEAP, model.getStorage());
+        }
+
+        @Test
+        @DisplayName("単精度とヒープ外の記憶域は同時に指定できない")
+        void testFloatOffHeap() {
+            assertThrows(IllegalArgumentException.class,
+                () -> new FourierModel2D(randomImage(8, 8, 1), FourierModel2D.Precision.FLOAT, FourierModel2D.Storage.OFF_HEAP));
+        }
+    }
+
+    @Nested
+    @DisplayName("2つのチャンネルをまとめて変換するテスト")
+    class PackingTest {
+
+        @Test
+        @DisplayName("初期スペクトルで埋めたスペクトルのIFFTは元の画像に一致する")
+        void testInverseRestoresImage() throws InterruptedException {
+            for (FourierModel2D.Precision precision : FourierModel2D.Precision.values()) {
+                double[][][] image = randomImage(12, 11, 3);
+                FourierModel2D model = new FourierModel2D(image, precision);
+                double[][][] restored = fillAndAwaitIfft(model);
+                double delta = precision == FourierModel2D.Precision.FLOAT ? 1e-3 : 1e-9;
+                for (int x = 0; x < image.length; x++) {
+                    for (int y = 0; y < image[x].length; y++) {
+                        assertArrayEquals(image[x][y], restored[x][y], delta, precision + " (" + x + ", " + y + ")");
+                    }
+                }
+                model.dispose();
+            }
+        }
+    }
+
+    // 倍精度・ヒープ上・Rのチャンネルで計算したスペクトルと比べる、計算方法の違い
+    enum SpectrumVariant {
+        /** 単精度のスペクトル */
+        FLOAT {
+            @Override
+            FourierModel2D create(double[][][] image) {
+                FourierModel2D model = new FourierModel2D(image, FourierModel2D.Precision.FLOAT);
+                assertEquals(FourierModel2D.Precision.FLOAT, model.getPrecision());
+                return model;
+            }
+        },
+        /** ヒープ外に保持したスペクトル */
+        OFF_HEAP {
+            @Override
+            FourierModel2D create(double[][][] image) {
+                assumeTrue(OffHeapStorage.isAvailable());
+                FourierModel2D model = new FourierModel2D(image, FourierModel2D.Precision.DOUBLE, FourierModel2D.Storage.OFF_HEAP);
+                assertEquals(FourierModel2D.Storage.OFF_HEAP, model.getStorage());
+                return model;
+            }
+        },
+        /** Gのチャンネルに置いた画像（RとGを1回の複素FFTで変換する大きさでは虚部側になる） */
+        GREEN_CHANNEL {
+            @Override
+            double[][][] image(double[][][] image) {
+                return singleChannelImage(image, 1);
+            }
+        },
+        /** Bのチャンネルに置いた画像（RとGを詰める大きさでは単独で変換する） */
+        BLUE_CHANNEL {
+            @Override
+            double[][][] image(double[][][] image) {
+                return singleChannelImage(image, 2);
+            }
+        };
+
+        // 比べる画像（チャンネルを変える場合以外はそのまま）
+        double[][][] image(double[][][] image) {
+            return image;
+        }
+
+        // 基準の画像（チャンネルを変える場合はRのチャンネルに置いた画像）
+        double[][][] referenceImage(double[][][] image) {
+            return this == FLOAT || this == OFF_HEAP ? image : singleChannelImage(image, 0);
+        }
+
+        FourierModel2D create(double[][][] image) {
+            return new FourierModel2D(image);
+        }
+    }
+
+    @Nested
+    @DisplayName("計算方法によらずスペクトルが一致するテスト")
+    class SpectrumVariantTest {
+
+        @ParameterizedTest(name = "{0}")
+        @EnumSource(SpectrumVariant.class)
+        @DisplayName("パワースペクトルが倍精度・ヒープ上・Rのチャンネルで計算したものと許容誤差内で一致する")
+        void testMatchesReference(SpectrumVariant variant) {
+            // 2の冪乗の大きさと、混合基数FFT(12)・Bluestein FFT(11)を使う長方形・2の冪乗でない正方形
+            // （2の冪乗でないヒープ上の画像では、RとGを1回の複素FFTで変換し、Bを単独で変換する）
+            int[][] sizes = {{32, 16}, {12, 11}, {10, 10}};
+            for (int[] size : sizes) {
+                String message = variant + " " + size[0] + "x" + size[1];
+                double[][][] image = randomImage(size[0], size[1], size[0] * size[1]);
+                FourierModel2D reference = new FourierModel2D(variant.referenceImage(image));
+                FourierModel2D model = variant.create(variant.image(image));
+                assertSpectrumEquals(reference.getInitialPowerSpectrumData(), model.getInitialPowerSpectrumData(), message);
+
+                // 編集用のスペクトルを初期スペクトルで埋めると、パワースペクトルも一致する
+                model.fillUserSpectrum();
+                assertSpectrumEquals(reference.getInitialPowerSpectrumData(), model.generateCurrentPowerSpectrum(),
+                    "filled " + message);
+                reference.dispose();
+                model.dispose();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("差分によるIFFTの更新のテスト")
+    class IncrementalTest {
+
+        @Test
+        @DisplayName("差分で更新したIFFTの結果が全体のIFFTと一致する")
+        void testIncrementalMatchesFull() throws Exception {
+            // 2の冪乗(実数FFT)と、2の冪乗でない長方形(RとGを詰めた複素FFT)の画像
+            int[][] sizes = {{32, 32}, {64, 48}};
+            for (int[] size : sizes) {
+                ReconstructionPair pair = new ReconstructionPair(randomImage(size[0], size[1], 11), FourierModel2D.Precision.DOUBLE);
+                assertTrue(pair.incremental.isIncrementalIfft());
+
+                // 1成分ずつのブラシで異なる位置に描画してから一部を消去し、描画のたびに差分の更新を待つ
+                Random random = new Random(5);
+                List<java.awt.Point> points = new ArrayList<>();
+                while (points.size() < 30) {
+                    java.awt.Point point = new java.awt.Point(random.nextInt(size[0]), random.nextInt(size[1]));
+                    if (!points.contains(point)) {
+                        points.add(point);
+                    }
+                }
+                for (int stroke = 0; stroke < 40; stroke++) {
+                    java.awt.Point point = points.get(stroke < 30 ? stroke : (stroke - 30) * 3);
+                    pair.drawAndAwait(point.x, point.y, stroke >= 30, 0);
+                }
+                pair.assertSameIfft(1e-6, size[0] + "x" + size[1]);
+                pair.dispose();
+            }
+        }
+
+        @Test
+        @DisplayName("描画の間に計算を待たなくても、全ての描画がIFFTの結果に反映される")
+        void testStrokesWithoutWaiting() throws Exception {
+            // 計算スレッドが未反映の成分を取り出すのと並行して描画を続け、
+            // 取り出した成分の値が書き込み前の古い値にならないことを確認する
+            int[][] sizes = {{32, 32}, {64, 48}};
+            for (int[] size : sizes) {
+                ReconstructionPair pair = new ReconstructionPair(randomImage(size[0], size[1], 19), FourierModel2D.Precision.DOUBLE);
+                Random random = new Random(23);
+                for (int stroke = 0; stroke < 300; stroke++) {
+                    pair.draw(random.nextInt(size[0]), random.nextInt(size[1]), stroke % 4 == 3, stroke % 3 == 0 ? 1 : 0);
+                }
+                pair.assertSameIfft(1e-6, size[0] + "x" + size[1]);
+                pair.dispose();
+            }
+        }
+
+        @Test
+        @DisplayName("計算スレッドが反映する前に同じ成分を何度編集しても、差分は1回だけ反映される")
+        void testSameBinEditedTwice() throws Exception {
+            // 計算スレッドを止めている間に同じ位置へ描画・消去・描画し、1回の更新にまとめて反映させる
+            ReconstructionPair pair = new ReconstructionPair(randomImage(32, 32, 29), FourierModel2D.Precision.DOUBLE);
+            // 最後に消去しても全体のIFFTが0にならないよう、別の位置にも描画しておく
+            pair.drawAndAwait(20, 9, false, 0);
+            boolean[][] strokes = {{false, false}, {true, false, true}};
+            for (boolean[] stroke : strokes) {
+                CountDownLatch release = pair.holdIncremental();
+                for (boolean isAltDown : stroke) {
+                    pair.draw(7, 5, isAltDown, 0);
+                }
+                release.countDown();
+                pair.assertSameIfft(1e-6, Arrays.toString(stroke));
+            }
+            pair.dispose();
+        }
+
+        @Test
+        @DisplayName("列だけを逆FFTし直す場合も、反映する前に同じ成分を何度編集した結果が反映される")
+        void testSameBinsEditedTwiceInPartial() throws Exception {
+            // 半径2のブラシは差分の更新の上限を超えるため、同じ位置への描画・消去は編集された列の逆FFTにまとめられる
+            for (FourierModel2D.Precision precision : FourierModel2D.Precision.values()) {
+                ReconstructionPair pair = new ReconstructionPair(randomImage(32, 32, 31), precision);
+                pair.drawAndAwait(20, 9, false, 2);
+                boolean[][] strokes = {{false, false}, {true, false, true}};
+                for (boolean[] stroke : strokes) {
+                    CountDownLatch release = pair.holdIncremental();
+                    for (boolean isAltDown : stroke) {
+                        pair.draw(7, 5, isAltDown, 2);
+                    }
+                    release.countDown();
+                    double delta = precision == FourierModel2D.Precision.FLOAT ? 1e-3 : 1e-6;
+                    pair.assertSameIfft(delta, precision + " " + Arrays.toString(stroke));
+                }
+                pair.dispose();
+            }
+        }
+
+        @Test
+        @DisplayName("編集された列だけを逆FFTし直した結果が全体のIFFTと一致する")
+        void testPartialMatchesFull() throws Exception {
+            // 半径2のブラシ(13成分・5列)は差分の更新の上限を超えるため、編集された列だけを計算し直す。
+            // 半径0のブラシによる差分の更新を挟み、古くなった列も計算し直されることを確認する
+            for (FourierModel2D.Precision precision : FourierModel2D.Precision.values()) {
+                ReconstructionPair pair = new ReconstructionPair(randomImage(32, 32, 13), precision);
+
+                // 重ならないように5画素間隔で並べた中心に、半径0と半径2のブラシで交互に描画し、最後に一部を消去する
+                int stroke = 0;
+                for (int x = 2; x < 32; x += 5) {
+                    for (int y = 2; y < 32; y += 5) {
+                        int brushSize = stroke % 2 == 0 ? 2 : 0;
+                        boolean isAltDown = stroke >= 30 && brushSize == 2;
+                        if (isAltDown) {
+                            // 消去する位置にはあらかじめ描画しておく
+                            pair.drawAndAwait(x, y, false, brushSize);
+                        }
+                        pair.drawAndAwait(x, y, isAltDown, brushSize);
+                        stroke++;
+                    }
+                }
+                double delta = precision == FourierModel2D.Precision.FLOAT ? 1e-3 : 1e-6;
+                pair.assertSameIfft(delta, precision.toString());
+                pair.dispose();
+            }
+        }
+    }
+
+    // 差分で更新するモデルと全体のIFFTだけを使うモデルに同じ操作をして、IFFTの結果を比べるフィクスチャ
+    // （パネルの大きさを画像と同じにして座標をそのまま使い、計算は定期計算のタイマーを待たずに完了させる）
+    private static final class ReconstructionPair {
+        private final FourierModel2D incremental;
+        private final FourierModel2D full;
+        private final int width, height;
+
+        ReconstructionPair(double[][][] image, FourierModel2D.Precision precision) throws InterruptedException {
+            this.incremental = new FourierModel2D(image, precision);
+            this.full = new FourierModel2D(image, precision);
+            this.full.setIncrementalIfft(false);
+            this.width = image.length;
+            this.height = image[0].length;
+            incremental.awaitCalculations();
+            full.awaitCalculations();
+        }
+
+        // 2つのモデルに同じブラシで描画する（計算の終了は待たない）
+        void draw(int x, int y, boolean isAltDown, int brushSize) {
+            java.awt.Point point = new java.awt.Point(x, y);
+            incremental.setBrushSize(brushSize);
+            full.setBrushSize(brushSize);
+            incremental.computeFromMousePoint(point, isAltDown, width, height);
+            full.computeFromMousePoint(point, isAltDown, width, height);
+        }
+
+        // 描画してから差分で更新するモデルの計算を終わらせ、次の描画と1回の更新にまとめられないようにする
+        void drawAndAwait(int x, int y, boolean isAltDown, int brushSize) throws InterruptedException {
+            draw(x, y, isAltDown, brushSize);
+            incremental.awaitCalculations();
+        }
+
+        // 差分で更新するモデルの計算スレッドを、返したラッチが開くまで止める（その間の描画は1回の更新にまとめられる）
+        CountDownLatch holdIncremental() {
+            CountDownLatch release = new CountDownLatch(1);
+            incremental.executeOnCalculationThread(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return release;
+        }
+
+        // 両方のモデルの計算を終わらせ、IFFTの結果が一致することを確認する
+        void assertSameIfft(double delta, String message) throws InterruptedException {
+            incremental.awaitCalculations();
+            full.awaitCalculations();
+            double[][][] expected = full.getIfftResultColorData();
+            assertFalse(isBlank(expected), message);
+            double difference = maxDifference(incremental.getIfftResultColorData(), expected);
+            assertTrue(difference < delta, message + " difference " + difference);
+        }
+
+        void dispose() {
+            incremental.dispose();
+            full.dispose();
+        }
+    }
+
+    @Nested
+    @DisplayName("占有数による疎なIFFTのテスト")
+    class OccupancyTest {
+
+        @Test
+        @DisplayName("一部だけ描画したスペクトルの全体のIFFTが差分の更新と一致する")
+        void testSparseFullIfft() throws Exception {
+            // 全体のIFFTでは0の行・列を省略し、0でない要素が少ない行・列は直接逆DFTを計算する。
+            // 2の冪乗・素数の高さ(Bluestein FFT)の画像で、要素ごとの差分の更新の結果と比べる
+            int[][] sizes = {{16, 16}, {22, 13}, {64, 64}};
+            for (int[] size : sizes) {
+                for (FourierModel2D.Precision precision : FourierModel2D.Precision.values()) {
+                    ReconstructionPair pair = new ReconstructionPair(randomImage(size[0], size[1], 17), precision);
+                    // 64x64では全て同じ列に描画し、0でない列だけを転置せずに逆変換して、行方向も直接逆DFTする
+                    int[][] points = size[0] == 64
+                        ? new int[][]{{10, 1}, {10, 5}, {10, 7}, {10, 30}, {10, 60}}
+                        : new int[][]{{1, 1}, {5, 2}, {5, 7}, {size[0] - 2, 3}, {size[0] / 2, size[1] / 2}};
+                    for (int[] point : points) {
+                        pair.drawAndAwait(point[0], point[1], false, 0);
+                    }
+                    pair.drawAndAwait(points[2][0], points[2][1], true, 0);
+                    double delta = precision == FourierModel2D.Precision.FLOAT ? 1e-3 : 1e-6;
+                    pair.assertSameIfft(delta, size[0] + "x" + size[1] + " " + precision);
+                    pair.dispose();
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("全ての成分を消去したスペクトルの全体のIFFTは0になる")
+        void testEmptyFullIfft() throws Exception {
+            int[][] sizes = {{16, 16}, {22, 13}};
+            for (int[] size : sizes) {
+                for (FourierModel2D.Precision precision : FourierModel2D.Precision.values()) {
+                    FourierModel2D model = new FourierModel2D(randomImage(size[0], size[1], 29), precision);
+                    model.fillUserSpectrum();
+                    model.awaitCalculations();
+                    assertFalse(isBlank(model.getIfftResultColorData()));
+                    model.clearUserSpectrum();
+                    model.awaitCalculations();
+                    for (double[][] column : model.getIfftResultColorData()) {
+                        for (double[] pixel : column) {
+                            assertArrayEquals(new double[3], pixel, 0.0, size[0] + "x" + size[1] + " " + precision);
+                        }
+                    }
+                    model.dispose();
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("並列処理のテスト")
+    class ParallelTest {
+
+        @Test
+        @DisplayName("行ごと・チャンネルごとに並列に計算した結果が逐次に計算した結果と一致する")
+        void testParallelMatchesSerial() throws Exception {
+            // 256x256は行ごとの処理の要素数が並列化の閾値(FFTUtil.PARALLEL_BATCH_THRESHOLD)を超える大きさ
+            double[][][] image = randomImage(256, 256, 31);
+            for (FourierModel2D.Precision precision : FourierModel2D.Precision.values()) {
+                for (boolean incremental : new boolean[]{true, false}) {
+                    String message = precision + (incremental ? " incremental" : " full");
+                    ParallelRun parallel = new ParallelRun(image, precision, incremental);
+                    ParallelRun serial;
+                    FourierModel2D.parallel = false;
+                    try {
+                        serial = new ParallelRun(image, precision, incremental);
+                    } finally {
+                        FourierModel2D.parallel = true;
+                    }
+                    // ベクトル演算の総和の順序は実行ごとに変わりうるため、最大値に対する相対誤差で比べる
+                    assertSpectrumEquals(serial.initialPowerSpectrum, parallel.initialPowerSpectrum, 1e-12, message);
+                    assertFalse(isBlank(serial.strokeResult), message);
+                    assertEquals(0.0, maxDifference(serial.strokeResult, parallel.strokeResult), 1e-9, message + " strokes");
+                    assertEquals(0.0, maxDifference(serial.filledResult, parallel.filledResult), 1e-9, message + " filled");
+                }
+            }
+        }
+    }
+
+    // 256x256の画像のモデルに描画とフィルを行い、初期パワースペクトルと各段階のIFFTの結果を記録する
+    private static final class ParallelRun {
+        private final double[][] initialPowerSpectrum;
+        private final double[][][] strokeResult;
+        private final double[][][] filledResult;
+
+        ParallelRun(double[][][] image, FourierModel2D.Precision precision, boolean incremental) throws InterruptedException {
+            FourierModel2D model = new FourierModel2D(image, precision);
+            model.setIncrementalIfft(incremental);
+            model.awaitCalculations();
+            this.initialPowerSpectrum = model.getInitialPowerSpectrumData();
+
+            // 同じ列に並べた1成分ずつの描画（0でない列だけの逆変換と行方向の直接逆DFT）と、半径2のブラシでの描画
+            int[][] points = {{10, 1}, {10, 5}, {10, 30}, {10, 200}, {100, 100}, {40, 180}};
+            for (int k = 0; k < points.length; k++) {
+                model.setBrushSize(k < 4 ? 0 : 2);
+                model.computeFromMousePoint(new java.awt.Point(points[k][0], points[k][1]), false, 256, 256);
+                model.awaitCalculations();
+            }
+            this.strokeResult = model.getIfftResultColorData();
+
+            model.fillUserSpectrum();
+            model.awaitCalculations();
+            this.filledResult = model.getIfftResultColorData();
+            model.dispose();
+        }
+    }
+
+    private static double maxDifference(double[][][] a, double[][][] b) {
+        double max = 0;
+        for (int x = 0; x < a.length; x++) {
+            for (int y = 0; y < a[x].length; y++) {
+                for (int c = 0; c < 3; c++) {
+                    max = Math.max(max, Math.abs(a[x][y][c] - b[x][y][c]));
+                }
+            }
+        }
+        return max;
+    }
+
+    // 指定したチャンネルだけに画像の値を置き、他のチャンネルを0にした画像を作成するヘルパーメソッド
+    private static double[][][] singleChannelImage(double[][][] image, int channel) {
+        double[][][] result = new double[image.length][image[0].length][3];
+        for (int x = 0; x < image.length; x++) {
+            for (int y = 0; y < image[x].length; y++) {
+                result[x][y][channel] = image[x][y][0];
+            }
+        }
+        return result;
+    }
+
+    // 編集用のスペクトルを初期スペクトルで埋め、IFFTの結果が通知されるまで待つヘルパーメソッド
+    private static double[][][] fillAndAwaitIfft(FourierModel2D model) throws InterruptedException {
+        model.fillUserSpectrum();
+        model.awaitCalculations();
+        return model.getIfftResultColorData();
+    }
+
+    private static boolean isBlank(double[][][] data) {
+        for (double[][] column : data) {
+            for (double[] pixel : column) {
+                for (double value : pixel) {
+                    if (Math.abs(value) > 1e-6) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // 0〜255の整数値のカラー画像([width][height][RGB])を生成するヘルパーメソッド
+    private static double[][][] randomImage(int width, int height, long seed) {
+        Random random = new Random(seed);
+        double[][][] image = new double[width][height][3];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                for (int c = 0; c < 3; c++) {
+                    image[x][y][c] = random.nextInt(256);
+                }
+            }
+        }
+        return image;
+    }
+
+    // パワースペクトルが最大値に対する相対誤差FLOAT_DELTA以内で一致することを確認するヘルパーメソッド
+    private static void assertSpectrumEquals(double[][] expected, double[][] actual, String message) {
+        assertSpectrumEquals(expected, actual, FLOAT_DELTA, message);
+    }
+
+    // パワースペクトルが最大値に対する相対誤差relativeDelta以内で一致することを確認するヘルパーメソッド
+    private static void assertSpectrumEquals(double[][] expected, double[][] actual, double relativeDelta, String message) {
+        double max = 0;
+        for (double[] row : expected) {
+            for (double value : row) {
+                max = Math.max(max, value);
+            }
+        }
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual[i], max * relativeDelta, message + " row " + i);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package Fourier.model;
+
+import java.util.BitSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Nested;
+import static org.junit.jupiter.api.Assertions.*;
+import Fourier.ComplexArray;
+import Fourier.ComplexBuffer;
+import Fourier.ComplexFloatArray;
+import Fourier.ComplexView;
+
+/**
+ * MaskedSpectrumクラスの単体テストクラス
+ * ビットに応じた要素の読み出しと、複素数配列への書き出しのテストを行う
+ *
+ * @see MaskedSpectrum
+ */
+class MaskedSpectrumTest {
+
+    private static final double DELTA = 1e-10;
+    private static final int LENGTH = 150; // 64成分ずつのワードの境界をまたぐ長さ
+
+    // 成分ごとに異なる値を持つ初期スペクトル
+    private static ComplexArray initialSpectrum() {
+        ComplexArray array = new ComplexArray(LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            array.set(i, i + 1.0, -(i + 0.5));
+        }
+        return array;
+    }
+
+    // 連続した範囲と飛び飛びの成分のビットを立てる
+    private static BitSet sampleMask() {
+        BitSet mask = new BitSet(LENGTH);
+        mask.set(3);
+        mask.set(60, 70);
+        mask.set(127, 131);
+        mask.set(LENGTH - 1);
+        return mask;
+    }
+
+    private static void assertMasked(ComplexView initial, BitSet mask, ComplexView actual, double delta) {
+        for (int i = 0; i < LENGTH; i++) {
+            double expectedRe = mask.get(i) ? initial.getReal(i) : 0.0;
+            double expectedIm = mask.get(i) ? initial.getImaginary(i) : 0.0;
+            assertEquals(expectedRe, actual.getReal(i), delta, "index " + i);
+            assertEquals(expectedIm, actual.getImaginary(i), delta, "index " + i);
+        }
+    }
+
+    @Nested
+    @DisplayName("要素アクセスのテスト")
+    class ElementAccessTest {
+
+        @Test
+        @DisplayName("ビットが立っている成分だけ初期スペクトルの値を返し、それ以外は0を返す")
+        void testMaskedValues() {
+            ComplexArray initial = initialSpectrum();
+            BitSet mask = sampleMask();
+            MaskedSpectrum spectrum = new MaskedSpectrum(initial, mask);
+            assertEquals(LENGTH, spectrum.length());
+            assertMasked(initial, mask, spectrum, DELTA);
+            assertEquals(initial.magnitudeSquared(3), spectrum.magnitudeSquared(3), DELTA);
+            assertEquals(0.0, spectrum.magnitudeSquared(4), DELTA);
+        }
+
+        @Test
+        @DisplayName("ビットの変更がコピーせずに反映される")
+        void testSharesMask() {
+            ComplexArray initial = initialSpectrum();
+            BitSet mask = new BitSet(LENGTH);
+            MaskedSpectrum spectrum = new MaskedSpectrum(initial, mask);
+            assertEquals(0.0, spectrum.getReal(10), DELTA);
+            mask.set(10);
+            assertEquals(11.0, spectrum.getReal(10), DELTA);
+            mask.set(0, LENGTH);
+            assertMasked(initial, mask, spectrum, DELTA);
+        }
+
+        @Test
+        @DisplayName("読み取り専用のため、書き込みの操作を持つComplexBufferとしては扱えない")
+        void testReadOnly() {
+            assertTrue(ComplexView.class.isAssignableFrom(MaskedSpectrum.class));
+            assertFalse(ComplexBuffer.class.isAssignableFrom(MaskedSpectrum.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("書き出しのテスト")
+    class CopyTest {
+
+        @Test
+        @DisplayName("倍精度の配列に書き出すと、以前の値を0で上書きする")
+        void testCopyToDouble() {
+            ComplexArray initial = initialSpectrum();
+            BitSet mask = sampleMask();
+            ComplexArray dst = new ComplexArray(LENGTH);
+            for (int i = 0; i < LENGTH; i++) {
+                dst.set(i, 7.0, 7.0);
+            }
+            new MaskedSpectrum(initial, mask).copyTo(dst);
+            assertMasked(initial, mask, dst, DELTA);
+        }
+
+        @Test
+        @DisplayName("単精度の配列に書き出せる")
+        void testCopyToFloat() {
+            ComplexFloatArray initial = ComplexFloatArray.fromComplexArray(initialSpectrum());
+            BitSet mask = sampleMask();
+            ComplexFloatArray dst = new ComplexFloatArray(LENGTH);
+            dst.set(0, 7.0, 7.0);
+            new MaskedSpectrum(initial, mask).copyTo(dst);
+            assertMasked(initial, mask, dst, 1e-5);
+        }
+
+        @Test
+        @DisplayName("精度が異なる配列にも要素ごとに書き出せる")
+        void testCopyToMixedPrecision() {
+            ComplexArray initial = initialSpectrum();
+            BitSet mask = sampleMask();
+            ComplexFloatArray dst = new ComplexFloatArray(LENGTH);
+            new MaskedSpectrum(initial, mask).copyTo(dst);
+            assertMasked(initial, mask, dst, 1e-5);
+        }
+
+        @Test
+        @DisplayName("すべてのビットが立っていない場合と、すべて立っている場合")
+        void testCopyEmptyAndFull() {
+            ComplexArray initial = initialSpectrum();
+            BitSet mask = new BitSet(LENGTH);
+            ComplexArray dst = initialSpectrum();
+            new MaskedSpectrum(initial, mask).copyTo(dst);
+            assertMasked(initial, mask, dst, DELTA);
+            mask.set(0, LENGTH);
+            new MaskedSpectrum(initial, mask).copyTo(dst);
+            assertMasked(initial, mask, dst, DELTA);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 小さいサイズ(2, 4, 8, 16, 32点)のFFTを完全に展開したコードレット Fourier/FFTCodelets.java を生成するツール。
+ * 基数2の時間間引き(DIT)バタフライを記号的に展開し、回転因子を定数として埋め込みます。
+ * 回転因子が1・±iになるバタフライでは乗算を省きます。
+ * <p>
+ * 使い方（リポジトリのルートで実行）: {@code make codelets}
+ * または {@code java tools/FFTCodeletGenerator.java Fourier/FFTCodelets.java}
+ * </p>
+ */
+public class FFTCodeletGenerator {
+
+    /** 生成する最大サイズ */
+    private static final int MAX_SIZE = 32;
+
+    private final StringBuilder out = new StringBuilder();
+
+    /**
+     * エントリーポイント。生成したソースを指定されたファイルにUTF-8で書き出します。
+     * @param args 出力先のファイルパス
+     * @throws IOException ファイルの書き込みに失敗した場合
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java tools/FFTCodeletGenerator.java <output file>");
+            System.exit(1);
+        }
+        FFTCodeletGenerator generator = new FFTCodeletGenerator();
+        generator.generate();
+        Files.writeString(Path.of(args[0]), generator.out, StandardCharsets.UTF_8);
+    }
+
+    private void line(String text) {
+        out.append(text).append('\n');
+    }
+
+    private void generate() {
+        line("package Fourier;");
+        line("");
+        line("// このファイルは tools/FFTCodeletGenerator.java によって生成されています。直接編集しないでください。");
+        line("// 再生成: make codelets");
+        line("");
+        line("/**");
+        line(" * 小さいサイズ(2〜" + MAX_SIZE + "点)のFFTを完全に展開したコードレット集。");
+        line(" * 回転因子は定数として埋め込まれており、ループも再帰もありません。");
+        line(" * FFTUtilの各カーネルが、再帰や段の反復の末端(葉)で使用します。");
+        line(" * 回転因子は w = cos(2πk/N) + i*sign*sin(2πk/N) で、sign = -1 が順変換、sign = 1 が逆変換です。");
+        line(" */");
+        line("final class FFTCodelets {");
+        line("");
+        line("    /** コードレットが用意されている最大のサイズ */");
+        line("    static final int MAX_SIZE = " + MAX_SIZE + ";");
+        line("");
+        line("    private FFTCodelets() {");
+        line("    }");
+        line("");
+        generateDispatch("dif", "自然順の入力を変換し、ビット反転順で出力します（周波数間引き再帰の葉に相当）。");
+        generateDispatch("dit", "ビット反転順の入力を変換し、自然順で出力します（時間間引きの最初の段群に相当）。");
+        for (int n = 2; n <= MAX_SIZE; n *= 2) {
+            generateCodelet(n, true);
+            generateCodelet(n, false);
+        }
+        line("}");
+    }
+
+    private void generateDispatch(String name, String description) {
+        line("    /**");
+        line("     * 長さnの範囲に対して対応するコードレットを実行します。" + description);
+        line("     * @param re 実部の配列");
+        line("     * @param im 虚部の配列");
+        line("     * @param off 範囲の開始インデックス");
+        line("     * @param n 範囲の要素数(MAX_SIZE以下の2の冪乗)");
+        line("     * @param sign 順変換なら-1、逆変換なら1");
+        line("     */");
+        line("    static void " + name + "(double[] re, double[] im, int off, int n, double sign) {");
+        line("        switch (n) {");
+        line("            case 1:");
+        line("                break;");
+        for (int n = 2; n <= MAX_SIZE; n *= 2) {
+            line("            case " + n + ":");
+            line("                " + name + n + "(re, im, off" + (n >= 4 ? ", sign" : "") + ");");
+            line("                break;");
+        }
+        line("            default:");
+        line("                throw new IllegalArgumentException(\"No codelet for size \" + n);");
+        line("        }");
+        line("    }");
+        line("");
+    }
+
+    private static int bitReverse(int x, int bits) {
+        int y = 0;
+        for (int i = 0; i < bits; i++) {
+            y = (y << 1) | (x & 1);
+            x >>= 1;
+        }
+        return y;
+    }
+
+    private static String literal(double value) {
+        if (value == 0.0) return "0.0";
+        return Double.toString(value);
+    }
+
+    private void generateCodelet(int n, boolean dif) {
+        int bits = Integer.numberOfTrailingZeros(n);
+        String name = (dif ? "dif" : "dit") + n;
+
+        // 使用する回転因子 (角度2πk/len の cos, sin) を列挙し、定数名を割り当てる
+        Map<String, String[]> constants = new LinkedHashMap<>();
+        List<String> body = new ArrayList<>();
+        for (int len = 2; len <= n; len *= 2) {
+            int half = len / 2;
+            for (int start = 0; start < n; start += len) {
+                for (int k = 0; k < half; k++) {
+                    int i = start + k;
+                    int j = i + half;
+                    emitButterfly(body, constants, i, j, k, len);
+                }
+            }
+        }
+
+        line("    /**");
+        line("     * " + n + "点FFTのコードレット（" + (dif ? "自然順入力・ビット反転順出力" : "ビット反転順入力・自然順出力") + "）");
+        line("     * @param re 実部の配列");
+        line("     * @param im 虚部の配列");
+        line("     * @param off 範囲の開始インデックス");
+        if (n >= 4) {
+            line("     * @param sign 順変換なら-1、逆変換なら1");
+        }
+        line("     */");
+        line("    static void " + name + "(double[] re, double[] im, int off" + (n >= 4 ? ", double sign" : "") + ") {");
+        for (Map.Entry<String, String[]> constant : constants.entrySet()) {
+            String[] cs = constant.getValue();
+            line("        final double " + constant.getKey() + "c = " + cs[0] + ";");
+            line("        final double " + constant.getKey() + "s = sign * " + cs[1] + ";");
+        }
+        // DITの網はビット反転順の入力を前提とするため、DIFでは読み出し位置をビット反転する
+        for (int k = 0; k < n; k++) {
+            int src = dif ? bitReverse(k, bits) : k;
+            line("        double r" + k + " = re[off + " + src + "], i" + k + " = im[off + " + src + "];");
+        }
+        line("        double tr, ti;");
+        for (String statement : body) {
+            line("        " + statement);
+        }
+        // DITの網の出力は自然順なので、DIFではビット反転した位置に書き込む
+        for (int k = 0; k < n; k++) {
+            int dst = dif ? bitReverse(k, bits) : k;
+            line("        re[off + " + dst + "] = r" + k + ";");
+            line("        im[off + " + dst + "] = i" + k + ";");
+        }
+        line("    }");
+        line("");
+    }
+
+    private void emitButterfly(List<String> body, Map<String, String[]> constants, int i, int j, int k, int len) {
+        String ri = "r" + i, ii = "i" + i, rj = "r" + j, ij = "i" + j;
+        if (k == 0) {
+            // w = 1
+            body.add("tr = " + rj + "; ti = " + ij + ";");
+        } else if (4 * k == len) {
+            // w = sign * i
+            body.add("tr = -sign * " + ij + "; ti = sign * " + rj + ";");
+        } else {
+            double angle = 2.0 * Math.PI * k / len;
+            String c = literal(Math.cos(angle));
+            String s = literal(Math.sin(angle));
+            String key = null;
+            for (Map.Entry<String, String[]> constant : constants.entrySet()) {
+                if (constant.getValue()[0].equals(c) && constant.getValue()[1].equals(s)) {
+                    key = constant.getKey();
+                }
+            }
+            if (key == null) {
+                key = "w" + constants.size();
+                constants.put(key, new String[] {c, s});
+            }
+            body.add("tr = " + rj + " * " + key + "c - " + ij + " * " + key + "s; ti = " + ij + " * " + key + "c + " + rj + " * " + key + "s;");
+        }
+        body.add(rj + " = " + ri + " - tr; " + ij + " = " + ii + " - ti; " + ri + " += tr; " + ii + " += ti;");
+    }
+}